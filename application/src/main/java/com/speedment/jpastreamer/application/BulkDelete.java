@@ -0,0 +1,48 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.application;
+
+import com.speedment.jpastreamer.field.predicate.SpeedmentPredicate;
+
+/**
+ * A bulk delete of the entities that match its predicates, which is
+ * executed as a single {@code CriteriaDelete} statement.
+ *
+ * @param <T> entity type
+ * @since 3.0.1
+ */
+public interface BulkDelete<T> {
+
+    /**
+     * Creates and returns a new BulkDelete that only deletes the entities
+     * that also match the provided {@code predicate}.
+     *
+     * @param predicate to match
+     * @return a new BulkDelete that only deletes the entities
+     *         that also match the provided {@code predicate}
+     */
+    BulkDelete<T> where(final SpeedmentPredicate<T> predicate);
+
+    /**
+     * Executes the statement and returns the number of deleted entities.
+     * <p>
+     * The statement joins the transaction of the underlying
+     * {@code EntityManager} if there is one and is otherwise executed in
+     * a transaction of its own. Entities that are managed by a
+     * persistence context are not affected by the statement.
+     *
+     * @return the number of deleted entities
+     * @throws jakarta.persistence.PersistenceException if the statement fails
+     */
+    int execute();
+}
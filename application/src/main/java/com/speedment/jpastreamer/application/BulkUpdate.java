@@ -0,0 +1,162 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.application;
+
+import com.speedment.jpastreamer.field.predicate.SpeedmentPredicate;
+import com.speedment.jpastreamer.field.trait.HasBooleanValue;
+import com.speedment.jpastreamer.field.trait.HasByteValue;
+import com.speedment.jpastreamer.field.trait.HasCharValue;
+import com.speedment.jpastreamer.field.trait.HasDoubleValue;
+import com.speedment.jpastreamer.field.trait.HasFloatValue;
+import com.speedment.jpastreamer.field.trait.HasIntValue;
+import com.speedment.jpastreamer.field.trait.HasLongValue;
+import com.speedment.jpastreamer.field.trait.HasReferenceValue;
+import com.speedment.jpastreamer.field.trait.HasShortValue;
+
+/**
+ * A bulk update of the entities that match its predicates, which is
+ * executed as a single {@code CriteriaUpdate} statement.
+ * <p>
+ * Fields are set to values of their own type, which is checked by the
+ * compiler through the overloads of {@code set}.
+ *
+ * @param <T> entity type
+ * @since 3.0.1
+ */
+public interface BulkUpdate<T> {
+
+    /**
+     * Creates and returns a new BulkUpdate that only updates the entities
+     * that also match the provided {@code predicate}.
+     *
+     * @param predicate to match
+     * @return a new BulkUpdate that only updates the entities
+     *         that also match the provided {@code predicate}
+     */
+    BulkUpdate<T> where(final SpeedmentPredicate<T> predicate);
+
+    /**
+     * Creates and returns a new BulkUpdate that also sets the provided
+     * {@code field} to the provided {@code value}, which may be
+     * {@code null}.
+     *
+     * @param <V> the field value type
+     * @param field to set
+     * @param value to set the field to
+     * @return a new BulkUpdate that also sets the provided
+     *         {@code field} to the provided {@code value}
+     */
+    <V> BulkUpdate<T> set(final HasReferenceValue<T, V> field, final V value);
+
+    /**
+     * Creates and returns a new BulkUpdate that also sets the provided
+     * {@code field} to the provided {@code value}.
+     *
+     * @param field to set
+     * @param value to set the field to
+     * @return a new BulkUpdate that also sets the provided
+     *         {@code field} to the provided {@code value}
+     */
+    BulkUpdate<T> set(final HasBooleanValue<T> field, final boolean value);
+
+    /**
+     * Creates and returns a new BulkUpdate that also sets the provided
+     * {@code field} to the provided {@code value}.
+     *
+     * @param field to set
+     * @param value to set the field to
+     * @return a new BulkUpdate that also sets the provided
+     *         {@code field} to the provided {@code value}
+     */
+    BulkUpdate<T> set(final HasByteValue<T> field, final byte value);
+
+    /**
+     * Creates and returns a new BulkUpdate that also sets the provided
+     * {@code field} to the provided {@code value}.
+     *
+     * @param field to set
+     * @param value to set the field to
+     * @return a new BulkUpdate that also sets the provided
+     *         {@code field} to the provided {@code value}
+     */
+    BulkUpdate<T> set(final HasShortValue<T> field, final short value);
+
+    /**
+     * Creates and returns a new BulkUpdate that also sets the provided
+     * {@code field} to the provided {@code value}.
+     *
+     * @param field to set
+     * @param value to set the field to
+     * @return a new BulkUpdate that also sets the provided
+     *         {@code field} to the provided {@code value}
+     */
+    BulkUpdate<T> set(final HasIntValue<T> field, final int value);
+
+    /**
+     * Creates and returns a new BulkUpdate that also sets the provided
+     * {@code field} to the provided {@code value}.
+     *
+     * @param field to set
+     * @param value to set the field to
+     * @return a new BulkUpdate that also sets the provided
+     *         {@code field} to the provided {@code value}
+     */
+    BulkUpdate<T> set(final HasLongValue<T> field, final long value);
+
+    /**
+     * Creates and returns a new BulkUpdate that also sets the provided
+     * {@code field} to the provided {@code value}.
+     *
+     * @param field to set
+     * @param value to set the field to
+     * @return a new BulkUpdate that also sets the provided
+     *         {@code field} to the provided {@code value}
+     */
+    BulkUpdate<T> set(final HasFloatValue<T> field, final float value);
+
+    /**
+     * Creates and returns a new BulkUpdate that also sets the provided
+     * {@code field} to the provided {@code value}.
+     *
+     * @param field to set
+     * @param value to set the field to
+     * @return a new BulkUpdate that also sets the provided
+     *         {@code field} to the provided {@code value}
+     */
+    BulkUpdate<T> set(final HasDoubleValue<T> field, final double value);
+
+    /**
+     * Creates and returns a new BulkUpdate that also sets the provided
+     * {@code field} to the provided {@code value}.
+     *
+     * @param field to set
+     * @param value to set the field to
+     * @return a new BulkUpdate that also sets the provided
+     *         {@code field} to the provided {@code value}
+     */
+    BulkUpdate<T> set(final HasCharValue<T> field, final char value);
+
+    /**
+     * Executes the statement and returns the number of updated entities.
+     * <p>
+     * The statement joins the transaction of the underlying
+     * {@code EntityManager} if there is one and is otherwise executed in
+     * a transaction of its own. Entities that are managed by a
+     * persistence context are not affected by the statement.
+     *
+     * @return the number of updated entities
+     * @throws IllegalStateException if no field is set
+     * @throws jakarta.persistence.PersistenceException if the statement fails
+     */
+    int execute();
+}
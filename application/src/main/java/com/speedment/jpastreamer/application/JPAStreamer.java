@@ -14,6 +14,7 @@ package com.speedment.jpastreamer.application;
 
 import static java.util.Objects.requireNonNull;
 
+import com.speedment.jpastreamer.field.trait.HasComparableOperators;
 import com.speedment.jpastreamer.projection.Projection;
 import com.speedment.jpastreamer.rootfactory.RootFactory;
 import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
@@ -22,6 +23,7 @@ import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
 import java.util.ServiceLoader;
 import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 import java.util.stream.Stream;
 
 /**
@@ -190,6 +192,238 @@ public interface JPAStreamer {
         return stream(StreamConfiguration.of(projection.entityClass()).selecting(projection));
     }
 
+    /**
+     * Creates and returns a new {@link BulkUpdate} of the entities of the
+     * provided type {@code entityClass}.
+     * <p>
+     * As opposed to modifying streamed entities, a bulk update is executed
+     * as a single statement without loading any entities:
+     * <pre>{@code
+     * jpaStreamer.update(Film.class)
+     *     .where(Film$.rating.equal("G"))
+     *     .set(Film$.rentalRate, 0.99f)
+     *     .execute();
+     * }</pre>
+     * The Streamers of the provided {@code entityClass} are reset when the
+     * statement is executed, if this JPAStreamer manages the lifecycle of
+     * its Entity Managers.
+     *
+     * @param <T> The element type (type of a class token)
+     * @param entityClass to update
+     * @return a new {@link BulkUpdate} of the entities of the
+     *         provided type {@code entityClass}
+     * @since 3.0.1
+     */
+    <T> BulkUpdate<T> update(Class<T> entityClass);
+
+    /**
+     * Creates and returns a new {@link BulkDelete} of the entities of the
+     * provided type {@code entityClass}.
+     * <p>
+     * As opposed to removing streamed entities, a bulk delete is executed
+     * as a single statement without loading any entities. The Streamers of
+     * the provided {@code entityClass} are reset when the statement is
+     * executed, if this JPAStreamer manages the lifecycle of its Entity
+     * Managers.
+     *
+     * @param <T> The element type (type of a class token)
+     * @param entityClass to delete
+     * @return a new {@link BulkDelete} of the entities of the
+     *         provided type {@code entityClass}
+     * @since 3.0.1
+     */
+    <T> BulkDelete<T> delete(Class<T> entityClass);
+
+    /**
+     * Creates and returns a new {@link WriteBack} of entities of the
+     * provided type {@code entityClass}.
+     * <p>
+     * A write-back is used to persist entities that are modified or created
+     * in Java without holding all of them in a single persistence context:
+     * <pre>{@code
+     * jpaStreamer.stream(Film.class)
+     *     .filter(Film$.rating.equal("G"))
+     *     .peek(film -> film.setRentalRate(rentalRate(film)))
+     *     .collect(jpaStreamer.writeBack(Film.class)
+     *         .commitEvery(1_000)
+     *         .toCollector());
+     * }</pre>
+     * Every time entities are written, the write-back obtains an Entity
+     * Manager of its own, which is closed when the writing is finished or
+     * aborted if this JPAStreamer manages the lifecycle of its Entity Managers.
+     * Streamed entities are thereby detached from the Entity Manager of the
+     * write-back and are merged.
+     *
+     * @param <T> The element type (type of a class token)
+     * @param entityClass to write
+     * @return a new {@link WriteBack} of entities of the
+     *         provided type {@code entityClass}
+     * @since 3.0.1
+     */
+    <T> WriteBack<T> writeBack(Class<T> entityClass);
+
+    /**
+     * Creates and returns a new unbounded {@link Stream} over the entities
+     * of the provided type {@code entityClass} in the order of the provided
+     * {@code key}, which includes entities that are added while the Stream
+     * is consumed.
+     * <p>
+     * This method is a convenience method equivalent to:
+     * <pre>{@code tail(StreamConfiguration.of(entityClass).stateless(), key, null)}</pre>
+     *
+     * @param <T> The element type (type of a class token)
+     * @param <V> The key type
+     * @param entityClass to tail
+     * @param key that increases for every added entity
+     * @return a new unbounded {@link Stream} over the entities
+     *         of the provided type {@code entityClass}
+     *
+     * @see JPAStreamer#tail(StreamConfiguration, HasComparableOperators, Comparable) for further details
+     * @since 3.0.1
+     */
+    default <T, V extends Comparable<? super V>> Stream<T> tail(final Class<T> entityClass, final HasComparableOperators<T, V> key) {
+        requireNonNull(entityClass);
+        return tail(StreamConfiguration.of(entityClass).stateless(), key, null);
+    }
+
+    /**
+     * Creates and returns a new unbounded {@link Stream} over the entities
+     * specified by the provided {@code streamConfiguration} whose
+     * {@code key} is greater than the provided {@code lastSeen} key,
+     * in the order of the key, which includes entities that are added while
+     * the Stream is consumed.
+     * <p>
+     * The entities are polled in batches with a query equivalent to
+     * <pre>{@code stream(streamConfiguration)
+     *     .filter(key.greaterThan(lastSeen))
+     *     .sorted(key.comparator())
+     *     .limit(batchSize)}</pre>
+     * where only the value of {@code lastSeen} changes from poll to poll.
+     * Polls follow each other immediately as long as they return full
+     * batches. Otherwise, polling backs off while no entities are added. The
+     * batch size and the minimum and maximum polling intervals in
+     * milliseconds are set by the system properties
+     * {@code jpastreamer.tail.batchsize} (500),
+     * {@code jpastreamer.tail.interval.min} (50) and
+     * {@code jpastreamer.tail.interval.max} (5000).
+     * <p>
+     * The Stream ends when it is closed, which may be done from another
+     * thread, or when the consuming thread is interrupted. Keys must never
+     * be reused and entities must become visible in the order of their keys,
+     * or else entities that are added concurrently may be skipped. A stateless
+     * {@code streamConfiguration} keeps the persistence context from
+     * growing with the Stream.
+     *
+     * @param <T> The element type
+     * @param <V> The key type
+     * @param streamConfiguration specifying the entities to tail
+     * @param key that increases for every added entity
+     * @param lastSeen the key to start after, or {@code null} to start
+     *                 with the first entity
+     * @return a new unbounded {@link Stream} over the entities
+     *         specified by the provided {@code streamConfiguration}
+     * @since 3.0.1
+     */
+    <T, V extends Comparable<? super V>> Stream<T> tail(StreamConfiguration<T> streamConfiguration, HasComparableOperators<T, V> key, V lastSeen);
+
+    /**
+     * Returns the page of {@code size} entities at the provided
+     * {@code offset} of the pipeline that the provided {@code query} applies
+     * to a stream of all entities of the provided type {@code entityClass},
+     * together with the total number of entities of the pipeline.
+     * <p>
+     * This method is a convenience method equivalent to:
+     * <pre>{@code page(StreamConfiguration.of(entityClass), query, offset, size)}</pre>
+     *
+     * @param <T> The element type (type of a class token)
+     * @param entityClass to page
+     * @param query that filters and sorts the entities
+     * @param offset the number of entities before the page
+     * @param size the maximum number of entities of the page
+     * @return the page at the provided {@code offset}
+     *
+     * @see JPAStreamer#page(StreamConfiguration, UnaryOperator, long, int) for further details
+     * @since 3.0.1
+     */
+    default <T> Page<T, Long> page(final Class<T> entityClass, final UnaryOperator<Stream<T>> query, final long offset, final int size) {
+        requireNonNull(entityClass);
+        return page(StreamConfiguration.of(entityClass), query, offset, size);
+    }
+
+    /**
+     * Returns the page of {@code size} entities at the provided
+     * {@code offset} of the pipeline that the provided {@code query} applies
+     * to a stream of the entities specified by the provided
+     * {@code streamConfiguration}, together with the total number of
+     * entities of the pipeline:
+     * <pre>{@code
+     * Page<Film, Long> page = jpaStreamer.page(StreamConfiguration.of(Film.class),
+     *     films -> films.filter(Film$.rating.equal("PG")).sorted(Film$.title),
+     *     40, 20);
+     * }</pre>
+     * The page and the total are equivalent to
+     * <pre>{@code
+     * query.apply(stream(streamConfiguration)).skip(offset).limit(size)
+     * query.apply(stream(streamConfiguration)).count()
+     * }</pre>
+     * If this JPAStreamer manages the lifecycle of its Entity Managers, the
+     * count is executed concurrently by an Entity Manager of its own, so
+     * that a page costs the latency of a single query. Otherwise, supplied
+     * Entity Managers may be bound to the calling thread, so the count is
+     * executed by the calling thread before the page is read. As the two
+     * queries run in separate transactions, the total may not reflect
+     * changes made while the page is read. The token of the next page is
+     * its offset.
+     *
+     * @param <T> The element type
+     * @param streamConfiguration specifying the entities to page
+     * @param query that filters and sorts the entities
+     * @param offset the number of entities before the page
+     * @param size the maximum number of entities of the page
+     * @return the page at the provided {@code offset}
+     * @throws IllegalArgumentException if the provided {@code offset} is
+     *         negative or the provided {@code size} is not positive
+     * @since 3.0.1
+     */
+    <T> Page<T, Long> page(StreamConfiguration<T> streamConfiguration, UnaryOperator<Stream<T>> query, long offset, int size);
+
+    /**
+     * Returns the page of {@code size} entities whose {@code key} is greater
+     * than the provided {@code after} key, in the order of the key, of the
+     * pipeline that the provided {@code query} applies to a stream of the
+     * entities specified by the provided {@code streamConfiguration},
+     * together with the total number of entities of the pipeline.
+     * <p>
+     * The page and the total are equivalent to
+     * <pre>{@code
+     * query.apply(stream(streamConfiguration))
+     *     .filter(key.greaterThan(after))
+     *     .sorted(key.comparator())
+     *     .limit(size)
+     * query.apply(stream(streamConfiguration)).count()
+     * }</pre>
+     * where the count is executed as described for
+     * {@link #page(StreamConfiguration, UnaryOperator, long, int)}. Unlike
+     * an offset, the key lets the database start the page with an index
+     * seek, so the provided {@code query} shall only filter the entities
+     * and the key shall be unique. The token of the next page is the key
+     * of the last entity of a full page.
+     *
+     * @param <T> The element type
+     * @param <V> The key type
+     * @param streamConfiguration specifying the entities to page
+     * @param query that filters the entities
+     * @param key that orders the entities
+     * @param after the key of the last entity of the previous page, or
+     *              {@code null} for the first page
+     * @param size the maximum number of entities of the page
+     * @return the page after the provided {@code after} key
+     * @throws IllegalArgumentException if the provided {@code size} is not
+     *         positive
+     * @since 3.0.1
+     */
+    <T, V extends Comparable<? super V>> Page<T, V> page(StreamConfiguration<T> streamConfiguration, UnaryOperator<Stream<T>> query, HasComparableOperators<T, V> key, V after, int size);
+
     /**
      * Resets the Streamer associated with the provided Entity classes.
      * <p> 
@@ -0,0 +1,51 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.application;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A page of the entities of a stream pipeline together with the total
+ * number of entities of the pipeline, as returned by
+ * {@link JPAStreamer#page(com.speedment.jpastreamer.streamconfiguration.StreamConfiguration, java.util.function.UnaryOperator, long, int)}.
+ *
+ * @param <T> entity type
+ * @param <N> type of the token of the next page
+ * @since 3.0.1
+ */
+public interface Page<T, N> {
+
+    /**
+     * Returns the entities of this page in the order of the pipeline.
+     *
+     * @return the entities of this page
+     */
+    List<T> content();
+
+    /**
+     * Returns the total number of entities of the pipeline, regardless
+     * of the page.
+     *
+     * @return the total number of entities of the pipeline
+     */
+    long total();
+
+    /**
+     * Returns the token to request the next page with, or
+     * {@link Optional#empty()} if this is the last page.
+     *
+     * @return the token to request the next page with
+     */
+    Optional<N> next();
+}
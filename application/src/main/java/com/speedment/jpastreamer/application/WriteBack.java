@@ -0,0 +1,119 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.application;
+
+import java.util.function.Consumer;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+
+/**
+ * A write-back of entities that are modified or created by a stream
+ * pipeline, which persists or merges the entities in batches.
+ * <p>
+ * Entities that are not managed are persisted if they have no identifier
+ * and are otherwise merged. Every {@link #flushEvery(int) flush size}
+ * written entities, the persistence context is flushed and cleared so that
+ * it does not grow with the stream and so that the JDBC batching of the
+ * persistence provider (e.g. {@code hibernate.jdbc.batch_size}) can group
+ * the statements.
+ * <p>
+ * If the underlying {@code EntityManager} is not joined to a transaction,
+ * the write-back runs in transactions of its own. By default, all entities
+ * are written in a single transaction, but {@link #commitEvery(int)} commits
+ * the entities in chunks and {@link #checkpoint(Consumer)} reports the last
+ * entity of every committed chunk so that an interrupted write-back can be
+ * restarted from there.
+ *
+ * @param <T> entity type
+ * @since 3.0.1
+ */
+public interface WriteBack<T> {
+
+    /**
+     * The default number of entities that are written between flushes.
+     */
+    int DEFAULT_FLUSH_SIZE = 50;
+
+    /**
+     * Creates and returns a new WriteBack that flushes and clears the
+     * persistence context every {@code flushSize} written entities.
+     *
+     * @param flushSize number of entities written between flushes
+     * @return a new WriteBack that flushes and clears the persistence
+     *         context every {@code flushSize} written entities
+     * @throws IllegalArgumentException if the provided {@code flushSize}
+     *         is not positive
+     */
+    WriteBack<T> flushEvery(final int flushSize);
+
+    /**
+     * Creates and returns a new WriteBack that commits its transaction
+     * every {@code commitSize} written entities.
+     * <p>
+     * Chunked commits require that the write-back is not joined to a
+     * transaction of the caller.
+     *
+     * @param commitSize number of entities written between commits
+     * @return a new WriteBack that commits its transaction every
+     *         {@code commitSize} written entities
+     * @throws IllegalArgumentException if the provided {@code commitSize}
+     *         is not positive
+     */
+    WriteBack<T> commitEvery(final int commitSize);
+
+    /**
+     * Creates and returns a new WriteBack that hands the last entity of
+     * every committed chunk to the provided {@code checkpoint}, for example
+     * to record its key as restart position.
+     * <p>
+     * The checkpoint is only invoked for commits that are made by the
+     * write-back itself.
+     *
+     * @param checkpoint invoked with the last entity of every committed chunk
+     * @return a new WriteBack that hands the last entity of every committed
+     *         chunk to the provided {@code checkpoint}
+     */
+    WriteBack<T> checkpoint(final Consumer<? super T> checkpoint);
+
+    /**
+     * Returns a {@link Collector} that writes the collected entities and
+     * results in the number of written entities.
+     * <p>
+     * As a collector cannot observe failures of preceding stream stages,
+     * a transaction of the write-back is left active if the stream fails
+     * before it is completely collected. Use {@link #write(Stream)} to have
+     * such a transaction rolled back.
+     * <p>
+     * The returned collector does not support parallel streams.
+     *
+     * @return a {@link Collector} that writes the collected entities
+     */
+    Collector<T, ?, Long> toCollector();
+
+    /**
+     * Writes the entities of the provided {@code stream}, closes the stream
+     * and returns the number of written entities.
+     * <p>
+     * If the stream or the write-back fails, the current transaction of
+     * the write-back is rolled back. Chunks that were committed before
+     * remain committed.
+     *
+     * @param stream of entities to write
+     * @return the number of written entities
+     * @throws IllegalStateException if chunked commits are requested while
+     *         the underlying {@code EntityManager} is joined to a transaction
+     * @throws jakarta.persistence.PersistenceException if an entity cannot
+     *         be written
+     */
+    long write(final Stream<? extends T> stream);
+}
@@ -12,10 +12,12 @@
  */
 package com.speedment.jpastreamer.criteria;
 
+import jakarta.persistence.criteria.CommonAbstractCriteria;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Root;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * @author Mislav Milicevic
@@ -32,11 +34,25 @@ public interface Criteria<ENTITY, RETURN> {
 
     /**
      * Returns the {@code CriteriaQuery} that is stored within this {@code Criteria}
+     * or {@code null} if this {@code Criteria} is stored within a bulk update or
+     * delete statement
      *
      * @return the {@code CriteriaQuery} that is stored within this {@code Criteria}
      */
     CriteriaQuery<RETURN> getQuery();
 
+    /**
+     * Returns the statement that is stored within this {@code Criteria}, which
+     * is either the {@link #getQuery() query} or a {@code CriteriaUpdate} or
+     * {@code CriteriaDelete}
+     *
+     * @return the statement that is stored within this {@code Criteria}
+     * @since 3.0.1
+     */
+    default CommonAbstractCriteria getStatement() {
+        return getQuery();
+    }
+
     /**
      * Returns the {@code QueryParameters} that is stored within this {@code Criteria}
      *
@@ -58,4 +74,32 @@ public interface Criteria<ENTITY, RETURN> {
      * @return the {@code Root} that is stored within this {@code Criteria}
      */
     Root<ENTITY> getRoot();
+
+    /**
+     * Creates and returns a {@code Criteria} for a subquery of the statement
+     * of this {@code Criteria} that is rooted at the provided {@code root}.
+     * Predicates of the returned {@code Criteria} are rendered the same way
+     * as the ones of this {@code Criteria}, while its {@code QueryParameters}
+     * are kept apart from the ones of this {@code Criteria}.
+     *
+     * @param root of the subquery
+     * @param <T> subquery root entity
+     * @return a {@code Criteria} for a subquery rooted at the provided {@code root}
+     * @since 3.0.1
+     */
+    <T> Criteria<T, RETURN> createSubqueryCriteria(Root<T> root);
+
+    /**
+     * Returns the object of the provided {@code type} that this {@code Criteria}
+     * renders its predicates with, or else {@code Optional.empty()} if there
+     * is no such object.
+     *
+     * @param type of the object
+     * @param <T> object type
+     * @return the object of the provided {@code type}, if any
+     * @since 3.0.1
+     */
+    default <T> Optional<T> unwrap(Class<T> type) {
+        return Optional.empty();
+    }
 }
@@ -15,6 +15,7 @@ package com.speedment.jpastreamer.criteria;
 import static java.util.Objects.requireNonNull;
 
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CommonAbstractCriteria;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Root;
@@ -43,6 +44,26 @@ public interface CriteriaFactory {
         final Root<ENTITY> root
     );
 
+    /**
+     * Creates and returns a {@code Criteria} containing the provided bulk
+     * {@code statement} and {@code root}, where the {@code CriteriaBuilder} is
+     * the one of the provided {@code entityManager}. The query of the returned
+     * {@code Criteria} is {@code null}.
+     *
+     * @param entityManager that created the provided {@code statement}
+     * @param statement to store in the {@code Criteria}, i.e. a {@code CriteriaUpdate}
+     *                  or {@code CriteriaDelete}
+     * @param root of the provided {@code statement}
+     * @param <ENTITY> root entity
+     * @return a {@code Criteria} containing the provided {@code statement} and {@code root}
+     * @since 3.0.1
+     */
+    <ENTITY> Criteria<ENTITY, Void> createStatementCriteria(
+        final EntityManager entityManager,
+        final CommonAbstractCriteria statement,
+        final Root<ENTITY> root
+    );
+
     /**
      * Creates and returns a {@code Criteria} where the {@code CriteriaBuilder},
      * {@code CriteriaQuery} and {@code Root} are created by the provided {@code entityManager}.
@@ -0,0 +1,39 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.criteria;
+
+import com.speedment.runtime.compute.expression.Expression;
+
+/**
+ * @since 3.0.1
+ */
+public interface ExpressionFactory {
+
+    /**
+     * Creates and returns a JPA {@code Expression} with the numeric Speedment
+     * {@code Expression} serving as the model. The JPA {@code Expression} is
+     * created using the provided {@code criteria}.
+     * <p>
+     * A {@code JPAStreamerException} is thrown if the provided
+     * {@code expression} cannot be expressed in a query.
+     *
+     * @param criteria used to create the JPA Expression
+     * @param expression used as a model for the JPA Expression that is being created
+     * @param <ENTITY> root entity used in the Speedment Expression
+     * @return JPA Expression
+     */
+    <ENTITY> jakarta.persistence.criteria.Expression<? extends Number> createExpression(
+        final Criteria<ENTITY, ?> criteria,
+        final Expression<ENTITY> expression
+    );
+}
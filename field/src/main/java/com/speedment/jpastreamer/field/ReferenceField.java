@@ -16,7 +16,10 @@ import com.speedment.common.function.*;
 import com.speedment.jpastreamer.field.exception.SpeedmentFieldException;
 import com.speedment.jpastreamer.field.internal.ReferenceFieldImpl;
 import com.speedment.jpastreamer.field.internal.expression.*;
+import com.speedment.jpastreamer.field.internal.predicate.reference.ReferenceMatchesPredicate;
+import com.speedment.jpastreamer.field.internal.predicate.reference.ReferenceNotMatchesPredicate;
 import com.speedment.jpastreamer.field.method.ReferenceGetter;
+import com.speedment.jpastreamer.field.predicate.SpeedmentPredicate;
 import com.speedment.jpastreamer.field.trait.HasReferenceOperators;
 import com.speedment.jpastreamer.field.trait.HasReferenceValue;
 import com.speedment.runtime.compute.*;
@@ -73,6 +76,41 @@ extends Field<ENTITY>,
         );
     }
 
+    /**
+     * Returns a {@link SpeedmentPredicate} that holds if the entity that this
+     * field references is not {@code null} and matches the provided
+     * {@code predicate} on the referenced entity. When rendered, this becomes
+     * a single semi-join in the form of an {@code IN} subquery, rather than
+     * a separate query for the referenced entities.
+     * <p>
+     * The predicate on the referenced entity must be expressed using the
+     * fields of the referenced entity, e.g.
+     * {@code Film$.language.matches(Language$.name.equal("English"))}.
+     *
+     * @param predicate  on the referenced entity
+     * @return  a predicate that holds if the referenced entity matches
+     *
+     * @since 3.0.1
+     */
+    default SpeedmentPredicate<ENTITY> matches(SpeedmentPredicate<V> predicate) {
+        return new ReferenceMatchesPredicate<>(this, predicate);
+    }
+
+    /**
+     * Returns a {@link SpeedmentPredicate} that holds if the entity that this
+     * field references is not {@code null} and does not match the provided
+     * {@code predicate} on the referenced entity. When rendered, this becomes
+     * a single anti-join in the form of a {@code NOT IN} subquery.
+     *
+     * @param predicate  on the referenced entity
+     * @return  a predicate that holds if the referenced entity does not match
+     *
+     * @since 3.0.1
+     */
+    default SpeedmentPredicate<ENTITY> notMatches(SpeedmentPredicate<V> predicate) {
+        return new ReferenceNotMatchesPredicate<>(this, predicate);
+    }
+
     /**
      * Returns an {@link ToByteNullable} expression that has the value returned
      * by the specified mapper function if the value for this field is not
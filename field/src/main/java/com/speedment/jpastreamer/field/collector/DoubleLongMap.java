@@ -0,0 +1,99 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.field.collector;
+
+import java.util.Map;
+
+/**
+ * A map with primitive {@code double} keys and primitive {@code long} values. Keys and values
+ * are held in arrays using open addressing so that they are never boxed.
+ * Entries are iterated in insertion order.
+ * <p>
+ * Instances are created by the primitive collectors in {@link FieldCollectors}.
+ *
+ * @since  3.0.1
+ */
+public interface DoubleLongMap {
+
+    /**
+     * Returns the number of entries in this map.
+     *
+     * @return the number of entries in this map
+     */
+    int size();
+
+    /**
+     * Returns if this map contains no entries.
+     *
+     * @return if this map contains no entries
+     */
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Returns if this map contains an entry for the provided {@code key}.
+     *
+     * @param key to look up
+     * @return if this map contains an entry for the provided {@code key}
+     */
+    boolean containsKey(double key);
+
+    /**
+     * Returns the value of the provided {@code key}, or {@code 0L}
+     * if this map contains no entry for the {@code key}.
+     *
+     * @param key to look up
+     * @return the value of the provided {@code key}
+     */
+    long get(double key);
+
+    /**
+     * Returns the value of the provided {@code key}, or the provided
+     * {@code defaultValue} if this map contains no entry for the {@code key}.
+     *
+     * @param key          to look up
+     * @param defaultValue to return if there is no entry for the {@code key}
+     * @return the value of the provided {@code key}
+     */
+    long getOrDefault(double key, long defaultValue);
+
+    /**
+     * Performs the provided {@code action} for each entry in this map.
+     *
+     * @param action to perform
+     */
+    void forEach(EntryConsumer action);
+
+    /**
+     * Returns a new array holding the keys of this map.
+     *
+     * @return a new array holding the keys of this map
+     */
+    double[] keys();
+
+    /**
+     * Returns a new boxed {@link Map} holding the entries of this map.
+     *
+     * @return a new boxed {@link Map} holding the entries of this map
+     */
+    Map<Double, Long> toMap();
+
+    /**
+     * Represents an operation that accepts an entry of a {@link DoubleLongMap}.
+     */
+    @FunctionalInterface
+    interface EntryConsumer {
+        void accept(double key, long value);
+    }
+}
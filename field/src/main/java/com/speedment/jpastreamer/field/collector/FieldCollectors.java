@@ -13,7 +13,7 @@
 package com.speedment.jpastreamer.field.collector;
 
 import com.speedment.jpastreamer.field.*;
-import com.speedment.jpastreamer.field.internal.collector.FieldCollectorImpl;
+import com.speedment.jpastreamer.field.internal.collector.*;
 
 import java.util.*;
 import java.util.function.*;
@@ -21,6 +21,7 @@ import java.util.stream.Collector;
 
 import static java.util.Collections.emptySet;
 import static java.util.Collections.unmodifiableSet;
+import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.toList;
 
 /**
@@ -167,6 +168,351 @@ public final class FieldCollectors {
         }
     }
 
+    /**
+     * Returns a Collector that groups entities by the {@code int} value of
+     * the provided {@code field} into lists without boxing the keys.
+     *
+     * @param <ENTITY> the entity type
+     * @param field    to group by
+     * @return a Collector that groups entities by the provided {@code field}
+     * @since  3.0.1
+     */
+    public static <ENTITY> FieldCollector<ENTITY, ?, IntObjectMap<List<ENTITY>>>
+    groupingByPrimitive(IntField<ENTITY> field) {
+        return groupingByPrimitive(field, toList());
+    }
+
+    /**
+     * Returns a Collector that groups entities by the {@code int} value of
+     * the provided {@code field} without boxing the keys, reducing the
+     * entities of each group using the provided {@code downstream} Collector.
+     *
+     * @param <ENTITY>   the entity type
+     * @param <A>        the intermediate accumulation type of the downstream collector
+     * @param <R>        the result type of the downstream collector
+     * @param field      to group by
+     * @param downstream to reduce each group with
+     * @return a Collector that groups entities by the provided {@code field}
+     * @since  3.0.1
+     */
+    public static <ENTITY, A, R> FieldCollector<ENTITY, ?, IntObjectMap<R>>
+    groupingByPrimitive(IntField<ENTITY> field, Collector<? super ENTITY, A, R> downstream) {
+        requireNonNull(field);
+        final Supplier<A> downstreamSupplier = downstream.supplier();
+        final BiConsumer<A, ? super ENTITY> downstreamAccumulator = downstream.accumulator();
+        final BinaryOperator<A> downstreamCombiner = downstream.combiner();
+        final BiConsumer<IntObjectMapImpl<A>, ENTITY> accumulator = (m, t) ->
+            downstreamAccumulator.accept(m.computeIfAbsent(field.getAsInt(t), downstreamSupplier), t);
+        final BinaryOperator<IntObjectMapImpl<A>> merger = (m1, m2) -> m1.merge(m2, downstreamCombiner);
+
+        if (downstream.characteristics().contains(Collector.Characteristics.IDENTITY_FINISH)) {
+            return new FieldCollectorImpl<>(field, IntObjectMapImpl::new, accumulator, merger, CH_ID);
+        }
+        else {
+            final Function<A, R> downstreamFinisher = downstream.finisher();
+            return new FieldCollectorImpl<>(field, IntObjectMapImpl::new, accumulator, merger, m -> m.mapValues(downstreamFinisher), CH_NOID);
+        }
+    }
+
+    /**
+     * Returns a Collector that counts entities by the {@code int} value of
+     * the provided {@code field} without boxing keys or counts.
+     *
+     * @param <ENTITY> the entity type
+     * @param field    to group by
+     * @return a Collector that counts entities by the provided {@code field}
+     * @since  3.0.1
+     */
+    public static <ENTITY> FieldCollector<ENTITY, ?, IntLongMap>
+    countingByPrimitive(IntField<ENTITY> field) {
+        requireNonNull(field);
+        return new FieldCollectorImpl<>(field, IntLongMapImpl::new, (m, t) -> m.add(field.getAsInt(t), 1L), IntLongMapImpl::addAll, CH_ID);
+    }
+
+    /**
+     * Returns a Collector that sums the {@code int} values of the provided
+     * {@code summand} by the {@code int} value of the provided
+     * {@code field} without boxing keys or sums.
+     *
+     * @param <ENTITY> the entity type
+     * @param field    to group by
+     * @param summand  to sum
+     * @return a Collector that sums the {@code summand} by the provided {@code field}
+     * @since  3.0.1
+     */
+    public static <ENTITY> FieldCollector<ENTITY, ?, IntLongMap>
+    summingByPrimitive(IntField<ENTITY> field, IntField<ENTITY> summand) {
+        requireNonNull(field);
+        requireNonNull(summand);
+        return new FieldCollectorImpl<>(field, IntLongMapImpl::new, (m, t) -> m.add(field.getAsInt(t), summand.getAsInt(t)), IntLongMapImpl::addAll, CH_ID);
+    }
+
+    /**
+     * Returns a Collector that sums the {@code long} values of the provided
+     * {@code summand} by the {@code int} value of the provided
+     * {@code field} without boxing keys or sums.
+     *
+     * @param <ENTITY> the entity type
+     * @param field    to group by
+     * @param summand  to sum
+     * @return a Collector that sums the {@code summand} by the provided {@code field}
+     * @since  3.0.1
+     */
+    public static <ENTITY> FieldCollector<ENTITY, ?, IntLongMap>
+    summingByPrimitive(IntField<ENTITY> field, LongField<ENTITY> summand) {
+        requireNonNull(field);
+        requireNonNull(summand);
+        return new FieldCollectorImpl<>(field, IntLongMapImpl::new, (m, t) -> m.add(field.getAsInt(t), summand.getAsLong(t)), IntLongMapImpl::addAll, CH_ID);
+    }
+
+    /**
+     * Returns a Collector that sums the {@code double} values of the provided
+     * {@code summand} by the {@code int} value of the provided
+     * {@code field} without boxing keys or sums.
+     *
+     * @param <ENTITY> the entity type
+     * @param field    to group by
+     * @param summand  to sum
+     * @return a Collector that sums the {@code summand} by the provided {@code field}
+     * @since  3.0.1
+     */
+    public static <ENTITY> FieldCollector<ENTITY, ?, IntDoubleMap>
+    summingByPrimitive(IntField<ENTITY> field, DoubleField<ENTITY> summand) {
+        requireNonNull(field);
+        requireNonNull(summand);
+        return new FieldCollectorImpl<>(field, IntDoubleMapImpl::new, (m, t) -> m.add(field.getAsInt(t), summand.getAsDouble(t)), IntDoubleMapImpl::addAll, CH_ID);
+    }
+
+    /**
+     * Returns a Collector that groups entities by the {@code long} value of
+     * the provided {@code field} into lists without boxing the keys.
+     *
+     * @param <ENTITY> the entity type
+     * @param field    to group by
+     * @return a Collector that groups entities by the provided {@code field}
+     * @since  3.0.1
+     */
+    public static <ENTITY> FieldCollector<ENTITY, ?, LongObjectMap<List<ENTITY>>>
+    groupingByPrimitive(LongField<ENTITY> field) {
+        return groupingByPrimitive(field, toList());
+    }
+
+    /**
+     * Returns a Collector that groups entities by the {@code long} value of
+     * the provided {@code field} without boxing the keys, reducing the
+     * entities of each group using the provided {@code downstream} Collector.
+     *
+     * @param <ENTITY>   the entity type
+     * @param <A>        the intermediate accumulation type of the downstream collector
+     * @param <R>        the result type of the downstream collector
+     * @param field      to group by
+     * @param downstream to reduce each group with
+     * @return a Collector that groups entities by the provided {@code field}
+     * @since  3.0.1
+     */
+    public static <ENTITY, A, R> FieldCollector<ENTITY, ?, LongObjectMap<R>>
+    groupingByPrimitive(LongField<ENTITY> field, Collector<? super ENTITY, A, R> downstream) {
+        requireNonNull(field);
+        final Supplier<A> downstreamSupplier = downstream.supplier();
+        final BiConsumer<A, ? super ENTITY> downstreamAccumulator = downstream.accumulator();
+        final BinaryOperator<A> downstreamCombiner = downstream.combiner();
+        final BiConsumer<LongObjectMapImpl<A>, ENTITY> accumulator = (m, t) ->
+            downstreamAccumulator.accept(m.computeIfAbsent(field.getAsLong(t), downstreamSupplier), t);
+        final BinaryOperator<LongObjectMapImpl<A>> merger = (m1, m2) -> m1.merge(m2, downstreamCombiner);
+
+        if (downstream.characteristics().contains(Collector.Characteristics.IDENTITY_FINISH)) {
+            return new FieldCollectorImpl<>(field, LongObjectMapImpl::new, accumulator, merger, CH_ID);
+        }
+        else {
+            final Function<A, R> downstreamFinisher = downstream.finisher();
+            return new FieldCollectorImpl<>(field, LongObjectMapImpl::new, accumulator, merger, m -> m.mapValues(downstreamFinisher), CH_NOID);
+        }
+    }
+
+    /**
+     * Returns a Collector that counts entities by the {@code long} value of
+     * the provided {@code field} without boxing keys or counts.
+     *
+     * @param <ENTITY> the entity type
+     * @param field    to group by
+     * @return a Collector that counts entities by the provided {@code field}
+     * @since  3.0.1
+     */
+    public static <ENTITY> FieldCollector<ENTITY, ?, LongLongMap>
+    countingByPrimitive(LongField<ENTITY> field) {
+        requireNonNull(field);
+        return new FieldCollectorImpl<>(field, LongLongMapImpl::new, (m, t) -> m.add(field.getAsLong(t), 1L), LongLongMapImpl::addAll, CH_ID);
+    }
+
+    /**
+     * Returns a Collector that sums the {@code int} values of the provided
+     * {@code summand} by the {@code long} value of the provided
+     * {@code field} without boxing keys or sums.
+     *
+     * @param <ENTITY> the entity type
+     * @param field    to group by
+     * @param summand  to sum
+     * @return a Collector that sums the {@code summand} by the provided {@code field}
+     * @since  3.0.1
+     */
+    public static <ENTITY> FieldCollector<ENTITY, ?, LongLongMap>
+    summingByPrimitive(LongField<ENTITY> field, IntField<ENTITY> summand) {
+        requireNonNull(field);
+        requireNonNull(summand);
+        return new FieldCollectorImpl<>(field, LongLongMapImpl::new, (m, t) -> m.add(field.getAsLong(t), summand.getAsInt(t)), LongLongMapImpl::addAll, CH_ID);
+    }
+
+    /**
+     * Returns a Collector that sums the {@code long} values of the provided
+     * {@code summand} by the {@code long} value of the provided
+     * {@code field} without boxing keys or sums.
+     *
+     * @param <ENTITY> the entity type
+     * @param field    to group by
+     * @param summand  to sum
+     * @return a Collector that sums the {@code summand} by the provided {@code field}
+     * @since  3.0.1
+     */
+    public static <ENTITY> FieldCollector<ENTITY, ?, LongLongMap>
+    summingByPrimitive(LongField<ENTITY> field, LongField<ENTITY> summand) {
+        requireNonNull(field);
+        requireNonNull(summand);
+        return new FieldCollectorImpl<>(field, LongLongMapImpl::new, (m, t) -> m.add(field.getAsLong(t), summand.getAsLong(t)), LongLongMapImpl::addAll, CH_ID);
+    }
+
+    /**
+     * Returns a Collector that sums the {@code double} values of the provided
+     * {@code summand} by the {@code long} value of the provided
+     * {@code field} without boxing keys or sums.
+     *
+     * @param <ENTITY> the entity type
+     * @param field    to group by
+     * @param summand  to sum
+     * @return a Collector that sums the {@code summand} by the provided {@code field}
+     * @since  3.0.1
+     */
+    public static <ENTITY> FieldCollector<ENTITY, ?, LongDoubleMap>
+    summingByPrimitive(LongField<ENTITY> field, DoubleField<ENTITY> summand) {
+        requireNonNull(field);
+        requireNonNull(summand);
+        return new FieldCollectorImpl<>(field, LongDoubleMapImpl::new, (m, t) -> m.add(field.getAsLong(t), summand.getAsDouble(t)), LongDoubleMapImpl::addAll, CH_ID);
+    }
+
+    /**
+     * Returns a Collector that groups entities by the {@code double} value of
+     * the provided {@code field} into lists without boxing the keys.
+     *
+     * @param <ENTITY> the entity type
+     * @param field    to group by
+     * @return a Collector that groups entities by the provided {@code field}
+     * @since  3.0.1
+     */
+    public static <ENTITY> FieldCollector<ENTITY, ?, DoubleObjectMap<List<ENTITY>>>
+    groupingByPrimitive(DoubleField<ENTITY> field) {
+        return groupingByPrimitive(field, toList());
+    }
+
+    /**
+     * Returns a Collector that groups entities by the {@code double} value of
+     * the provided {@code field} without boxing the keys, reducing the
+     * entities of each group using the provided {@code downstream} Collector.
+     *
+     * @param <ENTITY>   the entity type
+     * @param <A>        the intermediate accumulation type of the downstream collector
+     * @param <R>        the result type of the downstream collector
+     * @param field      to group by
+     * @param downstream to reduce each group with
+     * @return a Collector that groups entities by the provided {@code field}
+     * @since  3.0.1
+     */
+    public static <ENTITY, A, R> FieldCollector<ENTITY, ?, DoubleObjectMap<R>>
+    groupingByPrimitive(DoubleField<ENTITY> field, Collector<? super ENTITY, A, R> downstream) {
+        requireNonNull(field);
+        final Supplier<A> downstreamSupplier = downstream.supplier();
+        final BiConsumer<A, ? super ENTITY> downstreamAccumulator = downstream.accumulator();
+        final BinaryOperator<A> downstreamCombiner = downstream.combiner();
+        final BiConsumer<DoubleObjectMapImpl<A>, ENTITY> accumulator = (m, t) ->
+            downstreamAccumulator.accept(m.computeIfAbsent(field.getAsDouble(t), downstreamSupplier), t);
+        final BinaryOperator<DoubleObjectMapImpl<A>> merger = (m1, m2) -> m1.merge(m2, downstreamCombiner);
+
+        if (downstream.characteristics().contains(Collector.Characteristics.IDENTITY_FINISH)) {
+            return new FieldCollectorImpl<>(field, DoubleObjectMapImpl::new, accumulator, merger, CH_ID);
+        }
+        else {
+            final Function<A, R> downstreamFinisher = downstream.finisher();
+            return new FieldCollectorImpl<>(field, DoubleObjectMapImpl::new, accumulator, merger, m -> m.mapValues(downstreamFinisher), CH_NOID);
+        }
+    }
+
+    /**
+     * Returns a Collector that counts entities by the {@code double} value of
+     * the provided {@code field} without boxing keys or counts.
+     *
+     * @param <ENTITY> the entity type
+     * @param field    to group by
+     * @return a Collector that counts entities by the provided {@code field}
+     * @since  3.0.1
+     */
+    public static <ENTITY> FieldCollector<ENTITY, ?, DoubleLongMap>
+    countingByPrimitive(DoubleField<ENTITY> field) {
+        requireNonNull(field);
+        return new FieldCollectorImpl<>(field, DoubleLongMapImpl::new, (m, t) -> m.add(field.getAsDouble(t), 1L), DoubleLongMapImpl::addAll, CH_ID);
+    }
+
+    /**
+     * Returns a Collector that sums the {@code int} values of the provided
+     * {@code summand} by the {@code double} value of the provided
+     * {@code field} without boxing keys or sums.
+     *
+     * @param <ENTITY> the entity type
+     * @param field    to group by
+     * @param summand  to sum
+     * @return a Collector that sums the {@code summand} by the provided {@code field}
+     * @since  3.0.1
+     */
+    public static <ENTITY> FieldCollector<ENTITY, ?, DoubleLongMap>
+    summingByPrimitive(DoubleField<ENTITY> field, IntField<ENTITY> summand) {
+        requireNonNull(field);
+        requireNonNull(summand);
+        return new FieldCollectorImpl<>(field, DoubleLongMapImpl::new, (m, t) -> m.add(field.getAsDouble(t), summand.getAsInt(t)), DoubleLongMapImpl::addAll, CH_ID);
+    }
+
+    /**
+     * Returns a Collector that sums the {@code long} values of the provided
+     * {@code summand} by the {@code double} value of the provided
+     * {@code field} without boxing keys or sums.
+     *
+     * @param <ENTITY> the entity type
+     * @param field    to group by
+     * @param summand  to sum
+     * @return a Collector that sums the {@code summand} by the provided {@code field}
+     * @since  3.0.1
+     */
+    public static <ENTITY> FieldCollector<ENTITY, ?, DoubleLongMap>
+    summingByPrimitive(DoubleField<ENTITY> field, LongField<ENTITY> summand) {
+        requireNonNull(field);
+        requireNonNull(summand);
+        return new FieldCollectorImpl<>(field, DoubleLongMapImpl::new, (m, t) -> m.add(field.getAsDouble(t), summand.getAsLong(t)), DoubleLongMapImpl::addAll, CH_ID);
+    }
+
+    /**
+     * Returns a Collector that sums the {@code double} values of the provided
+     * {@code summand} by the {@code double} value of the provided
+     * {@code field} without boxing keys or sums.
+     *
+     * @param <ENTITY> the entity type
+     * @param field    to group by
+     * @param summand  to sum
+     * @return a Collector that sums the {@code summand} by the provided {@code field}
+     * @since  3.0.1
+     */
+    public static <ENTITY> FieldCollector<ENTITY, ?, DoubleDoubleMap>
+    summingByPrimitive(DoubleField<ENTITY> field, DoubleField<ENTITY> summand) {
+        requireNonNull(field);
+        requireNonNull(summand);
+        return new FieldCollectorImpl<>(field, DoubleDoubleMapImpl::new, (m, t) -> m.add(field.getAsDouble(t), summand.getAsDouble(t)), DoubleDoubleMapImpl::addAll, CH_ID);
+    }
+
     private static <K, V, M extends Map<K,V>>
     BinaryOperator<M> mapMerger(BinaryOperator<V> mergeFunction) {
         return (m1, m2) -> {
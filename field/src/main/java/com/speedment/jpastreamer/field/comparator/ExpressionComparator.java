@@ -0,0 +1,62 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.field.comparator;
+
+import static com.speedment.jpastreamer.field.internal.expression.NumericExpressions.requireNumeric;
+
+import com.speedment.jpastreamer.field.internal.comparator.ExpressionComparatorImpl;
+import com.speedment.runtime.compute.expression.Expression;
+
+import java.util.Comparator;
+
+/**
+ * A {@link Comparator} that compares entities by the result of a numeric
+ * {@link Expression}, for example
+ * {@code Film$.length.multiply(2).plus(Film$.rentalDuration)}. Contrary to
+ * {@code Comparator.comparingInt(expression)}, the comparison can be
+ * rendered as a query order.
+ * <p>
+ * The expression must evaluate to a primitive number, i.e. be a
+ * {@code ToByte}, {@code ToShort}, {@code ToInt}, {@code ToLong},
+ * {@code ToFloat} or {@code ToDouble}.
+ *
+ * @param <ENTITY> the entity type
+ * @since 3.0.1
+ */
+public interface ExpressionComparator<ENTITY> extends Comparator<ENTITY> {
+
+    /**
+     * Returns the expression that entities are compared by.
+     *
+     * @return the expression that entities are compared by
+     */
+    Expression<ENTITY> expression();
+
+    /**
+     * Returns if this comparator orders entities by descending results.
+     *
+     * @return if this comparator orders entities by descending results
+     */
+    boolean isReversed();
+
+    @Override
+    ExpressionComparator<ENTITY> reversed();
+
+    static <ENTITY> ExpressionComparator<ENTITY> asc(final Expression<ENTITY> expression) {
+        return new ExpressionComparatorImpl<>(requireNumeric(expression), false);
+    }
+
+    static <ENTITY> ExpressionComparator<ENTITY> desc(final Expression<ENTITY> expression) {
+        return new ExpressionComparatorImpl<>(requireNumeric(expression), true);
+    }
+}
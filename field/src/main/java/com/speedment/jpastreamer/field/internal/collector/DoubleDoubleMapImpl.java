@@ -0,0 +1,117 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.field.internal.collector;
+
+import com.speedment.jpastreamer.field.collector.DoubleDoubleMap;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Default implementation of {@link DoubleDoubleMap}.
+ *
+ * @since  3.0.1
+ */
+public final class DoubleDoubleMapImpl implements DoubleDoubleMap {
+
+    private final LongKeyIndex index = new LongKeyIndex();
+    private double[] values = new double[LongKeyIndex.INITIAL_CAPACITY];
+
+    @Override
+    public int size() {
+        return index.size();
+    }
+
+    @Override
+    public boolean containsKey(double key) {
+        return index.find(Double.doubleToLongBits(key)) != -1;
+    }
+
+    @Override
+    public double get(double key) {
+        return getOrDefault(key, 0.0);
+    }
+
+    @Override
+    public double getOrDefault(double key, double defaultValue) {
+        final int entry = index.find(Double.doubleToLongBits(key));
+        return entry == -1 ? defaultValue : values[entry];
+    }
+
+    @Override
+    public void forEach(EntryConsumer action) {
+        requireNonNull(action);
+        for (int entry = 0; entry < index.size(); entry++) {
+            action.accept(Double.longBitsToDouble(index.keyAt(entry)), values[entry]);
+        }
+    }
+
+    @Override
+    public double[] keys() {
+        final double[] keys = new double[index.size()];
+        for (int entry = 0; entry < keys.length; entry++) {
+            keys[entry] = Double.longBitsToDouble(index.keyAt(entry));
+        }
+        return keys;
+    }
+
+    @Override
+    public Map<Double, Double> toMap() {
+        final Map<Double, Double> map = new LinkedHashMap<>();
+        forEach(map::put);
+        return map;
+    }
+
+    /**
+     * Adds the provided {@code value} to the value of the provided
+     * {@code key}, which is zero if there is no entry for the {@code key}.
+     *
+     * @param key   to add to
+     * @param value to add
+     */
+    public void add(double key, double value) {
+        // The entry must be inserted before the values array is read as insertion may grow it
+        final int entry = insert(Double.doubleToLongBits(key));
+        values[entry] += value;
+    }
+
+    /**
+     * Adds all entries of the provided {@code other} map to this map.
+     *
+     * @param other map to add
+     * @return this map
+     */
+    public DoubleDoubleMapImpl addAll(DoubleDoubleMapImpl other) {
+        for (int otherEntry = 0; otherEntry < other.index.size(); otherEntry++) {
+            final int entry = insert(other.index.keyAt(otherEntry));
+            values[entry] += other.values[otherEntry];
+        }
+        return this;
+    }
+
+    private int insert(long bits) {
+        final int entry = index.insert(bits);
+        if (values.length < index.capacity()) {
+            values = Arrays.copyOf(values, index.capacity());
+        }
+        return entry;
+    }
+
+    @Override
+    public String toString() {
+        return toMap().toString();
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.field.internal.collector;
+
+import com.speedment.jpastreamer.field.collector.DoubleObjectMap;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Default implementation of {@link DoubleObjectMap}.
+ *
+ * @param <V>  the value type
+ *
+ * @since  3.0.1
+ */
+public final class DoubleObjectMapImpl<V> implements DoubleObjectMap<V> {
+
+    private final LongKeyIndex index = new LongKeyIndex();
+    private Object[] values = new Object[LongKeyIndex.INITIAL_CAPACITY];
+
+    @Override
+    public int size() {
+        return index.size();
+    }
+
+    @Override
+    public boolean containsKey(double key) {
+        return index.find(Double.doubleToLongBits(key)) != -1;
+    }
+
+    @Override
+    public V get(double key) {
+        return getOrDefault(key, null);
+    }
+
+    @Override
+    public V getOrDefault(double key, V defaultValue) {
+        final int entry = index.find(Double.doubleToLongBits(key));
+        return entry == -1 ? defaultValue : value(entry);
+    }
+
+    @Override
+    public void forEach(EntryConsumer<V> action) {
+        requireNonNull(action);
+        for (int entry = 0; entry < index.size(); entry++) {
+            action.accept(Double.longBitsToDouble(index.keyAt(entry)), value(entry));
+        }
+    }
+
+    @Override
+    public double[] keys() {
+        final double[] keys = new double[index.size()];
+        for (int entry = 0; entry < keys.length; entry++) {
+            keys[entry] = Double.longBitsToDouble(index.keyAt(entry));
+        }
+        return keys;
+    }
+
+    @Override
+    public Map<Double, V> toMap() {
+        final Map<Double, V> map = new LinkedHashMap<>();
+        forEach(map::put);
+        return map;
+    }
+
+    /**
+     * Returns the value of the provided {@code key}, first associating it
+     * with a value from the provided {@code supplier} if there is no entry
+     * for the {@code key}.
+     *
+     * @param key      to look up
+     * @param supplier of a new value
+     * @return the value of the provided {@code key}
+     */
+    public V computeIfAbsent(double key, Supplier<? extends V> supplier) {
+        final int size = index.size();
+        final int entry = insert(Double.doubleToLongBits(key));
+        if (entry == size) {
+            values[entry] = supplier.get();
+        }
+        return value(entry);
+    }
+
+    /**
+     * Merges all entries of the provided {@code other} map into this map
+     * using the provided {@code mergeFunction} for keys present in both.
+     *
+     * @param other         map to merge
+     * @param mergeFunction to combine values with
+     * @return this map
+     */
+    public DoubleObjectMapImpl<V> merge(DoubleObjectMapImpl<V> other, BinaryOperator<V> mergeFunction) {
+        for (int otherEntry = 0; otherEntry < other.index.size(); otherEntry++) {
+            final int size = index.size();
+            final int entry = insert(other.index.keyAt(otherEntry));
+            values[entry] = entry == size
+                ? other.values[otherEntry]
+                : mergeFunction.apply(value(entry), other.value(otherEntry));
+        }
+        return this;
+    }
+
+    /**
+     * Replaces all values of this map by applying the provided
+     * {@code mapper} and returns this map viewed as holding the new
+     * value type.
+     *
+     * @param <R>    the new value type
+     * @param mapper to apply to each value
+     * @return this map
+     */
+    @SuppressWarnings("unchecked")
+    public <R> DoubleObjectMapImpl<R> mapValues(Function<? super V, ? extends R> mapper) {
+        for (int entry = 0; entry < index.size(); entry++) {
+            values[entry] = mapper.apply(value(entry));
+        }
+        return (DoubleObjectMapImpl<R>) this;
+    }
+
+    @SuppressWarnings("unchecked")
+    private V value(int entry) {
+        return (V) values[entry];
+    }
+
+    private int insert(long bits) {
+        final int entry = index.insert(bits);
+        if (values.length < index.capacity()) {
+            values = Arrays.copyOf(values, index.capacity());
+        }
+        return entry;
+    }
+
+    @Override
+    public String toString() {
+        return toMap().toString();
+    }
+}
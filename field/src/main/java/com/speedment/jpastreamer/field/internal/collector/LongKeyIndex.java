@@ -0,0 +1,110 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.field.internal.collector;
+
+import java.util.Arrays;
+
+/**
+ * An open addressing hash index over primitive {@code long} keys. Keys are
+ * stored densely in insertion order whereby each key is identified by its
+ * entry number, allowing the owning map to keep its values in a parallel
+ * array that never needs to be rehashed.
+ *
+ * @since  3.0.1
+ */
+final class LongKeyIndex {
+
+    static final int INITIAL_CAPACITY = 8;
+
+    private long[] keys;
+    // Holds entry + 1 for each occupied slot and 0 for empty slots
+    private int[] slots;
+    private int size;
+
+    LongKeyIndex() {
+        this.keys = new long[INITIAL_CAPACITY];
+        this.slots = new int[INITIAL_CAPACITY * 2];
+    }
+
+    int size() {
+        return size;
+    }
+
+    int capacity() {
+        return keys.length;
+    }
+
+    long keyAt(int entry) {
+        return keys[entry];
+    }
+
+    /**
+     * Returns the entry of the provided {@code key}, or -1 if the key is
+     * not present.
+     */
+    int find(long key) {
+        final int mask = slots.length - 1;
+        for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+            final int entry = slots[slot] - 1;
+            if (entry == -1) {
+                return -1;
+            }
+            if (keys[entry] == key) {
+                return entry;
+            }
+        }
+    }
+
+    /**
+     * Returns the entry of the provided {@code key}, first adding the key
+     * as the last entry if it is not present.
+     */
+    int insert(long key) {
+        final int mask = slots.length - 1;
+        int slot = hash(key) & mask;
+        for (; slots[slot] != 0; slot = (slot + 1) & mask) {
+            final int entry = slots[slot] - 1;
+            if (keys[entry] == key) {
+                return entry;
+            }
+        }
+
+        if (size == keys.length) {
+            grow();
+            return insert(key);
+        }
+
+        keys[size] = key;
+        slots[slot] = ++size;
+        return size - 1;
+    }
+
+    // Keeps the load factor of the slots at or below 0.5
+    private void grow() {
+        keys = Arrays.copyOf(keys, keys.length * 2);
+        slots = new int[keys.length * 2];
+        final int mask = slots.length - 1;
+        for (int entry = 0; entry < size; entry++) {
+            int slot = hash(keys[entry]) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = entry + 1;
+        }
+    }
+
+    private static int hash(long key) {
+        final long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
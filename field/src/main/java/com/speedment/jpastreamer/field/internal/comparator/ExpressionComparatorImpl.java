@@ -0,0 +1,75 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.field.internal.comparator;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.field.comparator.ExpressionComparator;
+import com.speedment.jpastreamer.field.internal.expression.NumericExpressions;
+import com.speedment.runtime.compute.expression.Expression;
+
+/**
+ * Default implementation of {@link ExpressionComparator}.
+ *
+ * @param <ENTITY> the entity type
+ * @since 3.0.1
+ */
+public final class ExpressionComparatorImpl<ENTITY> implements ExpressionComparator<ENTITY> {
+
+    private final Expression<ENTITY> expression;
+    private final boolean reversed;
+
+    public ExpressionComparatorImpl(final Expression<ENTITY> expression, final boolean reversed) {
+        this.expression = requireNonNull(expression);
+        this.reversed = reversed;
+    }
+
+    @Override
+    public Expression<ENTITY> expression() {
+        return expression;
+    }
+
+    @Override
+    public boolean isReversed() {
+        return reversed;
+    }
+
+    @Override
+    public ExpressionComparator<ENTITY> reversed() {
+        return new ExpressionComparatorImpl<>(expression, !reversed);
+    }
+
+    @Override
+    public int compare(ENTITY first, ENTITY second) {
+        final int comparison = NumericExpressions.compare(
+            NumericExpressions.evaluate(expression, first),
+            NumericExpressions.evaluate(expression, second)
+        );
+        return reversed ? -comparison : comparison;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        final ExpressionComparatorImpl<?> that = (ExpressionComparatorImpl<?>) o;
+
+        return reversed == that.reversed && expression.equals(that.expression);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * expression.hashCode() + Boolean.hashCode(reversed);
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.field.internal.expression;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.runtime.compute.ToByte;
+import com.speedment.runtime.compute.ToDouble;
+import com.speedment.runtime.compute.ToFloat;
+import com.speedment.runtime.compute.ToInt;
+import com.speedment.runtime.compute.ToLong;
+import com.speedment.runtime.compute.ToShort;
+import com.speedment.runtime.compute.expression.Expression;
+
+/**
+ * Utility methods for expressions that evaluate to a primitive number,
+ * i.e. {@link ToByte}, {@link ToShort}, {@link ToInt}, {@link ToLong},
+ * {@link ToFloat} and {@link ToDouble}.
+ *
+ * @since 3.0.1
+ */
+public final class NumericExpressions {
+
+    private NumericExpressions() {}
+
+    /**
+     * Returns the provided {@code expression} if it evaluates to a
+     * primitive number.
+     *
+     * @param expression to check
+     * @param <ENTITY> the entity type
+     * @return the provided {@code expression}
+     * @throws IllegalArgumentException if the provided {@code expression}
+     *         does not evaluate to a primitive number
+     */
+    public static <ENTITY> Expression<ENTITY> requireNumeric(final Expression<ENTITY> expression) {
+        requireNonNull(expression);
+        if (expression instanceof ToInt
+            || expression instanceof ToLong
+            || expression instanceof ToDouble
+            || expression instanceof ToFloat
+            || expression instanceof ToShort
+            || expression instanceof ToByte) {
+            return expression;
+        }
+        throw new IllegalArgumentException(
+            "Expression [" + expression.getClass().getSimpleName() + "] does not evaluate to a primitive number"
+        );
+    }
+
+    /**
+     * Returns the boxed result of applying the provided numeric
+     * {@code expression} to the provided {@code entity}.
+     *
+     * @param expression to apply
+     * @param entity to apply the expression to
+     * @param <ENTITY> the entity type
+     * @return the boxed result
+     */
+    @SuppressWarnings("unchecked")
+    public static <ENTITY> Number evaluate(final Expression<ENTITY> expression, final ENTITY entity) {
+        if (expression instanceof ToInt) {
+            return ((ToInt<ENTITY>) expression).applyAsInt(entity);
+        }
+        if (expression instanceof ToLong) {
+            return ((ToLong<ENTITY>) expression).applyAsLong(entity);
+        }
+        if (expression instanceof ToDouble) {
+            return ((ToDouble<ENTITY>) expression).applyAsDouble(entity);
+        }
+        if (expression instanceof ToFloat) {
+            return ((ToFloat<ENTITY>) expression).applyAsFloat(entity);
+        }
+        if (expression instanceof ToShort) {
+            return ((ToShort<ENTITY>) expression).applyAsShort(entity);
+        }
+        if (expression instanceof ToByte) {
+            return ((ToByte<ENTITY>) expression).applyAsByte(entity);
+        }
+        throw new IllegalArgumentException(
+            "Expression [" + expression.getClass().getSimpleName() + "] does not evaluate to a primitive number"
+        );
+    }
+
+    /**
+     * Returns if the provided {@code value} is a boxed integral primitive.
+     *
+     * @param value to check
+     * @return if the provided {@code value} is a boxed integral primitive
+     */
+    public static boolean isIntegral(final Number value) {
+        return value instanceof Integer
+            || value instanceof Long
+            || value instanceof Short
+            || value instanceof Byte;
+    }
+
+    /**
+     * Compares the provided numbers like the corresponding primitive
+     * comparison would after binary numeric promotion, i.e. as
+     * {@code long} values if both are integral or else as {@code double}
+     * values.
+     *
+     * @param first number
+     * @param second number
+     * @return a negative integer, zero, or a positive integer as the
+     *         first number is less than, equal to, or greater than the second
+     */
+    public static int compare(final Number first, final Number second) {
+        if (isIntegral(first) && isIntegral(second)) {
+            return Long.compare(first.longValue(), second.longValue());
+        }
+        return Double.compare(first.doubleValue(), second.doubleValue());
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.field.internal.predicate;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.field.internal.expression.NumericExpressions;
+import com.speedment.jpastreamer.field.predicate.ExpressionPredicate;
+import com.speedment.jpastreamer.field.predicate.PredicateType;
+import com.speedment.runtime.compute.expression.Expression;
+
+/**
+ * Default implementation of {@link ExpressionPredicate}.
+ *
+ * @param <ENTITY> the entity type
+ * @since 3.0.1
+ */
+public final class ExpressionPredicateImpl<ENTITY> implements ExpressionPredicate<ENTITY> {
+
+    private final PredicateType predicateType;
+    private final Expression<ENTITY> expression;
+    private final Number value;
+
+    public ExpressionPredicateImpl(final PredicateType predicateType, final Expression<ENTITY> expression, final Number value) {
+        this.predicateType = requireNonNull(predicateType);
+        this.expression = requireNonNull(expression);
+        this.value = requireNonNull(value);
+
+        switch (predicateType) {
+            case EQUAL:
+            case NOT_EQUAL:
+            case GREATER_THAN:
+            case GREATER_OR_EQUAL:
+            case LESS_THAN:
+            case LESS_OR_EQUAL:
+                break;
+            default:
+                throw new IllegalArgumentException("Predicate type [" + predicateType + "] is not a comparison");
+        }
+    }
+
+    @Override
+    public Expression<ENTITY> expression() {
+        return expression;
+    }
+
+    @Override
+    public PredicateType getPredicateType() {
+        return predicateType;
+    }
+
+    @Override
+    public Number value() {
+        return value;
+    }
+
+    @Override
+    public boolean applyAsBoolean(ENTITY entity) {
+        final Number result = NumericExpressions.evaluate(expression, entity);
+
+        if (NumericExpressions.isIntegral(result) && NumericExpressions.isIntegral(value)) {
+            final long first = result.longValue();
+            final long second = value.longValue();
+            switch (predicateType) {
+                case EQUAL: return first == second;
+                case NOT_EQUAL: return first != second;
+                case GREATER_THAN: return first > second;
+                case GREATER_OR_EQUAL: return first >= second;
+                case LESS_THAN: return first < second;
+                default: return first <= second;
+            }
+        }
+
+        final double first = result.doubleValue();
+        final double second = value.doubleValue();
+        switch (predicateType) {
+            case EQUAL: return first == second;
+            case NOT_EQUAL: return first != second;
+            case GREATER_THAN: return first > second;
+            case GREATER_OR_EQUAL: return first >= second;
+            case LESS_THAN: return first < second;
+            default: return first <= second;
+        }
+    }
+
+    @Override
+    public ExpressionPredicate<ENTITY> negate() {
+        return new ExpressionPredicateImpl<>(predicateType.negate(), expression, value);
+    }
+
+    @Override
+    public String toString() {
+        return expression + " " + predicateType + " " + value;
+    }
+}
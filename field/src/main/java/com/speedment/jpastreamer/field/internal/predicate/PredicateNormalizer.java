@@ -0,0 +1,612 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.field.internal.predicate;
+
+import static com.speedment.jpastreamer.field.predicate.PredicateType.ALWAYS_FALSE;
+import static com.speedment.jpastreamer.field.predicate.PredicateType.ALWAYS_TRUE;
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.field.Field;
+import com.speedment.jpastreamer.field.predicate.CombinedPredicate;
+import com.speedment.jpastreamer.field.predicate.FieldPredicate;
+import com.speedment.jpastreamer.field.predicate.Inclusion;
+import com.speedment.jpastreamer.field.predicate.PredicateType;
+import com.speedment.jpastreamer.field.predicate.SpeedmentPredicate;
+import com.speedment.jpastreamer.field.predicate.trait.HasInclusion;
+import com.speedment.jpastreamer.field.trait.HasArg0;
+import com.speedment.jpastreamer.field.trait.HasArg1;
+import com.speedment.jpastreamer.field.trait.HasComparableOperators;
+import com.speedment.jpastreamer.field.trait.HasReferenceValue;
+
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Utility class for normalizing trees of {@link SpeedmentPredicate}s.
+ * <p>
+ * Nested combined predicates of the same type are flattened, constant
+ * predicates are folded, duplicated operands are removed and an operand
+ * combined with its own negation is detected. Range and {@code IN}
+ * predicates on the same field are merged into a single predicate.
+ * <p>
+ * Ranges are only evaluated and intersected for numeric and temporal
+ * values. Strings are ordered by the collation of the database and enums by
+ * their ordinal or name depending on their mapping, neither of which
+ * necessarily agrees with {@code compareTo()} or {@code equals()}.
+ * <p>
+ * Predicates that are not understood are retained as they are. A predicate
+ * that can never hold is normalized to an {@code ALWAYS_FALSE} predicate.
+ *
+ * @since 3.0.1
+ */
+public final class PredicateNormalizer {
+
+    private PredicateNormalizer() {}
+
+    /**
+     * Returns a predicate that is equivalent to the provided
+     * {@code predicate}, both in the JVM and once rendered as SQL, but
+     * that is potentially simpler.
+     *
+     * @param <ENTITY>   the entity type
+     * @param predicate  to normalize
+     * @return           the normalized predicate
+     */
+    public static <ENTITY> SpeedmentPredicate<ENTITY> normalize(final SpeedmentPredicate<ENTITY> predicate) {
+        requireNonNull(predicate);
+
+        if (predicate instanceof CombinedPredicate) {
+            return normalizeCombined((CombinedPredicate<ENTITY>) predicate);
+        }
+
+        if (predicate instanceof FieldPredicate) {
+            return normalizeField((FieldPredicate<ENTITY>) predicate);
+        }
+
+        return predicate;
+    }
+
+    private static <ENTITY> SpeedmentPredicate<ENTITY> normalizeField(final FieldPredicate<ENTITY> predicate) {
+        final Field<ENTITY> field = predicate.getField();
+        // Negated predicates on reference fields never hold for null values
+        final boolean nullable = field instanceof HasReferenceValue;
+
+        switch (predicate.getPredicateType()) {
+            case BETWEEN:
+                return isEmptyRange(predicate) ? new AlwaysFalsePredicate<>(field) : predicate;
+            case NOT_BETWEEN:
+                return isEmptyRange(predicate) && !nullable ? new AlwaysTruePredicate<>(field) : predicate;
+            case IN:
+                return argument(predicate).map(Collection::isEmpty).orElse(false) ? new AlwaysFalsePredicate<>(field) : predicate;
+            case NOT_IN:
+                return argument(predicate).map(Collection::isEmpty).orElse(false) && !nullable ? new AlwaysTruePredicate<>(field) : predicate;
+            default:
+                return predicate;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <ENTITY> SpeedmentPredicate<ENTITY> normalizeCombined(final CombinedPredicate<ENTITY> predicate) {
+        final CombinedPredicate.Type type = predicate.getType();
+        final PredicateType neutral = type == CombinedPredicate.Type.AND ? ALWAYS_TRUE : ALWAYS_FALSE;
+
+        final List<Predicate<? super ENTITY>> operands = new ArrayList<>();
+        flatten(type, predicate, operands);
+
+        Field<ENTITY> witness = null;
+        final Set<Key> keys = new HashSet<>();
+        final List<Predicate<? super ENTITY>> remaining = new ArrayList<>();
+
+        for (final Predicate<? super ENTITY> operand : operands) {
+            if (!(operand instanceof FieldPredicate)) {
+                remaining.add(operand);
+                continue;
+            }
+
+            final FieldPredicate<ENTITY> fieldPredicate = (FieldPredicate<ENTITY>) operand;
+            final PredicateType predicateType = fieldPredicate.getPredicateType();
+            witness = fieldPredicate.getField();
+
+            if (predicateType == neutral) {
+                continue;
+            }
+
+            if (predicateType == neutral.negate()) {
+                return fieldPredicate;
+            }
+
+            final Key key = new Key(fieldPredicate);
+
+            if (!keys.add(key)) {
+                continue;
+            }
+
+            if (keys.contains(key.negate())) {
+                if (type == CombinedPredicate.Type.AND) {
+                    return new AlwaysFalsePredicate<>(witness);
+                } else if (!(witness instanceof HasReferenceValue)) {
+                    return new AlwaysTruePredicate<>(witness);
+                }
+            }
+
+            remaining.add(operand);
+        }
+
+        final List<Predicate<? super ENTITY>> merged = type == CombinedPredicate.Type.AND
+            ? mergeConjunction(remaining)
+            : mergeDisjunction(remaining);
+
+        for (final Predicate<? super ENTITY> operand : merged) {
+            if (operand instanceof FieldPredicate && ((FieldPredicate<ENTITY>) operand).getPredicateType() == neutral.negate()) {
+                return (FieldPredicate<ENTITY>) operand;
+            }
+        }
+
+        if (merged.isEmpty()) {
+            if (witness == null) {
+                return predicate;
+            }
+            return type == CombinedPredicate.Type.AND
+                ? new AlwaysTruePredicate<>(witness)
+                : new AlwaysFalsePredicate<>(witness);
+        }
+
+        if (merged.size() == 1 && merged.get(0) instanceof SpeedmentPredicate) {
+            return (SpeedmentPredicate<ENTITY>) merged.get(0);
+        }
+
+        return type == CombinedPredicate.Type.AND
+            ? CombinedPredicate.and(merged)
+            : CombinedPredicate.or(merged);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <ENTITY> void flatten(
+        final CombinedPredicate.Type type,
+        final CombinedPredicate<ENTITY> predicate,
+        final List<Predicate<? super ENTITY>> operands
+    ) {
+        predicate.stream().forEach(operand -> {
+            if (!(operand instanceof SpeedmentPredicate)) {
+                operands.add(operand);
+                return;
+            }
+
+            final SpeedmentPredicate<ENTITY> normalized = normalize((SpeedmentPredicate<ENTITY>) operand);
+
+            if (normalized instanceof CombinedPredicate && ((CombinedPredicate<ENTITY>) normalized).getType() == type) {
+                ((CombinedPredicate<ENTITY>) normalized).stream().forEach(operands::add);
+            } else {
+                operands.add(normalized);
+            }
+        });
+    }
+
+    /**
+     * Merges range, {@code EQUAL} and {@code IN} predicates as well as
+     * {@code NOT_EQUAL} and {@code NOT_IN} predicates that exclude values
+     * from a merged {@code IN} predicate on the same field.
+     */
+    @SuppressWarnings("unchecked")
+    private static <ENTITY> List<Predicate<? super ENTITY>> mergeConjunction(final List<Predicate<? super ENTITY>> operands) {
+        final Map<Field<ENTITY>, Range> ranges = new LinkedHashMap<>();
+
+        for (final Predicate<? super ENTITY> operand : operands) {
+            if (operand instanceof FieldPredicate) {
+                final FieldPredicate<ENTITY> predicate = (FieldPredicate<ENTITY>) operand;
+                if (isRangeMergeable(predicate)) {
+                    ranges.computeIfAbsent(predicate.getField(), f -> new Range()).add(predicate);
+                }
+            }
+        }
+
+        final List<Predicate<? super ENTITY>> result = new ArrayList<>();
+
+        for (final Predicate<? super ENTITY> operand : operands) {
+            if (!(operand instanceof FieldPredicate)) {
+                result.add(operand);
+                continue;
+            }
+
+            final FieldPredicate<ENTITY> predicate = (FieldPredicate<ENTITY>) operand;
+            final Range range = ranges.get(predicate.getField());
+
+            if (range == null || !range.isMerged() || !isRangeMergeable(predicate) || !range.absorbs(predicate)) {
+                result.add(operand);
+            } else if (range.first == predicate) {
+                result.add(range.toPredicate(predicate.getField()));
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Merges {@code EQUAL} and {@code IN} predicates on the same field.
+     */
+    @SuppressWarnings("unchecked")
+    private static <ENTITY> List<Predicate<? super ENTITY>> mergeDisjunction(final List<Predicate<? super ENTITY>> operands) {
+        final Map<Field<ENTITY>, List<FieldPredicate<ENTITY>>> groups = new LinkedHashMap<>();
+
+        for (final Predicate<? super ENTITY> operand : operands) {
+            if (operand instanceof FieldPredicate) {
+                final FieldPredicate<ENTITY> predicate = (FieldPredicate<ENTITY>) operand;
+                if (isSetMergeable(predicate)) {
+                    groups.computeIfAbsent(predicate.getField(), f -> new ArrayList<>()).add(predicate);
+                }
+            }
+        }
+
+        final List<Predicate<? super ENTITY>> result = new ArrayList<>();
+
+        for (final Predicate<? super ENTITY> operand : operands) {
+            final List<FieldPredicate<ENTITY>> group = operand instanceof FieldPredicate
+                ? groups.get(((FieldPredicate<ENTITY>) operand).getField())
+                : null;
+
+            if (group == null || group.size() < 2 || !group.contains(operand)) {
+                result.add(operand);
+            } else if (group.get(0) == operand) {
+                final Set<Object> values = new LinkedHashSet<>();
+                group.forEach(predicate -> values.addAll(values(predicate)));
+                result.add(in(group.get(0).getField(), values));
+            }
+        }
+
+        return result;
+    }
+
+    private static <ENTITY> boolean isRangeMergeable(final FieldPredicate<ENTITY> predicate) {
+        if (!(predicate.getField() instanceof HasComparableOperators)) {
+            return false;
+        }
+
+        switch (predicate.getPredicateType()) {
+            case EQUAL:
+            case NOT_EQUAL:
+            case GREATER_THAN:
+            case GREATER_OR_EQUAL:
+            case LESS_THAN:
+            case LESS_OR_EQUAL:
+                return isOrdered(arg0(predicate));
+            case BETWEEN:
+                return predicate instanceof HasInclusion
+                    && isOrdered(arg0(predicate))
+                    && isOrdered(arg1(predicate));
+            case IN:
+            case NOT_IN:
+                return argument(predicate).map(set -> set.stream().allMatch(PredicateNormalizer::isOrdered)).orElse(false);
+            default:
+                return false;
+        }
+    }
+
+    private static <ENTITY> boolean isSetMergeable(final FieldPredicate<ENTITY> predicate) {
+        if (!(predicate.getField() instanceof HasComparableOperators)) {
+            return false;
+        }
+
+        // The union of sets holds whenever any of its operands holds, however the values are ordered
+        switch (predicate.getPredicateType()) {
+            case EQUAL:
+                return isMergeable(arg0(predicate));
+            case IN:
+                return argument(predicate).map(set -> set.stream().allMatch(PredicateNormalizer::isMergeable)).orElse(false);
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isMergeable(final Object value) {
+        // NaN and -0.0 are ordered differently by compareTo() than by the primitive operators
+        if (value instanceof Double) {
+            final double d = (Double) value;
+            return !Double.isNaN(d) && Double.doubleToRawLongBits(d) != Double.doubleToRawLongBits(-0.0d);
+        }
+        if (value instanceof Float) {
+            final float f = (Float) value;
+            return !Float.isNaN(f) && Float.floatToRawIntBits(f) != Float.floatToRawIntBits(-0.0f);
+        }
+        return value instanceof Comparable;
+    }
+
+    /**
+     * Returns whether the provided {@code value} is ordered and compared the
+     * same by {@code compareTo()} and {@code equals()} as by the database.
+     */
+    private static boolean isOrdered(final Object value) {
+        if (value instanceof Double || value instanceof Float) {
+            return isMergeable(value);
+        }
+        return value instanceof Integer
+            || value instanceof Long
+            || value instanceof Short
+            || value instanceof Byte
+            || value instanceof BigInteger
+            || value instanceof LocalDate
+            || value instanceof LocalTime
+            || value instanceof LocalDateTime
+            || value instanceof Instant;
+    }
+
+    private static <ENTITY> boolean isEmptyRange(final FieldPredicate<ENTITY> predicate) {
+        if (!(predicate instanceof HasInclusion) || !isOrdered(arg0(predicate)) || !isOrdered(arg1(predicate))) {
+            return false;
+        }
+
+        final Inclusion inclusion = ((HasInclusion) predicate).getInclusion();
+        final int comparison = compare(arg0(predicate), arg1(predicate));
+
+        return comparison > 0 || (comparison == 0 && !(inclusion.isStartInclusive() && inclusion.isEndInclusive()));
+    }
+
+    private static Object arg0(final FieldPredicate<?> predicate) {
+        return predicate instanceof HasArg0 ? ((HasArg0<?>) predicate).get0() : null;
+    }
+
+    private static Object arg1(final FieldPredicate<?> predicate) {
+        return predicate instanceof HasArg1 ? ((HasArg1<?>) predicate).get1() : null;
+    }
+
+    private static Optional<Collection<?>> argument(final FieldPredicate<?> predicate) {
+        final Object argument = arg0(predicate);
+        return argument instanceof Collection
+            ? Optional.of((Collection<?>) argument)
+            : Optional.empty();
+    }
+
+    private static Collection<?> values(final FieldPredicate<?> predicate) {
+        final Object argument = arg0(predicate);
+        return argument instanceof Collection
+            ? (Collection<?>) argument
+            : Collections.singleton(argument);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int compare(final Object first, final Object second) {
+        return ((Comparable<Object>) first).compareTo(second);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <ENTITY> SpeedmentPredicate<ENTITY> in(final Field<ENTITY> field, final Set<Object> values) {
+        final HasComparableOperators operators = (HasComparableOperators) field;
+        if (values.size() == 1) {
+            return operators.equal((Comparable) values.iterator().next());
+        }
+        return operators.in((Collection) values);
+    }
+
+    private static Inclusion inclusion(final boolean startInclusive, final boolean endInclusive) {
+        if (startInclusive) {
+            return endInclusive ? Inclusion.START_INCLUSIVE_END_INCLUSIVE : Inclusion.START_INCLUSIVE_END_EXCLUSIVE;
+        } else {
+            return endInclusive ? Inclusion.START_EXCLUSIVE_END_INCLUSIVE : Inclusion.START_EXCLUSIVE_END_EXCLUSIVE;
+        }
+    }
+
+    /**
+     * The intersection of the range and set predicates on a single field.
+     */
+    private static final class Range {
+
+        private FieldPredicate<?> first;
+        private int count;
+        private boolean hasSet;
+
+        private Object start;
+        private boolean startInclusive;
+        private Object end;
+        private boolean endInclusive;
+        private Set<Object> values;
+        private final Set<Object> excluded = new HashSet<>();
+
+        void add(final FieldPredicate<?> predicate) {
+            final Object arg0 = arg0(predicate);
+
+            switch (predicate.getPredicateType()) {
+                case EQUAL:
+                case IN:
+                    retain(values(predicate));
+                    break;
+                case NOT_EQUAL:
+                case NOT_IN:
+                    excluded.addAll(values(predicate));
+                    // Only absorbed if there is a set to exclude the values from
+                    return;
+                case GREATER_THAN:
+                    start(arg0, false);
+                    break;
+                case GREATER_OR_EQUAL:
+                    start(arg0, true);
+                    break;
+                case LESS_THAN:
+                    end(arg0, false);
+                    break;
+                case LESS_OR_EQUAL:
+                    end(arg0, true);
+                    break;
+                case BETWEEN:
+                    final Inclusion inclusion = ((HasInclusion) predicate).getInclusion();
+                    start(arg0, inclusion.isStartInclusive());
+                    end(arg1(predicate), inclusion.isEndInclusive());
+                    break;
+                default:
+                    throw new IllegalStateException("Unmergeable predicate type " + predicate.getPredicateType());
+            }
+
+            if (first == null) {
+                first = predicate;
+            }
+            count++;
+        }
+
+        boolean isMerged() {
+            return count > 1 || (hasSet && !excluded.isEmpty());
+        }
+
+        boolean absorbs(final FieldPredicate<?> predicate) {
+            switch (predicate.getPredicateType()) {
+                case NOT_EQUAL:
+                case NOT_IN:
+                    return hasSet;
+                default:
+                    return true;
+            }
+        }
+
+        private void retain(final Collection<?> other) {
+            if (values == null) {
+                values = new LinkedHashSet<>(other);
+            } else {
+                values.retainAll(other);
+            }
+            hasSet = true;
+        }
+
+        private void start(final Object value, final boolean inclusive) {
+            final int comparison = start == null ? 1 : compare(value, start);
+            if (comparison > 0) {
+                start = value;
+                startInclusive = inclusive;
+            } else if (comparison == 0) {
+                startInclusive &= inclusive;
+            }
+        }
+
+        private void end(final Object value, final boolean inclusive) {
+            final int comparison = end == null ? -1 : compare(value, end);
+            if (comparison < 0) {
+                end = value;
+                endInclusive = inclusive;
+            } else if (comparison == 0) {
+                endInclusive &= inclusive;
+            }
+        }
+
+        private boolean contains(final Object value) {
+            if (start != null) {
+                final int comparison = compare(value, start);
+                if (comparison < 0 || (comparison == 0 && !startInclusive)) {
+                    return false;
+                }
+            }
+            if (end != null) {
+                final int comparison = compare(value, end);
+                return comparison < 0 || (comparison == 0 && endInclusive);
+            }
+            return true;
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        <ENTITY> SpeedmentPredicate<ENTITY> toPredicate(final Field<ENTITY> field) {
+            if (values != null) {
+                final Set<Object> retained = new LinkedHashSet<>();
+                for (final Object value : values) {
+                    if (contains(value) && !excluded.contains(value)) {
+                        retained.add(value);
+                    }
+                }
+                return retained.isEmpty() ? new AlwaysFalsePredicate<>(field) : in(field, retained);
+            }
+
+            final HasComparableOperators operators = (HasComparableOperators) field;
+
+            if (start != null && end != null) {
+                final int comparison = compare(start, end);
+                if (comparison > 0 || (comparison == 0 && !(startInclusive && endInclusive))) {
+                    return new AlwaysFalsePredicate<>(field);
+                }
+                if (comparison == 0) {
+                    return operators.equal((Comparable) start);
+                }
+                return operators.between((Comparable) start, (Comparable) end, inclusion(startInclusive, endInclusive));
+            }
+
+            if (start != null) {
+                return startInclusive
+                    ? operators.greaterOrEqual((Comparable) start)
+                    : operators.greaterThan((Comparable) start);
+            }
+
+            return endInclusive
+                ? operators.lessOrEqual((Comparable) end)
+                : operators.lessThan((Comparable) end);
+        }
+    }
+
+    /**
+     * Identifies a field predicate by its field, type and arguments.
+     */
+    private static final class Key {
+
+        private final Field<?> field;
+        private final PredicateType type;
+        private final Object arg0;
+        private final Object arg1;
+        private final Inclusion inclusion;
+
+        Key(final FieldPredicate<?> predicate) {
+            this(
+                predicate.getField(),
+                predicate.getPredicateType(),
+                arg0(predicate),
+                arg1(predicate),
+                predicate instanceof HasInclusion ? ((HasInclusion) predicate).getInclusion() : null
+            );
+        }
+
+        private Key(final Field<?> field, final PredicateType type, final Object arg0, final Object arg1, final Inclusion inclusion) {
+            this.field = field;
+            this.type = type;
+            this.arg0 = arg0;
+            this.arg1 = arg1;
+            this.inclusion = inclusion;
+        }
+
+        Key negate() {
+            return new Key(field, type.negate(), arg0, arg1, inclusion);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            final Key that = (Key) o;
+            return field.equals(that.field)
+                && type == that.type
+                && Objects.equals(arg0, that.arg0)
+                && Objects.equals(arg1, that.arg1)
+                && inclusion == that.inclusion;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(field, type, arg0, arg1, inclusion);
+        }
+    }
+}
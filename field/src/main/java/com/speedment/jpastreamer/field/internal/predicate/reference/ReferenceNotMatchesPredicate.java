@@ -0,0 +1,55 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.field.internal.predicate.reference;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.field.internal.predicate.AbstractFieldPredicate;
+import com.speedment.jpastreamer.field.predicate.PredicateType;
+import com.speedment.jpastreamer.field.predicate.SpeedmentPredicate;
+import com.speedment.jpastreamer.field.trait.HasArg0;
+import com.speedment.jpastreamer.field.trait.HasReferenceValue;
+
+/**
+ * A predicate that holds if the entity referenced by a field is
+ * non-null and does not match a predicate on the referenced entity.
+ *
+ * @param <ENTITY>  the entity type
+ * @param <V>       the referenced entity type
+ *
+ * @since   3.0.1
+ */
+public final class ReferenceNotMatchesPredicate<ENTITY, V>
+extends AbstractFieldPredicate<ENTITY, HasReferenceValue<ENTITY, V>>
+implements HasArg0<SpeedmentPredicate<V>> {
+
+    private final SpeedmentPredicate<V> predicate;
+
+    public ReferenceNotMatchesPredicate(HasReferenceValue<ENTITY, V> field, SpeedmentPredicate<V> predicate) {
+        super(PredicateType.NOT_MATCHES, field, entity -> {
+            final V value = field.get(entity);
+            return value != null && !predicate.test(value);
+        });
+        this.predicate = requireNonNull(predicate);
+    }
+
+    @Override
+    public SpeedmentPredicate<V> get0() {
+        return predicate;
+    }
+
+    @Override
+    public ReferenceMatchesPredicate<ENTITY, V> negate() {
+        return new ReferenceMatchesPredicate<>(getField(), predicate);
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.field.predicate;
+
+import static com.speedment.jpastreamer.field.internal.expression.NumericExpressions.requireNumeric;
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.field.internal.predicate.ExpressionPredicateImpl;
+import com.speedment.runtime.compute.expression.Expression;
+
+/**
+ * A predicate that compares the result of a numeric {@link Expression},
+ * for example {@code Film$.length.multiply(2).plus(Film$.rentalDuration)},
+ * to a constant value. Contrary to a lambda that applies the expression,
+ * the comparison can be rendered as a query restriction.
+ * <p>
+ * The expression must evaluate to a primitive number, i.e. be a
+ * {@code ToByte}, {@code ToShort}, {@code ToInt}, {@code ToLong},
+ * {@code ToFloat} or {@code ToDouble}.
+ *
+ * @param <ENTITY> the entity type
+ * @since 3.0.1
+ */
+public interface ExpressionPredicate<ENTITY> extends SpeedmentPredicate<ENTITY> {
+
+    /**
+     * Returns the expression that is compared.
+     *
+     * @return the expression that is compared
+     */
+    Expression<ENTITY> expression();
+
+    /**
+     * Returns the type of comparison, which is one of {@code EQUAL},
+     * {@code NOT_EQUAL}, {@code GREATER_THAN}, {@code GREATER_OR_EQUAL},
+     * {@code LESS_THAN} or {@code LESS_OR_EQUAL}.
+     *
+     * @return the type of comparison
+     */
+    PredicateType getPredicateType();
+
+    /**
+     * Returns the value that the expression is compared to.
+     *
+     * @return the value that the expression is compared to
+     */
+    Number value();
+
+    @Override
+    ExpressionPredicate<ENTITY> negate();
+
+    static <ENTITY> ExpressionPredicate<ENTITY> equal(final Expression<ENTITY> expression, final Number value) {
+        return create(PredicateType.EQUAL, expression, value);
+    }
+
+    static <ENTITY> ExpressionPredicate<ENTITY> notEqual(final Expression<ENTITY> expression, final Number value) {
+        return create(PredicateType.NOT_EQUAL, expression, value);
+    }
+
+    static <ENTITY> ExpressionPredicate<ENTITY> greaterThan(final Expression<ENTITY> expression, final Number value) {
+        return create(PredicateType.GREATER_THAN, expression, value);
+    }
+
+    static <ENTITY> ExpressionPredicate<ENTITY> greaterOrEqual(final Expression<ENTITY> expression, final Number value) {
+        return create(PredicateType.GREATER_OR_EQUAL, expression, value);
+    }
+
+    static <ENTITY> ExpressionPredicate<ENTITY> lessThan(final Expression<ENTITY> expression, final Number value) {
+        return create(PredicateType.LESS_THAN, expression, value);
+    }
+
+    static <ENTITY> ExpressionPredicate<ENTITY> lessOrEqual(final Expression<ENTITY> expression, final Number value) {
+        return create(PredicateType.LESS_OR_EQUAL, expression, value);
+    }
+
+    static <ENTITY> ExpressionPredicate<ENTITY> create(final PredicateType predicateType, final Expression<ENTITY> expression, final Number value) {
+        requireNonNull(predicateType);
+        requireNonNull(value);
+        return new ExpressionPredicateImpl<>(predicateType, requireNumeric(expression), value);
+    }
+}
@@ -60,7 +60,11 @@ public enum PredicateType {
     CONTAINS_IGNORE_CASE,
     NOT_CONTAINS_IGNORE_CASE,
     IS_EMPTY,
-    IS_NOT_EMPTY;
+    IS_NOT_EMPTY,
+
+    // Association
+    MATCHES,
+    NOT_MATCHES;
 
     private PredicateType negatedType;
 
@@ -88,6 +92,7 @@ public enum PredicateType {
         associateNegations(CONTAINS, NOT_CONTAINS);
         associateNegations(CONTAINS_IGNORE_CASE, NOT_CONTAINS_IGNORE_CASE);
         associateNegations(IS_EMPTY, IS_NOT_EMPTY);
+        associateNegations(MATCHES, NOT_MATCHES);
     }
 
     private static void associateNegations(PredicateType a, PredicateType b) {
@@ -13,6 +13,7 @@
 package com.speedment.jpastreamer.field.predicate;
 
 import com.speedment.jpastreamer.field.internal.predicate.ComposedPredicateImpl;
+import com.speedment.jpastreamer.field.internal.predicate.PredicateNormalizer;
 import com.speedment.runtime.compute.ToBoolean;
 
 import java.util.function.Function;
@@ -48,4 +49,20 @@ public interface SpeedmentPredicate<ENTITY> extends ToBoolean<ENTITY> {
     default SpeedmentPredicate<ENTITY> or(Predicate<? super ENTITY> other) {
         return CombinedPredicate.or(this, other);
     }
+
+    /**
+     * Returns a predicate that is equivalent to the provided predicate but
+     * potentially simpler. Nested {@link CombinedPredicate}s are flattened,
+     * constant predicates are folded and predicates on the same field are
+     * merged where possible. A predicate that can never hold is returned as
+     * a predicate of type {@link PredicateType#ALWAYS_FALSE}.
+     *
+     * @param <ENTITY>   the entity type
+     * @param predicate  to normalize
+     * @return           the normalized predicate
+     * @since 3.0.1
+     */
+    static <ENTITY> SpeedmentPredicate<ENTITY> normalize(SpeedmentPredicate<ENTITY> predicate) {
+        return PredicateNormalizer.normalize(predicate);
+    }
 }
@@ -0,0 +1,281 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.field.collector;
+
+import com.speedment.jpastreamer.field.DoubleField;
+import com.speedment.jpastreamer.field.IntField;
+import com.speedment.jpastreamer.field.LongField;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.counting;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.summingDouble;
+import static java.util.stream.Collectors.summingLong;
+import static org.junit.jupiter.api.Assertions.*;
+
+final class PrimitiveFieldCollectorsTest {
+
+    private static final List<Row> ROWS = rows(1_000, 37);
+
+    @Test
+    void groupingByInt() {
+        final IntObjectMap<List<Row>> grouped = ROWS.stream().collect(FieldCollectors.groupingByPrimitive(Row$.i));
+
+        assertEquals(expected(Row::getI, Collectors.toList()), grouped.toMap());
+        assertArrayEquals(ROWS.stream().mapToInt(Row::getI).distinct().toArray(), grouped.keys());
+        assertNull(grouped.get(Integer.MAX_VALUE - 1));
+        assertFalse(grouped.containsKey(Integer.MAX_VALUE - 1));
+    }
+
+    @Test
+    void groupingByLong() {
+        final LongObjectMap<List<Row>> grouped = ROWS.stream().collect(FieldCollectors.groupingByPrimitive(Row$.l));
+
+        assertEquals(expected(Row::getL, Collectors.toList()), grouped.toMap());
+        assertArrayEquals(ROWS.stream().mapToLong(Row::getL).distinct().toArray(), grouped.keys());
+    }
+
+    @Test
+    void groupingByDouble() {
+        final DoubleObjectMap<List<Row>> grouped = ROWS.stream().collect(FieldCollectors.groupingByPrimitive(Row$.d));
+
+        assertEquals(expected(Row::getD, Collectors.toList()), grouped.toMap());
+        assertEquals(grouped.size(), grouped.keys().length);
+    }
+
+    @Test
+    void groupingByWithDownstream() {
+        // counting() has a finisher, so the values are replaced once collected
+        final IntObjectMap<Long> counted = ROWS.stream().collect(FieldCollectors.groupingByPrimitive(Row$.i, counting()));
+        assertEquals(expected(Row::getI, counting()), counted.toMap());
+
+        final LongObjectMap<Long> longCounted = ROWS.stream().collect(FieldCollectors.groupingByPrimitive(Row$.l, counting()));
+        assertEquals(expected(Row::getL, counting()), longCounted.toMap());
+
+        final DoubleObjectMap<Long> doubleCounted = ROWS.stream().collect(FieldCollectors.groupingByPrimitive(Row$.d, counting()));
+        assertEquals(expected(Row::getD, counting()), doubleCounted.toMap());
+    }
+
+    @Test
+    void countingBy() {
+        final IntLongMap byInt = ROWS.stream().collect(FieldCollectors.countingByPrimitive(Row$.i));
+        final LongLongMap byLong = ROWS.stream().collect(FieldCollectors.countingByPrimitive(Row$.l));
+        final DoubleLongMap byDouble = ROWS.stream().collect(FieldCollectors.countingByPrimitive(Row$.d));
+
+        assertEquals(expected(Row::getI, counting()), byInt.toMap());
+        assertEquals(expected(Row::getL, counting()), byLong.toMap());
+        assertEquals(expected(Row::getD, counting()), byDouble.toMap());
+        assertEquals(ROWS.size(), Arrays.stream(byInt.keys()).mapToLong(byInt::get).sum());
+        assertEquals(0L, byInt.get(Integer.MIN_VALUE + 1));
+        assertEquals(-1L, byInt.getOrDefault(Integer.MIN_VALUE + 1, -1L));
+    }
+
+    @Test
+    void summingByIntKey() {
+        final IntLongMap ints = ROWS.stream().collect(FieldCollectors.summingByPrimitive(Row$.i, Row$.i));
+        final IntLongMap longs = ROWS.stream().collect(FieldCollectors.summingByPrimitive(Row$.i, Row$.l));
+        final IntDoubleMap doubles = ROWS.stream().collect(FieldCollectors.summingByPrimitive(Row$.i, Row$.d));
+
+        assertEquals(expected(Row::getI, summingLong(Row::getI)), ints.toMap());
+        assertEquals(expected(Row::getI, summingLong(Row::getL)), longs.toMap());
+        assertEquals(expected(Row::getI, summingDouble(Row::getD)), doubles.toMap());
+    }
+
+    @Test
+    void summingByLongKey() {
+        final LongLongMap ints = ROWS.stream().collect(FieldCollectors.summingByPrimitive(Row$.l, Row$.i));
+        final LongLongMap longs = ROWS.stream().collect(FieldCollectors.summingByPrimitive(Row$.l, Row$.l));
+        final LongDoubleMap doubles = ROWS.stream().collect(FieldCollectors.summingByPrimitive(Row$.l, Row$.d));
+
+        assertEquals(expected(Row::getL, summingLong(Row::getI)), ints.toMap());
+        assertEquals(expected(Row::getL, summingLong(Row::getL)), longs.toMap());
+        assertEquals(expected(Row::getL, summingDouble(Row::getD)), doubles.toMap());
+    }
+
+    @Test
+    void summingByDoubleKey() {
+        final DoubleLongMap ints = ROWS.stream().collect(FieldCollectors.summingByPrimitive(Row$.d, Row$.i));
+        final DoubleLongMap longs = ROWS.stream().collect(FieldCollectors.summingByPrimitive(Row$.d, Row$.l));
+        final DoubleDoubleMap doubles = ROWS.stream().collect(FieldCollectors.summingByPrimitive(Row$.d, Row$.d));
+
+        assertEquals(expected(Row::getD, summingLong(Row::getI)), ints.toMap());
+        assertEquals(expected(Row::getD, summingLong(Row::getL)), longs.toMap());
+        assertEquals(expected(Row::getD, summingDouble(Row::getD)), doubles.toMap());
+    }
+
+    @Test
+    void parallel() {
+        final List<Row> rows = rows(200_000, 5_000);
+
+        final IntObjectMap<List<Row>> grouped = rows.parallelStream().collect(FieldCollectors.groupingByPrimitive(Row$.i));
+        final LongLongMap counted = rows.parallelStream().collect(FieldCollectors.countingByPrimitive(Row$.l));
+        final DoubleDoubleMap summed = rows.parallelStream().collect(FieldCollectors.summingByPrimitive(Row$.d, Row$.d));
+
+        // The combiner merges the partial maps in encounter order
+        assertEquals(rows.stream().collect(FieldCollectors.groupingByPrimitive(Row$.i)).toMap(), grouped.toMap());
+        assertArrayEquals(rows.stream().mapToInt(Row::getI).distinct().toArray(), grouped.keys());
+        assertEquals(expected(rows, Row::getL, counting()), counted.toMap());
+        final Map<Double, Double> expectedSums = expected(rows, Row::getD, summingDouble(Row::getD));
+        assertEquals(expectedSums.keySet(), summed.toMap().keySet());
+        summed.forEach((key, sum) -> assertEquals(expectedSums.get(key), sum, 1e-6));
+    }
+
+    @Test
+    void growth() {
+        // Well beyond the initial capacity, including keys that collide in the low bits
+        final int keys = 50_000;
+        final List<Row> rows = new ArrayList<>();
+        IntStream.range(0, keys).forEach(k -> rows.add(new Row(k << 16, (long) k << 32, k * 0.5)));
+        IntStream.range(0, keys).forEach(k -> rows.add(new Row(k << 16, (long) k << 32, k * 0.5)));
+
+        final IntLongMap byInt = rows.stream().collect(FieldCollectors.countingByPrimitive(Row$.i));
+        final LongLongMap byLong = rows.stream().collect(FieldCollectors.countingByPrimitive(Row$.l));
+        final DoubleObjectMap<List<Row>> byDouble = rows.stream().collect(FieldCollectors.groupingByPrimitive(Row$.d));
+
+        assertEquals(keys, byInt.size());
+        assertEquals(keys, byLong.size());
+        assertEquals(keys, byDouble.size());
+        final int[] intKeys = byInt.keys();
+        for (int k = 0; k < keys; k++) {
+            assertEquals(2L, byInt.get(k << 16));
+            assertEquals(2L, byLong.get((long) k << 32));
+            assertEquals(2, byDouble.get(k * 0.5).size());
+            assertEquals(k << 16, intKeys[k]);
+        }
+        assertFalse(byInt.containsKey(1));
+        assertFalse(byLong.containsKey(1L));
+        assertFalse(byDouble.containsKey(0.25));
+    }
+
+    @Test
+    void extremeKeys() {
+        final List<Row> rows = Arrays.asList(
+            new Row(Integer.MIN_VALUE, Long.MIN_VALUE, Double.NEGATIVE_INFINITY),
+            new Row(0, 0L, Double.MIN_VALUE),
+            new Row(Integer.MAX_VALUE, Long.MAX_VALUE, Double.POSITIVE_INFINITY),
+            new Row(0, 0L, Double.MAX_VALUE)
+        );
+
+        final IntLongMap byInt = rows.stream().collect(FieldCollectors.countingByPrimitive(Row$.i));
+        final LongLongMap byLong = rows.stream().collect(FieldCollectors.countingByPrimitive(Row$.l));
+        final DoubleLongMap byDouble = rows.stream().collect(FieldCollectors.countingByPrimitive(Row$.d));
+
+        assertArrayEquals(new int[]{Integer.MIN_VALUE, 0, Integer.MAX_VALUE}, byInt.keys());
+        assertEquals(2L, byInt.get(0));
+        assertArrayEquals(new long[]{Long.MIN_VALUE, 0L, Long.MAX_VALUE}, byLong.keys());
+        assertEquals(2L, byLong.get(0L));
+        assertEquals(4, byDouble.size());
+        assertEquals(1L, byDouble.get(Double.NEGATIVE_INFINITY));
+    }
+
+    @Test
+    void negativeZeroAndNaN() {
+        final List<Row> rows = Arrays.asList(
+            new Row(0, 0L, 0.0),
+            new Row(1, 0L, -0.0),
+            new Row(2, 0L, Double.NaN),
+            new Row(3, 0L, 0.0 / 0.0),
+            new Row(4, 0L, Double.longBitsToDouble(0x7ff8000000000001L)),
+            new Row(5, 0L, -0.0)
+        );
+
+        // Keys are distinguished as by Double.equals: 0.0 and -0.0 differ while all NaN are the same
+        final DoubleObjectMap<List<Row>> grouped = rows.stream().collect(FieldCollectors.groupingByPrimitive(Row$.d));
+        assertEquals(3, grouped.size());
+        assertEquals(Arrays.asList(0), ids(grouped.get(0.0)));
+        assertEquals(Arrays.asList(1, 5), ids(grouped.get(-0.0)));
+        assertEquals(Arrays.asList(2, 3, 4), ids(grouped.get(Double.NaN)));
+        assertEquals(expected(rows, Row::getD, Collectors.toList()), grouped.toMap());
+
+        final DoubleLongMap counted = rows.stream().collect(FieldCollectors.countingByPrimitive(Row$.d));
+        assertEquals(1L, counted.get(0.0));
+        assertEquals(2L, counted.get(-0.0));
+        assertEquals(3L, counted.get(Double.NaN));
+        assertEquals(Double.doubleToLongBits(-0.0), Double.doubleToLongBits(counted.keys()[1]));
+
+        final DoubleDoubleMap summed = rows.stream().collect(FieldCollectors.summingByPrimitive(Row$.d, Row$.d));
+        assertEquals(3, summed.size());
+        assertTrue(Double.isNaN(summed.get(Double.NaN)));
+    }
+
+    @Test
+    void empty() {
+        final IntObjectMap<List<Row>> grouped = new ArrayList<Row>().stream().collect(FieldCollectors.groupingByPrimitive(Row$.i));
+        assertTrue(grouped.isEmpty());
+        assertEquals(0, grouped.keys().length);
+        assertEquals("{}", grouped.toString());
+    }
+
+    private static <K, R> Map<K, R> expected(final Function<Row, K> classifier, final Collector<Row, ?, R> downstream) {
+        return expected(ROWS, classifier, downstream);
+    }
+
+    private static <K, R> Map<K, R> expected(final List<Row> rows, final Function<Row, K> classifier, final Collector<Row, ?, R> downstream) {
+        return rows.stream().collect(groupingBy(classifier, LinkedHashMap::new, downstream));
+    }
+
+    private static List<Integer> ids(final List<Row> rows) {
+        return rows.stream().map(Row::getI).collect(Collectors.toList());
+    }
+
+    private static List<Row> rows(final int count, final int distinct) {
+        final Random random = new Random(count);
+        final List<Row> rows = new ArrayList<>(count);
+        for (int n = 0; n < count; n++) {
+            final int key = random.nextInt(distinct) - distinct / 2;
+            rows.add(new Row(key, key * 1_000_003L, key / 4.0));
+        }
+        return rows;
+    }
+
+    private static final class Row {
+        private final int i;
+        private final long l;
+        private final double d;
+
+        Row(final int i, final long l, final double d) {
+            this.i = i;
+            this.l = l;
+            this.d = d;
+        }
+
+        int getI() {
+            return i;
+        }
+
+        long getL() {
+            return l;
+        }
+
+        double getD() {
+            return d;
+        }
+    }
+
+    private static final class Row$ {
+        static final IntField<Row> i = IntField.create(Row.class, "i", Row::getI, false);
+        static final LongField<Row> l = LongField.create(Row.class, "l", Row::getL, false);
+        static final DoubleField<Row> d = DoubleField.create(Row.class, "d", Row::getD, false);
+    }
+}
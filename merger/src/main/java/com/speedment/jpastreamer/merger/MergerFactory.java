@@ -19,16 +19,9 @@ package com.speedment.jpastreamer.merger;
 public interface MergerFactory {
 
     /**
-     * Creates and returns a {@code CriteriaMerger} instance.
+     * Creates and returns a {@code QueryPlanner} instance.
      *
-     * @return {@code CriteriaMerger} instance
+     * @return {@code QueryPlanner} instance
      */
-    CriteriaMerger createCriteriaMerger();
-
-    /**
-     * Creates and returns a {@code QueryMerger} instance.
-     *
-     * @return {@code QueryMerger} instance
-     */
-    QueryMerger createQueryMerger();
+    QueryPlanner createQueryPlanner();
 }
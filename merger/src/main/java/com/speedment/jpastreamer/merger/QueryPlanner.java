@@ -0,0 +1,49 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.merger;
+
+import com.speedment.jpastreamer.criteria.Criteria;
+import com.speedment.jpastreamer.merger.result.QueryPlan;
+import com.speedment.jpastreamer.pipeline.Pipeline;
+
+/**
+ * Plans which operations of a {@code Pipeline} are to be executed by the
+ * database, taking the position of each operation into account.
+ *
+ * @since 3.0.1
+ */
+public interface QueryPlanner {
+
+    /**
+     * Walks the provided {@code pipeline} from its source and merges the
+     * operations that can be expressed relationally into the provided
+     * {@code criteria}. Operations that appear after operations which
+     * must stay in the JVM are merged as well, provided that they can be
+     * hoisted ahead of them without changing the result of the pipeline.
+     * Merged operations are removed from the pipeline, leaving the
+     * residual operations in their original order.
+     * <p>
+     * The resulting skip and limit are held by the returned {@code QueryPlan}
+     * and are to be applied to the query created from the {@code criteria}.
+     *
+     * @param pipeline to inspect and merge
+     * @param criteria that provides access to the underlying builder and query
+     * @param <ENTITY> root entity
+     * @return a new QueryPlan containing the modified {@code Pipeline}
+     *         and {@code Criteria}
+     */
+    <ENTITY> QueryPlan<ENTITY> plan(
+        final Pipeline<ENTITY> pipeline,
+        final Criteria<ENTITY, ?> criteria
+    );
+}
@@ -0,0 +1,75 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.merger.result;
+
+import com.speedment.jpastreamer.criteria.Criteria;
+import com.speedment.jpastreamer.pipeline.Pipeline;
+import jakarta.persistence.Query;
+
+/**
+ * A container object used to store the results of planning
+ * performed on a {@code Pipeline}.
+ *
+ * @param <ENTITY> root entity
+ * @since 3.0.1
+ */
+public interface QueryPlan<ENTITY> {
+
+    /**
+     * Returns the pipeline holding the residual operations.
+     *
+     * @return the pipeline holding the residual operations
+     */
+    Pipeline<ENTITY> getPipeline();
+
+    /**
+     * Returns the criteria containing the query that the operations were merged into.
+     *
+     * @return the criteria containing the query that the operations were merged into
+     */
+    Criteria<ENTITY, ?> getCriteria();
+
+    /**
+     * Returns if a skip or a limit was merged, in which case the plan
+     * must be applied to the resulting query using {@link #applyTo(Query)}.
+     *
+     * @return if a skip or a limit was merged
+     */
+    boolean isSliced();
+
+    /**
+     * Returns if the merged operations are known to select no rows, for
+     * example because a merged filter can never hold. In that case, the
+     * query does not have to be executed at all.
+     *
+     * @return if the merged operations are known to select no rows
+     */
+    boolean isEmpty();
+
+    /**
+     * Applies the merged skip and limit, if any, to the provided {@code query}.
+     *
+     * @param query created from the criteria of this plan
+     */
+    void applyTo(Query query);
+
+    /**
+     * Returns the number of rows that the query selects once the merged
+     * skip and limit, if any, are applied, given the provided number of
+     * rows that the query selects without them.
+     *
+     * @param count the number of rows selected without skip and limit
+     * @return the number of rows selected with skip and limit
+     */
+    long applyTo(long count);
+}
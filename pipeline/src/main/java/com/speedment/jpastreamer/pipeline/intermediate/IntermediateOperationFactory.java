@@ -57,6 +57,20 @@ public interface IntermediateOperationFactory {
 
     <T> IntermediateOperation<Stream<T>, Stream<T>> createSkip(long n);
 
+    /**
+     * Creates and returns an operation that is equivalent to
+     * {@code sorted(comparator).skip(skip).limit(limit)} but that only
+     * retains the {@code skip + limit} first elements in memory.
+     *
+     * @param <T>        the element type
+     * @param comparator to sort the elements with
+     * @param skip       the number of leading sorted elements to discard
+     * @param limit      the maximum number of elements to retain after skipping
+     * @return an operation that is equivalent to
+     *         {@code sorted(comparator).skip(skip).limit(limit)}
+     */
+    <T> IntermediateOperation<Stream<T>, Stream<T>> createTopK(Comparator<? super T> comparator, long skip, long limit);
+
 
     <T> IntermediateOperation<Stream<T>, Stream<T>> createTakeWhile(Predicate<? super T> predicate);
 
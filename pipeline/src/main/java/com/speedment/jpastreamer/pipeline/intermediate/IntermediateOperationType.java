@@ -38,7 +38,8 @@ public enum IntermediateOperationType {
     BOXED(PRESERVES_ORDER, PRESERVES_SIZE, MODIFIES_STREAM_TYPE),
     AS(PRESERVES_ORDER, PRESERVES_SIZE, MODIFIES_STREAM_TYPE),
     TAKE_WHILE(PRESERVES_ORDER, PRESERVES_TYPE, PRESERVES_STREAM_TYPE),
-    DROP_WHILE(PRESERVES_ORDER, PRESERVES_TYPE, PRESERVES_STREAM_TYPE);
+    DROP_WHILE(PRESERVES_ORDER, PRESERVES_TYPE, PRESERVES_STREAM_TYPE),
+    TOP_K(MODIFIES_ORDER, PRESERVES_TYPE, PRESERVES_STREAM_TYPE, MODIFIES_SORTED, MODIFIES_FINITE); // sorted(comparator).skip(n).limit(k)
 
     private final Set<Statement> orderPreservation;
 
@@ -0,0 +1,165 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.projection;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.field.DoubleField;
+import com.speedment.jpastreamer.field.Field;
+import com.speedment.jpastreamer.field.IntField;
+import com.speedment.jpastreamer.field.LongField;
+import com.speedment.jpastreamer.field.StringField;
+import com.speedment.jpastreamer.projection.internal.ColumnBatchSpliterator;
+
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A {@code ColumnBatch} holds the values of a number of consecutive rows,
+ * stored column by column in primitive arrays. Columns are backed by
+ * {@code int[]}, {@code long[]} and {@code double[]} arrays for
+ * {@link IntField}, {@link LongField} and {@link DoubleField} respectively,
+ * whereas {@link StringField} columns are dictionary-encoded into
+ * {@code int[]} codes. Null values are tracked by a separate null bitmap
+ * per column.
+ * <p>
+ * Batches are reused by the stream that produces them. Hence, a batch and
+ * its arrays are only valid until the next batch is requested and must be
+ * copied if they are to be retained.
+ *
+ * @param <ENTITY> the entity type
+ * @since 3.0.1
+ */
+public interface ColumnBatch<ENTITY> {
+
+    /**
+     * Returns the number of valid rows in this batch. Arrays returned by
+     * this batch may be larger than the number of rows, in which case the
+     * trailing elements are to be ignored.
+     *
+     * @return the number of valid rows in this batch
+     */
+    int size();
+
+    /**
+     * Returns the fields held by this batch in selection order.
+     *
+     * @return the fields held by this batch
+     */
+    List<Field<ENTITY>> fields();
+
+    /**
+     * Returns the values of the provided {@code field}.
+     *
+     * @param field to return values for
+     * @return the values of the provided {@code field}
+     * @throws IllegalArgumentException if the provided {@code field} is
+     *         not held by this batch
+     */
+    int[] ints(IntField<ENTITY> field);
+
+    /**
+     * Returns the values of the provided {@code field}.
+     *
+     * @param field to return values for
+     * @return the values of the provided {@code field}
+     * @throws IllegalArgumentException if the provided {@code field} is
+     *         not held by this batch
+     */
+    long[] longs(LongField<ENTITY> field);
+
+    /**
+     * Returns the values of the provided {@code field}.
+     *
+     * @param field to return values for
+     * @return the values of the provided {@code field}
+     * @throws IllegalArgumentException if the provided {@code field} is
+     *         not held by this batch
+     */
+    double[] doubles(DoubleField<ENTITY> field);
+
+    /**
+     * Returns the dictionary codes of the provided {@code field}. A code
+     * can be resolved to its String value using {@link #dictionary(StringField)}.
+     * Codes are stable across all batches of the same stream and null
+     * values are encoded as {@code -1}.
+     *
+     * @param field to return codes for
+     * @return the dictionary codes of the provided {@code field}
+     * @throws IllegalArgumentException if the provided {@code field} is
+     *         not held by this batch
+     */
+    int[] codes(StringField<ENTITY> field);
+
+    /**
+     * Returns the dictionary of the provided {@code field} where the
+     * String value of a code is found at the index of the code.
+     *
+     * @param field to return the dictionary for
+     * @return the dictionary of the provided {@code field}
+     * @throws IllegalArgumentException if the provided {@code field} is
+     *         not held by this batch
+     */
+    List<String> dictionary(StringField<ENTITY> field);
+
+    /**
+     * Returns if the value of the provided {@code field} is null for the
+     * provided {@code row}. Primitive value arrays hold a zero value for
+     * null values.
+     *
+     * @param field to inspect
+     * @param row   index of the row
+     * @return if the value of the provided {@code field} is null
+     * @throws IllegalArgumentException if the provided {@code field} is
+     *         not held by this batch
+     */
+    boolean isNull(Field<ENTITY> field, int row);
+
+    /**
+     * Returns a Stream of reusable column batches holding the values of the
+     * provided fields of the elements in the provided {@code stream}.
+     * <p>
+     * The provided fields are applied as a {@link Projection} to the
+     * provided {@code stream} whereby, for a stream obtained from
+     * JPAstreamer, only the selected columns are retrieved from the database.
+     * For best performance, the {@code batchSize} should equal the fetch
+     * size of the underlying query.
+     * <p>
+     * Closing the returned stream closes the provided {@code stream}.
+     *
+     * @param <ENTITY>  the entity type
+     * @param stream    to read values from
+     * @param batchSize the maximum number of rows in each batch
+     * @param first     the first field to select
+     * @param other     other fields to select
+     * @return a Stream of reusable column batches
+     * @throws NullPointerException if any of the provided parameters is null
+     * @throws IllegalArgumentException if {@code batchSize} is not positive or
+     *         if a field is not an {@code IntField}, {@code LongField},
+     *         {@code DoubleField} or {@code StringField}
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    static <ENTITY> Stream<ColumnBatch<ENTITY>> batches(
+        final Stream<ENTITY> stream,
+        final int batchSize,
+        final Field<ENTITY> first,
+        final Field<ENTITY>... other
+    ) {
+        requireNonNull(stream);
+        final Projection<ENTITY> projection = Projection.select(first, other);
+        final ColumnBatchSpliterator<ENTITY> spliterator = new ColumnBatchSpliterator<>(projection.fields(), batchSize, () -> stream.map(projection).iterator());
+        return StreamSupport.stream(spliterator, false).onClose(stream::close);
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.projection;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.field.Field;
+import com.speedment.jpastreamer.field.LongField;
+import com.speedment.jpastreamer.projection.internal.MappedColumnSnapshot;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * A {@code ColumnSnapshot} holds the values of selected fields of all the
+ * entities of a table in a columnar file, which is memory-mapped when the
+ * snapshot is opened. Hence, reopening a snapshot after a restart costs a
+ * single mapping of the file rather than a full read of the table.
+ * <p>
+ * Rows that have changed since the file was written are detected by a
+ * version field whose value increases whenever a row is inserted or
+ * updated, such as a {@code @Version} column or a modification sequence.
+ * When a snapshot is opened, only the rows with a version greater than the
+ * {@link #highWaterMark() high-water mark} of the file are fetched from
+ * the source, which, for a stream obtained from JPAstreamer, renders the
+ * comparison as a {@code WHERE} clause. Fetched rows replace the rows of
+ * the file with the same key. Rows deleted from the table are not detected
+ * and are retained until the file is removed.
+ * <p>
+ * The columns of the file follow the layout of a {@link ColumnBatch} and
+ * are read as column batches directly from the mapped file. A
+ * ColumnSnapshot is immutable and thread safe; a snapshot that includes
+ * later changes is obtained by opening the file again.
+ *
+ * @param <ENTITY> the entity type
+ * @since 3.0.1
+ */
+public interface ColumnSnapshot<ENTITY> {
+
+    /**
+     * Returns the number of rows in this snapshot.
+     *
+     * @return the number of rows in this snapshot
+     */
+    int size();
+
+    /**
+     * Returns the fields held by this snapshot, starting with the key and
+     * the version field.
+     *
+     * @return the fields held by this snapshot
+     */
+    List<Field<ENTITY>> fields();
+
+    /**
+     * Returns the greatest version held by this snapshot, or an empty
+     * OptionalLong if the snapshot holds no versioned rows.
+     *
+     * @return the greatest version held by this snapshot
+     */
+    OptionalLong highWaterMark();
+
+    /**
+     * Returns a Stream of reusable column batches holding the rows of this
+     * snapshot, which are read from the mapped file.
+     *
+     * @param batchSize the maximum number of rows in each batch
+     * @return a Stream of reusable column batches
+     * @throws IllegalArgumentException if {@code batchSize} is not positive
+     */
+    Stream<ColumnBatch<ENTITY>> batches(int batchSize);
+
+    /**
+     * Opens the snapshot in the provided {@code file}, bringing it up to
+     * date with the provided {@code source}.
+     * <p>
+     * If the file does not exist or holds other fields than the provided
+     * ones, all rows are read from the source and written to the file.
+     * Otherwise, only the rows of the source with a version greater than
+     * the high-water mark of the file are read and, if there are any, the
+     * file is rewritten with these rows in place of the rows with the same
+     * key. The file is replaced atomically, so that a snapshot that is
+     * already open is not affected.
+     * <p>
+     * Streams obtained from the source are closed once they are read.
+     *
+     * @param <ENTITY> the entity type
+     * @param file     holding the snapshot
+     * @param source   of streams over all the entities of the table
+     * @param key      the field that identifies a row
+     * @param version  the field that increases whenever a row changes
+     * @param other    other fields to hold
+     * @return the opened snapshot
+     * @throws NullPointerException if any of the provided parameters is null
+     * @throws IllegalArgumentException if a field is not an
+     *         {@code IntField}, {@code LongField}, {@code DoubleField} or
+     *         {@code StringField}
+     * @throws java.io.UncheckedIOException if the file cannot be read or
+     *         written
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    static <ENTITY> ColumnSnapshot<ENTITY> open(
+        final Path file,
+        final Supplier<? extends Stream<ENTITY>> source,
+        final Field<ENTITY> key,
+        final LongField<ENTITY> version,
+        final Field<ENTITY>... other
+    ) {
+        requireNonNull(file);
+        requireNonNull(source);
+        requireNonNull(key);
+        requireNonNull(version);
+        requireNonNull(other);
+        return MappedColumnSnapshot.open(file, source, key, version, other);
+    }
+}
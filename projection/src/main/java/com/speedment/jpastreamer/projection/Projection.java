@@ -47,6 +47,30 @@ public interface Projection<ENTITY> extends Function<ENTITY, Tuple> {
      */
     Set<Field<ENTITY>> fields();
 
+    /**
+     * Creates and returns a new Tuple holding the provided column
+     * {@code values}, which must be given in the order of {@link #fields()}.
+     * <p>
+     * This allows rows that are selected directly from the database to be
+     * represented by the same kind of Tuple as produced by {@link #apply(Object)}
+     * without ever materializing an entity. The provided array is not
+     * copied and must not be modified once passed to this method.
+     * <p>
+     * The default implementation creates the Tuple in the same way as the
+     * projections returned by {@link #select(Field, Field[])}, deriving the
+     * tuple elements from {@link #fields()} on every call.
+     *
+     * @param values the column values of a selected row
+     * @return a new Tuple holding the provided column values
+     * @throws NullPointerException if the provided {@code values} is null
+     * @throws IllegalArgumentException if the number of provided {@code values}
+     *         does not match the number of selected fields
+     * @since 3.0.1
+     */
+    default Tuple tuple(Object[] values) {
+        return new InternalProjection<>(entityClass(), fields()).tuple(values);
+    }
+
     @SafeVarargs
     @SuppressWarnings("varargs")
     static <ENTITY> Projection<ENTITY> select(final Field<ENTITY> first, final Field<ENTITY>... other) {
@@ -0,0 +1,67 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.projection.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.field.Field;
+import com.speedment.jpastreamer.projection.ColumnBatch;
+import jakarta.persistence.Tuple;
+
+import java.util.Iterator;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A Spliterator that reads Tuples into a single, reused
+ * {@link InternalColumnBatch}. The Tuples are not requested until
+ * the first batch is requested.
+ */
+public final class ColumnBatchSpliterator<ENTITY> extends Spliterators.AbstractSpliterator<ColumnBatch<ENTITY>> {
+
+    private final InternalColumnBatch<ENTITY> batch;
+    private final Supplier<Iterator<Tuple>> tupleSupplier;
+    private Iterator<Tuple> tuples;
+
+    public ColumnBatchSpliterator(final Set<Field<ENTITY>> fields, final int batchSize, final Supplier<Iterator<Tuple>> tupleSupplier) {
+        super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("The batch size must be positive: " + batchSize);
+        }
+        this.batch = new InternalColumnBatch<>(fields, batchSize);
+        this.tupleSupplier = requireNonNull(tupleSupplier);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super ColumnBatch<ENTITY>> action) {
+        requireNonNull(action);
+        if (tuples == null) {
+            tuples = requireNonNull(tupleSupplier.get());
+        }
+
+        batch.clear();
+        while (!batch.isFull() && tuples.hasNext()) {
+            batch.add(tuples.next());
+        }
+
+        if (batch.size() == 0) {
+            return false;
+        }
+
+        action.accept(batch);
+        return true;
+    }
+}
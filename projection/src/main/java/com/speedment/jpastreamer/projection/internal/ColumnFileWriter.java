@@ -0,0 +1,368 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.projection.internal;
+
+import static com.speedment.jpastreamer.projection.internal.MappedColumnSnapshot.DOUBLE;
+import static com.speedment.jpastreamer.projection.internal.MappedColumnSnapshot.FORMAT;
+import static com.speedment.jpastreamer.projection.internal.MappedColumnSnapshot.INT;
+import static com.speedment.jpastreamer.projection.internal.MappedColumnSnapshot.LONG;
+import static com.speedment.jpastreamer.projection.internal.MappedColumnSnapshot.MAGIC;
+import static com.speedment.jpastreamer.projection.internal.MappedColumnSnapshot.STRING;
+import static com.speedment.jpastreamer.projection.internal.MappedColumnSnapshot.kind;
+import static com.speedment.jpastreamer.projection.internal.MappedColumnSnapshot.words;
+
+import com.speedment.jpastreamer.field.DoubleField;
+import com.speedment.jpastreamer.field.Field;
+import com.speedment.jpastreamer.field.IntField;
+import com.speedment.jpastreamer.field.LongField;
+import com.speedment.jpastreamer.field.StringField;
+import com.speedment.jpastreamer.projection.ColumnBatch;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntPredicate;
+
+/**
+ * Collects rows from column batches in growing columns and writes them as
+ * a column snapshot file, see {@link MappedColumnSnapshot}. The first
+ * column is the key and the second column is the version.
+ */
+final class ColumnFileWriter<ENTITY> {
+
+    private final List<Field<ENTITY>> fields;
+    private final Column[] columns;
+    private int size;
+
+    ColumnFileWriter(final List<Field<ENTITY>> fields) {
+        this.fields = fields;
+        this.columns = new Column[fields.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = column(kind(fields.get(i)));
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Adds the rows of the provided {@code batch} that the provided
+     * {@code included} predicate holds for.
+     */
+    void add(final ColumnBatch<ENTITY> batch, final IntPredicate included) {
+        final int[] rows = new int[batch.size()];
+        int count = 0;
+        for (int row = 0; row < batch.size(); row++) {
+            if (included.test(row)) {
+                rows[count++] = row;
+            }
+        }
+        for (int i = 0; i < columns.length; i++) {
+            columns[i].ensureCapacity(size + count);
+            final Field<ENTITY> field = fields.get(i);
+            for (int j = 0; j < count; j++) {
+                if (batch.isNull(field, rows[j])) {
+                    columns[i].nulls[(size + j) >>> 6] |= 1L << (size + j);
+                }
+            }
+            columns[i].add(batch, field, rows, count, size);
+        }
+        size += count;
+    }
+
+    /**
+     * Returns the non-null keys of the rows added so far.
+     */
+    Set<Object> keys() {
+        final Set<Object> keys = new HashSet<>();
+        for (int row = 0; row < size; row++) {
+            if (!columns[0].isNull(row)) {
+                keys.add(columns[0].value(row));
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Returns the key of the provided {@code row} of the provided
+     * {@code batch}, or {@code null} if the key is null.
+     */
+    @SuppressWarnings("unchecked")
+    Object key(final ColumnBatch<ENTITY> batch, final int row) {
+        final Field<ENTITY> field = fields.get(0);
+        if (batch.isNull(field, row)) {
+            return null;
+        }
+        switch (kind(field)) {
+            case INT: return batch.ints((IntField<ENTITY>) field)[row];
+            case LONG: return batch.longs((LongField<ENTITY>) field)[row];
+            case DOUBLE: return batch.doubles((DoubleField<ENTITY>) field)[row];
+            default: return batch.dictionary((StringField<ENTITY>) field).get(batch.codes((StringField<ENTITY>) field)[row]);
+        }
+    }
+
+    void write(final Path path) throws IOException {
+        final Path temporary = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+        try {
+            try (FileOutputStream outputStream = new FileOutputStream(temporary.toFile());
+                 DataOutputStream output = new DataOutputStream(new BufferedOutputStream(outputStream, 1 << 16))) {
+                output.writeInt(MAGIC);
+                output.writeInt(FORMAT);
+                output.writeInt(size);
+                final LongColumn version = (LongColumn) columns[1];
+                long highWaterMark = Long.MIN_VALUE;
+                boolean versioned = false;
+                for (int row = 0; row < size; row++) {
+                    if (!version.isNull(row)) {
+                        highWaterMark = Math.max(highWaterMark, version.values[row]);
+                        versioned = true;
+                    }
+                }
+                output.writeBoolean(versioned);
+                output.writeLong(highWaterMark);
+                output.writeInt(columns.length);
+                for (int i = 0; i < columns.length; i++) {
+                    output.writeByte(kind(fields.get(i)));
+                    writeString(output, fields.get(i).columnName());
+                }
+                for (Column column : columns) {
+                    if (column instanceof StringColumn) {
+                        final List<String> dictionary = ((StringColumn) column).dictionary;
+                        output.writeInt(dictionary.size());
+                        for (String value : dictionary) {
+                            writeString(output, value);
+                        }
+                    }
+                }
+                for (Column column : columns) {
+                    for (int word = 0; word < words(size); word++) {
+                        output.writeLong(column.nulls[word]);
+                    }
+                    column.write(output, size);
+                }
+                output.flush();
+                // The content must be on disk before the rename makes it the snapshot
+                outputStream.getFD().sync();
+            }
+            move(temporary, path);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private static void move(final Path temporary, final Path path) throws IOException {
+        try {
+            Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void writeString(final DataOutputStream output, final String value) throws IOException {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static Column column(final byte kind) {
+        switch (kind) {
+            case INT: return new IntColumn();
+            case LONG: return new LongColumn();
+            case DOUBLE: return new DoubleColumn();
+            default: return new StringColumn();
+        }
+    }
+
+    private abstract static class Column {
+
+        long[] nulls = new long[0];
+
+        void ensureCapacity(final int rows) {
+            if (words(rows) > nulls.length) {
+                nulls = Arrays.copyOf(nulls, Math.max(words(rows), 2 * nulls.length));
+            }
+        }
+
+        boolean isNull(final int row) {
+            return (nulls[row >>> 6] & (1L << row)) != 0;
+        }
+
+        static int grown(final int length, final int rows) {
+            return Math.max(rows, 2 * length);
+        }
+
+        abstract <ENTITY> void add(ColumnBatch<ENTITY> batch, Field<ENTITY> field, int[] rows, int count, int at);
+
+        abstract Object value(int row);
+
+        abstract void write(DataOutputStream output, int size) throws IOException;
+    }
+
+    private static final class IntColumn extends Column {
+
+        private int[] values = new int[0];
+
+        @Override
+        void ensureCapacity(final int rows) {
+            super.ensureCapacity(rows);
+            if (rows > values.length) {
+                values = Arrays.copyOf(values, grown(values.length, rows));
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        <ENTITY> void add(final ColumnBatch<ENTITY> batch, final Field<ENTITY> field, final int[] rows, final int count, final int at) {
+            final int[] source = batch.ints((IntField<ENTITY>) field);
+            for (int j = 0; j < count; j++) {
+                values[at + j] = source[rows[j]];
+            }
+        }
+
+        @Override
+        Object value(final int row) {
+            return values[row];
+        }
+
+        @Override
+        void write(final DataOutputStream output, final int size) throws IOException {
+            for (int row = 0; row < size; row++) {
+                output.writeInt(values[row]);
+            }
+        }
+    }
+
+    private static final class LongColumn extends Column {
+
+        private long[] values = new long[0];
+
+        @Override
+        void ensureCapacity(final int rows) {
+            super.ensureCapacity(rows);
+            if (rows > values.length) {
+                values = Arrays.copyOf(values, grown(values.length, rows));
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        <ENTITY> void add(final ColumnBatch<ENTITY> batch, final Field<ENTITY> field, final int[] rows, final int count, final int at) {
+            final long[] source = batch.longs((LongField<ENTITY>) field);
+            for (int j = 0; j < count; j++) {
+                values[at + j] = source[rows[j]];
+            }
+        }
+
+        @Override
+        Object value(final int row) {
+            return values[row];
+        }
+
+        @Override
+        void write(final DataOutputStream output, final int size) throws IOException {
+            for (int row = 0; row < size; row++) {
+                output.writeLong(values[row]);
+            }
+        }
+    }
+
+    private static final class DoubleColumn extends Column {
+
+        private double[] values = new double[0];
+
+        @Override
+        void ensureCapacity(final int rows) {
+            super.ensureCapacity(rows);
+            if (rows > values.length) {
+                values = Arrays.copyOf(values, grown(values.length, rows));
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        <ENTITY> void add(final ColumnBatch<ENTITY> batch, final Field<ENTITY> field, final int[] rows, final int count, final int at) {
+            final double[] source = batch.doubles((DoubleField<ENTITY>) field);
+            for (int j = 0; j < count; j++) {
+                values[at + j] = source[rows[j]];
+            }
+        }
+
+        @Override
+        Object value(final int row) {
+            return values[row];
+        }
+
+        @Override
+        void write(final DataOutputStream output, final int size) throws IOException {
+            for (int row = 0; row < size; row++) {
+                output.writeDouble(values[row]);
+            }
+        }
+    }
+
+    private static final class StringColumn extends Column {
+
+        private int[] codes = new int[0];
+        // Codes of the batches are translated to the dictionary of the file
+        private final Map<String, Integer> encoding = new HashMap<>();
+        private final List<String> dictionary = new ArrayList<>();
+
+        @Override
+        void ensureCapacity(final int rows) {
+            super.ensureCapacity(rows);
+            if (rows > codes.length) {
+                codes = Arrays.copyOf(codes, grown(codes.length, rows));
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        <ENTITY> void add(final ColumnBatch<ENTITY> batch, final Field<ENTITY> field, final int[] rows, final int count, final int at) {
+            final int[] source = batch.codes((StringField<ENTITY>) field);
+            final List<String> sourceDictionary = batch.dictionary((StringField<ENTITY>) field);
+            for (int j = 0; j < count; j++) {
+                final int code = source[rows[j]];
+                codes[at + j] = code == -1 ? -1 : encoding.computeIfAbsent(sourceDictionary.get(code), value -> {
+                    dictionary.add(value);
+                    return dictionary.size() - 1;
+                });
+            }
+        }
+
+        @Override
+        Object value(final int row) {
+            return dictionary.get(codes[row]);
+        }
+
+        @Override
+        void write(final DataOutputStream output, final int size) throws IOException {
+            for (int row = 0; row < size; row++) {
+                output.writeInt(codes[row]);
+            }
+        }
+    }
+}
@@ -0,0 +1,291 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.projection.internal;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.toList;
+
+import com.speedment.jpastreamer.field.DoubleField;
+import com.speedment.jpastreamer.field.Field;
+import com.speedment.jpastreamer.field.IntField;
+import com.speedment.jpastreamer.field.LongField;
+import com.speedment.jpastreamer.field.StringField;
+import com.speedment.jpastreamer.projection.ColumnBatch;
+import jakarta.persistence.Tuple;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+final class InternalColumnBatch<ENTITY> implements ColumnBatch<ENTITY> {
+
+    private final List<Field<ENTITY>> fields;
+    private final Map<Field<ENTITY>, Column> columns;
+    private final Column[] columnArray;
+    private final int capacity;
+    private int size;
+
+    InternalColumnBatch(final Set<Field<ENTITY>> fields, final int capacity) {
+        this.fields = Collections.unmodifiableList(new ArrayList<>(fields));
+        this.capacity = capacity;
+        this.columns = new HashMap<>();
+        this.columnArray = new Column[this.fields.size()];
+        for (int i = 0; i < columnArray.length; i++) {
+            final Field<ENTITY> field = this.fields.get(i);
+            columnArray[i] = column(field, capacity);
+            columns.put(field, columnArray[i]);
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public List<Field<ENTITY>> fields() {
+        return fields;
+    }
+
+    @Override
+    public int[] ints(final IntField<ENTITY> field) {
+        return column(field, IntColumn.class).values;
+    }
+
+    @Override
+    public long[] longs(final LongField<ENTITY> field) {
+        return column(field, LongColumn.class).values;
+    }
+
+    @Override
+    public double[] doubles(final DoubleField<ENTITY> field) {
+        return column(field, DoubleColumn.class).values;
+    }
+
+    @Override
+    public int[] codes(final StringField<ENTITY> field) {
+        return column(field, StringColumn.class).codes;
+    }
+
+    @Override
+    public List<String> dictionary(final StringField<ENTITY> field) {
+        return Collections.unmodifiableList(column(field, StringColumn.class).dictionary);
+    }
+
+    @Override
+    public boolean isNull(final Field<ENTITY> field, final int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " is not within [0, " + size + ")");
+        }
+        final long[] nulls = column(field, Column.class).nulls;
+        return (nulls[row >>> 6] & (1L << row)) != 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ColumnBatch{size=%d, columns=%s}", size, fields.stream().map(Field::columnName).collect(toList()));
+    }
+
+    boolean isFull() {
+        return size == capacity;
+    }
+
+    void clear() {
+        for (Column column : columnArray) {
+            Arrays.fill(column.nulls, 0L);
+        }
+        size = 0;
+    }
+
+    void add(final Tuple tuple) {
+        for (int i = 0; i < columnArray.length; i++) {
+            final Object value = tuple.get(i);
+            if (value == null) {
+                columnArray[i].nulls[size >>> 6] |= 1L << size;
+                columnArray[i].setDefault(size);
+            } else {
+                columnArray[i].set(size, value);
+            }
+        }
+        size++;
+    }
+
+    /**
+     * Replaces the rows of this batch with the provided {@code count} rows
+     * of the provided {@code snapshot}, starting at {@code fromRow}.
+     */
+    void read(final MappedColumnSnapshot<ENTITY> snapshot, final int fromRow, final int count) {
+        for (int i = 0; i < columnArray.length; i++) {
+            final long[] nulls = columnArray[i].nulls;
+            Arrays.fill(nulls, 0L);
+            for (int word = 0; word < (count + 63) >>> 6; word++) {
+                nulls[word] = snapshot.nullBits(i, fromRow + (word << 6));
+            }
+            if ((count & 63) != 0) {
+                nulls[count >>> 6] &= (1L << count) - 1;
+            }
+            columnArray[i].read(snapshot, i, fromRow, count);
+        }
+        size = count;
+    }
+
+    private <C extends Column> C column(final Field<ENTITY> field, final Class<C> type) {
+        requireNonNull(field);
+        final Column column = columns.get(field);
+        if (!type.isInstance(column)) {
+            throw new IllegalArgumentException(String.format("The field %s is not held as a %s by this batch", field.columnName(), type.getSimpleName()));
+        }
+        return type.cast(column);
+    }
+
+    private static Column column(final Field<?> field, final int capacity) {
+        if (field instanceof IntField) return new IntColumn(capacity);
+        if (field instanceof LongField) return new LongColumn(capacity);
+        if (field instanceof DoubleField) return new DoubleColumn(capacity);
+        if (field instanceof StringField) return new StringColumn(capacity);
+        throw new IllegalArgumentException(String.format("The field %s cannot be held in a column batch. Supported are IntField, LongField, DoubleField and StringField", field.columnName()));
+    }
+
+    private abstract static class Column {
+
+        final long[] nulls;
+
+        Column(final int capacity) {
+            this.nulls = new long[(capacity + 63) >>> 6];
+        }
+
+        abstract void set(int row, Object value);
+
+        abstract void setDefault(int row);
+
+        abstract void read(MappedColumnSnapshot<?> snapshot, int column, int fromRow, int count);
+    }
+
+    private static final class IntColumn extends Column {
+
+        private final int[] values;
+
+        IntColumn(final int capacity) {
+            super(capacity);
+            this.values = new int[capacity];
+        }
+
+        @Override
+        void set(final int row, final Object value) {
+            values[row] = ((Number) value).intValue();
+        }
+
+        @Override
+        void setDefault(final int row) {
+            values[row] = 0;
+        }
+
+        @Override
+        void read(final MappedColumnSnapshot<?> snapshot, final int column, final int fromRow, final int count) {
+            snapshot.ints(column, fromRow, values, count);
+        }
+    }
+
+    private static final class LongColumn extends Column {
+
+        private final long[] values;
+
+        LongColumn(final int capacity) {
+            super(capacity);
+            this.values = new long[capacity];
+        }
+
+        @Override
+        void set(final int row, final Object value) {
+            values[row] = ((Number) value).longValue();
+        }
+
+        @Override
+        void setDefault(final int row) {
+            values[row] = 0L;
+        }
+
+        @Override
+        void read(final MappedColumnSnapshot<?> snapshot, final int column, final int fromRow, final int count) {
+            snapshot.longs(column, fromRow, values, count);
+        }
+    }
+
+    private static final class DoubleColumn extends Column {
+
+        private final double[] values;
+
+        DoubleColumn(final int capacity) {
+            super(capacity);
+            this.values = new double[capacity];
+        }
+
+        @Override
+        void set(final int row, final Object value) {
+            values[row] = ((Number) value).doubleValue();
+        }
+
+        @Override
+        void setDefault(final int row) {
+            values[row] = 0d;
+        }
+
+        @Override
+        void read(final MappedColumnSnapshot<?> snapshot, final int column, final int fromRow, final int count) {
+            snapshot.doubles(column, fromRow, values, count);
+        }
+    }
+
+    private static final class StringColumn extends Column {
+
+        private final int[] codes;
+        // The dictionary is kept across batches so that codes remain stable
+        private final Map<String, Integer> encoding = new HashMap<>();
+        private final List<String> dictionary = new ArrayList<>();
+
+        StringColumn(final int capacity) {
+            super(capacity);
+            this.codes = new int[capacity];
+        }
+
+        @Override
+        void set(final int row, final Object value) {
+            final String string = (String) value;
+            Integer code = encoding.get(string);
+            if (code == null) {
+                code = dictionary.size();
+                dictionary.add(string);
+                encoding.put(string, code);
+            }
+            codes[row] = code;
+        }
+
+        @Override
+        void setDefault(final int row) {
+            codes[row] = -1;
+        }
+
+        @Override
+        void read(final MappedColumnSnapshot<?> snapshot, final int column, final int fromRow, final int count) {
+            // The codes of a snapshot refer to the dictionary of the file
+            if (dictionary.isEmpty()) {
+                dictionary.addAll(snapshot.dictionary(column));
+            }
+            snapshot.ints(column, fromRow, codes, count);
+        }
+    }
+}
@@ -0,0 +1,344 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.projection.internal;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.toList;
+
+import com.speedment.jpastreamer.field.DoubleField;
+import com.speedment.jpastreamer.field.Field;
+import com.speedment.jpastreamer.field.IntField;
+import com.speedment.jpastreamer.field.LongField;
+import com.speedment.jpastreamer.field.StringField;
+import com.speedment.jpastreamer.projection.ColumnBatch;
+import com.speedment.jpastreamer.projection.ColumnSnapshot;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A {@link ColumnSnapshot} that reads its columns from a memory-mapped file.
+ * <p>
+ * The file holds, in big-endian order, a header followed by the dictionaries
+ * of the String columns and the data of each column. The header holds a
+ * magic number, the format version, the number of rows, the high-water
+ * mark and the kind and name of each column. The data of a column is a
+ * null bitmap of one bit per row, followed by the values, which are held
+ * as {@code int}, {@code long} or {@code double} values or as {@code int}
+ * dictionary codes.
+ */
+public final class MappedColumnSnapshot<ENTITY> implements ColumnSnapshot<ENTITY> {
+
+    static final int MAGIC = 0x4A505343;
+    static final int FORMAT = 1;
+
+    static final byte INT = 0;
+    static final byte LONG = 1;
+    static final byte DOUBLE = 2;
+    static final byte STRING = 3;
+
+    private static final int BATCH_SIZE = 4096;
+
+    private final List<Field<ENTITY>> fields;
+    private final ByteBuffer buffer;
+    private final int size;
+    private final OptionalLong highWaterMark;
+    private final int[] nullOffsets;
+    private final int[] valueOffsets;
+    private final List<List<String>> dictionaries;
+
+    private MappedColumnSnapshot(
+        final List<Field<ENTITY>> fields,
+        final ByteBuffer buffer,
+        final int size,
+        final OptionalLong highWaterMark,
+        final int[] nullOffsets,
+        final int[] valueOffsets,
+        final List<List<String>> dictionaries
+    ) {
+        this.fields = fields;
+        this.buffer = buffer;
+        this.size = size;
+        this.highWaterMark = highWaterMark;
+        this.nullOffsets = nullOffsets;
+        this.valueOffsets = valueOffsets;
+        this.dictionaries = dictionaries;
+    }
+
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    public static <ENTITY> MappedColumnSnapshot<ENTITY> open(
+        final Path file,
+        final Supplier<? extends Stream<ENTITY>> source,
+        final Field<ENTITY> key,
+        final LongField<ENTITY> version,
+        final Field<ENTITY>... other
+    ) {
+        final Path path = requireNonNull(file).toAbsolutePath();
+        final List<Field<ENTITY>> fields = fields(key, version, other);
+        try {
+            final MappedColumnSnapshot<ENTITY> existing = Files.exists(path) ? map(path, fields) : null;
+            final boolean incremental = existing != null && existing.highWaterMark.isPresent();
+
+            final ColumnFileWriter<ENTITY> writer = new ColumnFileWriter<>(fields);
+            try (Stream<ENTITY> stream = incremental
+                    ? source.get().filter(version.greaterThan(existing.highWaterMark.getAsLong()))
+                    : source.get()) {
+                batches(stream, fields).forEach(batch -> writer.add(batch, row -> true));
+            }
+            if (incremental) {
+                if (writer.size() == 0) {
+                    return existing;
+                }
+                // The fetched rows take the place of the rows with the same key
+                final Set<Object> changed = writer.keys();
+                try (Stream<ColumnBatch<ENTITY>> batches = existing.batches(BATCH_SIZE)) {
+                    batches.forEach(batch -> writer.add(batch, row -> !changed.contains(writer.key(batch, row))));
+                }
+            }
+            writer.write(path);
+
+            final MappedColumnSnapshot<ENTITY> written = map(path, fields);
+            if (written == null) {
+                throw new IllegalStateException("The column snapshot " + path + " could not be read after it was written");
+            }
+            return written;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public List<Field<ENTITY>> fields() {
+        return fields;
+    }
+
+    @Override
+    public OptionalLong highWaterMark() {
+        return highWaterMark;
+    }
+
+    @Override
+    public Stream<ColumnBatch<ENTITY>> batches(final int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("The batch size must be positive: " + batchSize);
+        }
+        final int capacity = Math.min(batchSize, Math.max(size, 1));
+        final InternalColumnBatch<ENTITY> batch = new InternalColumnBatch<>(new LinkedHashSet<>(fields), capacity);
+        final long count = ((long) size + capacity - 1) / capacity;
+        final Spliterator<ColumnBatch<ENTITY>> spliterator = new Spliterators.AbstractSpliterator<ColumnBatch<ENTITY>>(count, Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.SIZED) {
+            private int row;
+
+            @Override
+            public boolean tryAdvance(final Consumer<? super ColumnBatch<ENTITY>> action) {
+                requireNonNull(action);
+                if (row >= size) {
+                    return false;
+                }
+                final int rows = Math.min(capacity, size - row);
+                batch.read(MappedColumnSnapshot.this, row, rows);
+                row += rows;
+                action.accept(batch);
+                return true;
+            }
+        };
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ColumnSnapshot{size=%d, highWaterMark=%s, columns=%s}", size, highWaterMark, fields.stream().map(Field::columnName).collect(toList()));
+    }
+
+    void ints(final int column, final int fromRow, final int[] target, final int count) {
+        view(valueOffsets[column] + fromRow * Integer.BYTES).asIntBuffer().get(target, 0, count);
+    }
+
+    void longs(final int column, final int fromRow, final long[] target, final int count) {
+        view(valueOffsets[column] + fromRow * Long.BYTES).asLongBuffer().get(target, 0, count);
+    }
+
+    void doubles(final int column, final int fromRow, final double[] target, final int count) {
+        view(valueOffsets[column] + fromRow * Double.BYTES).asDoubleBuffer().get(target, 0, count);
+    }
+
+    List<String> dictionary(final int column) {
+        return dictionaries.get(column);
+    }
+
+    /**
+     * Returns the 64 null bits of the provided {@code column} that start
+     * at the provided {@code row}.
+     */
+    long nullBits(final int column, final int row) {
+        final int words = words(size);
+        final int word = row >>> 6;
+        final int shift = row & 63;
+        final long low = word < words ? buffer.getLong(nullOffsets[column] + word * Long.BYTES) : 0L;
+        if (shift == 0) {
+            return low;
+        }
+        final long high = word + 1 < words ? buffer.getLong(nullOffsets[column] + (word + 1) * Long.BYTES) : 0L;
+        return (low >>> shift) | (high << (64 - shift));
+    }
+
+    private ByteBuffer view(final int offset) {
+        final ByteBuffer view = buffer.duplicate();
+        view.position(offset);
+        return view;
+    }
+
+    static int words(final int rows) {
+        return (rows + 63) >>> 6;
+    }
+
+    static int width(final byte kind) {
+        return kind == INT || kind == STRING ? Integer.BYTES : Long.BYTES;
+    }
+
+    static byte kind(final Field<?> field) {
+        if (field instanceof IntField) return INT;
+        if (field instanceof LongField) return LONG;
+        if (field instanceof DoubleField) return DOUBLE;
+        if (field instanceof StringField) return STRING;
+        throw new IllegalArgumentException(String.format("The field %s cannot be held in a column snapshot. Supported are IntField, LongField, DoubleField and StringField", field.columnName()));
+    }
+
+    @SafeVarargs
+    private static <ENTITY> List<Field<ENTITY>> fields(final Field<ENTITY> key, final LongField<ENTITY> version, final Field<ENTITY>... other) {
+        final Set<Field<ENTITY>> fields = new LinkedHashSet<>();
+        fields.add(requireNonNull(key));
+        fields.add(requireNonNull(version));
+        for (Field<ENTITY> field : other) {
+            fields.add(requireNonNull(field));
+        }
+        if (fields.size() < 2) {
+            throw new IllegalArgumentException("The version field cannot be the key field " + key.columnName());
+        }
+        fields.forEach(MappedColumnSnapshot::kind);
+        return Collections.unmodifiableList(new ArrayList<>(fields));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <ENTITY> Stream<ColumnBatch<ENTITY>> batches(final Stream<ENTITY> stream, final List<Field<ENTITY>> fields) {
+        final Field<ENTITY>[] other = (Field<ENTITY>[]) fields.subList(1, fields.size()).toArray(new Field<?>[0]);
+        return ColumnBatch.batches(stream, BATCH_SIZE, fields.get(0), other);
+    }
+
+    /**
+     * Maps the provided {@code path}, or returns {@code null} if the file
+     * is not a column snapshot of the provided {@code fields}.
+     */
+    private static <ENTITY> MappedColumnSnapshot<ENTITY> map(final Path path, final List<Field<ENTITY>> fields) throws IOException {
+        final ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalStateException("The column snapshot " + path + " exceeds " + Integer.MAX_VALUE + " bytes");
+            }
+            // The mapping remains valid after the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT) {
+                return null;
+            }
+            final int size = buffer.getInt();
+            final boolean versioned = buffer.get() != 0;
+            final long highWaterMark = buffer.getLong();
+            final int columns = buffer.getInt();
+            if (size < 0 || columns != fields.size()) {
+                return null;
+            }
+            final byte[] kinds = new byte[columns];
+            for (int i = 0; i < columns; i++) {
+                kinds[i] = buffer.get();
+                final String name = readString(buffer);
+                // A file of other fields is rewritten rather than reused
+                if (kinds[i] != kind(fields.get(i)) || !name.equals(fields.get(i).columnName())) {
+                    return null;
+                }
+            }
+            final List<List<String>> dictionaries = new ArrayList<>(columns);
+            for (int i = 0; i < columns; i++) {
+                if (kinds[i] == STRING) {
+                    final String[] dictionary = new String[buffer.getInt()];
+                    for (int j = 0; j < dictionary.length; j++) {
+                        dictionary[j] = readString(buffer);
+                    }
+                    dictionaries.add(Collections.unmodifiableList(Arrays.asList(dictionary)));
+                } else {
+                    dictionaries.add(Collections.emptyList());
+                }
+            }
+            final int[] nullOffsets = new int[columns];
+            final int[] valueOffsets = new int[columns];
+            long offset = buffer.position();
+            for (int i = 0; i < columns; i++) {
+                nullOffsets[i] = (int) offset;
+                offset += (long) words(size) * Long.BYTES;
+                valueOffsets[i] = (int) offset;
+                offset += (long) size * width(kinds[i]);
+            }
+            if (offset > buffer.capacity()) {
+                return null;
+            }
+            return new MappedColumnSnapshot<>(
+                fields,
+                buffer,
+                size,
+                versioned ? OptionalLong.of(highWaterMark) : OptionalLong.empty(),
+                nullOffsets,
+                valueOffsets,
+                dictionaries
+            );
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            // A truncated file is rewritten rather than reused
+            return null;
+        }
+    }
+
+    private static String readString(final ByteBuffer buffer) {
+        final int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        final byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -55,6 +55,14 @@ final class TupleContext<ENTITY> {
         return new StandardTuple(tuple);
     }
 
+    Tuple create(final Object[] values) {
+        requireNonNull(values);
+        if (values.length != elements.size())
+            throw new IllegalArgumentException(String.format("Expected %d values but got %d", elements.size(), values.length));
+
+        return new StandardTuple(values);
+    }
+
     private TupleElement<?> tupleElement(final Field<ENTITY> field) {
         // Fields should hold their type and typeToken
         if (field instanceof LongField) return new StandardTupleElement<>(Long.class, field.columnName());
@@ -74,7 +82,7 @@ final class TupleContext<ENTITY> {
 
         private StandardTuple(Object[] tuple) {
             this.tuple = requireNonNull(tuple);
-            assert tuple.length != elements.size();
+            assert tuple.length == elements.size();
         }
 
         @Override
@@ -0,0 +1,150 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.projection;
+
+import com.speedment.jpastreamer.field.DoubleField;
+import com.speedment.jpastreamer.field.IntField;
+import com.speedment.jpastreamer.field.StringField;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class ColumnBatchTest {
+
+    @Test
+    void batches() {
+        final List<Integer> sizes = new ArrayList<>();
+        final List<Integer> ids = new ArrayList<>();
+        final double[] sum = new double[1];
+
+        ColumnBatch.batches(persons(5), 2, Person$.id, Person$.weight).forEach(batch -> {
+            sizes.add(batch.size());
+            final int[] idValues = batch.ints(Person$.id);
+            final double[] weights = batch.doubles(Person$.weight);
+            for (int i = 0; i < batch.size(); i++) {
+                ids.add(idValues[i]);
+                sum[0] += weights[i];
+            }
+        });
+
+        assertEquals(Arrays.asList(2, 2, 1), sizes);
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4), ids);
+        assertEquals(0.5 * (0 + 1 + 2 + 3 + 4), sum[0]);
+    }
+
+    @Test
+    void dictionary() {
+        final List<String> names = new ArrayList<>();
+        ColumnBatch.batches(persons(6), 4, Person$.name).forEach(batch -> {
+            final int[] codes = batch.codes(Person$.name);
+            for (int i = 0; i < batch.size(); i++) {
+                names.add(codes[i] == -1 ? null : batch.dictionary(Person$.name).get(codes[i]));
+            }
+            assertTrue(batch.dictionary(Person$.name).size() <= 2);
+        });
+
+        assertEquals(Arrays.asList("even", "odd", "even", "odd", "even", "odd"), names);
+    }
+
+    @Test
+    void nulls() {
+        final Person nameless = new Person(7);
+        nameless.name = null;
+
+        ColumnBatch.batches(Stream.of(new Person(6), nameless), 10, Person$.name).forEach(batch -> {
+            assertFalse(batch.isNull(Person$.name, 0));
+            assertTrue(batch.isNull(Person$.name, 1));
+            assertEquals(-1, batch.codes(Person$.name)[1]);
+        });
+    }
+
+    @Test
+    void unknownField() {
+        ColumnBatch.batches(persons(1), 1, Person$.id).forEach(batch ->
+            assertThrows(IllegalArgumentException.class, () -> batch.doubles(Person$.weight))
+        );
+    }
+
+    @Test
+    void illegalBatchSize() {
+        assertThrows(IllegalArgumentException.class, () -> ColumnBatch.batches(persons(1), 0, Person$.id));
+    }
+
+    @Test
+    void close() {
+        final AtomicBoolean closed = new AtomicBoolean();
+        ColumnBatch.batches(persons(1).onClose(() -> closed.set(true)), 1, Person$.id).close();
+        assertTrue(closed.get());
+    }
+
+    private static Stream<Person> persons(final int count) {
+        return IntStream.range(0, count).mapToObj(Person::new);
+    }
+
+    private static final class Person {
+        int id;
+        String name;
+        double weight;
+
+        Person(final int id) {
+            this.id = id;
+            this.name = id % 2 == 0 ? "even" : "odd";
+            this.weight = id * 0.5;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public double getWeight() {
+            return weight;
+        }
+    }
+
+    private static final class Person$ {
+
+        public static final IntField<Person> id = IntField.create(
+                Person.class,
+                "id",
+                Person::getId,
+                true
+        );
+
+        public static final StringField<Person> name = StringField.create(
+                Person.class,
+                "name",
+                Person::getName,
+                false
+        );
+
+        public static final DoubleField<Person> weight = DoubleField.create(
+                Person.class,
+                "weight",
+                Person::getWeight,
+                false
+        );
+
+    }
+
+}
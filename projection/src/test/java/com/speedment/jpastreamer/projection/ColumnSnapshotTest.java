@@ -0,0 +1,178 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.projection;
+
+import com.speedment.jpastreamer.field.IntField;
+import com.speedment.jpastreamer.field.LongField;
+import com.speedment.jpastreamer.field.StringField;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class ColumnSnapshotTest {
+
+    @Test
+    void open(@TempDir final Path directory) {
+        final ColumnSnapshot<Person> snapshot = ColumnSnapshot.open(directory.resolve("persons"), () -> persons(100), Person$.id, Person$.version, Person$.name);
+
+        assertEquals(100, snapshot.size());
+        assertEquals(99L, snapshot.highWaterMark().getAsLong());
+        assertEquals(Arrays.asList(Person$.id, Person$.version, Person$.name), snapshot.fields());
+
+        final Map<Integer, String> names = names(snapshot, 7);
+        assertEquals(100, names.size());
+        assertEquals("even", names.get(4));
+        assertNull(names.get(5));
+    }
+
+    @Test
+    void reopen(@TempDir final Path directory) {
+        final Path file = directory.resolve("persons");
+        final Map<Integer, String> names = names(ColumnSnapshot.open(file, () -> persons(100), Person$.id, Person$.version, Person$.name), 64);
+
+        // Only rows newer than the high-water mark are taken from the source
+        final ColumnSnapshot<Person> snapshot = ColumnSnapshot.open(file, () -> persons(10), Person$.id, Person$.version, Person$.name);
+
+        assertEquals(100, snapshot.size());
+        assertEquals(names, names(snapshot, 64));
+    }
+
+    @Test
+    void delta(@TempDir final Path directory) {
+        final Path file = directory.resolve("persons");
+        final ColumnSnapshot<Person> previous = ColumnSnapshot.open(file, () -> persons(100), Person$.id, Person$.version, Person$.name);
+
+        final Person changed = new Person(4, 200, "changed");
+        final Person added = new Person(100, 201, "added");
+        final ColumnSnapshot<Person> snapshot = ColumnSnapshot.open(file, () -> Stream.of(changed, added), Person$.id, Person$.version, Person$.name);
+
+        assertEquals(101, snapshot.size());
+        assertEquals(201L, snapshot.highWaterMark().getAsLong());
+        final Map<Integer, String> names = names(snapshot, 10);
+        assertEquals("changed", names.get(4));
+        assertEquals("added", names.get(100));
+        assertEquals("odd", names.get(3));
+
+        // A snapshot that is already open is not affected
+        assertEquals("even", names(previous, 10).get(4));
+    }
+
+    @Test
+    void otherFields(@TempDir final Path directory) {
+        final Path file = directory.resolve("persons");
+        ColumnSnapshot.open(file, () -> persons(100), Person$.id, Person$.version);
+
+        final ColumnSnapshot<Person> snapshot = ColumnSnapshot.open(file, () -> persons(10), Person$.id, Person$.version, Person$.name);
+
+        assertEquals(10, snapshot.size());
+        assertEquals(10, names(snapshot, 3).size());
+    }
+
+    @Test
+    void corrupt(@TempDir final Path directory) throws Exception {
+        final Path file = directory.resolve("persons");
+        Files.write(file, new byte[] {1, 2, 3});
+
+        assertEquals(5, ColumnSnapshot.open(file, () -> persons(5), Person$.id, Person$.version).size());
+    }
+
+    @Test
+    void empty(@TempDir final Path directory) {
+        final ColumnSnapshot<Person> snapshot = ColumnSnapshot.open(directory.resolve("persons"), Stream::empty, Person$.id, Person$.version);
+
+        assertEquals(0, snapshot.size());
+        assertFalse(snapshot.highWaterMark().isPresent());
+        assertEquals(0, snapshot.batches(10).count());
+    }
+
+    @Test
+    void illegalBatchSize(@TempDir final Path directory) {
+        final ColumnSnapshot<Person> snapshot = ColumnSnapshot.open(directory.resolve("persons"), () -> persons(1), Person$.id, Person$.version);
+        assertThrows(IllegalArgumentException.class, () -> snapshot.batches(0));
+    }
+
+    private static Map<Integer, String> names(final ColumnSnapshot<Person> snapshot, final int batchSize) {
+        final Map<Integer, String> names = new TreeMap<>();
+        snapshot.batches(batchSize).forEach(batch -> {
+            final int[] ids = batch.ints(Person$.id);
+            final int[] codes = batch.codes(Person$.name);
+            for (int i = 0; i < batch.size(); i++) {
+                names.put(ids[i], batch.isNull(Person$.name, i) ? null : batch.dictionary(Person$.name).get(codes[i]));
+            }
+        });
+        return names;
+    }
+
+    private static Stream<Person> persons(final int count) {
+        return IntStream.range(0, count).mapToObj(id -> new Person(id, id, id % 2 == 0 ? "even" : id % 5 == 0 ? null : "odd"));
+    }
+
+    private static final class Person {
+        int id;
+        long version;
+        String name;
+
+        Person(final int id, final long version, final String name) {
+            this.id = id;
+            this.version = version;
+            this.name = name;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    private static final class Person$ {
+
+        public static final IntField<Person> id = IntField.create(
+                Person.class,
+                "id",
+                Person::getId,
+                true
+        );
+
+        public static final LongField<Person> version = LongField.create(
+                Person.class,
+                "version",
+                Person::getVersion,
+                false
+        );
+
+        public static final StringField<Person> name = StringField.create(
+                Person.class,
+                "name",
+                Person::getName,
+                false
+        );
+
+    }
+
+}
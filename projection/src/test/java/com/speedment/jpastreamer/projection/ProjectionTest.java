@@ -13,11 +13,15 @@
 package com.speedment.jpastreamer.projection;
 
 import com.speedment.jpastreamer.field.ComparableField;
+import com.speedment.jpastreamer.field.Field;
 import com.speedment.jpastreamer.field.StringField;
+import jakarta.persistence.Tuple;
 import org.junit.jupiter.api.Test;
 
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 import static java.util.Collections.singleton;
 import static org.junit.jupiter.api.Assertions.*;
@@ -38,6 +42,45 @@ final class ProjectionTest {
         assertEquals(new HashSet<>(Arrays.asList(Person$.personId, Person$.name)), projection.fields());
     }
 
+    @Test
+    void tuple() {
+        final Projection<Person> projection = Projection.select(Person$.personId, Person$.name);
+        final Tuple tuple = projection.tuple(new Object[]{42, "Ada"});
+        assertEquals(42, tuple.get(0));
+        assertEquals("Ada", tuple.get("name", String.class));
+        assertEquals(2, tuple.getElements().size());
+    }
+
+    @Test
+    void tupleWrongArity() {
+        final Projection<Person> projection = Projection.select(Person$.personId, Person$.name);
+        assertThrows(IllegalArgumentException.class, () -> projection.tuple(new Object[]{42}));
+        assertThrows(NullPointerException.class, () -> projection.tuple(null));
+    }
+
+    @Test
+    void tupleOfOtherImplementation() {
+        final Projection<Person> projection = new Projection<Person>() {
+            @Override
+            public Class<Person> entityClass() {
+                return Person.class;
+            }
+
+            @Override
+            public Set<Field<Person>> fields() {
+                return new LinkedHashSet<>(Arrays.asList(Person$.personId, Person$.name));
+            }
+
+            @Override
+            public Tuple apply(Person person) {
+                return tuple(new Object[]{person.getPersonId(), person.getName()});
+            }
+        };
+        final Tuple tuple = projection.tuple(new Object[]{42, "Ada"});
+        assertEquals(42, tuple.get("personId"));
+        assertEquals("Ada", tuple.get(1, String.class));
+    }
+
     private static final class Person {
         int personId;
         String name;
@@ -0,0 +1,138 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.application.standard.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.criteria.Criteria;
+import com.speedment.jpastreamer.criteria.CriteriaFactory;
+import com.speedment.jpastreamer.criteria.PredicateFactory;
+import com.speedment.jpastreamer.criteria.QueryParameter;
+import com.speedment.jpastreamer.field.predicate.SpeedmentPredicate;
+import com.speedment.jpastreamer.rootfactory.RootFactory;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityTransaction;
+import jakarta.persistence.Query;
+import jakarta.persistence.criteria.CommonAbstractCriteria;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Executes the bulk update and delete statements of a JPAStreamer with
+ * Entity Managers of its supplier.
+ */
+final class BulkExecutor {
+
+    /**
+     * Builds the statement of a {@code CriteriaUpdate} or {@code CriteriaDelete}.
+     */
+    @FunctionalInterface
+    interface StatementBuilder {
+        Query build(EntityManager entityManager, BulkExecutor executor);
+    }
+
+    private final Supplier<EntityManager> entityManagerSupplier;
+    private final boolean closeEntityManagers;
+    private final Consumer<Class<?>> invalidator;
+    private final CriteriaFactory criteriaFactory;
+    private final PredicateFactory predicateFactory;
+
+    BulkExecutor(
+        final Supplier<EntityManager> entityManagerSupplier,
+        final boolean closeEntityManagers,
+        final Consumer<Class<?>> invalidator
+    ) {
+        this.entityManagerSupplier = requireNonNull(entityManagerSupplier);
+        this.closeEntityManagers = closeEntityManagers;
+        this.invalidator = requireNonNull(invalidator);
+        this.criteriaFactory = RootFactory.getOrThrow(CriteriaFactory.class, ServiceLoader::load);
+        this.predicateFactory = RootFactory.getOrThrow(PredicateFactory.class, ServiceLoader::load);
+    }
+
+    int execute(final Class<?> entityClass, final StatementBuilder statementBuilder) {
+        final EntityManager entityManager = entityManagerSupplier.get();
+        try {
+            final int count = executeUpdate(entityManager, statementBuilder.build(entityManager, this));
+            // The persistence contexts of the Streamers may hold entities that are now stale
+            if (closeEntityManagers) {
+                invalidator.accept(entityClass);
+            }
+            return count;
+        } finally {
+            if (closeEntityManagers) {
+                entityManager.close();
+            }
+        }
+    }
+
+    /**
+     * Creates and returns a {@code Criteria} for the provided {@code statement}
+     * where the provided {@code predicates} are applied by the returned
+     * {@code Criteria} to the statement.
+     */
+    <T> Criteria<T, Void> criteria(
+        final EntityManager entityManager,
+        final CommonAbstractCriteria statement,
+        final Root<T> root,
+        final List<SpeedmentPredicate<T>> predicates,
+        final Consumer<Predicate> where
+    ) {
+        final Criteria<T, Void> criteria = criteriaFactory.createStatementCriteria(entityManager, statement, root);
+        if (!predicates.isEmpty()) {
+            final Predicate[] restrictions = predicates.stream()
+                .map(predicate -> predicateFactory.createPredicate(criteria, predicate))
+                .toArray(Predicate[]::new);
+            where.accept(criteria.getBuilder().and(restrictions));
+        }
+        return criteria;
+    }
+
+    /**
+     * Sets the parameters of the provided {@code criteria} on the provided {@code query}.
+     */
+    Query parameterized(final Query query, final Criteria<?, ?> criteria) {
+        for (final QueryParameter<?> queryParameter : criteria.getQueryParameters()) {
+            bindParameter(query, queryParameter);
+        }
+        return query;
+    }
+
+    private static <T> void bindParameter(final Query query, final QueryParameter<T> queryParameter) {
+        query.setParameter(queryParameter.getParameterExpression(), queryParameter.getValue());
+    }
+
+    private static int executeUpdate(final EntityManager entityManager, final Query query) {
+        if (entityManager.isJoinedToTransaction()) {
+            return query.executeUpdate();
+        }
+
+        final EntityTransaction transaction = entityManager.getTransaction();
+        transaction.begin();
+        try {
+            final int count = query.executeUpdate();
+            transaction.commit();
+            return count;
+        } catch (RuntimeException e) {
+            if (transaction.isActive()) {
+                transaction.rollback();
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.application.standard.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.application.Page;
+import com.speedment.jpastreamer.field.trait.HasComparableOperators;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Reads the pages of a JPAStreamer together with the total number of
+ * elements of the paged pipeline.
+ * <p>
+ * If Streamers of their own can be created for counts, the total is
+ * counted concurrently with reading the page, by a Streamer that is closed
+ * afterwards. Otherwise, the total is counted by the calling thread, as the
+ * Entity Managers of the JPAStreamer may be bound to it.
+ */
+final class Paging {
+
+    private final Function<StreamConfiguration<?>, Stream<?>> streams;
+    private final Function<StreamConfiguration<?>, Streamer<?>> countStreamers; // null if counted by the calling thread
+    private final ExecutorService countExecutor;
+
+    Paging(
+        final Function<StreamConfiguration<?>, Stream<?>> streams,
+        final Function<StreamConfiguration<?>, Streamer<?>> countStreamers
+    ) {
+        this.streams = requireNonNull(streams);
+        this.countStreamers = countStreamers;
+        this.countExecutor = Executors.newCachedThreadPool(runnable -> {
+            final Thread thread = new Thread(runnable, "jpastreamer-page-count");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    <T> Page<T, Long> page(final StreamConfiguration<T> streamConfiguration, final UnaryOperator<Stream<T>> query, final long offset, final int size) {
+        requireNonNull(streamConfiguration);
+        requireNonNull(query);
+        if (offset < 0) {
+            throw new IllegalArgumentException("The offset must not be negative: " + offset);
+        }
+        requirePositiveSize(size);
+        final CompletableFuture<Long> total = count(streamConfiguration, query);
+        final List<T> content;
+        try (Stream<T> stream = stream(streamConfiguration)) {
+            content = query.apply(stream)
+                    .skip(offset)
+                    .limit(size)
+                    .collect(Collectors.toList());
+        }
+        final long count = join(total);
+        final long next = offset + content.size();
+        return new StandardPage<>(content, count, content.size() == size && next < count ? next : null);
+    }
+
+    @SuppressWarnings("unchecked")
+    <T, V extends Comparable<? super V>> Page<T, V> page(final StreamConfiguration<T> streamConfiguration, final UnaryOperator<Stream<T>> query, final HasComparableOperators<T, V> key, final V after, final int size) {
+        requireNonNull(streamConfiguration);
+        requireNonNull(query);
+        requireNonNull(key);
+        requirePositiveSize(size);
+        final CompletableFuture<Long> total = count(streamConfiguration, query);
+        final List<T> content;
+        try (Stream<T> stream = stream(streamConfiguration)) {
+            final Stream<T> queried = query.apply(stream);
+            content = (after == null ? queried : queried.filter(key.greaterThan(after)))
+                    .sorted(key.comparator())
+                    .limit(size)
+                    .collect(Collectors.toList());
+        }
+        final long count = join(total);
+        final V next = content.size() == size ? (V) key.getter().apply(content.get(size - 1)) : null;
+        return new StandardPage<>(content, count, next);
+    }
+
+    void close() {
+        countExecutor.shutdown();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Stream<T> stream(final StreamConfiguration<T> streamConfiguration) {
+        return (Stream<T>) streams.apply(streamConfiguration);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<Long> count(final StreamConfiguration<T> streamConfiguration, final UnaryOperator<Stream<T>> query) {
+        if (countStreamers == null) {
+            try (Stream<T> stream = stream(streamConfiguration)) {
+                return CompletableFuture.completedFuture(query.apply(stream).count());
+            }
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            // Entity Managers are not thread safe, so the count is executed by an Entity Manager of its own
+            final Streamer<T> streamer = (Streamer<T>) countStreamers.apply(streamConfiguration);
+            try (Stream<T> stream = streamer.stream()) {
+                return query.apply(stream).count();
+            } finally {
+                streamer.close();
+            }
+        }, countExecutor);
+    }
+
+    private static long join(final CompletableFuture<Long> total) {
+        try {
+            return total.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static void requirePositiveSize(final int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("The page size must be positive: " + size);
+        }
+    }
+}
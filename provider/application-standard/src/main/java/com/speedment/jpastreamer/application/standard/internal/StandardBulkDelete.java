@@ -0,0 +1,75 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.application.standard.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.application.BulkDelete;
+import com.speedment.jpastreamer.criteria.Criteria;
+import com.speedment.jpastreamer.field.predicate.SpeedmentPredicate;
+
+import jakarta.persistence.criteria.CriteriaDelete;
+import jakarta.persistence.criteria.Root;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+final class StandardBulkDelete<T> implements BulkDelete<T> {
+
+    private final Class<T> entityClass;
+    private final List<SpeedmentPredicate<T>> predicates;
+    private final BulkExecutor executor;
+
+    StandardBulkDelete(final Class<T> entityClass, final BulkExecutor executor) {
+        this(entityClass, Collections.emptyList(), executor);
+    }
+
+    private StandardBulkDelete(
+        final Class<T> entityClass,
+        final List<SpeedmentPredicate<T>> predicates,
+        final BulkExecutor executor
+    ) {
+        this.entityClass = requireNonNull(entityClass);
+        this.predicates = predicates;
+        this.executor = requireNonNull(executor);
+    }
+
+    @Override
+    public BulkDelete<T> where(final SpeedmentPredicate<T> predicate) {
+        requireNonNull(predicate);
+        final List<SpeedmentPredicate<T>> newPredicates = new ArrayList<>(predicates);
+        newPredicates.add(predicate);
+        return new StandardBulkDelete<>(entityClass, newPredicates, executor);
+    }
+
+    @Override
+    public int execute() {
+        return executor.execute(entityClass, (entityManager, bulkExecutor) -> {
+            final CriteriaDelete<T> delete = entityManager.getCriteriaBuilder().createCriteriaDelete(entityClass);
+            final Root<T> root = delete.from(entityClass);
+
+            final Criteria<T, Void> criteria = bulkExecutor.criteria(entityManager, delete, root, predicates, delete::where);
+
+            return bulkExecutor.parameterized(entityManager.createQuery(delete), criteria);
+        });
+    }
+
+    @Override
+    public String toString() {
+        return "StandardBulkDelete{" +
+                "of " + entityClass.getSimpleName() +
+                " where " + predicates +
+                '}';
+    }
+}
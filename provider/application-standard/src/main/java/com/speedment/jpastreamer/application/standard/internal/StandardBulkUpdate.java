@@ -0,0 +1,160 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.application.standard.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.application.BulkUpdate;
+import com.speedment.jpastreamer.criteria.Criteria;
+import com.speedment.jpastreamer.field.Field;
+import com.speedment.jpastreamer.field.predicate.SpeedmentPredicate;
+import com.speedment.jpastreamer.field.trait.HasBooleanValue;
+import com.speedment.jpastreamer.field.trait.HasByteValue;
+import com.speedment.jpastreamer.field.trait.HasCharValue;
+import com.speedment.jpastreamer.field.trait.HasDoubleValue;
+import com.speedment.jpastreamer.field.trait.HasFloatValue;
+import com.speedment.jpastreamer.field.trait.HasIntValue;
+import com.speedment.jpastreamer.field.trait.HasLongValue;
+import com.speedment.jpastreamer.field.trait.HasReferenceValue;
+import com.speedment.jpastreamer.field.trait.HasShortValue;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+final class StandardBulkUpdate<T> implements BulkUpdate<T> {
+
+    private final Class<T> entityClass;
+    private final List<SpeedmentPredicate<T>> predicates;
+    private final Map<Field<T>, Object> assignments;
+    private final BulkExecutor executor;
+
+    StandardBulkUpdate(final Class<T> entityClass, final BulkExecutor executor) {
+        this(entityClass, Collections.emptyList(), Collections.emptyMap(), executor);
+    }
+
+    private StandardBulkUpdate(
+        final Class<T> entityClass,
+        final List<SpeedmentPredicate<T>> predicates,
+        final Map<Field<T>, Object> assignments,
+        final BulkExecutor executor
+    ) {
+        this.entityClass = requireNonNull(entityClass);
+        this.predicates = predicates;
+        this.assignments = assignments;
+        this.executor = requireNonNull(executor);
+    }
+
+    @Override
+    public BulkUpdate<T> where(final SpeedmentPredicate<T> predicate) {
+        requireNonNull(predicate);
+        final List<SpeedmentPredicate<T>> newPredicates = new ArrayList<>(predicates);
+        newPredicates.add(predicate);
+        return new StandardBulkUpdate<>(entityClass, newPredicates, assignments, executor);
+    }
+
+    @Override
+    public <V> BulkUpdate<T> set(final HasReferenceValue<T, V> field, final V value) {
+        return assign(field, value);
+    }
+
+    @Override
+    public BulkUpdate<T> set(final HasBooleanValue<T> field, final boolean value) {
+        return assign(field, value);
+    }
+
+    @Override
+    public BulkUpdate<T> set(final HasByteValue<T> field, final byte value) {
+        return assign(field, value);
+    }
+
+    @Override
+    public BulkUpdate<T> set(final HasShortValue<T> field, final short value) {
+        return assign(field, value);
+    }
+
+    @Override
+    public BulkUpdate<T> set(final HasIntValue<T> field, final int value) {
+        return assign(field, value);
+    }
+
+    @Override
+    public BulkUpdate<T> set(final HasLongValue<T> field, final long value) {
+        return assign(field, value);
+    }
+
+    @Override
+    public BulkUpdate<T> set(final HasFloatValue<T> field, final float value) {
+        return assign(field, value);
+    }
+
+    @Override
+    public BulkUpdate<T> set(final HasDoubleValue<T> field, final double value) {
+        return assign(field, value);
+    }
+
+    @Override
+    public BulkUpdate<T> set(final HasCharValue<T> field, final char value) {
+        return assign(field, value);
+    }
+
+    private BulkUpdate<T> assign(final Field<T> field, final Object value) {
+        requireNonNull(field);
+        final Map<Field<T>, Object> newAssignments = new LinkedHashMap<>(assignments);
+        newAssignments.put(field, value);
+        return new StandardBulkUpdate<>(entityClass, predicates, newAssignments, executor);
+    }
+
+    @Override
+    public int execute() {
+        if (assignments.isEmpty()) {
+            throw new IllegalStateException("No field of " + entityClass.getSimpleName() + " is set");
+        }
+
+        return executor.execute(entityClass, (entityManager, bulkExecutor) -> {
+            final CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+            final CriteriaUpdate<T> update = builder.createCriteriaUpdate(entityClass);
+            final Root<T> root = update.from(entityClass);
+
+            assignments.forEach((field, value) -> {
+                final Path<Object> path = root.get(field.columnName());
+                if (value == null) {
+                    update.<Object>set(path, builder.nullLiteral(path.getJavaType()));
+                } else {
+                    update.<Object, Object>set(path, value);
+                }
+            });
+
+            final Criteria<T, Void> criteria = bulkExecutor.criteria(entityManager, update, root, predicates, update::where);
+
+            return bulkExecutor.parameterized(entityManager.createQuery(update), criteria);
+        });
+    }
+
+    @Override
+    public String toString() {
+        return "StandardBulkUpdate{" +
+                "of " + entityClass.getSimpleName() +
+                " setting " + assignments.keySet().stream().map(Field::columnName).collect(Collectors.joining(", ")) +
+                " where " + predicates +
+                '}';
+    }
+}
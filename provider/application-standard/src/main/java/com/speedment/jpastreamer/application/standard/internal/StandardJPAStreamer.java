@@ -18,23 +18,30 @@ import com.speedment.jpastreamer.analytics.AnalyticsReporter;
 import com.speedment.jpastreamer.analytics.AnalyticsReporterFactory;
 import com.speedment.jpastreamer.announcer.Announcer;
 import com.speedment.jpastreamer.appinfo.ApplicationInformation;
+import com.speedment.jpastreamer.application.BulkDelete;
+import com.speedment.jpastreamer.application.BulkUpdate;
 import com.speedment.jpastreamer.application.JPAStreamer;
+import com.speedment.jpastreamer.application.Page;
+import com.speedment.jpastreamer.application.WriteBack;
+import com.speedment.jpastreamer.field.trait.HasComparableOperators;
 import com.speedment.jpastreamer.rootfactory.RootFactory;
 import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
 
 import jakarta.persistence.EntityManager;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 import java.util.stream.Stream;
 
 final class StandardJPAStreamer implements JPAStreamer {
 
     private final Supplier<EntityManager> entityManagerSupplier;
     private final Runnable closeHandler;
-    private final Map<StreamConfiguration<?>, Streamer<?>> streamerCache;
+    private final StreamerCache streamerCache;
     private final AnalyticsReporter analyticsReporter;
+    private final BulkExecutor bulkExecutor;
+    private final Paging paging;
     
     private final boolean closeEntityManagers; 
     
@@ -42,7 +49,13 @@ final class StandardJPAStreamer implements JPAStreamer {
         this.closeHandler = requireNonNull(closeHandler);
         this.entityManagerSupplier = requireNonNull(entityManagerSupplier);
         this.closeEntityManagers = closeEntityManagers; 
-        streamerCache = new ConcurrentHashMap<>();
+        streamerCache = new StreamerCache(streamConfiguration -> new StandardStreamer<>(streamConfiguration, entityManagerSupplier));
+        bulkExecutor = new BulkExecutor(entityManagerSupplier, closeEntityManagers, this::invalidate);
+        // Supplied Entity Managers may be bound to the calling thread, so pages are then counted by the caller
+        paging = new Paging(
+                this::stream,
+                closeEntityManagers ? streamConfiguration -> new StandardStreamer<>(streamConfiguration, entityManagerSupplier) : null
+        );
         final ApplicationInformation applicationInformation = RootFactory.getOrThrow(ApplicationInformation.class, ServiceLoader::load);
         final AnalyticsReporterFactory analyticsReporterFactory = RootFactory.getOrThrow(AnalyticsReporterFactory.class, ServiceLoader::load);
         analyticsReporter = analyticsReporterFactory.createAnalyticsReporter(applicationInformation.implementationVersion(), demoMode);
@@ -51,15 +64,12 @@ final class StandardJPAStreamer implements JPAStreamer {
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public <T> Stream<T> stream(final StreamConfiguration<T> streamConfiguration) {
         requireNonNull(streamConfiguration);
         if (streamConfiguration.joins().isEmpty()) {
             // Only cache simple configurations to limit the number of objects held
             // See https://github.com/speedment/jpa-streamer/issues/56
-            return (Stream<T>) streamerCache
-                    .computeIfAbsent(streamConfiguration, ec -> new StandardStreamer<>(streamConfiguration, entityManagerSupplier))
-                    .stream();
+            return streamerCache.stream(streamConfiguration);
         } else {
             final Streamer<T> streamer = new StandardStreamer<>(streamConfiguration, entityManagerSupplier);
             return closeEntityManagers ? 
@@ -75,12 +85,52 @@ final class StandardJPAStreamer implements JPAStreamer {
         }
         Arrays.stream(entityClasses)
                 .map(StreamConfiguration::of)
-                .forEach(streamerCache::remove); 
+                .forEach(streamerCache::evict); 
+    }
+
+    @Override
+    public <T> BulkUpdate<T> update(final Class<T> entityClass) {
+        requireNonNull(entityClass);
+        return new StandardBulkUpdate<>(entityClass, bulkExecutor);
+    }
+
+    @Override
+    public <T> BulkDelete<T> delete(final Class<T> entityClass) {
+        requireNonNull(entityClass);
+        return new StandardBulkDelete<>(entityClass, bulkExecutor);
+    }
+
+    @Override
+    public <T> WriteBack<T> writeBack(final Class<T> entityClass) {
+        requireNonNull(entityClass);
+        return new StandardWriteBack<>(entityClass, entityManagerSupplier, closeEntityManagers);
+    }
+
+    @Override
+    public <T, V extends Comparable<? super V>> Stream<T> tail(final StreamConfiguration<T> streamConfiguration, final HasComparableOperators<T, V> key, final V lastSeen) {
+        return TailSpliterator.stream(this::stream, streamConfiguration, key, lastSeen);
+    }
+
+    @Override
+    public <T> Page<T, Long> page(final StreamConfiguration<T> streamConfiguration, final UnaryOperator<Stream<T>> query, final long offset, final int size) {
+        return paging.page(streamConfiguration, query, offset, size);
+    }
+
+    @Override
+    public <T, V extends Comparable<? super V>> Page<T, V> page(final StreamConfiguration<T> streamConfiguration, final UnaryOperator<Stream<T>> query, final HasComparableOperators<T, V> key, final V after, final int size) {
+        return paging.page(streamConfiguration, query, key, after, size);
+    }
+
+    private void invalidate(final Class<?> entityClass) {
+        // Cached streamers keep entity managers whose persistence context is now stale. Streams in
+        // flight keep reading through theirs until they are closed
+        streamerCache.evict(entityClass);
     }
 
     @Override
     public void close() {
-        streamerCache.values().forEach(Streamer::close);
+        streamerCache.close();
+        paging.close();
         analyticsReporter.stop();
         closeHandler.run(); 
     }
@@ -0,0 +1,218 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.application.standard.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.application.WriteBack;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityTransaction;
+import jakarta.persistence.PersistenceUnitUtil;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+
+final class StandardWriteBack<T> implements WriteBack<T> {
+
+    private final Class<T> entityClass;
+    private final Supplier<EntityManager> entityManagerSupplier;
+    private final boolean closeEntityManagers;
+    private final int flushSize;
+    private final int commitSize; // 0 means a single transaction
+    private final Consumer<? super T> checkpoint;
+
+    StandardWriteBack(final Class<T> entityClass, final Supplier<EntityManager> entityManagerSupplier, final boolean closeEntityManagers) {
+        this(entityClass, entityManagerSupplier, closeEntityManagers, DEFAULT_FLUSH_SIZE, 0, entity -> {});
+    }
+
+    private StandardWriteBack(
+        final Class<T> entityClass,
+        final Supplier<EntityManager> entityManagerSupplier,
+        final boolean closeEntityManagers,
+        final int flushSize,
+        final int commitSize,
+        final Consumer<? super T> checkpoint
+    ) {
+        this.entityClass = requireNonNull(entityClass);
+        this.entityManagerSupplier = requireNonNull(entityManagerSupplier);
+        this.closeEntityManagers = closeEntityManagers;
+        this.flushSize = flushSize;
+        this.commitSize = commitSize;
+        this.checkpoint = requireNonNull(checkpoint);
+    }
+
+    @Override
+    public WriteBack<T> flushEvery(final int flushSize) {
+        if (flushSize < 1) {
+            throw new IllegalArgumentException("The flush size must be positive: " + flushSize);
+        }
+        return new StandardWriteBack<>(entityClass, entityManagerSupplier, closeEntityManagers, flushSize, commitSize, checkpoint);
+    }
+
+    @Override
+    public WriteBack<T> commitEvery(final int commitSize) {
+        if (commitSize < 1) {
+            throw new IllegalArgumentException("The commit size must be positive: " + commitSize);
+        }
+        return new StandardWriteBack<>(entityClass, entityManagerSupplier, closeEntityManagers, flushSize, commitSize, checkpoint);
+    }
+
+    @Override
+    public WriteBack<T> checkpoint(final Consumer<? super T> checkpoint) {
+        requireNonNull(checkpoint);
+        return new StandardWriteBack<>(entityClass, entityManagerSupplier, closeEntityManagers, flushSize, commitSize, checkpoint);
+    }
+
+    @Override
+    public Collector<T, ?, Long> toCollector() {
+        return Collector.of(
+            Writer::new,
+            Writer::write,
+            (first, second) -> {
+                throw new UnsupportedOperationException("A write-back cannot be collected in parallel");
+            },
+            Writer::finish
+        );
+    }
+
+    @Override
+    public long write(final Stream<? extends T> stream) {
+        requireNonNull(stream);
+        final Writer writer = new Writer();
+        try (Stream<? extends T> entities = stream) {
+            entities.forEachOrdered(writer::write);
+        } catch (RuntimeException e) {
+            writer.abort();
+            throw e;
+        }
+        return writer.finish();
+    }
+
+    @Override
+    public String toString() {
+        return "StandardWriteBack{" +
+                "of " + entityClass.getSimpleName() +
+                " flushing every " + flushSize +
+                (commitSize == 0 ? "" : " committing every " + commitSize) +
+                '}';
+    }
+
+    /**
+     * Holds the state of a single write-back. The EntityManager is obtained
+     * lazily so that an empty stream does not begin a transaction, and is
+     * released when the write-back is finished or aborted.
+     */
+    private final class Writer {
+
+        private EntityManager entityManager;
+        private PersistenceUnitUtil persistenceUnitUtil;
+        private EntityTransaction transaction; // null if joined to the transaction of the caller
+        private boolean ownsTransaction;
+        private T last;
+        private long written;
+        private long uncommitted;
+
+        void write(final T entity) {
+            requireNonNull(entity);
+            try {
+                if (entityManager == null) {
+                    open();
+                }
+                if (ownsTransaction && !transaction.isActive()) {
+                    transaction.begin();
+                }
+
+                if (!entityManager.contains(entity)) {
+                    if (persistenceUnitUtil.getIdentifier(entity) == null) {
+                        entityManager.persist(entity);
+                    } else {
+                        entityManager.merge(entity);
+                    }
+                }
+                last = entity;
+                written++;
+                uncommitted++;
+
+                if (commitSize > 0 && uncommitted == commitSize) {
+                    commit();
+                } else if (written % flushSize == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            } catch (RuntimeException e) {
+                abort();
+                throw e;
+            }
+        }
+
+        long finish() {
+            try {
+                if (uncommitted > 0) {
+                    if (ownsTransaction) {
+                        commit();
+                    } else {
+                        entityManager.flush();
+                        entityManager.clear();
+                    }
+                }
+            } catch (RuntimeException e) {
+                abort();
+                throw e;
+            }
+            release();
+            return written;
+        }
+
+        void abort() {
+            if (entityManager == null) {
+                return;
+            }
+            try {
+                if (ownsTransaction && transaction.isActive()) {
+                    transaction.rollback();
+                }
+            } finally {
+                release();
+            }
+        }
+
+        private void open() {
+            entityManager = requireNonNull(entityManagerSupplier.get());
+            persistenceUnitUtil = entityManager.getEntityManagerFactory().getPersistenceUnitUtil();
+            ownsTransaction = !entityManager.isJoinedToTransaction();
+            if (ownsTransaction) {
+                transaction = entityManager.getTransaction();
+            } else if (commitSize > 0) {
+                throw new IllegalStateException("Cannot commit every " + commitSize + " entities of " +
+                    entityClass.getSimpleName() + " as the EntityManager is joined to a transaction of the caller");
+            }
+        }
+
+        private void commit() {
+            transaction.commit();
+            entityManager.clear();
+            uncommitted = 0;
+            checkpoint.accept(last);
+        }
+
+        private void release() {
+            if (entityManager != null && closeEntityManagers) {
+                entityManager.close();
+            }
+            entityManager = null;
+        }
+    }
+}
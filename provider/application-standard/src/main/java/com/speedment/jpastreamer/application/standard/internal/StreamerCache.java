@@ -0,0 +1,126 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.application.standard.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Caches the Streamers of a JPAStreamer per stream configuration.
+ * <p>
+ * A Streamer that is evicted from the cache is closed once the last of its
+ * streams is closed, so that streams in flight keep their Entity Manager.
+ * Streams that are never closed keep their evicted Streamer open.
+ */
+final class StreamerCache {
+
+    private final Function<StreamConfiguration<?>, Streamer<?>> streamers;
+    private final Map<StreamConfiguration<?>, SharedStreamer<?>> cache;
+
+    StreamerCache(final Function<StreamConfiguration<?>, Streamer<?>> streamers) {
+        this.streamers = requireNonNull(streamers);
+        this.cache = new ConcurrentHashMap<>();
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> Stream<T> stream(final StreamConfiguration<T> streamConfiguration) {
+        // The stream is leased while the Streamer is still cached so that an eviction cannot close it in between
+        final SharedStreamer<?> streamer = cache.compute(streamConfiguration, (key, cached) -> {
+            final SharedStreamer<?> shared = cached == null ? new SharedStreamer<>(streamers.apply(key)) : cached;
+            shared.lease();
+            return shared;
+        });
+        return (Stream<T>) streamer.stream();
+    }
+
+    /**
+     * Evicts the Streamer of the provided {@code streamConfiguration}, if
+     * any.
+     */
+    void evict(final StreamConfiguration<?> streamConfiguration) {
+        final SharedStreamer<?> streamer = cache.remove(streamConfiguration);
+        if (streamer != null) {
+            streamer.evict();
+        }
+    }
+
+    /**
+     * Evicts the Streamers of all stream configurations of the provided
+     * {@code entityClass}.
+     */
+    void evict(final Class<?> entityClass) {
+        for (final StreamConfiguration<?> streamConfiguration : cache.keySet()) {
+            if (streamConfiguration.entityClass().equals(entityClass)) {
+                evict(streamConfiguration);
+            }
+        }
+    }
+
+    void close() {
+        cache.keySet().forEach(this::evict);
+    }
+
+    private static final class SharedStreamer<T> {
+
+        private final Streamer<T> streamer;
+        private int leases;
+        private boolean evicted;
+
+        private SharedStreamer(final Streamer<T> streamer) {
+            this.streamer = requireNonNull(streamer);
+        }
+
+        private synchronized void lease() {
+            leases++;
+        }
+
+        /**
+         * Returns a stream of a lease taken beforehand, which is returned
+         * when the stream is closed.
+         */
+        private Stream<T> stream() {
+            final AtomicBoolean returned = new AtomicBoolean();
+            try {
+                return streamer.stream().onClose(() -> {
+                    if (returned.compareAndSet(false, true)) {
+                        release();
+                    }
+                });
+            } catch (RuntimeException e) {
+                release();
+                throw e;
+            }
+        }
+
+        private synchronized void release() {
+            leases--;
+            if (evicted && leases == 0) {
+                streamer.close();
+            }
+        }
+
+        private synchronized void evict() {
+            evicted = true;
+            if (leases == 0) {
+                streamer.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.application.standard.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.field.trait.HasComparableOperators;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * An unbounded Spliterator over the entities with increasing keys that
+ * polls for batches of entities after the last seen key.
+ * <p>
+ * Polls follow each other immediately as long as they return full batches.
+ * Otherwise, the next poll is delayed by an interval that doubles with every
+ * poll that returns nothing, up to a maximum, and that is reset once new
+ * entities are returned.
+ */
+final class TailSpliterator<T, V extends Comparable<? super V>> extends Spliterators.AbstractSpliterator<T> {
+
+    static final String BATCH_SIZE_PROPERTY = "jpastreamer.tail.batchsize";
+    static final String MIN_INTERVAL_PROPERTY = "jpastreamer.tail.interval.min";
+    static final String MAX_INTERVAL_PROPERTY = "jpastreamer.tail.interval.max";
+
+    private final HasComparableOperators<T, V> key;
+    private final BiFunction<V, Integer, List<T>> poller;
+    private final int batchSize;
+    private final long minInterval;
+    private final long maxInterval;
+    private final Deque<T> buffer;
+
+    private V lastSeen;
+    private long interval;
+    private long pause;
+    private volatile boolean cancelled;
+    private volatile Thread pausedThread;
+
+    /**
+     * Creates a new TailSpliterator.
+     *
+     * @param key of the entities
+     * @param lastSeen the key to start after, or {@code null} to start with the first entity
+     * @param poller returning the given number of entities after the given key
+     *               (or from the first entity if the key is {@code null}) in key order
+     */
+    TailSpliterator(final HasComparableOperators<T, V> key, final V lastSeen, final BiFunction<V, Integer, List<T>> poller) {
+        this(
+            key,
+            lastSeen,
+            poller,
+            Integer.getInteger(BATCH_SIZE_PROPERTY, 500),
+            Long.getLong(MIN_INTERVAL_PROPERTY, 50),
+            Long.getLong(MAX_INTERVAL_PROPERTY, 5_000)
+        );
+    }
+
+    TailSpliterator(
+        final HasComparableOperators<T, V> key,
+        final V lastSeen,
+        final BiFunction<V, Integer, List<T>> poller,
+        final int batchSize,
+        final long minInterval,
+        final long maxInterval
+    ) {
+        super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+        this.key = requireNonNull(key);
+        this.lastSeen = lastSeen;
+        this.poller = requireNonNull(poller);
+        this.batchSize = Math.max(1, batchSize);
+        this.minInterval = Math.max(1, minInterval);
+        this.maxInterval = Math.max(this.minInterval, maxInterval);
+        this.buffer = new ArrayDeque<>(batchSize);
+        this.interval = minInterval;
+    }
+
+    @Override
+    public boolean tryAdvance(final Consumer<? super T> action) {
+        requireNonNull(action);
+        while (buffer.isEmpty()) {
+            if (pause > 0) {
+                pause(pause);
+            }
+            if (cancelled || Thread.currentThread().isInterrupted()) {
+                return false;
+            }
+            poll();
+        }
+        action.accept(buffer.poll());
+        return true;
+    }
+
+    /**
+     * Ends the Stream at the next element, also if another thread is
+     * waiting for the next poll.
+     */
+    void cancel() {
+        cancelled = true;
+        final Thread thread = pausedThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * Returns the delay in milliseconds before the next poll.
+     */
+    long pause() {
+        return pause;
+    }
+
+    /**
+     * Returns an unbounded Stream of the entities of the provided
+     * {@code streamConfiguration} with keys after {@code lastSeen}, which
+     * are polled from the Streams of the provided {@code streams}. Closing
+     * the returned Stream cancels it.
+     */
+    static <T, V extends Comparable<? super V>> Stream<T> stream(
+        final Function<StreamConfiguration<T>, Stream<T>> streams,
+        final StreamConfiguration<T> streamConfiguration,
+        final HasComparableOperators<T, V> key,
+        final V lastSeen
+    ) {
+        requireNonNull(streams);
+        requireNonNull(streamConfiguration);
+        requireNonNull(key);
+        final TailSpliterator<T, V> spliterator = new TailSpliterator<>(key, lastSeen, (after, batchSize) -> {
+            // The pipeline is rendered as a single query that differs from poll to poll by its parameter only
+            try (Stream<T> stream = streams.apply(streamConfiguration)) {
+                return (after == null ? stream : stream.filter(key.greaterThan(after)))
+                    .sorted(key.comparator())
+                    .limit(batchSize)
+                    .collect(Collectors.toList());
+            }
+        });
+        return StreamSupport.stream(spliterator, false).onClose(spliterator::cancel);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void poll() {
+        final List<T> batch = poller.apply(lastSeen, batchSize);
+        if (batch.isEmpty()) {
+            // Idle, back off
+            pause = interval;
+            interval = Math.min(2 * interval, maxInterval);
+            return;
+        }
+
+        final T last = batch.get(batch.size() - 1);
+        final V lastKey = (V) key.getter().apply(last);
+        if (lastKey == null) {
+            throw new IllegalStateException("Cannot tail " + last.getClass().getSimpleName() + " as its key " + key.columnName() + " is null");
+        }
+        lastSeen = lastKey;
+        buffer.addAll(batch);
+
+        // Busy, keep up with the inserts
+        interval = minInterval;
+        pause = batch.size() < batchSize ? minInterval : 0;
+    }
+
+    private void pause(final long millis) {
+        pausedThread = Thread.currentThread();
+        try {
+            final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+            long remaining;
+            while (!cancelled && !Thread.currentThread().isInterrupted() && (remaining = deadline - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(this, remaining);
+            }
+        } finally {
+            pausedThread = null;
+        }
+    }
+}
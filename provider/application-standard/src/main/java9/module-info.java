@@ -19,6 +19,7 @@ module jpastreamer.application.standard {
     requires jpastreamer.builder;
     requires jpastreamer.autoclose;
     requires jpastreamer.announcer;
+    requires jpastreamer.criteria;
     //requires jpastreamer.exception;
 
     exports com.speedment.jpastreamer.application.standard;
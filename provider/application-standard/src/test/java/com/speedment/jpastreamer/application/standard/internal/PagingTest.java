@@ -0,0 +1,195 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.application.standard.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import com.speedment.jpastreamer.application.Page;
+import com.speedment.jpastreamer.field.IntField;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+final class PagingTest {
+
+    private static final IntField<Film> ID = IntField.create(Film.class, "id", Film::getId, true);
+
+    @SuppressWarnings("unchecked")
+    private final StreamConfiguration<Film> streamConfiguration = mock(StreamConfiguration.class);
+
+    private final List<Film> films = IntStream.rangeClosed(1, 10).mapToObj(Film::new).collect(Collectors.toList());
+    private final UnaryOperator<Stream<Film>> odd = stream -> stream.filter(film -> film.getId() % 2 == 1);
+
+    private final Set<Thread> streamThreads = ConcurrentHashMap.newKeySet();
+    private final Set<Thread> countThreads = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger opened = new AtomicInteger();
+    private final AtomicInteger closed = new AtomicInteger();
+
+    private final Paging concurrent = new Paging(streamConfiguration -> stream(streamThreads), streamConfiguration -> new CountStreamer());
+    private final Paging sequential = new Paging(streamConfiguration -> stream(streamThreads), null);
+
+    @AfterEach
+    void tearDown() {
+        concurrent.close();
+        sequential.close();
+    }
+
+    @Test
+    void page() {
+        final Page<Film, Long> page = concurrent.page(streamConfiguration, odd, 1, 2);
+
+        assertEquals(Arrays.asList(3, 5), ids(page));
+        assertEquals(5, page.total());
+        assertEquals(Optional.of(3L), page.next());
+    }
+
+    @Test
+    void lastPage() {
+        final Page<Film, Long> page = concurrent.page(streamConfiguration, odd, 3, 2);
+
+        assertEquals(Arrays.asList(7, 9), ids(page));
+        assertEquals(5, page.total());
+        assertFalse(page.next().isPresent());
+    }
+
+    @Test
+    void outOfRangePage() {
+        final Page<Film, Long> page = concurrent.page(streamConfiguration, odd, 20, 2);
+
+        assertTrue(page.content().isEmpty());
+        assertEquals(5, page.total());
+        assertFalse(page.next().isPresent());
+    }
+
+    @Test
+    void keysetPages() {
+        final Page<Film, Integer> first = concurrent.page(streamConfiguration, odd, ID, null, 3);
+        assertEquals(Arrays.asList(1, 3, 5), ids(first));
+        assertEquals(5, first.total());
+        assertEquals(Optional.of(5), first.next());
+
+        final Page<Film, Integer> second = concurrent.page(streamConfiguration, odd, ID, first.next().get(), 3);
+        assertEquals(Arrays.asList(7, 9), ids(second));
+        assertEquals(5, second.total());
+        assertFalse(second.next().isPresent());
+
+        final Page<Film, Integer> outOfRange = concurrent.page(streamConfiguration, odd, ID, 100, 3);
+        assertTrue(outOfRange.content().isEmpty());
+        assertEquals(5, outOfRange.total());
+    }
+
+    @Test
+    void countedByStreamerOfItsOwn() {
+        concurrent.page(streamConfiguration, odd, 0, 2);
+
+        assertEquals(Collections.singleton(Thread.currentThread()), streamThreads);
+        assertEquals(1, countThreads.size());
+        assertNotEquals(Thread.currentThread(), countThreads.iterator().next());
+        assertEquals(1, opened.get());
+        assertEquals(1, closed.get());
+    }
+
+    @Test
+    void countedByCallingThread() {
+        final Page<Film, Long> page = sequential.page(streamConfiguration, odd, 0, 2);
+
+        assertEquals(Arrays.asList(1, 3), ids(page));
+        assertEquals(5, page.total());
+        // Both the count and the page are streamed by the calling thread
+        assertEquals(Collections.singleton(Thread.currentThread()), streamThreads);
+        assertEquals(0, opened.get());
+    }
+
+    @Test
+    void countFailure() {
+        final IllegalStateException exception = new IllegalStateException("count failed");
+        final Paging failing = new Paging(streamConfiguration -> stream(streamThreads), streamConfiguration -> new CountStreamer() {
+            @Override
+            public Stream<Film> stream() {
+                throw exception;
+            }
+        });
+        try {
+            assertSame(exception, assertThrows(IllegalStateException.class, () -> failing.page(streamConfiguration, odd, 0, 2)));
+            // The Streamer of the count is closed even if the count fails
+            assertEquals(1, closed.get());
+        } finally {
+            failing.close();
+        }
+    }
+
+    @Test
+    void illegalArguments() {
+        assertThrows(IllegalArgumentException.class, () -> concurrent.page(streamConfiguration, odd, -1, 2));
+        assertThrows(IllegalArgumentException.class, () -> concurrent.page(streamConfiguration, odd, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> concurrent.page(streamConfiguration, odd, ID, null, 0));
+    }
+
+    private Stream<Film> stream(final Set<Thread> threads) {
+        threads.add(Thread.currentThread());
+        return new ArrayList<>(films).stream();
+    }
+
+    private static List<Integer> ids(final Page<Film, ?> page) {
+        return page.content().stream().map(Film::getId).collect(Collectors.toList());
+    }
+
+    private class CountStreamer implements Streamer<Film> {
+
+        CountStreamer() {
+            opened.incrementAndGet();
+        }
+
+        @Override
+        public Stream<Film> stream() {
+            return PagingTest.this.stream(countThreads);
+        }
+
+        @Override
+        public void close() {
+            closed.incrementAndGet();
+        }
+    }
+
+    static final class Film {
+
+        private final int id;
+
+        Film(final int id) {
+            this.id = id;
+        }
+
+        int getId() {
+            return id;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.application.standard.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.speedment.jpastreamer.application.BulkDelete;
+import com.speedment.jpastreamer.application.standard.internal.StandardBulkUpdateTest.Film;
+import com.speedment.jpastreamer.field.StringField;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityTransaction;
+import jakarta.persistence.PersistenceException;
+import jakarta.persistence.Query;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaDelete;
+import jakarta.persistence.criteria.ParameterExpression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+final class StandardBulkDeleteTest {
+
+    private static final StringField<Film> TITLE = StringField.create(Film.class, "title", Film::getTitle, false);
+
+    private EntityManager entityManager;
+    private EntityTransaction transaction;
+    private CriteriaBuilder builder;
+    private CriteriaDelete<Film> delete;
+    private Query query;
+    private final List<Class<?>> invalidated = new ArrayList<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        delete = mock(CriteriaDelete.class);
+        when(delete.from(Film.class)).thenReturn(mock(Root.class));
+
+        builder = mock(CriteriaBuilder.class);
+        when(builder.createCriteriaDelete(Film.class)).thenReturn(delete);
+
+        query = mock(Query.class);
+        when(query.executeUpdate()).thenReturn(2);
+
+        transaction = mock(EntityTransaction.class);
+
+        entityManager = mock(EntityManager.class);
+        when(entityManager.getCriteriaBuilder()).thenReturn(builder);
+        when(entityManager.createQuery(delete)).thenReturn(query);
+        when(entityManager.getTransaction()).thenReturn(transaction);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void execute() {
+        final ParameterExpression<Object> parameter = mock(ParameterExpression.class);
+        when(builder.parameter(Object.class)).thenReturn(parameter);
+        final Predicate restriction = mock(Predicate.class);
+        when(builder.and(any(Predicate[].class))).thenReturn(restriction);
+
+        final int count = bulkDelete().where(TITLE.equal("Academy Dinosaur")).execute();
+
+        assertEquals(2, count);
+        verify(delete).where(restriction);
+        verify(query).setParameter(parameter, "Academy Dinosaur");
+        verify(transaction).commit();
+        verify(entityManager).close();
+        assertEquals(Collections.singletonList(Film.class), invalidated);
+    }
+
+    @Test
+    void executeAll() {
+        assertEquals(2, bulkDelete().execute());
+
+        verify(builder, never()).and(any(Predicate[].class));
+        verify(query).executeUpdate();
+    }
+
+    @Test
+    void executeFailure() {
+        when(query.executeUpdate()).thenThrow(new PersistenceException("constraint violation"));
+        when(transaction.isActive()).thenReturn(true);
+
+        assertThrows(PersistenceException.class, () -> bulkDelete().execute());
+
+        verify(transaction).rollback();
+        verify(entityManager).close();
+        assertEquals(Collections.emptyList(), invalidated);
+    }
+
+    private BulkDelete<Film> bulkDelete() {
+        return new StandardBulkDelete<>(Film.class, new BulkExecutor(() -> entityManager, true, invalidated::add));
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.application.standard.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.speedment.jpastreamer.application.BulkUpdate;
+import com.speedment.jpastreamer.field.ComparableField;
+import com.speedment.jpastreamer.field.IntField;
+import com.speedment.jpastreamer.field.StringField;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityTransaction;
+import jakarta.persistence.Parameter;
+import jakarta.persistence.PersistenceException;
+import jakarta.persistence.Query;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.ParameterExpression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+final class StandardBulkUpdateTest {
+
+    private static final StringField<Film> TITLE = StringField.create(Film.class, "title", Film::getTitle, false);
+    private static final IntField<Film> LENGTH = IntField.create(Film.class, "length", Film::getLength, false);
+    private static final ComparableField<Film, Float> RATE = ComparableField.create(Film.class, "rate", Film::getRate, false);
+
+    private EntityManager entityManager;
+    private EntityTransaction transaction;
+    private CriteriaBuilder builder;
+    private CriteriaUpdate<Film> update;
+    private Query query;
+    private Path<Object> titlePath;
+    private Path<Object> lengthPath;
+    private Path<Object> ratePath;
+    private final List<Class<?>> invalidated = new ArrayList<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        titlePath = mock(Path.class);
+        lengthPath = mock(Path.class);
+        ratePath = mock(Path.class);
+        when(ratePath.getJavaType()).thenReturn((Class) Float.class);
+
+        final Root<Film> root = mock(Root.class);
+        when(root.get("title")).thenReturn(titlePath);
+        when(root.get("length")).thenReturn(lengthPath);
+        when(root.get("rate")).thenReturn(ratePath);
+
+        update = mock(CriteriaUpdate.class);
+        when(update.from(Film.class)).thenReturn(root);
+
+        builder = mock(CriteriaBuilder.class);
+        when(builder.createCriteriaUpdate(Film.class)).thenReturn(update);
+
+        query = mock(Query.class);
+        when(query.executeUpdate()).thenReturn(3);
+
+        transaction = mock(EntityTransaction.class);
+
+        entityManager = mock(EntityManager.class);
+        when(entityManager.getCriteriaBuilder()).thenReturn(builder);
+        when(entityManager.createQuery(update)).thenReturn(query);
+        when(entityManager.getTransaction()).thenReturn(transaction);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void execute() {
+        final Expression<Object> nullLiteral = mock(Expression.class);
+        when(builder.nullLiteral(Float.class)).thenReturn((Expression) nullLiteral);
+
+        final int count = bulkUpdate(true)
+            .set(TITLE, "Academy Dinosaur")
+            .set(LENGTH, 86)
+            .set(RATE, null)
+            .execute();
+
+        assertEquals(3, count);
+        verify(update).<Object, Object>set(titlePath, "Academy Dinosaur");
+        verify(update).<Object, Object>set(lengthPath, 86);
+        verify(update).<Object>set(ratePath, nullLiteral);
+        verify(transaction).begin();
+        verify(transaction).commit();
+        verify(entityManager).close();
+        assertEquals(Collections.singletonList(Film.class), invalidated);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void executeWhere() {
+        final ParameterExpression<Object> parameter = mock(ParameterExpression.class);
+        when(builder.parameter(Object.class)).thenReturn(parameter);
+
+        bulkUpdate(true)
+            .where(TITLE.equal("Academy Dinosaur"))
+            .set(LENGTH, 90)
+            .execute();
+
+        verify(query).setParameter(parameter, "Academy Dinosaur");
+        verify(query).executeUpdate();
+    }
+
+    @Test
+    void executeInTransaction() {
+        when(entityManager.isJoinedToTransaction()).thenReturn(true);
+
+        assertEquals(3, bulkUpdate(false).set(LENGTH, 90).execute());
+
+        verify(transaction, never()).begin();
+        // Entity Managers of a supplier that is not owned are neither closed nor reset
+        verify(entityManager, never()).close();
+        assertTrue(invalidated.isEmpty());
+    }
+
+    @Test
+    void executeFailure() {
+        final PersistenceException exception = new PersistenceException("constraint violation");
+        when(query.executeUpdate()).thenThrow(exception);
+        when(transaction.isActive()).thenReturn(true);
+
+        assertSame(exception, assertThrows(PersistenceException.class, () -> bulkUpdate(true).set(LENGTH, 90).execute()));
+
+        verify(transaction).rollback();
+        verify(transaction, never()).commit();
+        verify(entityManager).close();
+        assertTrue(invalidated.isEmpty());
+    }
+
+    @Test
+    void executeWithOpenStream() {
+        final List<StreamerCacheTest.ListStreamer<?>> streamers = new ArrayList<>();
+        final StreamerCache streamerCache = new StreamerCache(streamConfiguration -> {
+            final StreamerCacheTest.ListStreamer<?> streamer = new StreamerCacheTest.ListStreamer<>();
+            streamers.add(streamer);
+            return streamer;
+        });
+        @SuppressWarnings("unchecked")
+        final StreamConfiguration<Film> streamConfiguration = mock(StreamConfiguration.class);
+        when(streamConfiguration.entityClass()).thenReturn(Film.class);
+
+        try (Stream<Film> stream = streamerCache.stream(streamConfiguration)) {
+            new StandardBulkUpdate<>(Film.class, new BulkExecutor(() -> entityManager, true, streamerCache::evict))
+                .set(LENGTH, 90)
+                .execute();
+
+            // The stream opened before the update is still readable
+            assertEquals(2, stream.count());
+            assertFalse(streamers.get(0).closed);
+        }
+
+        assertTrue(streamers.get(0).closed);
+    }
+
+    @Test
+    void executeWithoutAssignments() {
+        assertThrows(IllegalStateException.class, () -> bulkUpdate(true).where(TITLE.equal("Academy Dinosaur")).execute());
+    }
+
+    @Test
+    void immutable() {
+        final BulkUpdate<Film> bulkUpdate = bulkUpdate(true);
+        bulkUpdate.set(LENGTH, 90);
+
+        assertThrows(IllegalStateException.class, bulkUpdate::execute);
+    }
+
+    private BulkUpdate<Film> bulkUpdate(final boolean closeEntityManagers) {
+        return new StandardBulkUpdate<>(Film.class, new BulkExecutor(() -> entityManager, closeEntityManagers, invalidated::add));
+    }
+
+    static final class Film {
+
+        String getTitle() {
+            return null;
+        }
+
+        int getLength() {
+            return 0;
+        }
+
+        Float getRate() {
+            return null;
+        }
+    }
+}
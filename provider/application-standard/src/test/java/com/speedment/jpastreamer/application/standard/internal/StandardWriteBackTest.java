@@ -0,0 +1,244 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.application.standard.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.speedment.jpastreamer.application.WriteBack;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import jakarta.persistence.PersistenceException;
+import jakarta.persistence.PersistenceUnitUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+final class StandardWriteBackTest {
+
+    private EntityManager entityManager;
+    private EntityTransaction transaction;
+    private AtomicInteger leased;
+    private final List<Film> checkpoints = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        final AtomicBoolean active = new AtomicBoolean();
+        transaction = mock(EntityTransaction.class);
+        when(transaction.isActive()).thenAnswer(invocation -> active.get());
+        doAnswer(invocation -> { active.set(true); return null; }).when(transaction).begin();
+        doAnswer(invocation -> { active.set(false); return null; }).when(transaction).commit();
+        doAnswer(invocation -> { active.set(false); return null; }).when(transaction).rollback();
+
+        final PersistenceUnitUtil persistenceUnitUtil = mock(PersistenceUnitUtil.class);
+        when(persistenceUnitUtil.getIdentifier(any())).thenAnswer(invocation -> ((Film) invocation.getArgument(0)).id);
+        final EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        when(entityManagerFactory.getPersistenceUnitUtil()).thenReturn(persistenceUnitUtil);
+
+        entityManager = mock(EntityManager.class);
+        when(entityManager.getEntityManagerFactory()).thenReturn(entityManagerFactory);
+        when(entityManager.getTransaction()).thenReturn(transaction);
+
+        leased = new AtomicInteger();
+    }
+
+    @Test
+    void flushEvery() {
+        final long written = writeBack(true).flushEvery(2).write(films(5));
+
+        assertEquals(5, written);
+        verify(entityManager, times(5)).persist(any());
+        // Flushed after the second and fourth entity, and by the commit of the fifth
+        verify(entityManager, times(2)).flush();
+        verify(entityManager, times(3)).clear();
+        verify(transaction, times(1)).begin();
+        verify(transaction, times(1)).commit();
+        assertEquals(1, leased.get());
+        verify(entityManager).close();
+    }
+
+    @Test
+    void commitEvery() {
+        final List<Film> films = films(5).collect(Collectors.toList());
+
+        final long written = films.stream().collect(writeBack(true)
+            .commitEvery(2)
+            .checkpoint(checkpoints::add)
+            .toCollector());
+
+        assertEquals(5, written);
+        verify(transaction, times(3)).begin();
+        verify(transaction, times(3)).commit();
+        verify(entityManager, never()).flush();
+        assertEquals(Arrays.asList(films.get(1), films.get(3), films.get(4)), checkpoints);
+        verify(entityManager).close();
+    }
+
+    @Test
+    void commitEveryAtBoundary() {
+        final List<Film> films = films(4).collect(Collectors.toList());
+
+        writeBack(true).commitEvery(2).checkpoint(checkpoints::add).write(films.stream());
+
+        // The last chunk is committed by write, so finishing does not begin an empty transaction
+        verify(transaction, times(2)).begin();
+        verify(transaction, times(2)).commit();
+        assertEquals(Arrays.asList(films.get(1), films.get(3)), checkpoints);
+    }
+
+    @Test
+    void merge() {
+        final Film detached = Film.detached(42);
+        final Film managed = Film.detached(43);
+        when(entityManager.contains(managed)).thenReturn(true);
+
+        writeBack(true).write(Stream.of(detached, managed));
+
+        verify(entityManager).merge(detached);
+        verify(entityManager, never()).merge(managed);
+        verify(entityManager, never()).persist(any());
+    }
+
+    @Test
+    void rollbackOnStreamFailure() {
+        final IllegalStateException exception = new IllegalStateException("source failed");
+        final Stream<Film> films = films(5).peek(film -> {
+            if (film.index == 3) {
+                throw exception;
+            }
+        });
+
+        assertSame(exception, assertThrows(IllegalStateException.class, () ->
+            writeBack(true).commitEvery(2).checkpoint(checkpoints::add).write(films)));
+
+        verify(transaction, times(1)).commit();
+        verify(transaction).rollback();
+        assertEquals(1, checkpoints.size());
+        verify(entityManager).close();
+    }
+
+    @Test
+    void rollbackOnWriteFailure() {
+        final PersistenceException exception = new PersistenceException("constraint violation");
+        doAnswer(invocation -> {
+            if (((Film) invocation.getArgument(0)).index == 2) {
+                throw exception;
+            }
+            return null;
+        }).when(entityManager).persist(any());
+
+        final WriteBack<Film> writeBack = writeBack(true);
+        assertSame(exception, assertThrows(PersistenceException.class, () -> films(5).collect(writeBack.toCollector())));
+
+        verify(transaction, never()).commit();
+        verify(transaction).rollback();
+        verify(entityManager).close();
+        assertTrue(checkpoints.isEmpty());
+    }
+
+    @Test
+    void joinedToTransaction() {
+        when(entityManager.isJoinedToTransaction()).thenReturn(true);
+
+        assertEquals(3, writeBack(false).flushEvery(2).write(films(3)));
+
+        verify(transaction, never()).begin();
+        verify(transaction, never()).commit();
+        verify(entityManager, times(2)).flush();
+        // Entity Managers of a supplier that is not owned are not closed
+        verify(entityManager, never()).close();
+    }
+
+    @Test
+    void commitEveryJoinedToTransaction() {
+        when(entityManager.isJoinedToTransaction()).thenReturn(true);
+
+        assertThrows(IllegalStateException.class, () -> writeBack(true).commitEvery(2).write(films(3)));
+
+        verify(entityManager, never()).persist(any());
+        verify(entityManager).close();
+    }
+
+    @Test
+    void empty() {
+        assertEquals(0, writeBack(true).write(Stream.empty()));
+
+        assertEquals(0, leased.get());
+    }
+
+    @Test
+    void leasePerWrite() {
+        final WriteBack<Film> writeBack = writeBack(true);
+        writeBack.write(films(1));
+        writeBack.write(films(1));
+
+        assertEquals(2, leased.get());
+        verify(entityManager, times(2)).close();
+    }
+
+    @Test
+    void illegalSizes() {
+        final WriteBack<Film> writeBack = writeBack(true);
+        assertThrows(IllegalArgumentException.class, () -> writeBack.flushEvery(0));
+        assertThrows(IllegalArgumentException.class, () -> writeBack.commitEvery(0));
+    }
+
+    private WriteBack<Film> writeBack(final boolean closeEntityManagers) {
+        return new StandardWriteBack<>(Film.class, () -> {
+            leased.incrementAndGet();
+            return entityManager;
+        }, closeEntityManagers);
+    }
+
+    private static Stream<Film> films(final int count) {
+        return IntStream.range(0, count).mapToObj(Film::new);
+    }
+
+    static final class Film {
+
+        private final int index;
+        private final Integer id;
+
+        Film(final int index) {
+            this(index, null);
+        }
+
+        private Film(final int index, final Integer id) {
+            this.index = index;
+            this.id = id;
+        }
+
+        static Film detached(final int id) {
+            return new Film(-1, id);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.application.standard.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+final class StreamerCacheTest {
+
+    private final StreamConfiguration<Film> films = configuration(Film.class);
+    private final StreamConfiguration<Actor> actors = configuration(Actor.class);
+
+    private final List<ListStreamer<?>> streamers = new ArrayList<>();
+    private final StreamerCache cache = new StreamerCache(streamConfiguration -> {
+        final ListStreamer<?> streamer = new ListStreamer<>();
+        streamers.add(streamer);
+        return streamer;
+    });
+
+    @Test
+    void cached() {
+        cache.stream(films).close();
+        cache.stream(films).close();
+        cache.stream(actors).close();
+
+        assertEquals(2, streamers.size());
+    }
+
+    @Test
+    void evictIdle() {
+        cache.stream(films).close();
+
+        cache.evict(Film.class);
+
+        assertTrue(streamers.get(0).closed);
+        cache.stream(films).close();
+        assertEquals(2, streamers.size());
+    }
+
+    @Test
+    void evictInFlight() {
+        final Stream<Film> stream = cache.stream(films);
+
+        cache.evict(Film.class);
+
+        // The stream keeps reading through the evicted Streamer until it is closed
+        assertFalse(streamers.get(0).closed);
+        assertEquals(2, stream.count());
+        stream.close();
+        assertTrue(streamers.get(0).closed);
+    }
+
+    @Test
+    void evictOtherEntity() {
+        cache.stream(films).close();
+        cache.stream(actors).close();
+
+        cache.evict(Actor.class);
+
+        assertFalse(streamers.get(0).closed);
+        assertTrue(streamers.get(1).closed);
+    }
+
+    @Test
+    void evictConfiguration() {
+        cache.stream(films).close();
+
+        cache.evict(films);
+
+        assertTrue(streamers.get(0).closed);
+    }
+
+    @Test
+    void closeInFlight() {
+        final Stream<Film> first = cache.stream(films);
+        final Stream<Film> second = cache.stream(films);
+
+        cache.close();
+
+        // A stream that is closed twice returns its lease once
+        first.close();
+        first.close();
+        assertFalse(streamers.get(0).closed);
+        second.close();
+        assertTrue(streamers.get(0).closed);
+    }
+
+    @Test
+    void failingStream() {
+        final StreamerCache failing = new StreamerCache(streamConfiguration -> {
+            final ListStreamer<?> streamer = new ListStreamer<Object>() {
+                @Override
+                public Stream<Object> stream() {
+                    throw new IllegalStateException();
+                }
+            };
+            streamers.add(streamer);
+            return streamer;
+        });
+
+        assertThrows(IllegalStateException.class, () -> failing.stream(films));
+
+        failing.close();
+        assertTrue(streamers.get(0).closed);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> StreamConfiguration<T> configuration(final Class<T> entityClass) {
+        final StreamConfiguration<T> streamConfiguration = mock(StreamConfiguration.class);
+        when(streamConfiguration.entityClass()).thenReturn(entityClass);
+        return streamConfiguration;
+    }
+
+    static class ListStreamer<T> implements Streamer<T> {
+
+        boolean closed;
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Stream<T> stream() {
+            // Reading through a closed Streamer fails like reading through a closed Entity Manager
+            return Stream.of("A", "B")
+                .peek(element -> {
+                    if (closed) {
+                        throw new IllegalStateException("Streamer is closed");
+                    }
+                })
+                .map(element -> (T) element);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    static final class Film {}
+
+    static final class Actor {}
+}
@@ -0,0 +1,229 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.application.standard.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import com.speedment.jpastreamer.field.ComparableField;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+final class TailSpliteratorTest {
+
+    private static final ComparableField<Film, Integer> ID = ComparableField.create(Film.class, "id", Film::getId, true);
+
+    private static final long TIMEOUT_SECONDS = 10;
+
+    @Test
+    void backoff() {
+        final List<Long> pauses = new ArrayList<>();
+        final List<Integer> afters = new ArrayList<>();
+        final Deque<List<Film>> batches = new ConcurrentLinkedDeque<>(Arrays.asList(
+            Collections.emptyList(),
+            Collections.emptyList(),
+            Collections.emptyList(),
+            Collections.emptyList(),
+            films(1, 2),
+            films(3),
+            Collections.emptyList(),
+            films(4)
+        ));
+        final AtomicReference<TailSpliterator<Film, Integer>> spliterator = new AtomicReference<>();
+        spliterator.set(new TailSpliterator<>(ID, null, (after, batchSize) -> {
+            pauses.add(spliterator.get().pause());
+            afters.add(after);
+            return batches.poll();
+        }, 2, 1, 4));
+
+        final List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            assertTrue(spliterator.get().tryAdvance(film -> ids.add(film.getId())));
+        }
+
+        assertEquals(Arrays.asList(1, 2, 3, 4), ids);
+        // Idle polls back off by doubling up to the maximum. A full batch is followed by
+        // another poll right away and any new entity resets the interval
+        assertEquals(Arrays.asList(0L, 1L, 2L, 4L, 4L, 0L, 1L, 1L), pauses);
+        assertEquals(Arrays.asList(null, null, null, null, null, 2, 3, 3), afters);
+    }
+
+    @Test
+    void startAfter() {
+        final List<Integer> afters = new ArrayList<>();
+        final TailSpliterator<Film, Integer> spliterator = new TailSpliterator<>(ID, 41, (after, batchSize) -> {
+            afters.add(after);
+            assertEquals(500, batchSize);
+            return films(42);
+        });
+
+        assertTrue(spliterator.tryAdvance(film -> assertEquals(42, film.getId())));
+        assertEquals(Collections.singletonList(41), afters);
+    }
+
+    @Test
+    void nullKey() {
+        final TailSpliterator<Film, Integer> spliterator = new TailSpliterator<>(ID, null, (after, batchSize) -> films(1, null), 2, 1, 4);
+
+        final IllegalStateException exception = assertThrows(IllegalStateException.class, () -> spliterator.tryAdvance(film -> {}));
+        assertTrue(exception.getMessage().contains("id"));
+    }
+
+    @Test
+    void cancelPaused() throws InterruptedException {
+        final CountDownLatch polled = new CountDownLatch(1);
+        // The consumer would not poll again for a minute unless it is unparked
+        final TailSpliterator<Film, Integer> spliterator = new TailSpliterator<>(ID, null, (after, batchSize) -> {
+            polled.countDown();
+            return Collections.emptyList();
+        }, 2, 60_000, 60_000);
+
+        final AtomicBoolean advanced = new AtomicBoolean(true);
+        final Thread consumer = new Thread(() -> advanced.set(spliterator.tryAdvance(film -> {})));
+        consumer.start();
+        assertTrue(polled.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        awaitPaused(consumer);
+
+        spliterator.cancel();
+
+        consumer.join(TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS));
+        assertFalse(consumer.isAlive());
+        assertFalse(advanced.get());
+    }
+
+    @Test
+    void cancelBeforePoll() {
+        final AtomicInteger polls = new AtomicInteger();
+        final TailSpliterator<Film, Integer> spliterator = new TailSpliterator<>(ID, null, (after, batchSize) -> {
+            polls.incrementAndGet();
+            return films(1);
+        }, 2, 1, 4);
+
+        spliterator.cancel();
+
+        assertFalse(spliterator.tryAdvance(film -> {}));
+        assertEquals(0, polls.get());
+    }
+
+    @Test
+    void interruptPaused() throws InterruptedException {
+        final CountDownLatch polled = new CountDownLatch(1);
+        final TailSpliterator<Film, Integer> spliterator = new TailSpliterator<>(ID, null, (after, batchSize) -> {
+            polled.countDown();
+            return Collections.emptyList();
+        }, 2, 60_000, 60_000);
+
+        final AtomicBoolean advanced = new AtomicBoolean(true);
+        final AtomicBoolean interrupted = new AtomicBoolean();
+        final Thread consumer = new Thread(() -> {
+            advanced.set(spliterator.tryAdvance(film -> {}));
+            interrupted.set(Thread.currentThread().isInterrupted());
+        });
+        consumer.start();
+        assertTrue(polled.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        awaitPaused(consumer);
+
+        consumer.interrupt();
+
+        consumer.join(TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS));
+        assertFalse(consumer.isAlive());
+        assertFalse(advanced.get());
+        // The interrupt is left for the caller to handle
+        assertTrue(interrupted.get());
+    }
+
+    @Test
+    void stream() {
+        @SuppressWarnings("unchecked")
+        final StreamConfiguration<Film> streamConfiguration = mock(StreamConfiguration.class);
+        final List<StreamConfiguration<Film>> configurations = new ArrayList<>();
+        final AtomicInteger closed = new AtomicInteger();
+
+        try (Stream<Film> tail = TailSpliterator.stream(configuration -> {
+            configurations.add(configuration);
+            return films(5, 3, 1, 4, 2).stream().onClose(closed::incrementAndGet);
+        }, streamConfiguration, ID, 2)) {
+            // Polls are sorted by the key, after the last seen key
+            assertEquals(Arrays.asList(3, 4, 5), tail.limit(3).map(Film::getId).collect(Collectors.toList()));
+        }
+
+        assertEquals(Collections.singletonList(streamConfiguration), configurations);
+        // Every polled Stream is closed
+        assertEquals(1, closed.get());
+    }
+
+    @Test
+    void streamClosed() throws InterruptedException {
+        @SuppressWarnings("unchecked")
+        final StreamConfiguration<Film> streamConfiguration = mock(StreamConfiguration.class);
+        final CountDownLatch polled = new CountDownLatch(1);
+        final Stream<Film> tail = TailSpliterator.stream(configuration -> {
+            polled.countDown();
+            return Stream.empty();
+        }, streamConfiguration, ID, null);
+
+        final AtomicReference<List<Film>> consumed = new AtomicReference<>();
+        final Thread consumer = new Thread(() -> consumed.set(tail.collect(Collectors.toList())));
+        consumer.start();
+        assertTrue(polled.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+        // Closing the Stream cancels it, also while its consumer waits for the next poll
+        tail.close();
+
+        consumer.join(TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS));
+        assertFalse(consumer.isAlive());
+        assertEquals(Collections.emptyList(), consumed.get());
+    }
+
+    private static void awaitPaused(final Thread thread) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (thread.getState() != Thread.State.TIMED_WAITING) {
+            assertTrue(System.nanoTime() < deadline, "Thread did not pause");
+            Thread.sleep(1);
+        }
+    }
+
+    private static List<Film> films(final Integer... ids) {
+        return Arrays.stream(ids).map(Film::new).collect(Collectors.toList());
+    }
+
+    static final class Film {
+
+        private final Integer id;
+
+        Film(final Integer id) {
+            this.id = id;
+        }
+
+        Integer getId() {
+            return id;
+        }
+    }
+}
@@ -19,10 +19,14 @@ import com.speedment.jpastreamer.pipeline.terminal.TerminalOperation;
 import com.speedment.jpastreamer.projection.Projection;
 import com.speedment.jpastreamer.renderer.RenderResult;
 import com.speedment.jpastreamer.renderer.Renderer;
+import com.speedment.jpastreamer.streamconfiguration.CheckpointStore;
+import com.speedment.jpastreamer.streamconfiguration.FieldGraph;
 import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+import jakarta.persistence.EntityGraph;
 import jakarta.persistence.criteria.JoinType;
 import org.junit.jupiter.api.BeforeEach;
 
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiPredicate;
@@ -220,6 +224,11 @@ abstract class BaseStreamBuilderTest<T, S extends BaseStream<T, S>> {
             throw new UnsupportedOperationException();
         }
 
+        @Override
+        public StreamConfiguration<T> joiningInBatches(Field<T> field, int batchSize) {
+            throw new UnsupportedOperationException();
+        }
+
         @Override
         public Optional<Projection<T>> selections() {
             return Optional.ofNullable(projection);
@@ -239,6 +248,81 @@ abstract class BaseStreamBuilderTest<T, S extends BaseStream<T, S>> {
         public StreamConfiguration<T> withHint(String hintName, Object value) {
             throw new UnsupportedOperationException();
         }
+
+        @Override
+        public Optional<GraphConfiguration<T>> graph() {
+            return Optional.empty();
+        }
+
+        @Override
+        public StreamConfiguration<T> withFetchGraph(EntityGraph<?> entityGraph) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public StreamConfiguration<T> withFetchGraph(FieldGraph<T> fieldGraph) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public StreamConfiguration<T> withLoadGraph(EntityGraph<?> entityGraph) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public StreamConfiguration<T> withLoadGraph(FieldGraph<T> fieldGraph) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public OptionalInt spillThreshold() {
+            return OptionalInt.empty();
+        }
+
+        @Override
+        public StreamConfiguration<T> withSpillThreshold(int maxElementsInMemory) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean isStateless() {
+            return false;
+        }
+
+        @Override
+        public StreamConfiguration<T> stateless() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Optional<CheckpointConfiguration> checkpointing() {
+            return Optional.empty();
+        }
+
+        @Override
+        public StreamConfiguration<T> checkpointing(CheckpointStore store, int interval) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Optional<Duration> snapshot() {
+            return Optional.empty();
+        }
+
+        @Override
+        public StreamConfiguration<T> withSnapshot(Duration refreshInterval) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public OptionalInt coalescing() {
+            return OptionalInt.empty();
+        }
+
+        @Override
+        public StreamConfiguration<T> withCoalescing(int maxResults) {
+            throw new UnsupportedOperationException();
+        }
     }
 
 }
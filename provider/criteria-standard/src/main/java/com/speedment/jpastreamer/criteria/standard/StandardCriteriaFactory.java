@@ -17,6 +17,7 @@ import com.speedment.jpastreamer.criteria.CriteriaFactory;
 import com.speedment.jpastreamer.criteria.standard.internal.InternalCriteriaFactory;
 
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CommonAbstractCriteria;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Root;
@@ -34,6 +35,15 @@ public final class StandardCriteriaFactory implements CriteriaFactory {
         return delegate.createCriteria(builder, query, root);
     }
 
+    @Override
+    public <ENTITY> Criteria<ENTITY, Void> createStatementCriteria(
+        final EntityManager entityManager,
+        final CommonAbstractCriteria statement,
+        final Root<ENTITY> root
+    ) {
+        return delegate.createStatementCriteria(entityManager, statement, root);
+    }
+
     @Override
     public <ENTITY> Criteria<ENTITY, ENTITY> createCriteria(
         final EntityManager entityManager,
@@ -41,4 +51,13 @@ public final class StandardCriteriaFactory implements CriteriaFactory {
     ) {
         return delegate.createCriteria(entityManager, entityClass);
     }
+
+    @Override
+    public <ENTITY, RETURN> Criteria<ENTITY, RETURN> createCriteria(
+        final EntityManager entityManager,
+        final Class<ENTITY> entityClass,
+        final Class<RETURN> returnClass
+    ) {
+        return delegate.createCriteria(entityManager, entityClass, returnClass);
+    }
 }
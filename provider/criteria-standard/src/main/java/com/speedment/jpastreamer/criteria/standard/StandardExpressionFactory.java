@@ -0,0 +1,31 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.criteria.standard;
+
+import com.speedment.jpastreamer.criteria.Criteria;
+import com.speedment.jpastreamer.criteria.ExpressionFactory;
+import com.speedment.jpastreamer.criteria.standard.internal.InternalExpressionFactory;
+import com.speedment.runtime.compute.expression.Expression;
+
+public final class StandardExpressionFactory implements ExpressionFactory {
+
+    private final ExpressionFactory delegate = new InternalExpressionFactory();
+
+    @Override
+    public <ENTITY> jakarta.persistence.criteria.Expression<? extends Number> createExpression(
+        final Criteria<ENTITY, ?> criteria,
+        final Expression<ENTITY> expression
+    ) {
+        return delegate.createExpression(criteria, expression);
+    }
+}
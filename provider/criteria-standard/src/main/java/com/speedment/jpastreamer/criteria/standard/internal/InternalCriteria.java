@@ -17,29 +17,56 @@ import static java.util.Objects.requireNonNull;
 
 import com.speedment.jpastreamer.criteria.Criteria;
 import com.speedment.jpastreamer.criteria.QueryParameter;
+import com.speedment.jpastreamer.criteria.standard.internal.predicate.CaseInsensitiveStrategies;
+import com.speedment.jpastreamer.criteria.standard.internal.predicate.CaseInsensitiveStrategy;
+import jakarta.persistence.criteria.CommonAbstractCriteria;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Root;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 public final class InternalCriteria<ENTITY, RETURN> implements Criteria<ENTITY, RETURN> {
 
     private final CriteriaBuilder builder;
     private final CriteriaQuery<RETURN> query;
+    private final CommonAbstractCriteria statement;
     private final Root<ENTITY> root;
     private final List<QueryParameter<?>> queryParameters;
+    private final CaseInsensitiveStrategy caseInsensitiveStrategy;
 
     public InternalCriteria(
         final CriteriaBuilder builder,
         final CriteriaQuery<RETURN> query,
         final Root<ENTITY> root
+    ) {
+        this(builder, query, root, CaseInsensitiveStrategies.lower());
+    }
+
+    public InternalCriteria(
+        final CriteriaBuilder builder,
+        final CriteriaQuery<RETURN> query,
+        final Root<ENTITY> root,
+        final CaseInsensitiveStrategy caseInsensitiveStrategy
+    ) {
+        this(builder, query, query, root, caseInsensitiveStrategy);
+    }
+
+    public InternalCriteria(
+        final CriteriaBuilder builder,
+        final CriteriaQuery<RETURN> query,
+        final CommonAbstractCriteria statement,
+        final Root<ENTITY> root,
+        final CaseInsensitiveStrategy caseInsensitiveStrategy
     ) {
         this.builder = builder;
         this.query = query;
+        this.statement = statement;
         this.root = root;
         this.queryParameters = new ArrayList<>();
+        this.caseInsensitiveStrategy = requireNonNull(caseInsensitiveStrategy);
     }
 
     @Override
@@ -52,6 +79,11 @@ public final class InternalCriteria<ENTITY, RETURN> implements Criteria<ENTITY,
         return query;
     }
 
+    @Override
+    public CommonAbstractCriteria getStatement() {
+        return statement;
+    }
+
     @Override
     public List<QueryParameter> getQueryParameters() {
         return unmodifiableList(queryParameters);
@@ -66,4 +98,16 @@ public final class InternalCriteria<ENTITY, RETURN> implements Criteria<ENTITY,
     public Root<ENTITY> getRoot() {
         return root;
     }
+
+    @Override
+    public <T> Criteria<T, RETURN> createSubqueryCriteria(final Root<T> root) {
+        return new InternalCriteria<>(builder, query, statement, requireNonNull(root), caseInsensitiveStrategy);
+    }
+
+    @Override
+    public <T> Optional<T> unwrap(final Class<T> type) {
+        return type.isInstance(caseInsensitiveStrategy)
+            ? Optional.of(type.cast(caseInsensitiveStrategy))
+            : Optional.empty();
+    }
 }
@@ -16,7 +16,10 @@ import static java.util.Objects.requireNonNull;
 
 import com.speedment.jpastreamer.criteria.Criteria;
 import com.speedment.jpastreamer.criteria.CriteriaFactory;
+import com.speedment.jpastreamer.criteria.standard.internal.predicate.CaseInsensitiveStrategies;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CommonAbstractCriteria;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Root;
@@ -35,4 +38,46 @@ public final class InternalCriteriaFactory implements CriteriaFactory {
 
         return new InternalCriteria<>(builder, query, root);
     }
+
+    @Override
+    public <ENTITY> Criteria<ENTITY, Void> createStatementCriteria(
+        final EntityManager entityManager,
+        final CommonAbstractCriteria statement,
+        final Root<ENTITY> root
+    ) {
+        requireNonNull(entityManager);
+        requireNonNull(statement);
+        requireNonNull(root);
+
+        return new InternalCriteria<>(
+            entityManager.getCriteriaBuilder(),
+            null,
+            statement,
+            root,
+            CaseInsensitiveStrategies.resolve(entityManager.getEntityManagerFactory())
+        );
+    }
+
+    @Override
+    public <ENTITY, RETURN> Criteria<ENTITY, RETURN> createCriteria(
+        final EntityManager entityManager,
+        final Class<ENTITY> entityClass,
+        final Class<RETURN> returnClass
+    ) {
+        requireNonNull(entityManager);
+        requireNonNull(entityClass);
+        requireNonNull(returnClass);
+
+        final CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<RETURN> criteriaQuery = criteriaBuilder.createQuery(returnClass);
+        final Root<ENTITY> root = criteriaQuery.from(entityClass);
+
+        // The case-insensitive predicates are rendered for the database of the persistence unit
+        return new InternalCriteria<>(
+            criteriaBuilder,
+            criteriaQuery,
+            root,
+            CaseInsensitiveStrategies.resolve(entityManager.getEntityManagerFactory())
+        );
+    }
 }
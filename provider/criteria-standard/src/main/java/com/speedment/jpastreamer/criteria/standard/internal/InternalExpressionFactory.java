@@ -0,0 +1,36 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.criteria.standard.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.criteria.Criteria;
+import com.speedment.jpastreamer.criteria.ExpressionFactory;
+import com.speedment.jpastreamer.criteria.standard.internal.expression.ExpressionMapper;
+import com.speedment.runtime.compute.expression.Expression;
+
+public final class InternalExpressionFactory implements ExpressionFactory {
+
+    private final ExpressionMapper expressionMapper = ExpressionMapper.createExpressionMapper();
+
+    @Override
+    public <ENTITY> jakarta.persistence.criteria.Expression<? extends Number> createExpression(
+        final Criteria<ENTITY, ?> criteria,
+        final Expression<ENTITY> expression
+    ) {
+        requireNonNull(criteria);
+        requireNonNull(expression);
+
+        return expressionMapper.mapExpression(criteria, expression);
+    }
+}
@@ -18,11 +18,14 @@ import static java.util.stream.Collectors.toList;
 
 import com.speedment.jpastreamer.criteria.Criteria;
 import com.speedment.jpastreamer.criteria.OrderFactory;
+import com.speedment.jpastreamer.criteria.standard.internal.expression.ExpressionMapper;
 import com.speedment.jpastreamer.criteria.standard.internal.order.OrderMapper;
 import com.speedment.jpastreamer.exception.JPAStreamerException;
 import com.speedment.jpastreamer.field.comparator.CombinedComparator;
+import com.speedment.jpastreamer.field.comparator.ExpressionComparator;
 import com.speedment.jpastreamer.field.comparator.FieldComparator;
 
+import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Order;
 import java.util.Comparator;
 import java.util.List;
@@ -30,6 +33,7 @@ import java.util.List;
 public final class InternalOrderFactory implements OrderFactory {
 
     private final OrderMapper orderMapper = OrderMapper.createOrderMapper();
+    private final ExpressionMapper expressionMapper = ExpressionMapper.createExpressionMapper();
 
     @Override
     public <ENTITY> List<Order> createOrder(
@@ -53,6 +57,15 @@ public final class InternalOrderFactory implements OrderFactory {
                 .collect(toList());
         }
 
+        if (comparator instanceof ExpressionComparator) {
+            final ExpressionComparator<ENTITY> expressionComparator = (ExpressionComparator<ENTITY>) comparator;
+            final Expression<? extends Number> expression = expressionMapper.mapExpression(criteria, expressionComparator.expression());
+
+            return singletonList(expressionComparator.isReversed()
+                ? criteria.getBuilder().desc(expression)
+                : criteria.getBuilder().asc(expression));
+        }
+
         throw new JPAStreamerException(
             "Comparator type [" + comparator.getClass().getSimpleName() + "] is not supported"
         );
@@ -16,21 +16,31 @@ import static java.util.Objects.requireNonNull;
 
 import com.speedment.jpastreamer.criteria.Criteria;
 import com.speedment.jpastreamer.criteria.PredicateFactory;
+import com.speedment.jpastreamer.criteria.standard.internal.expression.ExpressionMapper;
 import com.speedment.jpastreamer.criteria.standard.internal.predicate.PredicateMapper;
 import com.speedment.jpastreamer.criteria.standard.internal.predicate.PredicateMapping;
 import com.speedment.jpastreamer.exception.JPAStreamerException;
 import com.speedment.jpastreamer.field.predicate.CombinedPredicate;
+import com.speedment.jpastreamer.field.predicate.ExpressionPredicate;
 import com.speedment.jpastreamer.field.predicate.FieldPredicate;
 import com.speedment.jpastreamer.field.predicate.SpeedmentPredicate;
 
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.ParameterExpression;
 import jakarta.persistence.criteria.Predicate;
 
 public final class InternalPredicateFactory implements PredicateFactory {
 
-    private final PredicateMapper predicateMapper = PredicateMapper.createPredicateMapper();
+    private final PredicateMapper predicateMapper;
+    private final ExpressionMapper expressionMapper = ExpressionMapper.createExpressionMapper();
+
+    public InternalPredicateFactory() {
+        // Predicates on associated entities are mapped by this factory as well
+        this.predicateMapper = PredicateMapper.createPredicateMapper(this);
+    }
 
     @Override
-    @SuppressWarnings("unchecked")
     public <ENTITY> Predicate createPredicate(
         final Criteria<ENTITY, ?> criteria,
         final SpeedmentPredicate<ENTITY> speedmentPredicate
@@ -38,6 +48,17 @@ public final class InternalPredicateFactory implements PredicateFactory {
         requireNonNull(criteria);
         requireNonNull(speedmentPredicate);
 
+        // Fails before any query parameters are added to the criteria
+        requireSupported(criteria, speedmentPredicate);
+
+        return createPredicate0(criteria, speedmentPredicate);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <ENTITY> Predicate createPredicate0(
+        final Criteria<ENTITY, ?> criteria,
+        final SpeedmentPredicate<ENTITY> speedmentPredicate
+    ) {
         if (speedmentPredicate instanceof FieldPredicate) {
             final FieldPredicate<ENTITY> fieldPredicate = (FieldPredicate<ENTITY>) speedmentPredicate;
             final PredicateMapping predicateMapping = predicateMapper.mapPredicate(criteria, fieldPredicate);
@@ -52,7 +73,7 @@ public final class InternalPredicateFactory implements PredicateFactory {
 
             final Predicate[] predicates = combinedPredicate.stream().map(predicate -> {
                 if (predicate instanceof SpeedmentPredicate) {
-                    return createPredicate(criteria, (SpeedmentPredicate<ENTITY>) predicate);
+                    return createPredicate0(criteria, (SpeedmentPredicate<ENTITY>) predicate);
                 }
                 throw newJPAStreamerException("type", predicate.getClass().getSimpleName());
 
@@ -67,9 +88,66 @@ public final class InternalPredicateFactory implements PredicateFactory {
                     throw newJPAStreamerException("logical operator", combinedPredicate.getType().toString());
             }
         }
+        if (speedmentPredicate instanceof ExpressionPredicate) {
+            return expressionPredicate(criteria, (ExpressionPredicate<ENTITY>) speedmentPredicate);
+        }
+
         throw newJPAStreamerException("logical type", speedmentPredicate.getClass().getSimpleName());
     }
 
+    private <ENTITY> void requireSupported(
+        final Criteria<ENTITY, ?> criteria,
+        final Object predicate
+    ) {
+        if (predicate instanceof FieldPredicate) {
+            return;
+        }
+
+        if (predicate instanceof CombinedPredicate) {
+            ((CombinedPredicate<?>) predicate).stream().forEach(operand -> requireSupported(criteria, operand));
+            return;
+        }
+
+        if (predicate instanceof ExpressionPredicate) {
+            @SuppressWarnings("unchecked")
+            final ExpressionPredicate<ENTITY> expressionPredicate = (ExpressionPredicate<ENTITY>) predicate;
+            expressionMapper.mapExpression(criteria, expressionPredicate.expression());
+            return;
+        }
+
+        throw newJPAStreamerException("logical type", predicate.getClass().getSimpleName());
+    }
+
+    @SuppressWarnings("unchecked")
+    private <ENTITY> Predicate expressionPredicate(
+        final Criteria<ENTITY, ?> criteria,
+        final ExpressionPredicate<ENTITY> expressionPredicate
+    ) {
+        final CriteriaBuilder builder = criteria.getBuilder();
+        final Expression<? extends Number> expression = expressionMapper.mapExpression(criteria, expressionPredicate.expression());
+
+        final Number value = expressionPredicate.value();
+        final ParameterExpression<Number> parameter = builder.parameter((Class<Number>) value.getClass());
+        criteria.addQueryParameter(new InternalQueryParameter<>(parameter, value));
+
+        switch (expressionPredicate.getPredicateType()) {
+            case EQUAL:
+                return builder.equal(expression, parameter);
+            case NOT_EQUAL:
+                return builder.notEqual(expression, parameter);
+            case GREATER_THAN:
+                return builder.gt(expression, parameter);
+            case GREATER_OR_EQUAL:
+                return builder.ge(expression, parameter);
+            case LESS_THAN:
+                return builder.lt(expression, parameter);
+            case LESS_OR_EQUAL:
+                return builder.le(expression, parameter);
+            default:
+                throw newJPAStreamerException("type", expressionPredicate.getPredicateType().toString());
+        }
+    }
+
     private JPAStreamerException newJPAStreamerException(String item, String typeName) {
         return new JPAStreamerException(
                 "Predicate " + item + " [" + typeName + "] is not supported"
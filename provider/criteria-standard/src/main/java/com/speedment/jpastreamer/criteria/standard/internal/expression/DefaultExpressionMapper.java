@@ -0,0 +1,196 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.criteria.standard.internal.expression;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.criteria.Criteria;
+import com.speedment.jpastreamer.exception.JPAStreamerException;
+import com.speedment.jpastreamer.field.Field;
+import com.speedment.runtime.compute.ToByte;
+import com.speedment.runtime.compute.ToDouble;
+import com.speedment.runtime.compute.ToFloat;
+import com.speedment.runtime.compute.ToInt;
+import com.speedment.runtime.compute.ToLong;
+import com.speedment.runtime.compute.ToShort;
+import com.speedment.runtime.compute.expression.BinaryExpression;
+import com.speedment.runtime.compute.expression.BinaryObjExpression;
+import com.speedment.runtime.compute.expression.Expression;
+import com.speedment.runtime.compute.expression.UnaryExpression;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+
+/**
+ * Maps numeric Speedment expressions onto the arithmetic functions of the
+ * {@link CriteriaBuilder}. Fields become attribute paths of the root, unary
+ * and binary expressions become the corresponding functions and constant
+ * operands become literals. Any other expression, e.g. one that composes
+ * an arbitrary function, cannot be mapped.
+ * <p>
+ * A cast of a floating-point value to an integral type truncates towards
+ * zero as in Java, whereas a plain SQL cast may round. The arithmetic of
+ * the database follows SQL rather than Java though: {@code PLUS},
+ * {@code MINUS} and {@code MULTIPLY} of integral values may be widened or
+ * raise an error where Java silently overflows, and casts of values out of
+ * the range of the target type are not saturated. Results therefore only
+ * agree with the expression evaluated in Java as long as no overflow
+ * occurs.
+ */
+public final class DefaultExpressionMapper implements ExpressionMapper {
+
+    @Override
+    public <ENTITY> jakarta.persistence.criteria.Expression<? extends Number> mapExpression(
+        final Criteria<ENTITY, ?> criteria,
+        final Expression<ENTITY> expression
+    ) {
+        requireNonNull(criteria);
+        requireNonNull(expression);
+
+        return mapExpression0(criteria, expression);
+    }
+
+    private jakarta.persistence.criteria.Expression<? extends Number> mapExpression0(
+        final Criteria<?, ?> criteria,
+        final Object expression
+    ) {
+        final CriteriaBuilder builder = criteria.getBuilder();
+
+        if (expression instanceof Field) {
+            return criteria.getRoot().get(((Field<?>) expression).columnName());
+        }
+
+        if (expression instanceof UnaryExpression) {
+            final UnaryExpression<?, ?> unaryExpression = (UnaryExpression<?, ?>) expression;
+            final jakarta.persistence.criteria.Expression<? extends Number> inner = mapExpression0(criteria, unaryExpression.inner());
+
+            switch (unaryExpression.operator().name()) {
+                case "ABS":
+                    return builder.abs(inner);
+                case "NEGATE":
+                    return builder.neg(inner);
+                case "SQRT":
+                    return builder.sqrt(inner);
+                case "SIGN":
+                    return builder.<Integer>selectCase()
+                        .when(builder.gt(inner, 0), 1)
+                        .when(builder.lt(inner, 0), -1)
+                        .otherwise(0);
+                case "CAST":
+                    return cast(builder, inner, isFloatingPoint(unaryExpression.inner()), numberType(expression));
+                default:
+                    throw newJPAStreamerException(unaryExpression.operator().name());
+            }
+        }
+
+        if (expression instanceof BinaryExpression) {
+            final BinaryExpression<?, ?, ?> binaryExpression = (BinaryExpression<?, ?, ?>) expression;
+
+            return binary(
+                builder,
+                binaryExpression.operator().name(),
+                mapExpression0(criteria, binaryExpression.first()),
+                mapExpression0(criteria, binaryExpression.second())
+            );
+        }
+
+        if (expression instanceof BinaryObjExpression) {
+            final BinaryObjExpression<?, ?, ?> binaryObjExpression = (BinaryObjExpression<?, ?, ?>) expression;
+            final Object second = binaryObjExpression.second();
+
+            if (!(second instanceof Number)) {
+                throw newJPAStreamerException(binaryObjExpression.operator().name());
+            }
+
+            return binary(
+                builder,
+                binaryObjExpression.operator().name(),
+                mapExpression0(criteria, binaryObjExpression.first()),
+                builder.literal((Number) second)
+            );
+        }
+
+        throw newJPAStreamerException(expression.getClass().getSimpleName());
+    }
+
+    private jakarta.persistence.criteria.Expression<? extends Number> binary(
+        final CriteriaBuilder builder,
+        final String operator,
+        final jakarta.persistence.criteria.Expression<? extends Number> first,
+        final jakarta.persistence.criteria.Expression<? extends Number> second
+    ) {
+        switch (operator) {
+            case "PLUS":
+                return builder.sum(first, second);
+            case "MINUS":
+                return builder.diff(first, second);
+            case "MULTIPLY":
+                return builder.prod(first, second);
+            case "DIVIDE":
+                // Division of Speedment expressions always yields a double
+                return builder.quot(first.as(Double.class), second);
+            case "POW":
+                return builder.function("power", Double.class, first, second);
+            default:
+                throw newJPAStreamerException(operator);
+        }
+    }
+
+    private <N extends Number> jakarta.persistence.criteria.Expression<? extends Number> cast(
+        final CriteriaBuilder builder,
+        final jakarta.persistence.criteria.Expression<N> inner,
+        final boolean floatingPoint,
+        final Class<? extends Number> type
+    ) {
+        if (!floatingPoint || Double.class.equals(type) || Float.class.equals(type)) {
+            return inner.as(type);
+        }
+
+        // Java truncates towards zero, i.e. floor() of positive and ceiling() of negative values
+        return builder.<N>selectCase()
+            .when(builder.ge(inner, 0), builder.floor(inner))
+            .otherwise(builder.ceiling(inner))
+            .as(type);
+    }
+
+    private boolean isFloatingPoint(final Object expression) {
+        return expression instanceof ToDouble || expression instanceof ToFloat;
+    }
+
+    private Class<? extends Number> numberType(final Object expression) {
+        if (expression instanceof ToInt) {
+            return Integer.class;
+        }
+        if (expression instanceof ToLong) {
+            return Long.class;
+        }
+        if (expression instanceof ToDouble) {
+            return Double.class;
+        }
+        if (expression instanceof ToFloat) {
+            return Float.class;
+        }
+        if (expression instanceof ToShort) {
+            return Short.class;
+        }
+        if (expression instanceof ToByte) {
+            return Byte.class;
+        }
+        throw newJPAStreamerException(expression.getClass().getSimpleName());
+    }
+
+    private JPAStreamerException newJPAStreamerException(final String item) {
+        return new JPAStreamerException(
+            "Expression [" + item + "] is not supported"
+        );
+    }
+}
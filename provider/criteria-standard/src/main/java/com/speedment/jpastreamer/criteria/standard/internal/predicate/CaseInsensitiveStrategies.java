@@ -0,0 +1,279 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.criteria.standard.internal.predicate;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.criteria.Criteria;
+import com.speedment.jpastreamer.exception.JPAStreamerException;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.ParameterExpression;
+import jakarta.persistence.criteria.Predicate;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
+import java.util.function.BiFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * Provides the {@link CaseInsensitiveStrategy case-insensitive strategies}
+ * and selects one of them for a persistence unit.
+ * <p>
+ * The strategy is configured with the {@value #STRATEGY_PROPERTY} property
+ * of the persistence unit, or else the system property with the same name,
+ * which is one of:
+ * <ul>
+ *     <li>{@code lower} - compares {@code lower(column)}, matching functional indexes on the lowercased column</li>
+ *     <li>{@code upper} - compares {@code upper(column)}, matching functional indexes on the uppercased column</li>
+ *     <li>{@code collation} - compares the column itself, relying on a case-insensitive collation of the column</li>
+ *     <li>{@code ilike} - compares the column with {@code ILIKE}, if supported by the persistence provider</li>
+ *     <li>{@code column} - compares a shadow attribute holding the lowercased value of the column, named
+ *     by the {@code String.format} pattern of the {@value #COLUMN_PROPERTY} property, e.g. {@code %sLower}</li>
+ * </ul>
+ * If no strategy is configured, {@code lower} is used as it is correct
+ * regardless of the collation of the column. The other strategies are only
+ * used if configured, since {@code collation} silently compares case-sensitively
+ * with a case-sensitive collation and {@code upper} only pays off with an
+ * index on the uppercased column.
+ */
+public final class CaseInsensitiveStrategies {
+
+    public static final String STRATEGY_PROPERTY = "jpastreamer.criteria.caseinsensitive";
+    public static final String COLUMN_PROPERTY = "jpastreamer.criteria.caseinsensitive.column";
+
+    private static final CaseInsensitiveStrategy LOWER = new FunctionStrategy(CriteriaBuilder::lower, String::toLowerCase);
+    private static final CaseInsensitiveStrategy UPPER = new FunctionStrategy(CriteriaBuilder::upper, String::toUpperCase);
+    private static final CaseInsensitiveStrategy COLLATION = new CollationStrategy();
+
+    private static final Map<EntityManagerFactory, CaseInsensitiveStrategy> STRATEGIES = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private CaseInsensitiveStrategies() {}
+
+    public static CaseInsensitiveStrategy lower() {
+        return LOWER;
+    }
+
+    public static CaseInsensitiveStrategy upper() {
+        return UPPER;
+    }
+
+    public static CaseInsensitiveStrategy collation() {
+        return COLLATION;
+    }
+
+    /**
+     * Returns the strategy of the persistence unit of the provided
+     * {@code entityManagerFactory}, or the {@code lower} strategy if
+     * the {@code entityManagerFactory} is {@code null}.
+     *
+     * @param entityManagerFactory of the persistence unit, or {@code null}
+     * @return the strategy of the persistence unit
+     */
+    public static CaseInsensitiveStrategy resolve(final EntityManagerFactory entityManagerFactory) {
+        if (entityManagerFactory == null) {
+            return LOWER;
+        }
+        return STRATEGIES.computeIfAbsent(entityManagerFactory, CaseInsensitiveStrategies::create);
+    }
+
+    static CaseInsensitiveStrategy create(final EntityManagerFactory entityManagerFactory) {
+        final Map<String, Object> properties = entityManagerFactory.getProperties();
+
+        final String configured = property(properties, STRATEGY_PROPERTY);
+        if (configured != null) {
+            return configured(configured.trim().toLowerCase(Locale.ROOT), entityManagerFactory, properties);
+        }
+
+        return LOWER;
+    }
+
+    private static CaseInsensitiveStrategy configured(
+        final String strategy,
+        final EntityManagerFactory entityManagerFactory,
+        final Map<String, Object> properties
+    ) {
+        switch (strategy) {
+            case "lower":
+                return LOWER;
+            case "upper":
+                return UPPER;
+            case "collation":
+                return COLLATION;
+            case "ilike": {
+                final Class<?> builderClass = entityManagerFactory.getCriteriaBuilder().getClass();
+                return IlikeStrategy.ilikeMethod(builderClass)
+                    .<CaseInsensitiveStrategy>map(IlikeStrategy::new)
+                    .orElseThrow(() -> new JPAStreamerException("Case-insensitive strategy [ilike] is not supported by [" + builderClass.getName() + "]"));
+            }
+            case "column": {
+                final String pattern = property(properties, COLUMN_PROPERTY);
+                if (pattern == null) {
+                    throw new JPAStreamerException("Case-insensitive strategy [column] requires the property [" + COLUMN_PROPERTY + "]");
+                }
+                return new ColumnStrategy(pattern);
+            }
+            default:
+                throw new JPAStreamerException("Case-insensitive strategy [" + strategy + "] is not supported");
+        }
+    }
+
+    private static String property(final Map<String, Object> properties, final String name) {
+        final Object value = properties.get(name);
+        return value != null ? value.toString() : System.getProperty(name);
+    }
+
+    private static final class FunctionStrategy implements CaseInsensitiveStrategy {
+
+        private final BiFunction<CriteriaBuilder, Expression<String>, Expression<String>> function;
+        private final UnaryOperator<String> normalizer;
+
+        private FunctionStrategy(
+            final BiFunction<CriteriaBuilder, Expression<String>, Expression<String>> function,
+            final UnaryOperator<String> normalizer
+        ) {
+            this.function = requireNonNull(function);
+            this.normalizer = requireNonNull(normalizer);
+        }
+
+        @Override
+        public String equalValue(final String value) {
+            return normalizer.apply(value);
+        }
+
+        @Override
+        public Predicate equal(final Criteria<?, ?> criteria, final String column, final ParameterExpression<String> parameter) {
+            return criteria.getBuilder().equal(function.apply(criteria.getBuilder(), criteria.getRoot().get(column)), parameter);
+        }
+
+        @Override
+        public String likeValue(final String pattern) {
+            return normalizer.apply(pattern);
+        }
+
+        @Override
+        public Predicate like(final Criteria<?, ?> criteria, final String column, final ParameterExpression<String> parameter) {
+            return criteria.getBuilder().like(function.apply(criteria.getBuilder(), criteria.getRoot().get(column)), parameter, LikePatterns.ESCAPE);
+        }
+    }
+
+    private static final class CollationStrategy implements CaseInsensitiveStrategy {
+
+        @Override
+        public String equalValue(final String value) {
+            return value;
+        }
+
+        @Override
+        public Predicate equal(final Criteria<?, ?> criteria, final String column, final ParameterExpression<String> parameter) {
+            return criteria.getBuilder().equal(criteria.getRoot().get(column), parameter);
+        }
+
+        @Override
+        public String likeValue(final String pattern) {
+            return pattern;
+        }
+
+        @Override
+        public Predicate like(final Criteria<?, ?> criteria, final String column, final ParameterExpression<String> parameter) {
+            return criteria.getBuilder().like(criteria.getRoot().get(column), parameter, LikePatterns.ESCAPE);
+        }
+    }
+
+    private static final class IlikeStrategy implements CaseInsensitiveStrategy {
+
+        private final Method ilike;
+
+        private IlikeStrategy(final Method ilike) {
+            this.ilike = requireNonNull(ilike);
+        }
+
+        @Override
+        public String equalValue(final String value) {
+            // Without wildcards, ILIKE compares the whole value
+            return LikePatterns.escape(value);
+        }
+
+        @Override
+        public Predicate equal(final Criteria<?, ?> criteria, final String column, final ParameterExpression<String> parameter) {
+            return like(criteria, column, parameter);
+        }
+
+        @Override
+        public String likeValue(final String pattern) {
+            return pattern;
+        }
+
+        @Override
+        public Predicate like(final Criteria<?, ?> criteria, final String column, final ParameterExpression<String> parameter) {
+            try {
+                return (Predicate) ilike.invoke(criteria.getBuilder(), criteria.getRoot().get(column), parameter, LikePatterns.ESCAPE);
+            } catch (IllegalAccessException | InvocationTargetException e) {
+                throw new JPAStreamerException(e);
+            }
+        }
+
+        private static Optional<Method> ilikeMethod(final Class<?> builderClass) {
+            try {
+                return Optional.of(builderClass.getMethod("ilike", Expression.class, Expression.class, char.class));
+            } catch (NoSuchMethodException e) {
+                return Optional.empty();
+            }
+        }
+    }
+
+    private static final class ColumnStrategy implements CaseInsensitiveStrategy {
+
+        private final String pattern;
+
+        private ColumnStrategy(final String pattern) {
+            this.pattern = requireNonNull(pattern);
+        }
+
+        @Override
+        public String equalValue(final String value) {
+            return value.toLowerCase();
+        }
+
+        @Override
+        public Predicate equal(final Criteria<?, ?> criteria, final String column, final ParameterExpression<String> parameter) {
+            return criteria.getBuilder().equal(normalized(criteria, column), parameter);
+        }
+
+        @Override
+        public String likeValue(final String pattern) {
+            return pattern.toLowerCase();
+        }
+
+        @Override
+        public Predicate like(final Criteria<?, ?> criteria, final String column, final ParameterExpression<String> parameter) {
+            return criteria.getBuilder().like(normalized(criteria, column), parameter, LikePatterns.ESCAPE);
+        }
+
+        private Expression<String> normalized(final Criteria<?, ?> criteria, final String column) {
+            try {
+                return criteria.getRoot().get(String.format(pattern, column));
+            } catch (IllegalArgumentException e) {
+                // The attribute has no shadow attribute
+                return criteria.getBuilder().lower(criteria.getRoot().<String>get(column));
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.criteria.standard.internal.predicate;
+
+import com.speedment.jpastreamer.criteria.Criteria;
+
+import jakarta.persistence.criteria.ParameterExpression;
+import jakarta.persistence.criteria.Predicate;
+
+/**
+ * Renders the case-insensitive string predicates of a database. The
+ * comparisons are rendered so that they can be served by the indexes that
+ * are conventional for the database, e.g. functional indexes on the
+ * lowercased column or columns with a case-insensitive collation.
+ */
+public interface CaseInsensitiveStrategy {
+
+    /**
+     * Returns the value to bind to the parameter of {@link #equal}.
+     *
+     * @param value to compare with
+     * @return the value to bind
+     */
+    String equalValue(final String value);
+
+    /**
+     * Returns a predicate that holds if the provided {@code column} is
+     * equal to the value bound to the {@code parameter}, ignoring case.
+     *
+     * @param criteria of the query
+     * @param column to compare
+     * @param parameter holding the value returned by {@link #equalValue}
+     * @return a predicate
+     */
+    Predicate equal(
+        final Criteria<?, ?> criteria,
+        final String column,
+        final ParameterExpression<String> parameter
+    );
+
+    /**
+     * Returns the pattern to bind to the parameter of {@link #like}.
+     *
+     * @param pattern with wildcards, where the characters of the value are escaped
+     *                using {@link LikePatterns#ESCAPE}
+     * @return the pattern to bind
+     */
+    String likeValue(final String pattern);
+
+    /**
+     * Returns a predicate that holds if the provided {@code column} matches
+     * the pattern bound to the {@code parameter}, ignoring case.
+     *
+     * @param criteria of the query
+     * @param column to match
+     * @param parameter holding the pattern returned by {@link #likeValue}
+     * @return a predicate
+     */
+    Predicate like(
+        final Criteria<?, ?> criteria,
+        final String column,
+        final ParameterExpression<String> parameter
+    );
+}
@@ -17,13 +17,16 @@ import static java.util.Objects.requireNonNull;
 
 import com.speedment.common.function.TriFunction;
 import com.speedment.jpastreamer.criteria.Criteria;
+import com.speedment.jpastreamer.criteria.PredicateFactory;
 import com.speedment.jpastreamer.criteria.QueryParameter;
 import com.speedment.jpastreamer.criteria.standard.internal.InternalQueryParameter;
 import com.speedment.jpastreamer.criteria.standard.internal.util.Cast;
 import com.speedment.jpastreamer.exception.JPAStreamerException;
 import com.speedment.jpastreamer.field.Field;
+import com.speedment.jpastreamer.field.predicate.CombinedPredicate;
 import com.speedment.jpastreamer.field.predicate.FieldPredicate;
 import com.speedment.jpastreamer.field.predicate.Inclusion;
+import com.speedment.jpastreamer.field.predicate.SpeedmentPredicate;
 import com.speedment.jpastreamer.field.predicate.trait.HasInclusion;
 import com.speedment.jpastreamer.field.trait.HasArg0;
 import com.speedment.jpastreamer.field.trait.HasArg1;
@@ -32,12 +35,21 @@ import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.ParameterExpression;
 import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 
+import java.util.Optional;
 import java.util.Set;
 import java.util.function.Function;
 
 public final class DefaultPredicateMapper implements PredicateMapper {
-    
+
+    private final PredicateFactory predicateFactory;
+
+    public DefaultPredicateMapper(final PredicateFactory predicateFactory) {
+        this.predicateFactory = requireNonNull(predicateFactory);
+    }
+
     @Override
     public <ENTITY> PredicateMapping mapPredicate(
         final Criteria<ENTITY, ?> criteria,
@@ -311,6 +323,48 @@ public final class DefaultPredicateMapper implements PredicateMapper {
         return new PredicateMapping(predicate);
     }
 
+    @SuppressWarnings("unchecked")
+    private <ENTITY, V> PredicateMapping matches(
+        final Criteria<ENTITY, ?> criteria,
+        final FieldPredicate<ENTITY> fieldPredicate
+    ) {
+        final Object value = Cast.castOrFail(fieldPredicate, HasArg0.class).get0();
+
+        if (!(value instanceof SpeedmentPredicate)) {
+            throw new JPAStreamerException();
+        }
+
+        final SpeedmentPredicate<V> predicate = (SpeedmentPredicate<V>) value;
+        final Class<V> referencedClass = (Class<V>) referencedClass(predicate).orElseThrow(() ->
+            new JPAStreamerException("Unable to determine the associated entity of [" + predicate + "]")
+        );
+
+        final Subquery<V> subquery = criteria.getStatement().subquery(referencedClass);
+        final Root<V> subqueryRoot = subquery.from(referencedClass);
+        final Criteria<V, ?> subqueryCriteria = criteria.createSubqueryCriteria(subqueryRoot);
+
+        subquery.select(subqueryRoot).where(predicateFactory.createPredicate(subqueryCriteria, predicate));
+
+        final String column = fieldPredicate.getField().columnName();
+
+        return new PredicateMapping(
+            criteria.getRoot().get(column).in(subquery),
+            subqueryCriteria.getQueryParameters().toArray(new QueryParameter<?>[0])
+        );
+    }
+
+    private <ENTITY> PredicateMapping notMatches(
+        final Criteria<ENTITY, ?> criteria,
+        final FieldPredicate<ENTITY> fieldPredicate
+    ) {
+        final PredicateMapping predicateMapping = matches(criteria, fieldPredicate);
+
+        return new PredicateMapping(
+            predicateMapping.getPredicate().not(),
+            predicateMapping.getQueryParameters().toArray(new QueryParameter<?>[0])
+        );
+    }
+
     @SuppressWarnings("unchecked")
     private <ENTITY> PredicateMapping greaterThan(
         final Criteria<ENTITY, ?> criteria,
@@ -353,8 +407,8 @@ public final class DefaultPredicateMapper implements PredicateMapper {
             criteria,
             fieldPredicate,
             createParameterizedPredicate(
-                (column, parameter) -> criteria.getBuilder().equal(criteria.getBuilder().lower(criteria.getRoot().get(column)), parameter),
-                String::toLowerCase
+                (column, parameter) -> caseInsensitiveStrategy(criteria).equal(criteria, column, parameter),
+                caseInsensitiveStrategy(criteria)::equalValue
             ),
             String.class
         );
@@ -368,8 +422,8 @@ public final class DefaultPredicateMapper implements PredicateMapper {
             criteria,
             fieldPredicate,
             createParameterizedPredicate(
-                (column, parameter) -> criteria.getBuilder().notEqual(criteria.getBuilder().lower(criteria.getRoot().get(column)), parameter),
-                String::toLowerCase
+                (column, parameter) -> caseInsensitiveStrategy(criteria).equal(criteria, column, parameter).not(),
+                caseInsensitiveStrategy(criteria)::equalValue
             ),
             String.class
         );
@@ -383,8 +437,8 @@ public final class DefaultPredicateMapper implements PredicateMapper {
             criteria,
             fieldPredicate,
             createParameterizedPredicate(
-                (column, parameter) -> criteria.getBuilder().like(criteria.getRoot().get(column), parameter),
-                value -> value + "%"
+                (column, parameter) -> criteria.getBuilder().like(criteria.getRoot().get(column), parameter, LikePatterns.ESCAPE),
+                LikePatterns::startsWith
             ),
             String.class
         );
@@ -398,8 +452,8 @@ public final class DefaultPredicateMapper implements PredicateMapper {
             criteria,
             fieldPredicate,
             createParameterizedPredicate(
-                (column, parameter) -> criteria.getBuilder().notLike(criteria.getRoot().get(column), parameter),
-                value -> value + "%"
+                (column, parameter) -> criteria.getBuilder().notLike(criteria.getRoot().get(column), parameter, LikePatterns.ESCAPE),
+                LikePatterns::startsWith
             ),
             String.class
         );
@@ -413,8 +467,8 @@ public final class DefaultPredicateMapper implements PredicateMapper {
             criteria,
             fieldPredicate,
             createParameterizedPredicate(
-                (column, parameter) -> criteria.getBuilder().like(criteria.getBuilder().lower(criteria.getRoot().get(column)), parameter),
-                value -> value.toLowerCase() + "%"
+                (column, parameter) -> caseInsensitiveStrategy(criteria).like(criteria, column, parameter),
+                value -> caseInsensitiveStrategy(criteria).likeValue(LikePatterns.startsWith(value))
             ),
             String.class
         );
@@ -428,8 +482,8 @@ public final class DefaultPredicateMapper implements PredicateMapper {
             criteria,
             fieldPredicate,
             createParameterizedPredicate(
-                (column, parameter) -> criteria.getBuilder().notLike(criteria.getBuilder().lower(criteria.getRoot().get(column)), parameter),
-                value -> value.toLowerCase() + "%"
+                (column, parameter) -> caseInsensitiveStrategy(criteria).like(criteria, column, parameter).not(),
+                value -> caseInsensitiveStrategy(criteria).likeValue(LikePatterns.startsWith(value))
             ),
             String.class
         );
@@ -443,8 +497,8 @@ public final class DefaultPredicateMapper implements PredicateMapper {
             criteria,
             fieldPredicate,
             createParameterizedPredicate(
-                (column, parameter) -> criteria.getBuilder().like(criteria.getRoot().get(column), parameter),
-                value -> "%" + value
+                (column, parameter) -> criteria.getBuilder().like(criteria.getRoot().get(column), parameter, LikePatterns.ESCAPE),
+                LikePatterns::endsWith
             ),
             String.class
         );
@@ -458,8 +512,8 @@ public final class DefaultPredicateMapper implements PredicateMapper {
             criteria,
             fieldPredicate,
             createParameterizedPredicate(
-                (column, parameter) -> criteria.getBuilder().notLike(criteria.getRoot().get(column), parameter),
-                value -> "%" + value
+                (column, parameter) -> criteria.getBuilder().notLike(criteria.getRoot().get(column), parameter, LikePatterns.ESCAPE),
+                LikePatterns::endsWith
             ),
             String.class
         );
@@ -473,8 +527,8 @@ public final class DefaultPredicateMapper implements PredicateMapper {
             criteria,
             fieldPredicate,
             createParameterizedPredicate(
-                (column, parameter) -> criteria.getBuilder().like(criteria.getBuilder().lower(criteria.getRoot().get(column)), parameter),
-                value -> "%" + value.toLowerCase()
+                (column, parameter) -> caseInsensitiveStrategy(criteria).like(criteria, column, parameter),
+                value -> caseInsensitiveStrategy(criteria).likeValue(LikePatterns.endsWith(value))
             ),
             String.class
         );
@@ -488,8 +542,8 @@ public final class DefaultPredicateMapper implements PredicateMapper {
             criteria,
             fieldPredicate,
             createParameterizedPredicate(
-                (column, parameter) -> criteria.getBuilder().notLike(criteria.getBuilder().lower(criteria.getRoot().get(column)), parameter),
-                value -> "%" + value.toLowerCase()
+                (column, parameter) -> caseInsensitiveStrategy(criteria).like(criteria, column, parameter).not(),
+                value -> caseInsensitiveStrategy(criteria).likeValue(LikePatterns.endsWith(value))
             ),
             String.class
         );
@@ -503,8 +557,8 @@ public final class DefaultPredicateMapper implements PredicateMapper {
             criteria,
             fieldPredicate,
             createParameterizedPredicate(
-                (column, parameter) -> criteria.getBuilder().like(criteria.getRoot().get(column), parameter),
-                value -> "%" + value + "%"
+                (column, parameter) -> criteria.getBuilder().like(criteria.getRoot().get(column), parameter, LikePatterns.ESCAPE),
+                LikePatterns::contains
             ),
             String.class
         );
@@ -518,8 +572,8 @@ public final class DefaultPredicateMapper implements PredicateMapper {
             criteria,
             fieldPredicate,
             createParameterizedPredicate(
-                (column, parameter) -> criteria.getBuilder().notLike(criteria.getRoot().get(column), parameter),
-                value -> "%" + value + "%"
+                (column, parameter) -> criteria.getBuilder().notLike(criteria.getRoot().get(column), parameter, LikePatterns.ESCAPE),
+                LikePatterns::contains
             ),
             String.class
         );
@@ -533,8 +587,8 @@ public final class DefaultPredicateMapper implements PredicateMapper {
             criteria,
             fieldPredicate,
             createParameterizedPredicate(
-                (column, parameter) -> criteria.getBuilder().like(criteria.getBuilder().lower(criteria.getRoot().get(column)), parameter),
-                value -> "%" + value.toLowerCase() + "%"
+                (column, parameter) -> caseInsensitiveStrategy(criteria).like(criteria, column, parameter),
+                value -> caseInsensitiveStrategy(criteria).likeValue(LikePatterns.contains(value))
             ),
             String.class
         );
@@ -548,8 +602,8 @@ public final class DefaultPredicateMapper implements PredicateMapper {
             criteria,
             fieldPredicate,
             createParameterizedPredicate(
-                (column, parameter) -> criteria.getBuilder().notLike(criteria.getBuilder().lower(criteria.getRoot().get(column)), parameter),
-                value -> "%" + value.toLowerCase() + "%"
+                (column, parameter) -> caseInsensitiveStrategy(criteria).like(criteria, column, parameter).not(),
+                value -> caseInsensitiveStrategy(criteria).likeValue(LikePatterns.contains(value))
             ),
             String.class
         );
@@ -579,6 +633,27 @@ public final class DefaultPredicateMapper implements PredicateMapper {
      * Mapping Helpers - Start
      */
 
+    private Optional<Class<?>> referencedClass(final Object predicate) {
+        if (predicate instanceof FieldPredicate) {
+            return Optional.ofNullable(((FieldPredicate<?>) predicate).getField().table());
+        }
+
+        if (predicate instanceof CombinedPredicate) {
+            return ((CombinedPredicate<?>) predicate).stream()
+                .map(this::referencedClass)
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .findFirst();
+        }
+
+        return Optional.empty();
+    }
+
+    private static CaseInsensitiveStrategy caseInsensitiveStrategy(final Criteria<?, ?> criteria) {
+        return criteria.unwrap(CaseInsensitiveStrategy.class)
+            .orElseGet(CaseInsensitiveStrategies::lower);
+    }
+
     private <ENTITY> PredicateMapping noValueMapping(
         final FieldPredicate<ENTITY> fieldPredicate,
         final Function<String, Predicate> callback
@@ -718,6 +793,10 @@ public final class DefaultPredicateMapper implements PredicateMapper {
                 return in(criteria, fieldPredicate);
             case NOT_IN:
                 return notIn(criteria, fieldPredicate);
+            case MATCHES:
+                return matches(criteria, fieldPredicate);
+            case NOT_MATCHES:
+                return notMatches(criteria, fieldPredicate);
             case EQUAL_IGNORE_CASE:
                 return equalIgnoreCase(criteria, fieldPredicate);
             case NOT_EQUAL_IGNORE_CASE:
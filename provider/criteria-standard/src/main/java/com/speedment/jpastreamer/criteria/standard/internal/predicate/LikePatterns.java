@@ -0,0 +1,51 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.criteria.standard.internal.predicate;
+
+/**
+ * Builds {@code LIKE} patterns where the wildcards of the matched value
+ * are escaped, so that a prefix match remains a range scan of an index.
+ * <p>
+ * The escape character is {@code '!'} rather than a backslash since some
+ * databases treat a backslash in a string literal as an escape of its own.
+ */
+final class LikePatterns {
+
+    static final char ESCAPE = '!';
+
+    private LikePatterns() {}
+
+    static String startsWith(final String value) {
+        return escape(value) + "%";
+    }
+
+    static String endsWith(final String value) {
+        return "%" + escape(value);
+    }
+
+    static String contains(final String value) {
+        return "%" + escape(value) + "%";
+    }
+
+    static String escape(final String value) {
+        final StringBuilder escaped = new StringBuilder(value.length() + 8);
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == ESCAPE || c == '%' || c == '_') {
+                escaped.append(ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
@@ -13,6 +13,7 @@
 package com.speedment.jpastreamer.criteria.standard.internal.predicate;
 
 import com.speedment.jpastreamer.criteria.Criteria;
+import com.speedment.jpastreamer.criteria.PredicateFactory;
 import com.speedment.jpastreamer.field.predicate.FieldPredicate;
 
 public interface PredicateMapper {
@@ -22,7 +23,7 @@ public interface PredicateMapper {
         final FieldPredicate<ENTITY> fieldPredicate
     );
 
-    static PredicateMapper createPredicateMapper() {
-        return new DefaultPredicateMapper();
+    static PredicateMapper createPredicateMapper(final PredicateFactory predicateFactory) {
+        return new DefaultPredicateMapper(predicateFactory);
     }
 }
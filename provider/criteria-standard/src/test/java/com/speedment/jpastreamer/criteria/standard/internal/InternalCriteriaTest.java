@@ -12,10 +12,17 @@
  */
 package com.speedment.jpastreamer.criteria.standard.internal;
 
+import static org.mockito.Mockito.mock;
+
 import com.speedment.jpastreamer.criteria.Criteria;
+import com.speedment.jpastreamer.criteria.standard.internal.predicate.CaseInsensitiveStrategies;
+import com.speedment.jpastreamer.criteria.standard.internal.predicate.CaseInsensitiveStrategy;
+import jakarta.persistence.criteria.Root;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.Optional;
+
 final class InternalCriteriaTest {
 
     private final Criteria<?, ?> nullCriteria = new InternalCriteria<>(null, null, null);
@@ -34,4 +41,21 @@ final class InternalCriteriaTest {
     void getRoot() {
         Assertions.assertDoesNotThrow(nullCriteria::getRoot);
     }
+
+    @Test
+    void unwrap() {
+        Assertions.assertEquals(Optional.of(CaseInsensitiveStrategies.lower()), nullCriteria.unwrap(CaseInsensitiveStrategy.class));
+        Assertions.assertEquals(Optional.empty(), nullCriteria.unwrap(String.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void createSubqueryCriteria() {
+        final Root<Integer> root = mock(Root.class);
+        final Criteria<String, String> criteria = new InternalCriteria<>(null, null, null, CaseInsensitiveStrategies.upper());
+        final Criteria<Integer, String> subqueryCriteria = criteria.createSubqueryCriteria(root);
+
+        Assertions.assertSame(root, subqueryCriteria.getRoot());
+        Assertions.assertEquals(Optional.of(CaseInsensitiveStrategies.upper()), subqueryCriteria.unwrap(CaseInsensitiveStrategy.class));
+    }
 }
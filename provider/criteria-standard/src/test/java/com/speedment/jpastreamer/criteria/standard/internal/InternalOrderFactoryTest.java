@@ -0,0 +1,93 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.criteria.standard.internal;
+
+import static java.util.Collections.singletonList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.speedment.jpastreamer.criteria.Criteria;
+import com.speedment.jpastreamer.criteria.OrderFactory;
+import com.speedment.jpastreamer.exception.JPAStreamerException;
+import com.speedment.jpastreamer.field.IntField;
+import com.speedment.jpastreamer.field.comparator.ExpressionComparator;
+import com.speedment.runtime.compute.ToInt;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+final class InternalOrderFactoryTest {
+
+    private static final IntField<Film> LENGTH = IntField.create(Film.class, "length", Film::getLength, false);
+
+    private final OrderFactory orderFactory = new InternalOrderFactory();
+
+    private CriteriaBuilder builder;
+    private Expression<Integer> negatedLength;
+    private Criteria<Film, Film> criteria;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        final Path<Integer> length = mock(Path.class);
+        final Root<Film> root = mock(Root.class);
+        doReturn(length).when(root).get("length");
+
+        negatedLength = mock(Expression.class);
+        builder = mock(CriteriaBuilder.class);
+        when(builder.neg(length)).thenReturn(negatedLength);
+
+        criteria = new InternalCriteria<>(builder, null, root);
+    }
+
+    @Test
+    void expressionAscending() {
+        final Order order = mock(Order.class);
+        when(builder.asc(negatedLength)).thenReturn(order);
+
+        assertEquals(singletonList(order), orderFactory.createOrder(criteria, ExpressionComparator.asc(LENGTH.negate())));
+    }
+
+    @Test
+    void expressionDescending() {
+        final Order order = mock(Order.class);
+        when(builder.desc(negatedLength)).thenReturn(order);
+
+        assertEquals(singletonList(order), orderFactory.createOrder(criteria, ExpressionComparator.desc(LENGTH.negate())));
+        assertEquals(singletonList(order), orderFactory.createOrder(criteria, ExpressionComparator.asc(LENGTH.negate()).reversed()));
+    }
+
+    @Test
+    void expressionUnsupported() {
+        final ToInt<Film> lambda = Film::getLength;
+
+        assertThrows(JPAStreamerException.class, () -> orderFactory.createOrder(criteria, ExpressionComparator.asc(lambda)));
+    }
+
+    static final class Film {
+
+        private int length;
+
+        int getLength() {
+            return length;
+        }
+    }
+}
@@ -14,6 +14,7 @@ package com.speedment.jpastreamer.criteria.standard.internal;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -27,8 +28,10 @@ import com.speedment.jpastreamer.criteria.standard.support.CombinedStringPredica
 import com.speedment.jpastreamer.criteria.standard.support.StringEqualPredicate;
 import com.speedment.jpastreamer.exception.JPAStreamerException;
 import com.speedment.jpastreamer.field.predicate.CombinedPredicate.Type;
+import com.speedment.jpastreamer.field.predicate.ExpressionPredicate;
 import com.speedment.jpastreamer.field.predicate.FieldPredicate;
 import com.speedment.jpastreamer.field.predicate.SpeedmentPredicate;
+import com.speedment.runtime.compute.ToInt;
 
 import jakarta.persistence.criteria.CriteriaBuilder;
 import org.junit.jupiter.api.BeforeEach;
@@ -79,6 +82,22 @@ final class InternalPredicateFactoryTest {
         assertDoesNotThrow(() -> predicateFactory.createPredicate(criteria, orCombinedPredicate));
     }
 
+    @Test
+    void createPredicateUnsupportedExpression() {
+        final Criteria<String, String> criteria = new InternalCriteria<>(mock(CriteriaBuilder.class), null, null);
+
+        final ToInt<String> length = String::length;
+        final SpeedmentPredicate<String> expressionPredicate = ExpressionPredicate.greaterThan(length, 3);
+
+        assertThrows(JPAStreamerException.class, () -> predicateFactory.createPredicate(criteria, expressionPredicate));
+        assertTrue(criteria.getQueryParameters().isEmpty());
+
+        final SpeedmentPredicate<String> combinedPredicate = new CombinedStringPredicate(Arrays.asList(new StringEqualPredicate("value"), expressionPredicate));
+
+        assertThrows(JPAStreamerException.class, () -> predicateFactory.createPredicate(criteria, combinedPredicate));
+        assertTrue(criteria.getQueryParameters().isEmpty());
+    }
+
     private static final class MockPredicateMapper implements PredicateMapper {
         @Override
         public <ENTITY> PredicateMapping mapPredicate(Criteria<ENTITY, ?> criteria,
@@ -0,0 +1,262 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.criteria.standard.internal.expression;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.speedment.jpastreamer.criteria.Criteria;
+import com.speedment.jpastreamer.criteria.standard.internal.InternalCriteria;
+import com.speedment.jpastreamer.exception.JPAStreamerException;
+import com.speedment.jpastreamer.field.DoubleField;
+import com.speedment.jpastreamer.field.FloatField;
+import com.speedment.jpastreamer.field.IntField;
+import com.speedment.runtime.compute.ToInt;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+final class DefaultExpressionMapperTest {
+
+    private static final IntField<Film> LENGTH = IntField.create(Film.class, "length", Film::getLength, false);
+    private static final IntField<Film> DURATION = IntField.create(Film.class, "duration", Film::getDuration, false);
+    private static final DoubleField<Film> RATE = DoubleField.create(Film.class, "rate", Film::getRate, false);
+    private static final FloatField<Film> SCORE = FloatField.create(Film.class, "score", Film::getScore, false);
+
+    private final ExpressionMapper expressionMapper = ExpressionMapper.createExpressionMapper();
+
+    private CriteriaBuilder builder;
+    private Path<Integer> length;
+    private Path<Integer> duration;
+    private Path<Double> rate;
+    private Path<Float> score;
+    private Expression<Integer> two;
+    private Criteria<Film, Film> criteria;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        length = mock(Path.class);
+        duration = mock(Path.class);
+        rate = mock(Path.class);
+        score = mock(Path.class);
+
+        final Root<Film> root = mock(Root.class);
+        doReturn(length).when(root).get("length");
+        doReturn(duration).when(root).get("duration");
+        doReturn(rate).when(root).get("rate");
+        doReturn(score).when(root).get("score");
+
+        two = mock(Expression.class);
+        builder = mock(CriteriaBuilder.class);
+        when(builder.literal(2)).thenReturn(two);
+
+        criteria = new InternalCriteria<>(builder, null, root);
+    }
+
+    @Test
+    void field() {
+        assertSame(length, map(LENGTH));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void abs() {
+        final Expression<Integer> abs = mock(Expression.class);
+        when(builder.abs(length)).thenReturn(abs);
+
+        assertSame(abs, map(LENGTH.abs()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void negate() {
+        final Expression<Integer> negated = mock(Expression.class);
+        when(builder.neg(length)).thenReturn(negated);
+
+        assertSame(negated, map(LENGTH.negate()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void sqrt() {
+        final Expression<Double> sqrt = mock(Expression.class);
+        when(builder.sqrt(length)).thenReturn(sqrt);
+
+        assertSame(sqrt, map(LENGTH.sqrt()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void sign() {
+        final CriteriaBuilder.Case<Integer> signCase = mock(CriteriaBuilder.Case.class, RETURNS_SELF);
+        doReturn(signCase).when(builder).selectCase();
+        final Predicate positive = mock(Predicate.class);
+        final Predicate negative = mock(Predicate.class);
+        when(builder.gt(length, 0)).thenReturn(positive);
+        when(builder.lt(length, 0)).thenReturn(negative);
+
+        assertSame(signCase, map(LENGTH.sign()));
+
+        // CASE WHEN length > 0 THEN 1 WHEN length < 0 THEN -1 ELSE 0 END
+        verify(signCase).when(positive, 1);
+        verify(signCase).when(negative, -1);
+        verify(signCase).otherwise(0);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void castIntegral() {
+        final Expression<Long> cast = mock(Expression.class);
+        when(length.as(Long.class)).thenReturn(cast);
+
+        assertSame(cast, map(LENGTH.asLong()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void castFloatingPointToFloatingPoint() {
+        final Expression<Double> cast = mock(Expression.class);
+        when(score.as(Double.class)).thenReturn(cast);
+
+        assertSame(cast, map(SCORE.asDouble()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void castFloatingPointToIntegral() {
+        final CriteriaBuilder.Case<Double> truncated = mock(CriteriaBuilder.Case.class, RETURNS_SELF);
+        doReturn(truncated).when(builder).selectCase();
+        final Predicate nonNegative = mock(Predicate.class);
+        when(builder.ge(rate, 0)).thenReturn(nonNegative);
+        final Expression<Double> floor = mock(Expression.class);
+        final Expression<Double> ceiling = mock(Expression.class);
+        when(builder.floor(rate)).thenReturn(floor);
+        when(builder.ceiling(rate)).thenReturn(ceiling);
+
+        assertSame(truncated, map(RATE.asInt()));
+
+        // Truncates towards zero like Java: CAST(CASE WHEN rate >= 0 THEN FLOOR(rate) ELSE CEILING(rate) END AS INTEGER)
+        verify(truncated).when(nonNegative, floor);
+        verify(truncated).otherwise(ceiling);
+        verify(truncated).as(Integer.class);
+        verify(rate, never()).as(Integer.class);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void plus() {
+        final Expression<Integer> sum = mock(Expression.class);
+        when(builder.sum(length, two)).thenReturn(sum);
+
+        assertSame(sum, map(LENGTH.plus(2)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void plusExpression() {
+        final Expression<Integer> sum = mock(Expression.class);
+        when(builder.sum(length, duration)).thenReturn(sum);
+
+        assertSame(sum, map(LENGTH.plus(DURATION)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void minus() {
+        final Expression<Integer> difference = mock(Expression.class);
+        when(builder.diff(length, two)).thenReturn(difference);
+
+        assertSame(difference, map(LENGTH.minus(2)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void multiply() {
+        final Expression<Integer> product = mock(Expression.class);
+        when(builder.prod(length, duration)).thenReturn(product);
+
+        assertSame(product, map(LENGTH.multiply(DURATION)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void divide() {
+        final Expression<Double> lengthAsDouble = mock(Expression.class);
+        when(length.as(Double.class)).thenReturn(lengthAsDouble);
+        final Expression<Number> quotient = mock(Expression.class);
+        when(builder.quot(lengthAsDouble, two)).thenReturn(quotient);
+
+        // The division is a floating-point division, as in Java
+        assertSame(quotient, map(LENGTH.divide(2)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void pow() {
+        final Expression<Double> power = mock(Expression.class);
+        when(builder.function(eq("power"), eq(Double.class), any(Expression[].class))).thenReturn(power);
+
+        assertSame(power, map(LENGTH.pow(2)));
+        verify(builder).function("power", Double.class, length, two);
+    }
+
+    @Test
+    void unsupported() {
+        final ToInt<Film> lambda = Film::getLength;
+
+        assertThrows(JPAStreamerException.class, () -> map(lambda));
+        assertThrows(JPAStreamerException.class, () -> map(LENGTH.plus(lambda)));
+    }
+
+    private Expression<? extends Number> map(final com.speedment.runtime.compute.expression.Expression<Film> expression) {
+        return expressionMapper.mapExpression(criteria, expression);
+    }
+
+    static final class Film {
+
+        private int length;
+        private int duration;
+        private double rate;
+        private float score;
+
+        int getLength() {
+            return length;
+        }
+
+        int getDuration() {
+            return duration;
+        }
+
+        double getRate() {
+            return rate;
+        }
+
+        float getScore() {
+            return score;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.criteria.standard.internal.predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.speedment.jpastreamer.exception.JPAStreamerException;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+final class CaseInsensitiveStrategiesTest {
+
+    @Test
+    void resolve() {
+        assertSame(CaseInsensitiveStrategies.lower(), CaseInsensitiveStrategies.resolve(null));
+
+        final EntityManagerFactory entityManagerFactory = entityManagerFactory("hibernate.dialect", "org.hibernate.dialect.MySQLDialect");
+
+        assertSame(CaseInsensitiveStrategies.lower(), CaseInsensitiveStrategies.resolve(entityManagerFactory));
+        assertSame(CaseInsensitiveStrategies.resolve(entityManagerFactory), CaseInsensitiveStrategies.resolve(entityManagerFactory));
+    }
+
+    @Test
+    void notConfigured() {
+        // Collations may be case-sensitive regardless of the database, so lower(column) is used unless configured otherwise
+        assertSame(CaseInsensitiveStrategies.lower(), create("jakarta.persistence.jdbc.url", "jdbc:sqlserver://localhost;databaseName=sakila"));
+        assertSame(CaseInsensitiveStrategies.lower(), create("javax.persistence.jdbc.url", "jdbc:mariadb://localhost/sakila"));
+        assertSame(CaseInsensitiveStrategies.lower(), create("hibernate.dialect", "org.hibernate.dialect.MySQLDialect"));
+        assertSame(CaseInsensitiveStrategies.lower(), create("hibernate.dialect", "org.hibernate.dialect.OracleDialect"));
+        assertSame(CaseInsensitiveStrategies.lower(), create("hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect"));
+    }
+
+    @Test
+    void configured() {
+        assertSame(CaseInsensitiveStrategies.upper(), create(CaseInsensitiveStrategies.STRATEGY_PROPERTY, "upper"));
+        assertSame(CaseInsensitiveStrategies.lower(), create(CaseInsensitiveStrategies.STRATEGY_PROPERTY, " LOWER "));
+        assertSame(CaseInsensitiveStrategies.collation(), create(CaseInsensitiveStrategies.STRATEGY_PROPERTY, "collation"));
+
+        final Map<String, Object> properties = new HashMap<>();
+        properties.put("hibernate.dialect", "org.hibernate.dialect.MySQLDialect");
+        properties.put(CaseInsensitiveStrategies.STRATEGY_PROPERTY, "lower");
+        assertSame(CaseInsensitiveStrategies.lower(), CaseInsensitiveStrategies.create(entityManagerFactory(properties)));
+
+        assertThrows(JPAStreamerException.class, () -> create(CaseInsensitiveStrategies.STRATEGY_PROPERTY, "soundex"));
+        assertThrows(JPAStreamerException.class, () -> create(CaseInsensitiveStrategies.STRATEGY_PROPERTY, "column"));
+    }
+
+    @Test
+    void escape() {
+        assertEquals("abc", LikePatterns.escape("abc"));
+        assertEquals("100!%", LikePatterns.escape("100%"));
+        assertEquals("a!_b!!c", LikePatterns.escape("a_b!c"));
+        assertEquals("a!_b%", LikePatterns.startsWith("a_b"));
+        assertEquals("%a!%b%", LikePatterns.contains("a%b"));
+    }
+
+    private static CaseInsensitiveStrategy create(final String property, final String value) {
+        return CaseInsensitiveStrategies.create(entityManagerFactory(property, value));
+    }
+
+    private static EntityManagerFactory entityManagerFactory(final String property, final String value) {
+        final Map<String, Object> properties = new HashMap<>();
+        properties.put(property, value);
+        return entityManagerFactory(properties);
+    }
+
+    private static EntityManagerFactory entityManagerFactory(final Map<String, Object> properties) {
+        final EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        when(entityManagerFactory.getProperties()).thenReturn(properties);
+        return entityManagerFactory;
+    }
+}
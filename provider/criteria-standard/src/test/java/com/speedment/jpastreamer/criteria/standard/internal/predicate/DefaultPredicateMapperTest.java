@@ -0,0 +1,186 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.criteria.standard.internal.predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.speedment.jpastreamer.criteria.Criteria;
+import com.speedment.jpastreamer.criteria.PredicateFactory;
+import com.speedment.jpastreamer.criteria.QueryParameter;
+import com.speedment.jpastreamer.criteria.standard.internal.InternalCriteria;
+import com.speedment.jpastreamer.criteria.standard.internal.InternalQueryParameter;
+import com.speedment.jpastreamer.exception.JPAStreamerException;
+import com.speedment.jpastreamer.field.ReferenceField;
+import com.speedment.jpastreamer.field.StringField;
+import com.speedment.jpastreamer.field.predicate.FieldPredicate;
+import com.speedment.jpastreamer.field.predicate.SpeedmentPredicate;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.ParameterExpression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+final class DefaultPredicateMapperTest {
+
+    private static final ReferenceField<Film, Language> LANGUAGE = ReferenceField.create(Film.class, "language", Film::getLanguage, false);
+    private static final StringField<Language> NAME = StringField.create(Language.class, "name", Language::getName, false);
+
+    private final PredicateFactory predicateFactory = mock(PredicateFactory.class);
+    private final PredicateMapper predicateMapper = PredicateMapper.createPredicateMapper(predicateFactory);
+
+    private Subquery<Language> subquery;
+    private Root<Language> subqueryRoot;
+    private Predicate inSubquery;
+    private Predicate notInSubquery;
+    private Predicate namePredicate;
+    private QueryParameter<String> nameParameter;
+    private Criteria<Film, Film> criteria;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        subquery = mock(Subquery.class);
+        subqueryRoot = mock(Root.class);
+        when(subquery.from(Language.class)).thenReturn(subqueryRoot);
+        when(subquery.select(any())).thenReturn(subquery);
+        when(subquery.where(any(Predicate.class))).thenReturn(subquery);
+
+        final CriteriaQuery<Film> query = mock(CriteriaQuery.class);
+        when(query.subquery(Language.class)).thenReturn(subquery);
+
+        inSubquery = mock(Predicate.class);
+        notInSubquery = mock(Predicate.class);
+        when(inSubquery.not()).thenReturn(notInSubquery);
+
+        final Path<Object> languagePath = mock(Path.class);
+        when(languagePath.in(subquery)).thenReturn(inSubquery);
+
+        final Root<Film> root = mock(Root.class);
+        when(root.get("language")).thenReturn(languagePath);
+
+        criteria = new InternalCriteria<>(mock(CriteriaBuilder.class), query, root);
+
+        // The predicate on the associated entity is rendered by the factory, against the root of the subquery
+        namePredicate = mock(Predicate.class);
+        nameParameter = new InternalQueryParameter<>(mock(ParameterExpression.class), "English");
+        when(predicateFactory.createPredicate(any(), any())).thenAnswer(invocation -> {
+            final Criteria<Language, ?> subqueryCriteria = invocation.getArgument(0);
+            assertSame(subqueryRoot, subqueryCriteria.getRoot());
+            subqueryCriteria.addQueryParameter(nameParameter);
+            return namePredicate;
+        });
+    }
+
+    @Test
+    void matches() {
+        final SpeedmentPredicate<Language> english = NAME.equal("English");
+
+        final PredicateMapping mapping = predicateMapper.mapPredicate(criteria, (FieldPredicate<Film>) LANGUAGE.matches(english));
+
+        // language IN (SELECT l FROM Language l WHERE l.name = ?)
+        assertSame(inSubquery, mapping.getPredicate());
+        assertEquals(Collections.singletonList(nameParameter), mapping.getQueryParameters());
+        verify(predicateFactory).createPredicate(any(), same(english));
+        verify(subquery).select(subqueryRoot);
+        verify(subquery).where(namePredicate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void matchesThroughCriteria() {
+        final Criteria<Film, Film> outer = mock(Criteria.class);
+        when(outer.getStatement()).thenReturn(criteria.getStatement());
+        when(outer.getRoot()).thenReturn(criteria.getRoot());
+        doReturn(criteria.createSubqueryCriteria(subqueryRoot)).when(outer).createSubqueryCriteria(subqueryRoot);
+
+        final PredicateMapping mapping = predicateMapper.mapPredicate(outer, (FieldPredicate<Film>) LANGUAGE.matches(NAME.equal("English")));
+
+        // The subquery criteria is created by the criteria of the outer query
+        assertSame(inSubquery, mapping.getPredicate());
+        assertEquals(Collections.singletonList(nameParameter), mapping.getQueryParameters());
+        verify(outer).createSubqueryCriteria(subqueryRoot);
+    }
+
+    @Test
+    void notMatches() {
+        final SpeedmentPredicate<Language> english = NAME.equal("English");
+
+        final PredicateMapping mapping = predicateMapper.mapPredicate(criteria, (FieldPredicate<Film>) LANGUAGE.notMatches(english));
+
+        // NOT (language IN (subquery)) is unknown for a null language, which excludes the row just like the predicate
+        assertSame(notInSubquery, mapping.getPredicate());
+        assertEquals(Collections.singletonList(nameParameter), mapping.getQueryParameters());
+        verify(subquery).where(namePredicate);
+    }
+
+    @Test
+    void notMatchesNullAssociation() {
+        final SpeedmentPredicate<Film> notEnglish = LANGUAGE.notMatches(NAME.equal("English"));
+
+        assertFalse(notEnglish.test(new Film(null)));
+        assertTrue(notEnglish.test(new Film(new Language("French"))));
+        assertFalse(notEnglish.test(new Film(new Language("English"))));
+        assertSame(notInSubquery, predicateMapper.mapPredicate(criteria, (FieldPredicate<Film>) notEnglish).getPredicate());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void matchesWithoutFields() {
+        final SpeedmentPredicate<Language> predicate = mock(SpeedmentPredicate.class);
+
+        assertThrows(JPAStreamerException.class, () -> predicateMapper.mapPredicate(criteria, (FieldPredicate<Film>) LANGUAGE.matches(predicate)));
+    }
+
+    private static final class Film {
+
+        private final Language language;
+
+        Film(final Language language) {
+            this.language = language;
+        }
+
+        Language getLanguage() {
+            return language;
+        }
+    }
+
+    private static final class Language {
+
+        private final String name;
+
+        Language(final String name) {
+            this.name = name;
+        }
+
+        String getName() {
+            return name;
+        }
+    }
+}
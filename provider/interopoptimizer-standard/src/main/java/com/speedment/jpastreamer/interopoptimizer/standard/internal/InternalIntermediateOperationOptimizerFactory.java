@@ -16,7 +16,9 @@ import static java.util.Objects.requireNonNull;
 
 import com.speedment.jpastreamer.interopoptimizer.IntermediateOperationOptimizer;
 import com.speedment.jpastreamer.interopoptimizer.IntermediateOperationOptimizerFactory;
+import com.speedment.jpastreamer.interopoptimizer.standard.internal.strategy.NormalizeFilter;
 import com.speedment.jpastreamer.interopoptimizer.standard.internal.strategy.RemoveOrderAffectingOperations;
+import com.speedment.jpastreamer.interopoptimizer.standard.internal.strategy.ReplaceSortedLimitWithTopK;
 import com.speedment.jpastreamer.interopoptimizer.standard.internal.strategy.SquashDistinct;
 import com.speedment.jpastreamer.interopoptimizer.standard.internal.strategy.SquashFilter;
 import com.speedment.jpastreamer.interopoptimizer.standard.internal.strategy.SquashLimit;
@@ -53,6 +55,8 @@ public final class InternalIntermediateOperationOptimizerFactory implements Inte
         registerOptimizer(new SquashFilter<>(intermediateOperationFactory));
         registerOptimizer(new SquashSorted<>(intermediateOperationFactory));
         registerOptimizer(new SquashDistinct(intermediateOperationFactory));
+        registerOptimizer(new NormalizeFilter(intermediateOperationFactory), Priority.LOW);
+        registerOptimizer(new ReplaceSortedLimitWithTopK(intermediateOperationFactory), Priority.LOW);
     }
 
     @Override
@@ -0,0 +1,74 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.interopoptimizer.standard.internal.strategy;
+
+import static com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationType.FILTER;
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.field.predicate.FieldPredicate;
+import com.speedment.jpastreamer.field.predicate.PredicateType;
+import com.speedment.jpastreamer.field.predicate.SpeedmentPredicate;
+import com.speedment.jpastreamer.interopoptimizer.IntermediateOperationOptimizer;
+import com.speedment.jpastreamer.pipeline.Pipeline;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperation;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationFactory;
+
+import java.util.ListIterator;
+import java.util.stream.Stream;
+
+/**
+ * Replaces the predicate of every {@code filter(SpeedmentPredicate)}
+ * operation with its normalized form, see
+ * {@link SpeedmentPredicate#normalize(SpeedmentPredicate)}. Filters that
+ * always hold are removed altogether.
+ */
+public final class NormalizeFilter implements IntermediateOperationOptimizer {
+
+    private final IntermediateOperationFactory intermediateOperationFactory;
+
+    public NormalizeFilter(final IntermediateOperationFactory intermediateOperationFactory) {
+        this.intermediateOperationFactory = requireNonNull(intermediateOperationFactory);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Pipeline<T> optimize(final Pipeline<T> pipeline) {
+        requireNonNull(pipeline);
+
+        final ListIterator<IntermediateOperation<?, ?>> iterator = pipeline.intermediateOperations().listIterator();
+
+        while (iterator.hasNext()) {
+            final IntermediateOperation<?, ?> operation = iterator.next();
+            final Object[] arguments = operation.arguments();
+
+            if (operation.type() != FILTER
+                    || !Stream.class.equals(operation.streamType())
+                    || arguments.length != 1
+                    || !(arguments[0] instanceof SpeedmentPredicate)) {
+                continue;
+            }
+
+            final SpeedmentPredicate<Object> predicate = (SpeedmentPredicate<Object>) arguments[0];
+            final SpeedmentPredicate<Object> normalized = SpeedmentPredicate.normalize(predicate);
+
+            if (normalized instanceof FieldPredicate
+                    && ((FieldPredicate<Object>) normalized).getPredicateType() == PredicateType.ALWAYS_TRUE) {
+                iterator.remove();
+            } else if (normalized != predicate) {
+                iterator.set(intermediateOperationFactory.createFilter(normalized));
+            }
+        }
+
+        return pipeline;
+    }
+}
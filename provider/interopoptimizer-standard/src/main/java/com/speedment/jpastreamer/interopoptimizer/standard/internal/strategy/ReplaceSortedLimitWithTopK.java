@@ -0,0 +1,113 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.interopoptimizer.standard.internal.strategy;
+
+import static com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationType.LIMIT;
+import static com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationType.SKIP;
+import static com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationType.SORTED;
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.field.comparator.CombinedComparator;
+import com.speedment.jpastreamer.field.comparator.FieldComparator;
+import com.speedment.jpastreamer.interopoptimizer.IntermediateOperationOptimizer;
+import com.speedment.jpastreamer.pipeline.Pipeline;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperation;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationFactory;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationType;
+
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Replaces a {@code sorted(comparator)} operation that cannot be expressed
+ * in the query, and that is immediately followed by {@code limit(k)} or
+ * {@code skip(n).limit(k)}, with a bounded top-k operation.
+ * <p>
+ * Apart from sorting in O(n log k) time and O(k) memory, this also prevents
+ * the limit from being merged into the query ahead of the residual sort.
+ */
+public final class ReplaceSortedLimitWithTopK implements IntermediateOperationOptimizer {
+
+    private final IntermediateOperationFactory intermediateOperationFactory;
+
+    public ReplaceSortedLimitWithTopK(final IntermediateOperationFactory intermediateOperationFactory) {
+        this.intermediateOperationFactory = requireNonNull(intermediateOperationFactory);
+    }
+
+    @Override
+    public <T> Pipeline<T> optimize(final Pipeline<T> pipeline) {
+        requireNonNull(pipeline);
+
+        final LinkedList<IntermediateOperation<?, ?>> operations = pipeline.intermediateOperations();
+
+        for (int i = 0; i < operations.size() - 1; i++) {
+            final Optional<Comparator<Object>> comparator = residualComparator(operations.get(i));
+
+            if (!comparator.isPresent()) {
+                continue;
+            }
+
+            final IntermediateOperation<?, ?> next = operations.get(i + 1);
+
+            if (next.type() == LIMIT) {
+                operations.remove(i + 1);
+                operations.set(i, intermediateOperationFactory.createTopK(comparator.get(), 0, getArgument(next)));
+            } else if (next.type() == SKIP && i + 2 < operations.size() && operations.get(i + 2).type() == LIMIT) {
+                final IntermediateOperation<?, ?> limit = operations.get(i + 2);
+                operations.remove(i + 2);
+                operations.remove(i + 1);
+                operations.set(i, intermediateOperationFactory.createTopK(comparator.get(), getArgument(next), getArgument(limit)));
+            }
+        }
+
+        return pipeline;
+    }
+
+    /**
+     * Returns the comparator of the provided {@code operation} if it is a
+     * {@code sorted(comparator)} operation that cannot be expressed in the
+     * query, or else {@code Optional.empty()}.
+     */
+    @SuppressWarnings("unchecked")
+    private Optional<Comparator<Object>> residualComparator(final IntermediateOperation<?, ?> operation) {
+        final IntermediateOperationType operationType = operation.type();
+        final Object[] arguments = operation.arguments();
+
+        if (operationType != SORTED || !Stream.class.equals(operation.streamType()) || arguments.length != 1) {
+            return Optional.empty();
+        }
+
+        // Field comparators are rendered as ORDER BY clauses
+        if (!(arguments[0] instanceof Comparator) || arguments[0] instanceof FieldComparator || arguments[0] instanceof CombinedComparator) {
+            return Optional.empty();
+        }
+
+        return Optional.of((Comparator<Object>) arguments[0]);
+    }
+
+    private long getArgument(final IntermediateOperation<?, ?> intermediateOperation) {
+        final Object[] arguments = intermediateOperation.arguments();
+
+        if (arguments.length != 1) {
+            return 0;
+        }
+
+        if (arguments[0] instanceof Long) {
+            return (long) arguments[0];
+        }
+
+        return 0;
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.interopoptimizer.standard.internal.strategy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.speedment.jpastreamer.field.ComparableField;
+import com.speedment.jpastreamer.field.IntField;
+import com.speedment.jpastreamer.field.StringField;
+import com.speedment.jpastreamer.field.predicate.FieldPredicate;
+import com.speedment.jpastreamer.field.predicate.Inclusion;
+import com.speedment.jpastreamer.field.predicate.PredicateType;
+import com.speedment.jpastreamer.field.predicate.SpeedmentPredicate;
+import com.speedment.jpastreamer.field.predicate.trait.HasInclusion;
+import com.speedment.jpastreamer.field.trait.HasArg0;
+import com.speedment.jpastreamer.field.trait.HasArg1;
+import com.speedment.jpastreamer.pipeline.Pipeline;
+import com.speedment.jpastreamer.pipeline.PipelineFactory;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperation;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationFactory;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationType;
+import com.speedment.jpastreamer.rootfactory.RootFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+final class NormalizeFilterTest {
+
+    private static final IntField<String> LENGTH = IntField.create(String.class, "length", String::length, false);
+    private static final StringField<String> NAME = StringField.create(String.class, "name", s -> s, false);
+    private static final ComparableField<String, Size> SIZE = ComparableField.create(String.class, "size", s -> s.length() > 3 ? Size.LARGE : Size.SMALL, false);
+
+    private final PipelineFactory pipelineFactory = RootFactory.getOrThrow(PipelineFactory.class, ServiceLoader::load);
+    private final IntermediateOperationFactory operationFactory = RootFactory.getOrThrow(IntermediateOperationFactory.class, ServiceLoader::load);
+    private final NormalizeFilter optimizer = new NormalizeFilter(operationFactory);
+
+    @Test
+    void overlappingRanges() {
+        final FieldPredicate<String> predicate = optimize(LENGTH.greaterThan(5).and(LENGTH.greaterThan(7)));
+
+        assertEquals(PredicateType.GREATER_THAN, predicate.getPredicateType());
+        assertEquals(7, ((HasArg0<?>) predicate).get0());
+    }
+
+    @Test
+    void between() {
+        final SpeedmentPredicate<String> original = LENGTH.greaterOrEqual(2).and(LENGTH.lessThan(5)).and(LENGTH.lessOrEqual(6));
+        final FieldPredicate<String> predicate = optimize(original);
+
+        assertEquals(PredicateType.BETWEEN, predicate.getPredicateType());
+        assertEquals(2, ((HasArg0<?>) predicate).get0());
+        assertEquals(5, ((HasArg1<?>) predicate).get1());
+        assertEquals(Inclusion.START_INCLUSIVE_END_EXCLUSIVE, ((HasInclusion) predicate).getInclusion());
+        assertEquivalent(original, predicate);
+    }
+
+    @Test
+    void intersectIn() {
+        final SpeedmentPredicate<String> original = LENGTH.in(1, 2, 3).and(LENGTH.in(2, 3, 4)).and(LENGTH.notEqual(3));
+        final FieldPredicate<String> predicate = optimize(original);
+
+        assertEquals(PredicateType.EQUAL, predicate.getPredicateType());
+        assertEquals(2, ((HasArg0<?>) predicate).get0());
+        assertEquivalent(original, predicate);
+    }
+
+    @Test
+    void unionIn() {
+        final SpeedmentPredicate<String> original = LENGTH.equal(1).or(LENGTH.in(2, 3));
+        final FieldPredicate<String> predicate = optimize(original);
+
+        assertEquals(PredicateType.IN, predicate.getPredicateType());
+        assertEquals(new HashSet<>(Arrays.asList(1, 2, 3)), new HashSet<>((Set<?>) ((HasArg0<?>) predicate).get0()));
+        assertEquivalent(original, predicate);
+    }
+
+    @Test
+    void contradiction() {
+        final FieldPredicate<String> predicate = optimize(LENGTH.greaterThan(5).and(LENGTH.lessThan(3)));
+
+        assertEquals(PredicateType.ALWAYS_FALSE, predicate.getPredicateType());
+    }
+
+    @Test
+    void negationContradiction() {
+        final SpeedmentPredicate<String> predicate = LENGTH.between(1, 4);
+
+        assertEquals(PredicateType.ALWAYS_FALSE, optimize(predicate.and(predicate.negate())).getPredicateType());
+    }
+
+    @Test
+    void tautology() {
+        final Pipeline<String> pipeline = pipeline(operationFactory.createFilter(LENGTH.greaterThan(5).or(LENGTH.lessOrEqual(5))));
+
+        assertTrue(optimizer.optimize(pipeline).intermediateOperations().isEmpty());
+    }
+
+    @Test
+    void stringRange() {
+        // "a" > "B" by compareTo(), but not by a case-insensitive collation
+        final FieldPredicate<String> predicate = optimize(NAME.between("a", "B"));
+
+        assertEquals(PredicateType.BETWEEN, predicate.getPredicateType());
+        assertEquals("a", ((HasArg0<?>) predicate).get0());
+        assertEquals("B", ((HasArg1<?>) predicate).get1());
+    }
+
+    @Test
+    void stringRanges() {
+        final SpeedmentPredicate<String> predicate = optimizeAny(NAME.greaterThan("b").and(NAME.lessThan("B")));
+
+        assertNotEquals(PredicateType.ALWAYS_FALSE, predicateType(predicate));
+    }
+
+    @Test
+    void stringIntersection() {
+        final SpeedmentPredicate<String> predicate = optimizeAny(NAME.in("a", "b").and(NAME.equal("A")));
+
+        assertNotEquals(PredicateType.ALWAYS_FALSE, predicateType(predicate));
+    }
+
+    @Test
+    void enumRange() {
+        // LARGE > SMALL by ordinal, but not by name as stored by EnumType.STRING
+        final FieldPredicate<String> predicate = optimize(SIZE.between(Size.LARGE, Size.SMALL));
+
+        assertEquals(PredicateType.BETWEEN, predicate.getPredicateType());
+        assertEquals(Size.LARGE, ((HasArg0<?>) predicate).get0());
+        assertEquals(Size.SMALL, ((HasArg1<?>) predicate).get1());
+    }
+
+    @Test
+    void enumRanges() {
+        final SpeedmentPredicate<String> predicate = optimizeAny(SIZE.greaterOrEqual(Size.LARGE).and(SIZE.lessOrEqual(Size.SMALL)));
+
+        assertNotEquals(PredicateType.ALWAYS_FALSE, predicateType(predicate));
+    }
+
+    @Test
+    void lambda() {
+        final IntermediateOperation<?, ?> filter = operationFactory.createFilter((Predicate<String>) s -> s.isEmpty());
+        final Pipeline<String> pipeline = optimizer.optimize(pipeline(filter));
+
+        assertSame(filter, pipeline.intermediateOperations().getFirst());
+    }
+
+    private FieldPredicate<String> optimize(final SpeedmentPredicate<String> predicate) {
+        final SpeedmentPredicate<String> result = optimizeAny(predicate);
+        assertTrue(result instanceof FieldPredicate, result.getClass().getName());
+        return (FieldPredicate<String>) result;
+    }
+
+    private SpeedmentPredicate<String> optimizeAny(final SpeedmentPredicate<String> predicate) {
+        final Pipeline<String> pipeline = optimizer.optimize(pipeline(operationFactory.createFilter(predicate)));
+
+        assertEquals(1, pipeline.intermediateOperations().size());
+
+        final IntermediateOperation<?, ?> operation = pipeline.intermediateOperations().getFirst();
+        assertEquals(IntermediateOperationType.FILTER, operation.type());
+
+        @SuppressWarnings("unchecked")
+        final SpeedmentPredicate<String> result = (SpeedmentPredicate<String>) operation.arguments()[0];
+        return result;
+    }
+
+    private PredicateType predicateType(final SpeedmentPredicate<String> predicate) {
+        return predicate instanceof FieldPredicate
+            ? ((FieldPredicate<String>) predicate).getPredicateType()
+            : null;
+    }
+
+    private Pipeline<String> pipeline(final IntermediateOperation<?, ?> operation) {
+        final Pipeline<String> pipeline = pipelineFactory.createPipeline(String.class);
+        pipeline.intermediateOperations().add(operation);
+        return pipeline;
+    }
+
+    private void assertEquivalent(final Predicate<String> expected, final Predicate<String> actual) {
+        Stream.iterate("", s -> s + "x").limit(10)
+            .forEach(s -> assertEquals(expected.test(s), actual.test(s), s));
+    }
+
+    enum Size {
+        SMALL, LARGE
+    }
+}
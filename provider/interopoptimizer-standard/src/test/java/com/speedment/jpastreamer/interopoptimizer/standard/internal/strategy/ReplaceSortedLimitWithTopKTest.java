@@ -0,0 +1,126 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.interopoptimizer.standard.internal.strategy;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.speedment.jpastreamer.field.StringField;
+import com.speedment.jpastreamer.pipeline.Pipeline;
+import com.speedment.jpastreamer.pipeline.PipelineFactory;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperation;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationFactory;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationType;
+import com.speedment.jpastreamer.rootfactory.RootFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.stream.Collectors;
+
+final class ReplaceSortedLimitWithTopKTest {
+
+    private static final StringField<String> VALUE = StringField.create(String.class, "value", s -> s, false);
+
+    private final PipelineFactory pipelineFactory = RootFactory.getOrThrow(PipelineFactory.class, ServiceLoader::load);
+    private final IntermediateOperationFactory operationFactory = RootFactory.getOrThrow(IntermediateOperationFactory.class, ServiceLoader::load);
+    private final ReplaceSortedLimitWithTopK optimizer = new ReplaceSortedLimitWithTopK(operationFactory);
+
+    private final Comparator<String> comparator = Comparator.comparing(String::length);
+
+    @Test
+    void sortedLimit() {
+        final Pipeline<String> pipeline = optimize(
+            operationFactory.createFilter((String s) -> !s.isEmpty()),
+            operationFactory.createSorted(comparator),
+            operationFactory.createLimit(10)
+        );
+
+        assertTypes(pipeline, IntermediateOperationType.FILTER, IntermediateOperationType.TOP_K);
+        assertArrayEquals(new Object[]{comparator, 0L, 10L}, pipeline.intermediateOperations().get(1).arguments());
+    }
+
+    @Test
+    void sortedSkipLimit() {
+        final Pipeline<String> pipeline = optimize(
+            operationFactory.createSorted(comparator),
+            operationFactory.createSkip(5),
+            operationFactory.createLimit(10),
+            operationFactory.createSkip(1)
+        );
+
+        assertTypes(pipeline, IntermediateOperationType.TOP_K, IntermediateOperationType.SKIP);
+        assertArrayEquals(new Object[]{comparator, 5L, 10L}, pipeline.intermediateOperations().get(0).arguments());
+    }
+
+    @Test
+    void sortedSkip() {
+        final Pipeline<String> pipeline = optimize(
+            operationFactory.createSorted(comparator),
+            operationFactory.createSkip(5)
+        );
+
+        assertTypes(pipeline, IntermediateOperationType.SORTED, IntermediateOperationType.SKIP);
+    }
+
+    @Test
+    void sortedOtherLimit() {
+        final Pipeline<String> pipeline = optimize(
+            operationFactory.createSorted(comparator),
+            operationFactory.createFilter((String s) -> !s.isEmpty()),
+            operationFactory.createLimit(10)
+        );
+
+        assertTypes(pipeline, IntermediateOperationType.SORTED, IntermediateOperationType.FILTER, IntermediateOperationType.LIMIT);
+    }
+
+    @Test
+    void fieldComparatorLimit() {
+        final Pipeline<String> pipeline = optimize(
+            operationFactory.createSorted(VALUE.comparator()),
+            operationFactory.createLimit(10)
+        );
+
+        assertTypes(pipeline, IntermediateOperationType.SORTED, IntermediateOperationType.LIMIT);
+    }
+
+    @Test
+    void naturalOrderLimit() {
+        final Pipeline<String> pipeline = optimize(
+            operationFactory.acquireSorted(),
+            operationFactory.createLimit(10)
+        );
+
+        assertTypes(pipeline, IntermediateOperationType.SORTED, IntermediateOperationType.LIMIT);
+    }
+
+    private Pipeline<String> optimize(final IntermediateOperation<?, ?>... operations) {
+        final Pipeline<String> pipeline = pipelineFactory.createPipeline(String.class);
+
+        for (IntermediateOperation<?, ?> operation : operations) {
+            pipeline.intermediateOperations().add(operation);
+        }
+
+        return optimizer.optimize(pipeline);
+    }
+
+    private void assertTypes(final Pipeline<String> pipeline, final IntermediateOperationType... expected) {
+        final List<IntermediateOperationType> actual = pipeline.intermediateOperations().stream()
+            .map(IntermediateOperation::type)
+            .collect(Collectors.toList());
+
+        assertArrayEquals(expected, actual.toArray(new IntermediateOperationType[0]));
+        assertEquals(expected.length, pipeline.intermediateOperations().size());
+    }
+}
@@ -12,9 +12,8 @@
  */
 package com.speedment.jpastreamer.merger.standard;
 
-import com.speedment.jpastreamer.merger.CriteriaMerger;
 import com.speedment.jpastreamer.merger.MergerFactory;
-import com.speedment.jpastreamer.merger.QueryMerger;
+import com.speedment.jpastreamer.merger.QueryPlanner;
 import com.speedment.jpastreamer.merger.standard.internal.InternalMergerFactory;
 
 public final class StandardMergerFactory implements MergerFactory {
@@ -22,12 +21,7 @@ public final class StandardMergerFactory implements MergerFactory {
     private final MergerFactory mergerFactory = new InternalMergerFactory();
 
     @Override
-    public CriteriaMerger createCriteriaMerger() {
-        return mergerFactory.createCriteriaMerger();
-    }
-
-    @Override
-    public QueryMerger createQueryMerger() {
-        return mergerFactory.createQueryMerger();
+    public QueryPlanner createQueryPlanner() {
+        return mergerFactory.createQueryPlanner();
     }
 }
@@ -12,21 +12,14 @@
  */
 package com.speedment.jpastreamer.merger.standard.internal;
 
-import com.speedment.jpastreamer.merger.CriteriaMerger;
 import com.speedment.jpastreamer.merger.MergerFactory;
-import com.speedment.jpastreamer.merger.QueryMerger;
-import com.speedment.jpastreamer.merger.standard.internal.criteria.InternalCriteriaMerger;
-import com.speedment.jpastreamer.merger.standard.internal.query.InternalQueryMerger;
+import com.speedment.jpastreamer.merger.QueryPlanner;
+import com.speedment.jpastreamer.merger.standard.internal.planner.InternalQueryPlanner;
 
 public final class InternalMergerFactory implements MergerFactory {
 
     @Override
-    public CriteriaMerger createCriteriaMerger() {
-        return new InternalCriteriaMerger();
-    }
-
-    @Override
-    public QueryMerger createQueryMerger() {
-        return new InternalQueryMerger();
+    public QueryPlanner createQueryPlanner() {
+        return new InternalQueryPlanner();
     }
 }
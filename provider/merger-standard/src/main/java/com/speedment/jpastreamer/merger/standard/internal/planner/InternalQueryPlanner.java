@@ -0,0 +1,286 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.merger.standard.internal.planner;
+
+import static com.speedment.jpastreamer.pipeline.intermediate.Statement.PRESERVES_ORDER;
+import static com.speedment.jpastreamer.pipeline.intermediate.Statement.PRESERVES_SIZE;
+import static com.speedment.jpastreamer.pipeline.intermediate.Statement.PRESERVES_TYPE;
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.criteria.Criteria;
+import com.speedment.jpastreamer.criteria.OrderFactory;
+import com.speedment.jpastreamer.criteria.PredicateFactory;
+import com.speedment.jpastreamer.exception.JPAStreamerException;
+import com.speedment.jpastreamer.field.predicate.FieldPredicate;
+import com.speedment.jpastreamer.field.predicate.PredicateType;
+import com.speedment.jpastreamer.field.predicate.SpeedmentPredicate;
+import com.speedment.jpastreamer.merger.QueryPlanner;
+import com.speedment.jpastreamer.merger.result.QueryPlan;
+import com.speedment.jpastreamer.merger.standard.internal.planner.result.InternalQueryPlan;
+import com.speedment.jpastreamer.pipeline.Pipeline;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperation;
+import com.speedment.jpastreamer.pipeline.intermediate.Statement;
+import com.speedment.jpastreamer.rootfactory.RootFactory;
+
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.SingularAttribute;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Walks a pipeline from its source while tracking which relational clauses
+ * can still absorb operations:
+ * <ul>
+ *     <li>a filter commutes with other filters, sorts and distincts and can
+ *     therefore be hoisted past residual ones, but not past a slice;</li>
+ *     <li>a sort is stable, so a later sort becomes the leading ORDER BY
+ *     expressions of the query;</li>
+ *     <li>a slice (skip/limit) can only be merged if every operation before
+ *     it has been merged, or preserves both size and order.</li>
+ * </ul>
+ * Operations that preserve size, order and type (e.g. {@code peek}) keep
+ * every clause open, whereas size and order preserving operations that
+ * change the element type (e.g. {@code map}) only keep the slice open.
+ */
+public final class InternalQueryPlanner implements QueryPlanner {
+
+    private final PredicateFactory predicateFactory;
+    private final OrderFactory orderFactory;
+
+    public InternalQueryPlanner() {
+        this(
+            RootFactory.getOrThrow(PredicateFactory.class, ServiceLoader::load),
+            RootFactory.getOrThrow(OrderFactory.class, ServiceLoader::load)
+        );
+    }
+
+    InternalQueryPlanner(final PredicateFactory predicateFactory, final OrderFactory orderFactory) {
+        this.predicateFactory = requireNonNull(predicateFactory);
+        this.orderFactory = requireNonNull(orderFactory);
+    }
+
+    @Override
+    public <ENTITY> QueryPlan<ENTITY> plan(
+        final Pipeline<ENTITY> pipeline,
+        final Criteria<ENTITY, ?> criteria
+    ) {
+        requireNonNull(pipeline);
+        requireNonNull(criteria);
+
+        boolean whereOpen = true;
+        boolean orderOpen = true;
+        boolean distinctOpen = true;
+        boolean sliceOpen = true;
+
+        long firstResult = 0;
+        long maxResults = -1;
+        boolean empty = false;
+
+        final Iterator<IntermediateOperation<?, ?>> iterator = pipeline.intermediateOperations().iterator();
+
+        while (iterator.hasNext() && (whereOpen || orderOpen || distinctOpen || sliceOpen)) {
+            final IntermediateOperation<?, ?> operation = iterator.next();
+            final boolean entityStream = operation.streamType() == Stream.class;
+
+            switch (operation.type()) {
+                case FILTER: {
+                    if (whereOpen && entityStream && mergeFilter(operation, criteria)) {
+                        empty |= isAlwaysFalse(operation);
+                        iterator.remove();
+                    } else {
+                        sliceOpen = false;
+                    }
+                    break;
+                }
+                case SORTED: {
+                    if (orderOpen && entityStream && mergeSorted(operation, criteria)) {
+                        iterator.remove();
+                    } else {
+                        orderOpen = false;
+                        distinctOpen = false;
+                        sliceOpen = false;
+                    }
+                    break;
+                }
+                case DISTINCT: {
+                    if (distinctOpen && entityStream) {
+                        criteria.getQuery().distinct(true);
+                        iterator.remove();
+                    } else {
+                        whereOpen = false;
+                        orderOpen = false;
+                        distinctOpen = false;
+                        sliceOpen = false;
+                    }
+                    break;
+                }
+                case SKIP: {
+                    final long skip = getLongArgument(operation);
+                    final long newFirstResult = firstResult + skip;
+                    if (sliceOpen && skip >= 0 && newFirstResult <= Integer.MAX_VALUE) {
+                        firstResult = newFirstResult;
+                        if (maxResults >= 0) {
+                            maxResults = Math.max(0, maxResults - skip);
+                        }
+                        iterator.remove();
+                        whereOpen = false;
+                        orderOpen = false;
+                        distinctOpen = false;
+                    } else {
+                        whereOpen = false;
+                        orderOpen = false;
+                        distinctOpen = false;
+                        sliceOpen = false;
+                    }
+                    break;
+                }
+                case LIMIT: {
+                    final long limit = getLongArgument(operation);
+                    if (sliceOpen && limit >= 0 && limit <= Integer.MAX_VALUE) {
+                        maxResults = maxResults >= 0 ? Math.min(maxResults, limit) : limit;
+                        iterator.remove();
+                        whereOpen = false;
+                        orderOpen = false;
+                        distinctOpen = false;
+                    } else {
+                        whereOpen = false;
+                        orderOpen = false;
+                        distinctOpen = false;
+                        sliceOpen = false;
+                    }
+                    break;
+                }
+                default: {
+                    final Set<Statement> statements = operation.type().statements();
+                    if (!statements.contains(PRESERVES_TYPE)) {
+                        whereOpen = false;
+                        orderOpen = false;
+                        distinctOpen = false;
+                    }
+                    if (!statements.contains(PRESERVES_SIZE) || !statements.contains(PRESERVES_ORDER)) {
+                        whereOpen = false;
+                        orderOpen = false;
+                        distinctOpen = false;
+                        sliceOpen = false;
+                    }
+                }
+            }
+        }
+
+        return new InternalQueryPlan<>(pipeline, criteria, (int) firstResult, (int) maxResults, empty);
+    }
+
+    private <ENTITY> boolean mergeFilter(final IntermediateOperation<?, ?> operation, final Criteria<ENTITY, ?> criteria) {
+        final Optional<SpeedmentPredicate<ENTITY>> optionalPredicate = getPredicate(operation);
+
+        if (!optionalPredicate.isPresent()) {
+            return false;
+        }
+
+        final Predicate predicate;
+        try {
+            predicate = predicateFactory.createPredicate(criteria, optionalPredicate.get());
+        } catch (JPAStreamerException e) {
+            // don't merge operator in case we encounter an unsupported predicate
+            return false;
+        }
+
+        final CriteriaQuery<?> query = criteria.getQuery();
+        final Predicate restriction = query.getRestriction();
+
+        query.where(restriction == null ? predicate : criteria.getBuilder().and(restriction, predicate));
+        return true;
+    }
+
+    private <ENTITY> boolean mergeSorted(final IntermediateOperation<?, ?> operation, final Criteria<ENTITY, ?> criteria) {
+        final Optional<Comparator<ENTITY>> optionalComparator = getComparator(operation);
+
+        final List<Order> orders;
+        if (optionalComparator.isPresent()) {
+            try {
+                orders = orderFactory.createOrder(criteria, optionalComparator.get());
+            } catch (JPAStreamerException e) {
+                // don't merge operator in case we encounter an unsupported Comparator
+                return false;
+            }
+        } else {
+            final Optional<String> idFieldName = criteria.getRoot().getModel()
+                .getDeclaredSingularAttributes().stream()
+                .filter(SingularAttribute::isId)
+                .map(Attribute::getName)
+                .findFirst();
+
+            if (!idFieldName.isPresent()) {
+                return false;
+            }
+
+            orders = new ArrayList<>();
+            orders.add(criteria.getBuilder().asc(criteria.getRoot().get(idFieldName.get())));
+        }
+
+        // Stream::sorted is stable, so a later sort takes precedence over earlier ones
+        final List<Order> newOrders = new ArrayList<>(orders);
+        newOrders.addAll(criteria.getQuery().getOrderList());
+
+        criteria.getQuery().orderBy(newOrders);
+        return true;
+    }
+
+    private boolean isAlwaysFalse(final IntermediateOperation<?, ?> operation) {
+        final Object predicate = operation.arguments()[0];
+        return predicate instanceof FieldPredicate
+            && ((FieldPredicate<?>) predicate).getPredicateType() == PredicateType.ALWAYS_FALSE;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Optional<SpeedmentPredicate<T>> getPredicate(final IntermediateOperation<?, ?> operation) {
+        final Object[] arguments = operation.arguments();
+
+        if (arguments.length == 1 && arguments[0] instanceof SpeedmentPredicate) {
+            return Optional.of((SpeedmentPredicate<T>) arguments[0]);
+        }
+
+        return Optional.empty();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Optional<Comparator<T>> getComparator(final IntermediateOperation<?, ?> operation) {
+        final Object[] arguments = operation.arguments();
+
+        if (arguments.length == 1 && arguments[0] instanceof Comparator) {
+            return Optional.of((Comparator<T>) arguments[0]);
+        }
+
+        return Optional.empty();
+    }
+
+    private long getLongArgument(final IntermediateOperation<?, ?> operation) {
+        final Object[] arguments = operation.arguments();
+
+        if (arguments.length == 1 && arguments[0] instanceof Long) {
+            return (long) arguments[0];
+        }
+
+        return -1;
+    }
+}
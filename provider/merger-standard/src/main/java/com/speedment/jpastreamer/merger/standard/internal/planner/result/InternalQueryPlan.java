@@ -0,0 +1,82 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.merger.standard.internal.planner.result;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.criteria.Criteria;
+import com.speedment.jpastreamer.merger.result.QueryPlan;
+import com.speedment.jpastreamer.pipeline.Pipeline;
+import jakarta.persistence.Query;
+
+public final class InternalQueryPlan<ENTITY> implements QueryPlan<ENTITY> {
+
+    private final Pipeline<ENTITY> pipeline;
+    private final Criteria<ENTITY, ?> criteria;
+    private final int firstResult;
+    private final int maxResults; // -1 if not limited
+    private final boolean empty;
+
+    public InternalQueryPlan(
+        final Pipeline<ENTITY> pipeline,
+        final Criteria<ENTITY, ?> criteria,
+        final int firstResult,
+        final int maxResults,
+        final boolean empty
+    ) {
+        this.pipeline = pipeline;
+        this.criteria = criteria;
+        this.firstResult = firstResult;
+        this.maxResults = maxResults;
+        this.empty = empty || maxResults == 0;
+    }
+
+    @Override
+    public Pipeline<ENTITY> getPipeline() {
+        return pipeline;
+    }
+
+    @Override
+    public Criteria<ENTITY, ?> getCriteria() {
+        return criteria;
+    }
+
+    @Override
+    public boolean isSliced() {
+        return firstResult > 0 || maxResults >= 0;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return empty;
+    }
+
+    @Override
+    public void applyTo(final Query query) {
+        requireNonNull(query);
+
+        if (firstResult > 0) {
+            query.setFirstResult(firstResult);
+            // Some providers ignore an offset without a limit
+            query.setMaxResults(maxResults >= 0 ? maxResults : Integer.MAX_VALUE);
+        } else if (maxResults >= 0) {
+            query.setMaxResults(maxResults);
+        }
+    }
+
+    @Override
+    public long applyTo(final long count) {
+        final long remaining = Math.max(count - firstResult, 0);
+        return maxResults >= 0 ? Math.min(remaining, maxResults) : remaining;
+    }
+}
@@ -0,0 +1,251 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.merger.standard.internal.planner;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.speedment.jpastreamer.criteria.Criteria;
+import com.speedment.jpastreamer.criteria.OrderFactory;
+import com.speedment.jpastreamer.criteria.PredicateFactory;
+import com.speedment.jpastreamer.exception.JPAStreamerException;
+import com.speedment.jpastreamer.field.StringField;
+import com.speedment.jpastreamer.field.comparator.FieldComparator;
+import com.speedment.jpastreamer.merger.result.QueryPlan;
+import com.speedment.jpastreamer.pipeline.Pipeline;
+import com.speedment.jpastreamer.pipeline.PipelineFactory;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperation;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationFactory;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationType;
+import com.speedment.jpastreamer.rootfactory.RootFactory;
+
+import jakarta.persistence.Query;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.stream.Collectors;
+
+final class InternalQueryPlannerTest {
+
+    private static final StringField<String> VALUE = StringField.create(String.class, "value", s -> s, false);
+
+    private final PipelineFactory pipelineFactory = RootFactory.getOrThrow(PipelineFactory.class, ServiceLoader::load);
+    private final IntermediateOperationFactory operationFactory = RootFactory.getOrThrow(IntermediateOperationFactory.class, ServiceLoader::load);
+
+    private CriteriaQuery<String> query;
+    private Criteria<String, String> criteria;
+    private InternalQueryPlanner planner;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        query = mock(CriteriaQuery.class);
+        when(query.getOrderList()).thenReturn(Collections.emptyList());
+
+        criteria = mock(Criteria.class);
+        when(criteria.getQuery()).thenReturn(query);
+
+        final PredicateFactory predicateFactory = mock(PredicateFactory.class);
+        when(predicateFactory.createPredicate(any(), any())).thenReturn(mock(Predicate.class));
+
+        final OrderFactory orderFactory = mock(OrderFactory.class);
+        when(orderFactory.createOrder(any(), any())).thenAnswer(invocation -> {
+            // Just like the standard factory, only field comparators are rendered
+            if (!(invocation.getArgument(1) instanceof FieldComparator)) {
+                throw new JPAStreamerException("Unsupported comparator");
+            }
+            return Collections.singletonList(mock(Order.class));
+        });
+
+        planner = new InternalQueryPlanner(predicateFactory, orderFactory);
+    }
+
+    @Test
+    void filterAfterSkip() {
+        final QueryPlan<String> plan = plan(
+            operationFactory.createSkip(5),
+            operationFactory.createFilter(VALUE.equal("a"))
+        );
+
+        // The filter would otherwise be applied before the rows are skipped
+        assertTypes(plan, IntermediateOperationType.FILTER);
+        verify(query, never()).where(any(Predicate.class));
+        assertTrue(plan.isSliced());
+        assertSlice(plan, 5, Integer.MAX_VALUE);
+    }
+
+    @Test
+    void filterBeforeSkip() {
+        final QueryPlan<String> plan = plan(
+            operationFactory.createFilter(VALUE.equal("a")),
+            operationFactory.createSkip(5)
+        );
+
+        assertTypes(plan);
+        verify(query).where(any(Predicate.class));
+        assertSlice(plan, 5, Integer.MAX_VALUE);
+    }
+
+    @Test
+    void sortedThenDistinct() {
+        final QueryPlan<String> plan = plan(
+            operationFactory.createSorted(VALUE.comparator()),
+            operationFactory.acquireDistinct()
+        );
+
+        assertTypes(plan);
+        verify(query).orderBy(anyList());
+        verify(query).distinct(true);
+        assertFalse(plan.isSliced());
+    }
+
+    @Test
+    void residualSortedThenDistinct() {
+        final QueryPlan<String> plan = plan(
+            operationFactory.createSorted(Comparator.comparing(String::length)),
+            operationFactory.acquireDistinct()
+        );
+
+        // The provider may order a distinct query arbitrarily
+        assertTypes(plan, IntermediateOperationType.SORTED, IntermediateOperationType.DISTINCT);
+        verify(query, never()).distinct(true);
+    }
+
+    @Test
+    void mapThenLimit() {
+        final QueryPlan<String> plan = plan(
+            operationFactory.createMap(String::length),
+            operationFactory.createLimit(10)
+        );
+
+        // A map preserves size and order, so the limit can still be merged
+        assertTypes(plan, IntermediateOperationType.MAP);
+        assertSlice(plan, 0, 10);
+    }
+
+    @Test
+    void mapThenFilter() {
+        final QueryPlan<String> plan = plan(
+            operationFactory.createMap(s -> s),
+            operationFactory.createFilter(VALUE.equal("a"))
+        );
+
+        assertTypes(plan, IntermediateOperationType.MAP, IntermediateOperationType.FILTER);
+        verify(query, never()).where(any(Predicate.class));
+    }
+
+    @Test
+    void topK() {
+        final QueryPlan<String> plan = plan(
+            operationFactory.createFilter(VALUE.equal("a")),
+            operationFactory.createTopK(Comparator.comparing(String::length), 0, 10),
+            operationFactory.createFilter(VALUE.equal("b")),
+            operationFactory.createLimit(5)
+        );
+
+        // Only the filter ahead of the top-k operation selects the same rows
+        assertTypes(plan, IntermediateOperationType.TOP_K, IntermediateOperationType.FILTER, IntermediateOperationType.LIMIT);
+        verify(query).where(any(Predicate.class));
+        assertFalse(plan.isSliced());
+    }
+
+    @Test
+    void limitZero() {
+        final QueryPlan<String> plan = plan(
+            operationFactory.createFilter(VALUE.equal("a")),
+            operationFactory.createLimit(0)
+        );
+
+        assertTypes(plan);
+        assertTrue(plan.isEmpty());
+    }
+
+    @Test
+    void skipLimit() {
+        final QueryPlan<String> plan = plan(
+            operationFactory.createSkip(5),
+            operationFactory.createLimit(10),
+            operationFactory.createSkip(2)
+        );
+
+        assertTypes(plan);
+        assertFalse(plan.isEmpty());
+        assertSlice(plan, 7, 8);
+    }
+
+    @Test
+    void applyToCount() {
+        final QueryPlan<String> plan = plan(
+            operationFactory.createSkip(5),
+            operationFactory.createLimit(10)
+        );
+
+        assertEquals(0, plan.applyTo(0));
+        assertEquals(0, plan.applyTo(3));
+        assertEquals(7, plan.applyTo(12));
+        assertEquals(10, plan.applyTo(100));
+    }
+
+    @Test
+    void applyToCountUnsliced() {
+        final QueryPlan<String> plan = plan(operationFactory.createFilter(VALUE.equal("a")));
+
+        assertEquals(42, plan.applyTo(42));
+    }
+
+    private QueryPlan<String> plan(final IntermediateOperation<?, ?>... operations) {
+        final Pipeline<String> pipeline = pipelineFactory.createPipeline(String.class);
+
+        for (IntermediateOperation<?, ?> operation : operations) {
+            pipeline.intermediateOperations().add(operation);
+        }
+
+        return planner.plan(pipeline, criteria);
+    }
+
+    private void assertTypes(final QueryPlan<String> plan, final IntermediateOperationType... expected) {
+        final List<IntermediateOperationType> actual = plan.getPipeline().intermediateOperations().stream()
+            .map(IntermediateOperation::type)
+            .collect(Collectors.toList());
+
+        assertArrayEquals(expected, actual.toArray(new IntermediateOperationType[0]));
+    }
+
+    private void assertSlice(final QueryPlan<String> plan, final int firstResult, final int maxResults) {
+        final Query typedQuery = mock(Query.class);
+        plan.applyTo(typedQuery);
+
+        if (firstResult > 0) {
+            verify(typedQuery).setFirstResult(firstResult);
+        } else {
+            verify(typedQuery, never()).setFirstResult(anyInt());
+        }
+        verify(typedQuery).setMaxResults(maxResults);
+    }
+}
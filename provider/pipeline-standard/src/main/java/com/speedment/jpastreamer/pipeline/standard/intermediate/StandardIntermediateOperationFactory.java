@@ -102,6 +102,11 @@ public final class StandardIntermediateOperationFactory implements IntermediateO
         return delegate.createSkip(n);
     }
 
+    @Override
+    public <T> IntermediateOperation<Stream<T>, Stream<T>> createTopK(Comparator<? super T> comparator, long skip, long limit) {
+        return delegate.createTopK(comparator, skip, limit);
+    }
+
     @Override
     public <T> IntermediateOperation<Stream<T>, Stream<T>> createTakeWhile(Predicate<? super T> predicate) {
         return delegate.createTakeWhile(predicate);
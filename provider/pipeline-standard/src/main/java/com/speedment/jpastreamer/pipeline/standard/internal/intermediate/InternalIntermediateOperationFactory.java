@@ -220,6 +220,23 @@ public final class InternalIntermediateOperationFactory implements IntermediateO
 
     }
 
+    @Override
+    public <T> IntermediateOperation<Stream<T>, Stream<T>> createTopK(final Comparator<? super T> comparator, final long skip, final long limit) {
+        requireNonNull(comparator);
+        if (skip < 0)
+            throw new IllegalArgumentException(Long.toString(skip));
+        if (limit < 0)
+            throw new IllegalArgumentException(Long.toString(limit));
+
+        final UnaryOperator<Stream<T>> function = s -> TopK.apply(s, comparator, skip, limit);
+        return new StandardIntermediateOperation<>(
+                IntermediateOperationType.TOP_K,
+                Stream.class,
+                Stream.class,
+                function,
+                comparator, skip, limit);
+    }
+
     @Override
     public <T> IntermediateOperation<Stream<T>, Stream<T>> createTakeWhile(final Predicate<? super T> predicate) {
         requireNonNull(predicate);
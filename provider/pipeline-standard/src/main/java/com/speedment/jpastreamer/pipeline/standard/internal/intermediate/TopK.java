@@ -0,0 +1,91 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.pipeline.standard.internal.intermediate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Computes {@code sorted(comparator).skip(skip).limit(limit)} using a bounded
+ * heap, requiring O(n log k) time and O(k) memory where k is
+ * {@code skip + limit}.
+ */
+final class TopK {
+
+    // Beyond this, the heap offers no benefit over a full sort
+    private static final long MAX_HEAP_SIZE = Integer.MAX_VALUE - 8;
+
+    private TopK() {}
+
+    static <T> Stream<T> apply(final Stream<T> stream, final Comparator<? super T> comparator, final long skip, final long limit) {
+        final long k = skip + limit;
+        if (k < 0 || k > MAX_HEAP_SIZE) {
+            return stream.sorted(comparator).skip(skip).limit(limit);
+        }
+
+        // The elements are not consumed until the returned stream is
+        return StreamSupport.stream(
+                () -> {
+                    final List<T> selected = select(stream, comparator, (int) k);
+                    return selected.subList((int) Math.min(skip, selected.size()), selected.size()).spliterator();
+                },
+                Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED,
+                false
+        ).onClose(stream::close);
+    }
+
+    private static <T> List<T> select(final Stream<T> stream, final Comparator<? super T> comparator, final int k) {
+        if (k == 0) {
+            return new ArrayList<>();
+        }
+
+        // Ties are resolved by encounter order, just like a stable sort
+        final Comparator<Ranked<T>> order = Comparator.<Ranked<T>, T>comparing(r -> r.element, comparator)
+                .thenComparingLong(r -> r.rank);
+
+        // The head of the heap is the worst element retained so far
+        final PriorityQueue<Ranked<T>> heap = new PriorityQueue<>(Math.min(k, 1024), order.reversed());
+        final long[] rank = new long[1];
+        stream.forEachOrdered(element -> {
+            final Ranked<T> ranked = new Ranked<>(element, rank[0]++);
+            if (heap.size() < k) {
+                heap.add(ranked);
+            } else if (comparator.compare(element, heap.peek().element) < 0) {
+                heap.poll();
+                heap.add(ranked);
+            }
+        });
+
+        final List<Ranked<T>> sorted = new ArrayList<>(heap);
+        sorted.sort(order);
+        final List<T> result = new ArrayList<>(sorted.size());
+        sorted.forEach(r -> result.add(r.element));
+        return result;
+    }
+
+    private static final class Ranked<T> {
+
+        private final T element;
+        private final long rank;
+
+        private Ranked(final T element, final long rank) {
+            this.element = element;
+            this.rank = rank;
+        }
+    }
+}
@@ -18,6 +18,8 @@ import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperation;
 import com.speedment.jpastreamer.pipeline.standard.internal.intermediate.InternalIntermediateOperationFactory;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -55,4 +57,32 @@ class InternalIntermediateOperationFactoryTest {
         assertDoesNotThrow(filter::function);
         //assertThrows(ClassCastException.class, filter::predicate);
     }
+
+    @Test
+    void createTopK() {
+        final Comparator<String> comparator = Comparator.comparing(String::length);
+
+        final IntermediateOperation<Stream<String>, Stream<String>> topK = factory.createTopK(comparator, 1, 2);
+
+        assertEquals(IntermediateOperationType.TOP_K, topK.type());
+        assertEquals(Stream.class, topK.streamType());
+        assertEquals(Stream.class, topK.returnType());
+        assertArrayEquals(new Object[]{comparator, 1L, 2L}, topK.arguments());
+
+        final List<String> source = Arrays.asList("ccc", "a", "bb", "b", "dddd", "cc");
+        final List<String> expected = source.stream()
+                .sorted(comparator)
+                .skip(1)
+                .limit(2)
+                .collect(Collectors.toList());
+
+        final List<String> actual = topK
+                .function()
+                .apply(source.stream())
+                .collect(Collectors.toList());
+        assertEquals(expected, actual);
+
+        assertThrows(IllegalArgumentException.class, () -> factory.createTopK(comparator, -1, 2));
+        assertThrows(IllegalArgumentException.class, () -> factory.createTopK(comparator, 0, -1));
+    }
 }
@@ -0,0 +1,177 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration.JoinConfiguration;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration.JoinStrategy;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceUnitUtil;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.SingularAttribute;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Loads the fields of {@link JoinConfiguration JoinConfigurations} with the
+ * {@code BATCH_FETCH} strategy for streams of root entities. Per batch of
+ * root entities, each field is loaded by one query that fetch joins it for
+ * the identifiers of the batch. As the root entities are managed by the same
+ * persistence context, the fetched associations are attached to them.
+ */
+final class BatchFetch {
+
+    private final EntityManager entityManager;
+
+    BatchFetch(final EntityManager entityManager) {
+        this.entityManager = requireNonNull(entityManager);
+    }
+
+    /**
+     * Returns if the fields of the provided {@code entityClass} can be
+     * loaded in batches, which requires a single {@code @Id} attribute.
+     */
+    boolean supports(final Class<?> entityClass) {
+        return idAttributeName(entityClass).isPresent();
+    }
+
+    /**
+     * Returns if the field of the provided {@code join} is loaded in
+     * batches, or else fetch joined by the query of the root entities. The
+     * field is only loaded in batches if so configured, the root entities
+     * have a single {@code @Id} attribute and the stream is not stateless,
+     * as the batches are attached through the persistence context.
+     */
+    <E> boolean isBatched(final Class<E> entityClass, final JoinConfiguration<E> join, final boolean stateless) {
+        return join.strategy() == JoinStrategy.BATCH_FETCH && !stateless && supports(entityClass);
+    }
+
+    /**
+     * Returns a stream of the elements of the provided {@code stream} that
+     * loads the field of the provided {@code join} for each batch of elements
+     * before the elements of the batch are passed on.
+     */
+    <E> Stream<E> apply(final Stream<E> stream, final Class<E> entityClass, final JoinConfiguration<E> join, final Map<String, Object> hints) {
+        return apply(stream, entityClass, join.field().columnName(), join.batchSize().orElseThrow(IllegalStateException::new), hints);
+    }
+
+    /**
+     * Returns a stream of the elements of the provided {@code stream} that
+     * loads the provided {@code attributeName} for each batch of
+     * {@code batchSize} elements before the elements of the batch are
+     * passed on.
+     */
+    <E> Stream<E> apply(final Stream<E> stream, final Class<E> entityClass, final String attributeName, final int batchSize, final Map<String, Object> hints) {
+        final String idAttributeName = idAttributeName(entityClass).orElseThrow(IllegalStateException::new);
+
+        final Spliterator<E> spliterator = new BatchSpliterator<>(
+            stream.spliterator(),
+            batchSize,
+            batch -> load(entityClass, idAttributeName, attributeName, batch, hints)
+        );
+
+        return StreamSupport.stream(spliterator, false).onClose(stream::close);
+    }
+
+    private <E> void load(final Class<E> entityClass, final String idAttributeName, final String column, final List<E> batch, final Map<String, Object> hints) {
+        final PersistenceUnitUtil persistenceUnitUtil = entityManager.getEntityManagerFactory().getPersistenceUnitUtil();
+
+        final Set<Object> ids = new LinkedHashSet<>();
+        for (final E entity : batch) {
+            if (entity != null) {
+                ids.add(persistenceUnitUtil.getIdentifier(entity));
+            }
+        }
+
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        final CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<E> query = builder.createQuery(entityClass);
+        final Root<E> root = query.from(entityClass);
+        root.fetch(column, JoinType.LEFT);
+        query.select(root).distinct(true).where(root.get(idAttributeName).in(ids));
+
+        final TypedQuery<E> typedQuery = entityManager.createQuery(query);
+        hints.forEach(typedQuery::setHint);
+
+        // The results are the managed root entities, now with the field loaded
+        typedQuery.getResultList();
+    }
+
+    private Optional<String> idAttributeName(final Class<?> entityClass) {
+        final EntityType<?> entityType = entityManager.getMetamodel().entity(entityClass);
+
+        if (!entityType.hasSingleIdAttribute()) {
+            return Optional.empty();
+        }
+
+        return entityType.getSingularAttributes().stream()
+            .filter(SingularAttribute::isId)
+            .map(Attribute::getName)
+            .findFirst();
+    }
+
+    private static final class BatchSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+
+        private final Spliterator<T> source;
+        private final int batchSize;
+        private final Consumer<List<T>> loader;
+        private final List<T> batch;
+        private int index;
+
+        private BatchSpliterator(final Spliterator<T> source, final int batchSize, final Consumer<List<T>> loader) {
+            super(source.estimateSize(), source.characteristics() & (ORDERED | DISTINCT | NONNULL));
+            this.source = source;
+            this.batchSize = batchSize;
+            this.loader = loader;
+            this.batch = new ArrayList<>(Math.min(batchSize, 1024));
+        }
+
+        @Override
+        public boolean tryAdvance(final Consumer<? super T> action) {
+            if (index == batch.size()) {
+                batch.clear();
+                index = 0;
+                while (batch.size() < batchSize && source.tryAdvance(batch::add)) {
+                    // Fills the next batch
+                }
+                if (batch.isEmpty()) {
+                    return false;
+                }
+                loader.accept(batch);
+            }
+            action.accept(batch.get(index++));
+            return true;
+        }
+    }
+}
@@ -0,0 +1,291 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.criteria.Criteria;
+import com.speedment.jpastreamer.exception.JPAStreamerException;
+import com.speedment.jpastreamer.merger.result.QueryPlan;
+import com.speedment.jpastreamer.pipeline.Pipeline;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperation;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationType;
+import com.speedment.jpastreamer.streamconfiguration.CheckpointStore;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration.CheckpointConfiguration;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.SingularAttribute;
+
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Resumes a Stream of entities from the position that was last saved to a
+ * {@link CheckpointStore} and saves the position of the Stream as its
+ * elements are processed.
+ * <p>
+ * A position is the tuple of the values of the sort keys of an element.
+ * The query is ordered by the identifier of the entity after its sort keys,
+ * so that the position identifies a single element, and a resumed query is
+ * restricted to the elements after the position by a keyset predicate, which
+ * as opposed to an offset remains correct if rows are added or removed
+ * before the position.
+ */
+final class Checkpointing<E> {
+
+    private final CheckpointStore store;
+    private final int interval;
+    private final List<SingularAttribute<? super E, ?>> keys;
+
+    Checkpointing(final CheckpointStore store, final int interval, final List<SingularAttribute<? super E, ?>> keys) {
+        this.store = requireNonNull(store);
+        this.interval = interval;
+        this.keys = Collections.unmodifiableList(keys);
+    }
+
+    /**
+     * Orders the provided {@code criteria} by a unique key, restricts it to
+     * the elements after the last saved position, if any, and returns the
+     * Checkpointing that saves the positions of the streamed entities.
+     * <p>
+     * The provided {@code pipeline} holds the operations that remain after
+     * planning, which must not buffer or deduplicate elements as the
+     * positions would otherwise be saved before the elements are processed.
+     *
+     * @throws JPAStreamerException if the Stream cannot be checkpointed
+     */
+    static <E> Checkpointing<E> of(
+        final Criteria<E, E> criteria,
+        final QueryPlan<E> queryPlan,
+        final Pipeline<E> pipeline,
+        final StreamConfiguration<E> streamConfiguration
+    ) {
+        final CheckpointConfiguration configuration = streamConfiguration.checkpointing()
+            .orElseThrow(() -> new IllegalArgumentException("The StreamConfiguration is not checkpointed"));
+
+        final String entityName = streamConfiguration.entityClass().getSimpleName();
+        if (streamConfiguration.selections().isPresent()) {
+            throw new JPAStreamerException("A Stream of " + entityName + " with a projection cannot be checkpointed");
+        }
+        if (queryPlan.isSliced()) {
+            // An offset would be applied on top of the keyset predicate of a resumed Stream
+            throw new JPAStreamerException("A Stream of " + entityName + " that skips or limits elements in the query cannot be checkpointed");
+        }
+        for (final IntermediateOperation<?, ?> operation : pipeline.intermediateOperations()) {
+            if (isBuffering(operation.type())) {
+                throw new JPAStreamerException("A Stream of " + entityName + " cannot be checkpointed as its " +
+                    operation.type() + " operation cannot be rendered to the query and would hold elements before they are processed");
+            }
+        }
+
+        final CriteriaQuery<E> query = criteria.getQuery();
+        final Root<E> root = criteria.getRoot();
+        final CriteriaBuilder builder = criteria.getBuilder();
+
+        final List<Order> orders = new ArrayList<>(query.getOrderList());
+        final List<SingularAttribute<? super E, ?>> keys = new ArrayList<>();
+        for (final Order order : orders) {
+            keys.add(sortKey(order.getExpression(), entityName));
+        }
+        for (final SingularAttribute<? super E, ?> id : ids(root.getModel(), entityName)) {
+            if (keys.stream().noneMatch(key -> key.getName().equals(id.getName()))) {
+                keys.add(id);
+                orders.add(builder.asc(root.get(id)));
+            }
+        }
+        query.orderBy(orders);
+
+        final Optional<List<Object>> position = configuration.store().load();
+        if (position.isPresent()) {
+            if (position.get().size() != keys.size()) {
+                throw new JPAStreamerException("The checkpoint " + position.get() + " of " + entityName +
+                    " does not match the " + keys.size() + " sort keys of the Stream");
+            }
+            final Predicate after = after(builder, orders, position.get());
+            final Predicate restriction = query.getRestriction();
+            query.where(restriction == null ? after : builder.and(restriction, after));
+        }
+
+        return new Checkpointing<>(configuration.store(), configuration.interval(), keys);
+    }
+
+    /**
+     * Returns a Stream of the elements of the provided {@code stream} that
+     * saves the position of every {@code interval}th element once it has been
+     * accepted by the downstream operations, and clears the checkpoint when
+     * the provided {@code stream} is exhausted.
+     */
+    Stream<E> track(final Stream<E> stream) {
+        final Spliterator<E> source = stream.spliterator();
+        final Spliterator<E> tracked = new Spliterators.AbstractSpliterator<E>(source.estimateSize(), source.characteristics() & ~(Spliterator.SIZED | Spliterator.SUBSIZED)) {
+
+            private List<Object> position;
+            private long processed;
+            private boolean exhausted;
+
+            @Override
+            public boolean tryAdvance(final Consumer<? super E> action) {
+                if (exhausted) {
+                    return false;
+                }
+                final boolean advanced = source.tryAdvance(entity -> {
+                    // The keys are read first as the downstream operations may modify the entity
+                    final List<Object> values = positionOf(entity);
+                    action.accept(entity);
+                    position = values;
+                });
+                if (!advanced) {
+                    exhausted = true;
+                    store.clear();
+                    return false;
+                }
+                if (++processed % interval == 0) {
+                    store.save(position);
+                }
+                return true;
+            }
+        };
+        return StreamSupport.stream(tracked, false).onClose(stream::close);
+    }
+
+    private List<Object> positionOf(final E entity) {
+        final List<Object> values = new ArrayList<>(keys.size());
+        for (final SingularAttribute<? super E, ?> key : keys) {
+            final Object value = valueOf(entity, key);
+            if (value == null) {
+                throw new JPAStreamerException("Cannot checkpoint " + entity.getClass().getSimpleName() +
+                    " as its sort key " + key.getName() + " is null");
+            }
+            values.add(value);
+        }
+        return values;
+    }
+
+    private static Object valueOf(final Object entity, final Attribute<?, ?> attribute) {
+        final Member member = attribute.getJavaMember();
+        try {
+            if (member instanceof Field) {
+                final Field field = (Field) member;
+                accessible(field);
+                return field.get(entity);
+            }
+            if (member instanceof Method) {
+                final Method method = (Method) member;
+                accessible(method);
+                return method.invoke(entity);
+            }
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new JPAStreamerException("Unable to read " + attribute.getName() + " of " + entity.getClass().getSimpleName(), e);
+        }
+        throw new JPAStreamerException("Unable to read " + attribute.getName() + " of " + entity.getClass().getSimpleName());
+    }
+
+    private static void accessible(final AccessibleObject accessibleObject) {
+        if (!accessibleObject.isAccessible()) {
+            accessibleObject.setAccessible(true);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> SingularAttribute<? super E, ?> sortKey(final Expression<?> expression, final String entityName) {
+        if (expression instanceof Path) {
+            final Path<?> path = (Path<?>) expression;
+            if (path.getParentPath() instanceof Root && path.getModel() instanceof SingularAttribute) {
+                final SingularAttribute<? super E, ?> attribute = (SingularAttribute<? super E, ?>) path.getModel();
+                if (isComparable(attribute)) {
+                    return attribute;
+                }
+            }
+        }
+        throw new JPAStreamerException("A Stream of " + entityName + " can only be checkpointed if it is sorted by comparable attributes of the entity");
+    }
+
+    private static <E> List<SingularAttribute<? super E, ?>> ids(final EntityType<E> entityType, final String entityName) {
+        final List<SingularAttribute<? super E, ?>> ids = new ArrayList<>();
+        if (entityType.hasSingleIdAttribute()) {
+            entityType.getSingularAttributes().stream()
+                .filter(SingularAttribute::isId)
+                .forEach(ids::add);
+        } else {
+            entityType.getIdClassAttributes().stream()
+                .sorted(Comparator.comparing(Attribute::getName))
+                .forEach(ids::add);
+        }
+        if (ids.isEmpty() || !ids.stream().allMatch(Checkpointing::isComparable)) {
+            // An embedded id cannot be compared as a whole
+            throw new JPAStreamerException("A Stream of " + entityName + " can only be checkpointed if its identifier consists of comparable attributes");
+        }
+        return ids;
+    }
+
+    private static boolean isBuffering(final IntermediateOperationType type) {
+        return type == IntermediateOperationType.SORTED
+            || type == IntermediateOperationType.DISTINCT
+            || type == IntermediateOperationType.TOP_K;
+    }
+
+    private static boolean isComparable(final SingularAttribute<?, ?> attribute) {
+        final Class<?> javaType = attribute.getJavaType();
+        return attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.BASIC
+            && (javaType.isPrimitive() || Comparable.class.isAssignableFrom(javaType));
+    }
+
+    /**
+     * Returns a predicate that matches the rows after the provided
+     * {@code position} in the order of the provided {@code orders}, i.e.
+     * {@code (k1 > v1) OR (k1 = v1 AND k2 > v2) OR ...} where {@code >}
+     * becomes {@code <} for descending keys.
+     */
+    private static Predicate after(final CriteriaBuilder builder, final List<Order> orders, final List<Object> position) {
+        final Predicate[] alternatives = new Predicate[orders.size()];
+        for (int i = 0; i < orders.size(); i++) {
+            final Predicate[] conjunction = new Predicate[i + 1];
+            for (int j = 0; j < i; j++) {
+                conjunction[j] = builder.equal(orders.get(j).getExpression(), position.get(j));
+            }
+            conjunction[i] = beyond(builder, orders.get(i), position.get(i));
+            alternatives[i] = builder.and(conjunction);
+        }
+        return builder.or(alternatives);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate beyond(final CriteriaBuilder builder, final Order order, final Object value) {
+        final Expression<Comparable> expression = (Expression<Comparable>) order.getExpression();
+        return order.isAscending()
+            ? builder.greaterThan(expression, (Comparable) value)
+            : builder.lessThan(expression, (Comparable) value);
+    }
+}
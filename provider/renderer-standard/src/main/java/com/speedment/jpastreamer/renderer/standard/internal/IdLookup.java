@@ -0,0 +1,173 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import static com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationType.FILTER;
+import static com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationType.SORTED;
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.field.predicate.FieldPredicate;
+import com.speedment.jpastreamer.field.predicate.PredicateType;
+import com.speedment.jpastreamer.field.trait.HasArg0;
+import com.speedment.jpastreamer.pipeline.Pipeline;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperation;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.SingularAttribute;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Serves pipelines that start with a filter on the identifier of the root
+ * entity via {@link EntityManager#find(Class, Object, Map)}, so that both
+ * the persistence context and the second-level cache are consulted before
+ * the database.
+ */
+final class IdLookup {
+
+    private final EntityManager entityManager;
+
+    IdLookup(final EntityManager entityManager) {
+        this.entityManager = requireNonNull(entityManager);
+    }
+
+    /**
+     * Returns the identifiers that the leading filter of the provided
+     * {@code pipeline} selects, or else {@code Optional.empty()} if the
+     * pipeline cannot be served by identifier look-ups.
+     * <p>
+     * This is the case if the first operation is a filter that is an
+     * {@code EQUAL} or {@code IN} predicate on the single {@code @Id}
+     * attribute of the root entity, and no selections, joins or
+     * natural order sorts must be rendered. Stateless and checkpointed
+     * streams are never served by look-ups.
+     */
+    <E> Optional<Collection<?>> ids(final Pipeline<E> pipeline, final StreamConfiguration<E> streamConfiguration) {
+        // The look-up returns managed entities, so streams without a persistence context are always queried.
+        // Checkpointed streams are always queried as they are resumed by a predicate on the sort keys
+        if (streamConfiguration.isStateless() || streamConfiguration.checkpointing().isPresent()) {
+            return Optional.empty();
+        }
+
+        if (streamConfiguration.selections().isPresent() || !streamConfiguration.joins().isEmpty()) {
+            return Optional.empty();
+        }
+
+        final IntermediateOperation<?, ?> first = pipeline.intermediateOperations().peekFirst();
+        if (first == null
+                || first.type() != FILTER
+                || !Stream.class.equals(first.streamType())
+                || first.arguments().length != 1
+                || !(first.arguments()[0] instanceof FieldPredicate)
+                || !(first.arguments()[0] instanceof HasArg0)) {
+            return Optional.empty();
+        }
+
+        // Entities are not necessarily Comparable, the query would order them by id
+        final boolean naturalOrder = pipeline.intermediateOperations().stream()
+            .anyMatch(operation -> operation.type() == SORTED && operation.arguments().length == 0);
+        if (naturalOrder) {
+            return Optional.empty();
+        }
+
+        final FieldPredicate<?> predicate = (FieldPredicate<?>) first.arguments()[0];
+        final Object argument = ((HasArg0<?>) predicate).get0();
+
+        final Collection<?> ids;
+        if (predicate.getPredicateType() == PredicateType.EQUAL) {
+            ids = Collections.singleton(argument);
+        } else if (predicate.getPredicateType() == PredicateType.IN && argument instanceof Collection) {
+            ids = (Collection<?>) argument;
+        } else {
+            return Optional.empty();
+        }
+
+        if (ids.contains(null)) {
+            return Optional.empty();
+        }
+
+        return idAttributeName(pipeline.root())
+            .filter(predicate.getField().columnName()::equals)
+            .map(name -> ids);
+    }
+
+    /**
+     * Returns a stream of the entities with the provided {@code ids}.
+     * Entities that are held by the second-level cache are found one by one,
+     * the remaining ones are loaded with a single query.
+     */
+    <E> Stream<E> find(final Class<E> entityClass, final Collection<?> ids, final Map<String, Object> hints) {
+        if (ids.size() == 1) {
+            final E entity = entityManager.find(entityClass, ids.iterator().next(), hints);
+            return entity == null ? Stream.empty() : Stream.of(entity);
+        }
+
+        final Cache cache = entityManager.getEntityManagerFactory().getCache();
+
+        final List<E> found = new ArrayList<>();
+        final Collection<Object> missing = new LinkedHashSet<>();
+
+        for (final Object id : ids) {
+            if (cache != null && cache.contains(entityClass, id)) {
+                final E entity = entityManager.find(entityClass, id, hints);
+                if (entity != null) {
+                    found.add(entity);
+                }
+            } else {
+                missing.add(id);
+            }
+        }
+
+        if (missing.isEmpty()) {
+            return found.stream();
+        }
+
+        final CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<E> query = builder.createQuery(entityClass);
+        final Root<E> root = query.from(entityClass);
+        query.select(root).where(root.get(idAttributeName(entityClass).orElseThrow(IllegalStateException::new)).in(missing));
+
+        final TypedQuery<E> typedQuery = entityManager.createQuery(query);
+        hints.forEach(typedQuery::setHint);
+
+        return Stream.concat(found.stream(), typedQuery.getResultStream());
+    }
+
+    private Optional<String> idAttributeName(final Class<?> entityClass) {
+        final EntityType<?> entityType = entityManager.getMetamodel().entity(entityClass);
+
+        if (!entityType.hasSingleIdAttribute()) {
+            return Optional.empty();
+        }
+
+        return entityType.getSingularAttributes().stream()
+            .filter(SingularAttribute::isId)
+            .map(Attribute::getName)
+            .findFirst();
+    }
+}
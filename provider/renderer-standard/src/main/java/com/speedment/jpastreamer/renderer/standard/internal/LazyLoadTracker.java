@@ -0,0 +1,277 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.field.Field;
+import com.speedment.jpastreamer.field.comparator.CombinedComparator;
+import com.speedment.jpastreamer.field.comparator.FieldComparator;
+import com.speedment.jpastreamer.field.predicate.CombinedPredicate;
+import com.speedment.jpastreamer.field.predicate.FieldPredicate;
+import com.speedment.jpastreamer.pipeline.Pipeline;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperation;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationType;
+import com.speedment.jpastreamer.projection.Projection;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceUnitUtil;
+import jakarta.persistence.metamodel.Attribute;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Detects associations of root entities that are lazily initialized while
+ * residual operations are replayed, which means one query per element,
+ * i.e. the N + 1 select problem.
+ * <p>
+ * Detection is enabled by the system property {@code jpastreamer.lazyloads}:
+ * <ul>
+ *     <li>{@code log} reports the lazily initialized associations of each
+ *     stream when it is closed</li>
+ *     <li>{@code adapt} additionally loads an association in batches in all
+ *     subsequent executions of the same pipeline shape once a single
+ *     execution initialized it lazily for at least
+ *     {@code jpastreamer.lazyloads.threshold} (default 10) elements</li>
+ * </ul>
+ * The shape of a pipeline is given by its root entity, the types of its
+ * operations and the classes of their arguments, or the fields that field
+ * predicates, comparators and projections refer to. Hence, executions from
+ * the same call site share a shape regardless of captured values.
+ * <p>
+ * Operations that buffer elements, such as {@code sorted()}, pass elements
+ * downstream only after the whole stream has been read. For pipelines with
+ * such operations, associations are therefore checked when the stream is
+ * closed rather than after each element, which retains the elements until
+ * then just like the persistence context does.
+ */
+final class LazyLoadTracker {
+
+    static final int PREFETCH_BATCH_SIZE = 100;
+
+    private static final Logger LOGGER = Logger.getLogger(LazyLoadTracker.class.getName());
+
+    // Shared by all renderers as streamers for the same shape come and go
+    private static final Map<String, Set<String>> PREFETCHES = new ConcurrentHashMap<>();
+
+    enum Mode {
+        OFF, LOG, ADAPT
+    }
+
+    private final EntityManager entityManager;
+    private final Mode mode;
+    private final int threshold;
+
+    LazyLoadTracker(final EntityManager entityManager) {
+        this(
+            entityManager,
+            mode(System.getProperty("jpastreamer.lazyloads")),
+            Integer.getInteger("jpastreamer.lazyloads.threshold", 10)
+        );
+    }
+
+    LazyLoadTracker(final EntityManager entityManager, final Mode mode, final int threshold) {
+        this.entityManager = requireNonNull(entityManager);
+        this.mode = requireNonNull(mode);
+        this.threshold = threshold;
+    }
+
+    boolean isEnabled() {
+        return mode != Mode.OFF;
+    }
+
+    /**
+     * Returns the shape of the provided {@code pipeline}, which must be
+     * computed before the pipeline is optimized.
+     */
+    String fingerprint(final Pipeline<?> pipeline) {
+        final StringBuilder fingerprint = new StringBuilder(pipeline.root().getName());
+        for (final IntermediateOperation<?, ?> operation : pipeline.intermediateOperations()) {
+            append(fingerprint, operation.type().name(), operation.arguments());
+        }
+        append(fingerprint, pipeline.terminatingOperation().type().name(), pipeline.terminatingOperation().arguments());
+        return fingerprint.toString();
+    }
+
+    /**
+     * Returns the names of the associations that shall be loaded in batches
+     * for pipelines of the provided {@code fingerprint}.
+     */
+    Set<String> prefetches(final String fingerprint) {
+        if (mode != Mode.ADAPT) {
+            return Collections.emptySet();
+        }
+        return PREFETCHES.getOrDefault(fingerprint, Collections.emptySet());
+    }
+
+    /**
+     * Returns if the residual operations of the provided {@code pipeline}
+     * buffer elements before passing them downstream.
+     */
+    static boolean isBuffering(final Pipeline<?> pipeline) {
+        return pipeline.intermediateOperations().stream()
+            .anyMatch(operation -> operation.type() == IntermediateOperationType.SORTED || operation.type() == IntermediateOperationType.TOP_K);
+    }
+
+    /**
+     * Returns a stream of the elements of the provided {@code stream} that
+     * counts the associations that are initialized while each element is
+     * processed downstream, or until the stream is closed if the provided
+     * {@code buffering} is {@code true}, and reports them when the stream is
+     * closed.
+     */
+    <E> Stream<E> track(final Stream<E> stream, final Class<E> entityClass, final String fingerprint, final boolean buffering) {
+        final List<String> associations = entityManager.getMetamodel().entity(entityClass).getAttributes().stream()
+            .filter(Attribute::isAssociation)
+            .map(Attribute::getName)
+            .collect(Collectors.toList());
+
+        if (associations.isEmpty()) {
+            return stream;
+        }
+
+        final Map<String, Integer> counts = new ConcurrentHashMap<>();
+        final PersistenceUnitUtil persistenceUnitUtil = entityManager.getEntityManagerFactory().getPersistenceUnitUtil();
+        // Elements with unloaded associations that are checked once the stream is closed
+        final List<Map.Entry<E, List<String>>> pending = buffering ? new ArrayList<>() : null;
+
+        final Spliterator<E> source = stream.spliterator();
+        final Spliterator<E> spliterator = new Spliterators.AbstractSpliterator<E>(source.estimateSize(), source.characteristics() & ~Spliterator.SIZED) {
+            @Override
+            public boolean tryAdvance(final Consumer<? super E> action) {
+                return source.tryAdvance(entity -> {
+                    final List<String> unloaded = new ArrayList<>();
+                    for (final String association : associations) {
+                        if (!persistenceUnitUtil.isLoaded(entity, association)) {
+                            unloaded.add(association);
+                        }
+                    }
+                    action.accept(entity);
+                    if (pending != null) {
+                        if (!unloaded.isEmpty()) {
+                            pending.add(new AbstractMap.SimpleImmutableEntry<>(entity, unloaded));
+                        }
+                    } else {
+                        count(persistenceUnitUtil, entity, unloaded, counts);
+                    }
+                });
+            }
+        };
+
+        return StreamSupport.stream(spliterator, false)
+            .onClose(stream::close)
+            .onClose(() -> {
+                if (pending != null) {
+                    pending.forEach(entry -> count(persistenceUnitUtil, entry.getKey(), entry.getValue(), counts));
+                    pending.clear();
+                }
+                report(fingerprint, counts);
+            });
+    }
+
+    private static void count(final PersistenceUnitUtil persistenceUnitUtil, final Object entity, final List<String> unloaded, final Map<String, Integer> counts) {
+        for (final String association : unloaded) {
+            if (persistenceUnitUtil.isLoaded(entity, association)) {
+                counts.merge(association, 1, Integer::sum);
+            }
+        }
+    }
+
+    private void report(final String fingerprint, final Map<String, Integer> counts) {
+        counts.forEach((association, count) -> {
+            LOGGER.log(Level.WARNING, "{0} was lazily initialized for {1} elements of the stream {2}", new Object[]{association, count, fingerprint});
+            if (mode == Mode.ADAPT && count >= threshold
+                    && PREFETCHES.computeIfAbsent(fingerprint, f -> ConcurrentHashMap.newKeySet()).add(association)) {
+                LOGGER.log(Level.INFO, "{0} will be loaded in batches of {1} for the stream {2}", new Object[]{association, PREFETCH_BATCH_SIZE, fingerprint});
+            }
+        });
+    }
+
+    private static void append(final StringBuilder fingerprint, final String type, final Object[] arguments) {
+        fingerprint.append('.').append(type);
+        if (arguments != null) {
+            for (final Object argument : arguments) {
+                fingerprint.append(':');
+                appendArgument(fingerprint, argument);
+            }
+        }
+    }
+
+    /**
+     * Appends the class of the provided {@code argument} and, since the
+     * classes of field predicates, comparators and projections are shared
+     * by all fields, the fields they refer to.
+     */
+    private static void appendArgument(final StringBuilder fingerprint, final Object argument) {
+        if (argument == null) {
+            fingerprint.append("null");
+            return;
+        }
+        fingerprint.append(argument.getClass().getName());
+        if (argument instanceof FieldPredicate) {
+            final FieldPredicate<?> fieldPredicate = (FieldPredicate<?>) argument;
+            appendField(fingerprint.append('(').append(fieldPredicate.getPredicateType()).append(' '), fieldPredicate.getField()).append(')');
+        } else if (argument instanceof CombinedPredicate) {
+            final CombinedPredicate<?> combinedPredicate = (CombinedPredicate<?>) argument;
+            fingerprint.append('(').append(combinedPredicate.getType());
+            combinedPredicate.stream().forEach(predicate -> appendArgument(fingerprint.append(' '), predicate));
+            fingerprint.append(')');
+        } else if (argument instanceof FieldComparator) {
+            final FieldComparator<?> fieldComparator = (FieldComparator<?>) argument;
+            appendField(fingerprint.append('('), fieldComparator.getField())
+                .append(fieldComparator.isReversed() ? " DESC " : " ASC ")
+                .append(fieldComparator.getNullOrder())
+                .append(')');
+        } else if (argument instanceof CombinedComparator) {
+            fingerprint.append('(');
+            ((CombinedComparator<?>) argument).stream().forEach(comparator -> appendArgument(fingerprint.append(' '), comparator));
+            fingerprint.append(')');
+        } else if (argument instanceof Projection) {
+            fingerprint.append('(');
+            ((Projection<?>) argument).fields().forEach(field -> appendField(fingerprint.append(' '), field));
+            fingerprint.append(')');
+        }
+    }
+
+    private static StringBuilder appendField(final StringBuilder fingerprint, final Field<?> field) {
+        return fingerprint.append(field.table().getName()).append('#').append(field.columnName());
+    }
+
+    private static Mode mode(final String property) {
+        if (property == null) {
+            return Mode.OFF;
+        }
+        switch (property.trim().toLowerCase()) {
+            case "log":
+                return Mode.LOG;
+            case "adapt":
+                return Mode.ADAPT;
+            default:
+                return Mode.OFF;
+        }
+    }
+}
@@ -16,30 +16,70 @@ import static java.util.Objects.requireNonNull;
 
 import com.speedment.jpastreamer.criteria.Criteria;
 import com.speedment.jpastreamer.criteria.CriteriaFactory;
+import com.speedment.jpastreamer.criteria.ExpressionFactory;
+import com.speedment.jpastreamer.criteria.QueryParameter;
+import com.speedment.jpastreamer.exception.JPAStreamerException;
+import com.speedment.jpastreamer.field.Field;
 import com.speedment.jpastreamer.interopoptimizer.IntermediateOperationOptimizerFactory;
-import com.speedment.jpastreamer.merger.CriteriaMerger;
 import com.speedment.jpastreamer.merger.MergerFactory;
-import com.speedment.jpastreamer.merger.QueryMerger;
+import com.speedment.jpastreamer.merger.QueryPlanner;
+import com.speedment.jpastreamer.merger.result.QueryPlan;
 import com.speedment.jpastreamer.pipeline.Pipeline;
 import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperation;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationType;
+import com.speedment.jpastreamer.pipeline.intermediate.Statement;
 import com.speedment.jpastreamer.pipeline.terminal.TerminalOperationType;
 import com.speedment.jpastreamer.projection.Projection;
 import com.speedment.jpastreamer.renderer.RenderResult;
 import com.speedment.jpastreamer.renderer.Renderer;
+import com.speedment.jpastreamer.renderer.standard.internal.dialect.ProviderDialect;
+import com.speedment.jpastreamer.renderer.standard.internal.dialect.ProviderDialects;
+import com.speedment.jpastreamer.renderer.standard.internal.singleflight.QueryKey;
+import com.speedment.jpastreamer.renderer.standard.internal.singleflight.SingleFlight;
+import com.speedment.jpastreamer.renderer.standard.internal.snapshot.Snapshot;
+import com.speedment.jpastreamer.renderer.standard.internal.snapshot.SnapshotPlanner;
+import com.speedment.jpastreamer.renderer.standard.internal.snapshot.SnapshotStore;
+import com.speedment.jpastreamer.renderer.standard.internal.spill.ExternalSort;
+import com.speedment.jpastreamer.renderer.standard.internal.spill.SpillCodec;
 import com.speedment.jpastreamer.rootfactory.RootFactory;
+import com.speedment.jpastreamer.streamconfiguration.FieldGraph;
 import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
-
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration.GraphConfiguration;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration.JoinConfiguration;
+import com.speedment.runtime.compute.ToDouble;
+import com.speedment.runtime.compute.ToInt;
+import com.speedment.runtime.compute.ToLong;
+import com.speedment.runtime.compute.expression.Expression;
+
+import jakarta.persistence.EntityGraph;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Query;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.Subgraph;
 import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.CompoundSelection;
 import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Path;
-
+import jakarta.persistence.criteria.Selection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalInt;
 import java.util.ServiceLoader;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.BaseStream;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
 final class StandardRenderer implements Renderer {
@@ -51,6 +91,16 @@ final class StandardRenderer implements Renderer {
 
     private final MergerFactory mergerFactory;
 
+    private final ExpressionFactory expressionFactory;
+
+    private final IdLookup idLookup;
+
+    private final BatchFetch batchFetch;
+
+    private final LazyLoadTracker lazyLoadTracker;
+
+    private final ProviderDialect providerDialect;
+
     StandardRenderer(final EntityManagerFactory entityManagerFactory) {
         this(entityManagerFactory::createEntityManager); 
     }
@@ -60,6 +110,11 @@ final class StandardRenderer implements Renderer {
         this.criteriaFactory = RootFactory.getOrThrow(CriteriaFactory.class, ServiceLoader::load);
         this.intermediateOperationOptimizerFactory = RootFactory.getOrThrow(IntermediateOperationOptimizerFactory.class, ServiceLoader::load);
         this.mergerFactory = RootFactory.getOrThrow(MergerFactory.class, ServiceLoader::load);
+        this.expressionFactory = RootFactory.getOrThrow(ExpressionFactory.class, ServiceLoader::load);
+        this.idLookup = new IdLookup(entityManager);
+        this.batchFetch = new BatchFetch(entityManager);
+        this.lazyLoadTracker = new LazyLoadTracker(entityManager);
+        this.providerDialect = ProviderDialects.resolve(entityManager);
     }
     
     StandardRenderer(final EntityManager entityManager) {
@@ -67,17 +122,74 @@ final class StandardRenderer implements Renderer {
         this.criteriaFactory = RootFactory.getOrThrow(CriteriaFactory.class, ServiceLoader::load);
         this.intermediateOperationOptimizerFactory = RootFactory.getOrThrow(IntermediateOperationOptimizerFactory.class, ServiceLoader::load);
         this.mergerFactory = RootFactory.getOrThrow(MergerFactory.class, ServiceLoader::load);
+        this.expressionFactory = RootFactory.getOrThrow(ExpressionFactory.class, ServiceLoader::load);
+        this.idLookup = new IdLookup(entityManager);
+        this.batchFetch = new BatchFetch(entityManager);
+        this.lazyLoadTracker = new LazyLoadTracker(entityManager);
+        this.providerDialect = ProviderDialects.resolve(entityManager);
     }
 
     @Override
     @SuppressWarnings("unchecked")
     public <E, T, S extends BaseStream<T, S>> RenderResult<E, T, S> render(final Pipeline<E> pipeline, final StreamConfiguration<E> streamConfiguration) {
+        final boolean snapshotted = isSnapshotted(streamConfiguration);
+
+        // The shape is taken before optimization so that it reflects the pipeline as written. Without a
+        // persistence context, associations cannot be loaded lazily in the first place
+        final String fingerprint = lazyLoadTracker.isEnabled() && !streamConfiguration.selections().isPresent() && !streamConfiguration.isStateless() && !snapshotted
+                ? lazyLoadTracker.fingerprint(pipeline)
+                : null;
+
         optimizePipeline(pipeline);
 
         final Class<E> entityClass = pipeline.root();
 
-        final CriteriaMerger criteriaMerger = mergerFactory.createCriteriaMerger();
-        final QueryMerger queryMerger = mergerFactory.createQueryMerger();
+        if (snapshotted) {
+            // The whole pipeline is evaluated in memory, over the entities that the indexes leave as candidates
+            final Snapshot<E> snapshot = snapshot(streamConfiguration);
+            if (pipeline.terminatingOperation().type() == TerminalOperationType.COUNT && pipeline.intermediateOperations().isEmpty()) {
+                return (RenderResult<E, T, S>) new StandardRenderResult<>(
+                        entityClass,
+                        Stream.of((long) snapshot.size()),
+                        pipeline.terminatingOperation()
+                );
+            }
+            final S replayed = replay(SnapshotPlanner.stream(snapshot, pipeline), pipeline, streamConfiguration);
+            return new StandardRenderResult<>(
+                    entityClass,
+                    replayed,
+                    pipeline.terminatingOperation()
+            );
+        }
+
+        final Map<String, Object> hints = hints(entityManager, streamConfiguration);
+
+        final Optional<Collection<?>> oIds = idLookup.ids(pipeline, streamConfiguration);
+        if (oIds.isPresent()) {
+            // The leading filter is served by the look-up
+            pipeline.intermediateOperations().removeFirst();
+
+            final Stream<E> foundStream = idLookup.find(entityClass, oIds.get(), hints);
+            final Stream<E> baseStream = fingerprint == null ? foundStream : lazyLoadTracker.track(foundStream, entityClass, fingerprint, LazyLoadTracker.isBuffering(pipeline));
+
+            if (pipeline.terminatingOperation().type() == TerminalOperationType.COUNT && pipeline.intermediateOperations().isEmpty()) {
+                return (RenderResult<E, T, S>) new StandardRenderResult<>(
+                        entityClass,
+                        Stream.of(baseStream.count()),
+                        pipeline.terminatingOperation()
+                );
+            }
+
+            final S replayed = replay(baseStream, pipeline, streamConfiguration);
+
+            return new StandardRenderResult<>(
+                    entityClass,
+                    replayed,
+                    pipeline.terminatingOperation()
+            );
+        }
+
+        final QueryPlanner queryPlanner = mergerFactory.createQueryPlanner();
 
         final Criteria<E, E> criteria = criteriaFactory.createCriteria(entityManager, entityClass);
         criteria.getRoot().alias(pipeline.root().getSimpleName());
@@ -94,39 +206,111 @@ final class StandardRenderer implements Renderer {
             criteria.getQuery().select(criteria.getRoot());
         }
 
-        streamConfiguration.joins()
-                .forEach(joinConfiguration -> criteria.getRoot().fetch(joinConfiguration.field().columnName(), joinConfiguration.joinType()));
+        final boolean stateless = streamConfiguration.isStateless() && providerDialect.supportsStateless();
+
+        final List<JoinConfiguration<E>> batchJoins = new ArrayList<>();
+        for (final JoinConfiguration<E> joinConfiguration : streamConfiguration.joins()) {
+            if (batchFetch.isBatched(entityClass, joinConfiguration, stateless)) {
+                batchJoins.add(joinConfiguration);
+            } else {
+                criteria.getRoot().fetch(joinConfiguration.field().columnName(), joinConfiguration.joinType());
+            }
+        }
+
+        // Managed entities cannot be shared between persistence contexts and checkpoints resume queries
+        final boolean coalescing = streamConfiguration.coalescing().isPresent()
+                && (stateless || streamConfiguration.selections().isPresent())
+                && !streamConfiguration.checkpointing().isPresent();
+        final List<IntermediateOperation<?, ?>> unplanned = coalescing ? new ArrayList<>(pipeline.intermediateOperations()) : null;
+
+        final QueryPlan<E> queryPlan = queryPlanner.plan(pipeline, criteria);
 
-        criteriaMerger.merge(pipeline, criteria);
+        if (queryPlan.isEmpty()) {
+            // The query cannot select any rows so there is no need to execute it
+            final S replayed = replay(Stream.empty(), pipeline, streamConfiguration);
 
-        if (pipeline.terminatingOperation().type() == TerminalOperationType.COUNT && pipeline.intermediateOperations().isEmpty()) {
+            return new StandardRenderResult<>(
+                    entityClass,
+                    replayed,
+                    pipeline.terminatingOperation()
+            );
+        }
+
+        final Checkpointing<E> checkpointing = streamConfiguration.checkpointing().isPresent()
+                ? Checkpointing.of(criteria, queryPlan, pipeline, streamConfiguration)
+                : null;
+
+        if (pipeline.terminatingOperation().type() == TerminalOperationType.COUNT
+                && pipeline.intermediateOperations().isEmpty()) {
             final Criteria<E, Long> countCriteria = createCountCriteria(criteria);
 
             final TypedQuery<Long> typedQuery = entityManager.createQuery(countCriteria.getQuery());
 
-            countCriteria.getQueryParameters().forEach(
-                queryParameter -> typedQuery.setParameter(queryParameter.getParameterExpression(), queryParameter.getValue())
-            );
+            bindParameters(typedQuery, countCriteria);
 
+            // A count query ignores the merged skip and limit, so they are applied to the count instead
             return (RenderResult<E, T, S>) new StandardRenderResult<>(
                     entityClass,
-                    typedQuery.getResultStream(),
+                    typedQuery.getResultStream().map(queryPlan::applyTo),
                     pipeline.terminatingOperation()
             );
         }
 
-        final TypedQuery<E> typedQuery = entityManager.createQuery(criteria.getQuery());
-
-        criteria.getQueryParameters().forEach(
-            queryParameter -> typedQuery.setParameter(queryParameter.getParameterExpression(), queryParameter.getValue())
-        );
-
-        streamConfiguration.hints().forEach((hintName, value) -> typedQuery.setHint(hintName, value));
+        final Optional<Projection<E>> oTupleProjection = tupleProjection(pipeline, streamConfiguration, criteria);
+        if (oTupleProjection.isPresent()) {
+            return renderTuples(pipeline, streamConfiguration, criteria, queryPlan, oTupleProjection.get());
+        }
 
-        queryMerger.merge(pipeline, typedQuery);
+        final Optional<Expression<E>> oExpressionProjection = expressionProjection(pipeline, streamConfiguration, criteria);
+        if (oExpressionProjection.isPresent()) {
+            final Optional<RenderResult<E, T, S>> oRenderResult = renderValues(pipeline, streamConfiguration, criteria, queryPlan, oExpressionProjection.get());
+            if (oRenderResult.isPresent()) {
+                return oRenderResult.get();
+            }
+        }
 
-        final Stream<E> baseStream = typedQuery.getResultStream();
-        final S replayed = replay(baseStream, pipeline);
+        final Supplier<Stream<E>> query = () -> {
+            if (stateless) {
+                return providerDialect.streamStateless(
+                        entityManager,
+                        criteria.getQuery(),
+                        typedQuery -> configure(typedQuery, criteria, hints, queryPlan)
+                );
+            }
+            final TypedQuery<E> typedQuery = entityManager.createQuery(criteria.getQuery());
+            providerDialect.prepare(typedQuery);
+            configure(typedQuery, criteria, hints, queryPlan);
+            return providerDialect.stream(typedQuery);
+        };
+        final Optional<Object> oQueryKey = coalescing
+                ? QueryKey.of(streamConfiguration, stateless, unplanned, pipeline)
+                : Optional.empty();
+        final Stream<E> resultStream = oQueryKey.isPresent()
+                ? SingleFlight.of(entityManager.getEntityManagerFactory()).stream(oQueryKey.get(), streamConfiguration.coalescing().getAsInt(), query)
+                : query.get();
+
+        Stream<E> baseStream = resultStream;
+        for (final JoinConfiguration<E> batchJoin : batchJoins) {
+            baseStream = batchFetch.apply(baseStream, entityClass, batchJoin, streamConfiguration.hints());
+        }
+        if (fingerprint != null) {
+            for (final String association : lazyLoadTracker.prefetches(fingerprint)) {
+                final boolean joined = streamConfiguration.joins().stream()
+                        .anyMatch(joinConfiguration -> joinConfiguration.field().columnName().equals(association));
+                if (!joined && batchFetch.supports(entityClass)) {
+                    baseStream = batchFetch.apply(baseStream, entityClass, association, LazyLoadTracker.PREFETCH_BATCH_SIZE, streamConfiguration.hints());
+                }
+            }
+            baseStream = lazyLoadTracker.track(baseStream, entityClass, fingerprint, LazyLoadTracker.isBuffering(pipeline));
+        }
+        if (streamConfiguration.isStateless() && !stateless && !streamConfiguration.selections().isPresent()) {
+            // Without a stateless mode of the provider, the persistence context is kept from growing instead
+            baseStream = baseStream.peek(entityManager::detach);
+        }
+        if (checkpointing != null) {
+            baseStream = checkpointing.track(baseStream);
+        }
+        final S replayed = replay(baseStream, pipeline, streamConfiguration);
 
         return new StandardRenderResult<>(
                 entityClass,
@@ -135,6 +319,69 @@ final class StandardRenderer implements Renderer {
         );
     }
 
+    private static boolean isSnapshotted(final StreamConfiguration<?> streamConfiguration) {
+        // Projections select other objects than the snapshotted entities and checkpoints resume queries
+        return streamConfiguration.snapshot().isPresent()
+                && !streamConfiguration.selections().isPresent()
+                && !streamConfiguration.checkpointing().isPresent();
+    }
+
+    private <E> Snapshot<E> snapshot(final StreamConfiguration<E> streamConfiguration) {
+        final EntityManagerFactory entityManagerFactory = entityManager.getEntityManagerFactory();
+        // Streams that load the same entities share the snapshot
+        final List<Object> key = Arrays.asList(streamConfiguration.entityClass(), streamConfiguration.joins(), streamConfiguration.graph());
+        return SnapshotStore.of(entityManagerFactory).get(
+                key,
+                streamConfiguration.snapshot().orElseThrow(IllegalStateException::new),
+                () -> loadSnapshot(entityManagerFactory, streamConfiguration)
+        );
+    }
+
+    private <E> List<E> loadSnapshot(final EntityManagerFactory entityManagerFactory, final StreamConfiguration<E> streamConfiguration) {
+        // A separate EntityManager leaves the snapshotted entities detached once it is closed
+        final EntityManager snapshotEntityManager = entityManagerFactory.createEntityManager();
+        try {
+            final Criteria<E, E> criteria = criteriaFactory.createCriteria(snapshotEntityManager, streamConfiguration.entityClass());
+            criteria.getQuery().select(criteria.getRoot());
+            for (final JoinConfiguration<E> joinConfiguration : streamConfiguration.joins()) {
+                criteria.getRoot().fetch(joinConfiguration.field().columnName(), joinConfiguration.joinType());
+            }
+            // Fetch joins of collections repeat the owning entity
+            criteria.getQuery().distinct(!streamConfiguration.joins().isEmpty());
+
+            final TypedQuery<E> typedQuery = snapshotEntityManager.createQuery(criteria.getQuery());
+            // An entity graph can only be used by the EntityManager that created it
+            hints(snapshotEntityManager, streamConfiguration).forEach(typedQuery::setHint);
+            return typedQuery.getResultList();
+        } finally {
+            snapshotEntityManager.close();
+        }
+    }
+
+    private static void configure(final TypedQuery<?> typedQuery, final Criteria<?, ?> criteria, final Map<String, Object> hints, final QueryPlan<?> queryPlan) {
+        bindParameters(typedQuery, criteria);
+
+        hints.forEach((hintName, value) -> typedQuery.setHint(hintName, value));
+
+        queryPlan.applyTo(typedQuery);
+    }
+
+    private static void bindParameters(final Query query, final Criteria<?, ?> criteria) {
+        for (final QueryParameter<?> queryParameter : criteria.getQueryParameters()) {
+            bindParameter(query, queryParameter);
+        }
+    }
+
+    private static <T> void bindParameter(final Query query, final QueryParameter<T> queryParameter) {
+        query.setParameter(queryParameter.getParameterExpression(), queryParameter.getValue());
+    }
+
+    private static void copyParameters(final Criteria<?, ?> source, final Criteria<?, ?> target) {
+        for (final QueryParameter<?> queryParameter : source.getQueryParameters()) {
+            target.addQueryParameter(queryParameter);
+        }
+    }
+
     private <T> Criteria<T, Long> createCountCriteria(final Criteria<T, T> criteria) {
         final CriteriaQuery<T> criteriaQuery = criteria.getQuery();
 
@@ -144,7 +391,7 @@ final class StandardRenderer implements Renderer {
             Long.class
         );
 
-        criteria.getQueryParameters().forEach(countCriteria::addQueryParameter);
+        copyParameters(criteria, countCriteria);
 
         countCriteria.getRoot().alias(criteria.getRoot().getAlias());
 
@@ -162,23 +409,316 @@ final class StandardRenderer implements Renderer {
         return countCriteria;
     }
 
+    /**
+     * Returns the Projection of a leading {@code map(Projection)} operation
+     * that can be rendered as a multiselect of its columns, or else
+     * {@code Optional.empty()}.
+     */
+    @SuppressWarnings("unchecked")
+    private <E> Optional<Projection<E>> tupleProjection(final Pipeline<E> pipeline, final StreamConfiguration<E> streamConfiguration, final Criteria<E, E> criteria) {
+        if (!isProjectable(pipeline, streamConfiguration, criteria)) {
+            return Optional.empty();
+        }
+
+        final IntermediateOperation<?, ?> first = pipeline.intermediateOperations().peekFirst();
+        if (first == null || first.type() != IntermediateOperationType.MAP || first.arguments().length != 1) {
+            return Optional.empty();
+        }
+
+        final Object mapper = first.arguments()[0];
+        if (mapper instanceof Projection && ((Projection<?>) mapper).entityClass().equals(pipeline.root())) {
+            return Optional.of((Projection<E>) mapper);
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Returns the numeric Expression of a leading {@code mapToInt},
+     * {@code mapToLong} or {@code mapToDouble} operation that can be
+     * rendered as the selection of the query, or else {@code Optional.empty()}.
+     */
+    @SuppressWarnings("unchecked")
+    private <E> Optional<Expression<E>> expressionProjection(final Pipeline<E> pipeline, final StreamConfiguration<E> streamConfiguration, final Criteria<E, E> criteria) {
+        if (!isProjectable(pipeline, streamConfiguration, criteria)) {
+            return Optional.empty();
+        }
+
+        final IntermediateOperation<?, ?> first = pipeline.intermediateOperations().peekFirst();
+        if (first == null || first.type() != IntermediateOperationType.MAP_TO || first.arguments().length != 1) {
+            return Optional.empty();
+        }
+
+        final Object mapper = first.arguments()[0];
+        final Class<?> returnType = first.returnType();
+        if ((IntStream.class.equals(returnType) && mapper instanceof ToInt)
+                || (LongStream.class.equals(returnType) && mapper instanceof ToLong)
+                || (DoubleStream.class.equals(returnType) && mapper instanceof ToDouble)) {
+            return Optional.of((Expression<E>) mapper);
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Returns if the selection of the query may be replaced by the
+     * projection of a leading operation.
+     */
+    private <E> boolean isProjectable(final Pipeline<E> pipeline, final StreamConfiguration<E> streamConfiguration, final Criteria<E, E> criteria) {
+        // Fetch joins and entity graphs require the owning entity to be selected, a merged distinct applies to
+        // entities rather than to the projected columns and COUNT is better served by the count query.
+        // Checkpoints are taken from the sort keys of the streamed entities
+        return !streamConfiguration.selections().isPresent()
+                && streamConfiguration.joins().isEmpty()
+                && !streamConfiguration.graph().isPresent()
+                && !streamConfiguration.checkpointing().isPresent()
+                && !criteria.getQuery().isDistinct()
+                && pipeline.terminatingOperation().type() != TerminalOperationType.COUNT;
+    }
+
+    private <E, T, S extends BaseStream<T, S>> RenderResult<E, T, S> renderTuples(
+        final Pipeline<E> pipeline,
+        final StreamConfiguration<E> streamConfiguration,
+        final Criteria<E, E> criteria,
+        final QueryPlan<E> queryPlan,
+        final Projection<E> projection
+    ) {
+        // The projection is applied by the query itself
+        pipeline.intermediateOperations().removeFirst();
+
+        final Criteria<E, Object[]> tupleCriteria = createTupleCriteria(criteria, projection);
+
+        final TypedQuery<Object[]> typedQuery = entityManager.createQuery(tupleCriteria.getQuery());
+
+        bindParameters(typedQuery, tupleCriteria);
+
+        providerDialect.prepare(typedQuery);
+        streamConfiguration.hints().forEach((hintName, value) -> typedQuery.setHint(hintName, value));
+
+        queryPlan.applyTo(typedQuery);
+
+        // Some providers return single column rows unwrapped
+        final Stream<Tuple> baseStream = ((Stream<?>) providerDialect.stream(typedQuery))
+                .map(row -> projection.tuple(row instanceof Object[] ? (Object[]) row : new Object[]{row}));
+        final S replayed = replay(baseStream, pipeline, streamConfiguration, SpillCodec.tuples(projection));
+
+        return new StandardRenderResult<>(
+                pipeline.root(),
+                replayed,
+                pipeline.terminatingOperation()
+        );
+    }
+
+    /**
+     * Renders the pipeline with the provided numeric {@code expression}
+     * selected by the query instead of the entity, or returns
+     * {@code Optional.empty()} if the expression cannot be expressed in
+     * the query.
+     */
+    @SuppressWarnings("unchecked")
+    private <E, T, S extends BaseStream<T, S>> Optional<RenderResult<E, T, S>> renderValues(
+        final Pipeline<E> pipeline,
+        final StreamConfiguration<E> streamConfiguration,
+        final Criteria<E, E> criteria,
+        final QueryPlan<E> queryPlan,
+        final Expression<E> expression
+    ) {
+        final Criteria<E, Number> valueCriteria = createDerivedCriteria(criteria, Number.class);
+
+        final jakarta.persistence.criteria.Expression<? extends Number> selection;
+        try {
+            selection = expressionFactory.createExpression(valueCriteria, expression);
+        } catch (JPAStreamerException e) {
+            // The expression is applied by the replayed operation instead
+            return Optional.empty();
+        }
+
+        valueCriteria.getQuery().select(selection);
+
+        // The mapping is applied by the query itself
+        final Class<?> returnType = pipeline.intermediateOperations().removeFirst().returnType();
+
+        final TypedQuery<Number> typedQuery = entityManager.createQuery(valueCriteria.getQuery());
+
+        bindParameters(typedQuery, valueCriteria);
+
+        providerDialect.prepare(typedQuery);
+        streamConfiguration.hints().forEach((hintName, value) -> typedQuery.setHint(hintName, value));
+
+        queryPlan.applyTo(typedQuery);
+
+        // Providers may widen the type of arithmetic results
+        final Stream<Number> values = providerDialect.stream(typedQuery);
+        final BaseStream<?, ?> baseStream;
+        if (IntStream.class.equals(returnType)) {
+            baseStream = values.mapToInt(Number::intValue);
+        } else if (LongStream.class.equals(returnType)) {
+            baseStream = values.mapToLong(Number::longValue);
+        } else {
+            baseStream = values.mapToDouble(Number::doubleValue);
+        }
+        final S replayed = replay(baseStream, pipeline, streamConfiguration);
+
+        return Optional.of(new StandardRenderResult<>(
+                pipeline.root(),
+                replayed,
+                pipeline.terminatingOperation()
+        ));
+    }
+
+    private <T> Criteria<T, Object[]> createTupleCriteria(final Criteria<T, T> criteria, final Projection<T> projection) {
+        final Criteria<T, Object[]> tupleCriteria = createDerivedCriteria(criteria, Object[].class);
+
+        final Selection<?>[] columns = projection.fields().stream()
+                .map(field -> tupleCriteria.getRoot().get(field.columnName()))
+                .toArray(Selection[]::new);
+
+        tupleCriteria.getQuery().multiselect(columns);
+
+        return tupleCriteria;
+    }
+
+    /**
+     * Returns new criteria with the provided {@code resultType} that has the
+     * restriction, order and parameters of the provided {@code criteria} but
+     * no selection.
+     */
+    private <T, R> Criteria<T, R> createDerivedCriteria(final Criteria<T, T> criteria, final Class<R> resultType) {
+        final CriteriaQuery<T> criteriaQuery = criteria.getQuery();
+
+        final Criteria<T, R> derivedCriteria = criteriaFactory.createCriteria(
+            entityManager,
+            criteriaQuery.getResultType(),
+            resultType
+        );
+
+        copyParameters(criteria, derivedCriteria);
+
+        derivedCriteria.getRoot().alias(criteria.getRoot().getAlias());
+
+        final CriteriaQuery<R> derivedQuery = derivedCriteria.getQuery();
+
+        if (criteriaQuery.getRestriction() != null) {
+            derivedQuery.where(criteriaQuery.getRestriction());
+        }
+
+        derivedQuery.distinct(criteriaQuery.isDistinct());
+        derivedQuery.orderBy(criteriaQuery.getOrderList());
+
+        return derivedCriteria;
+    }
+
+    /**
+     * Returns the query hints of the provided {@code streamConfiguration}
+     * including the hint that applies its entity graph, if any.
+     */
+    private <E> Map<String, Object> hints(final EntityManager entityManager, final StreamConfiguration<E> streamConfiguration) {
+        final Optional<GraphConfiguration<E>> oGraph = streamConfiguration.graph();
+        if (!oGraph.isPresent()) {
+            return streamConfiguration.hints();
+        }
+
+        final GraphConfiguration<E> graph = oGraph.get();
+        final Object entityGraph = graph.entityGraph().isPresent()
+                ? graph.entityGraph().get()
+                : entityGraph(entityManager, graph.fieldGraph().orElseThrow(IllegalStateException::new));
+
+        final Map<String, Object> hints = new HashMap<>(streamConfiguration.hints());
+        hints.put(graph.type().hintName(), entityGraph);
+        return hints;
+    }
+
+    private <E> EntityGraph<E> entityGraph(final EntityManager entityManager, final FieldGraph<E> fieldGraph) {
+        final EntityGraph<E> entityGraph = entityManager.createEntityGraph(fieldGraph.entityClass());
+        addNodes(fieldGraph, name -> entityGraph.addAttributeNodes(name), name -> entityGraph.addSubgraph(name));
+        return entityGraph;
+    }
+
+    private void addNodes(final FieldGraph<?> fieldGraph, final Consumer<String> attributeNodeAdder, final Function<String, Subgraph<?>> subgraphAdder) {
+        for (final Field<?> field : fieldGraph.fields()) {
+            final FieldGraph<?> subgraph = fieldGraph.subgraphs().get(field);
+            if (subgraph == null) {
+                attributeNodeAdder.accept(field.columnName());
+            } else {
+                final Subgraph<?> node = subgraphAdder.apply(field.columnName());
+                addNodes(subgraph, name -> node.addAttributeNodes(name), name -> node.addSubgraph(name));
+            }
+        }
+    }
+
+    private <T, S extends BaseStream<T, S>> S replay(final BaseStream<?, ?> stream, final Pipeline<?> pipeline, final StreamConfiguration<?> streamConfiguration) {
+        final SpillCodec<?> codec = streamConfiguration.selections()
+                .<SpillCodec<?>>map(SpillCodec::constructed)
+                .orElseGet(SpillCodec::serializing);
+        return replay(stream, pipeline, streamConfiguration, codec);
+    }
+
+    /**
+     * Replays the residual operations of the provided {@code pipeline} on
+     * the provided {@code stream}, whereby spilled elements of the stream
+     * are initially written by the provided {@code codec}.
+     */
     @SuppressWarnings({"rawtypes", "unchecked"})
-    private <E, T, S extends BaseStream<T, S>> S replay(final Stream<E> stream, final Pipeline<E> pipeline) {
-        return pipeline.intermediateOperations().stream()
-                .sequential()
-                .reduce(
-                        (S) stream,
-                        (S s, IntermediateOperation io) -> (S) io.function().apply(s),
-                        (a, b) -> a
-                );
+    private <T, S extends BaseStream<T, S>> S replay(final BaseStream<?, ?> stream, final Pipeline<?> pipeline, final StreamConfiguration<?> streamConfiguration, final SpillCodec<?> codec) {
+        final OptionalInt spillThreshold = streamConfiguration.spillThreshold();
+        BaseStream<?, ?> replayed = stream;
+        SpillCodec<?> elementCodec = codec;
+        for (IntermediateOperation<?, ?> operation : pipeline.intermediateOperations()) {
+            replayed = (BaseStream<?, ?>) operationFunction(operation, spillThreshold, elementCodec).apply(replayed);
+            elementCodec = elementCodec(operation, elementCodec);
+        }
+        return (S) replayed;
+    }
 
-        /*
-        S decorated = (S) stream;
-        for (IntermediateOperation intermediateOperation : pipeline.intermediateOperations()) {
-            decorated = (S) intermediateOperation.function().apply(decorated);
+    /**
+     * Returns the codec for spilled elements of the stream that the provided
+     * {@code operation} returns, given the {@code codec} for the elements it
+     * consumes.
+     */
+    private SpillCodec<?> elementCodec(final IntermediateOperation<?, ?> operation, final SpillCodec<?> codec) {
+        if (operation.type() == IntermediateOperationType.MAP
+                && operation.arguments().length == 1
+                && operation.arguments()[0] instanceof Projection) {
+            return SpillCodec.tuples((Projection<?>) operation.arguments()[0]);
+        }
+        return operation.type().statements().contains(Statement.PRESERVES_TYPE)
+                ? codec
+                : SpillCodec.serializing();
+    }
+
+    /**
+     * Returns the function to replay the provided residual {@code operation}
+     * with, whereby sorted() and distinct() operations, as well as top-k
+     * operations retaining more elements than the spill threshold, are
+     * replaced by spilling variants that write elements by the provided
+     * {@code codec} if a spill threshold is configured.
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private Function operationFunction(final IntermediateOperation<?, ?> operation, final OptionalInt spillThreshold, final SpillCodec codec) {
+        if (spillThreshold.isPresent() && Stream.class.equals(operation.streamType())) {
+            final int threshold = spillThreshold.getAsInt();
+            switch (operation.type()) {
+                case SORTED: {
+                    final Comparator comparator = operation.arguments().length == 0 ? null : (Comparator) operation.arguments()[0];
+                    return s -> ExternalSort.sorted((Stream) s, comparator, threshold, codec);
+                }
+                case DISTINCT:
+                    return s -> ExternalSort.distinct((Stream) s, threshold, codec);
+                case TOP_K: {
+                    final Comparator comparator = (Comparator) operation.arguments()[0];
+                    final long skip = (Long) operation.arguments()[1];
+                    final long limit = (Long) operation.arguments()[2];
+                    // The heap of the top-k operation would hold more than the threshold
+                    if (limit > threshold - skip) {
+                        return s -> ExternalSort.sorted((Stream) s, comparator, threshold, codec).skip(skip).limit(limit);
+                    }
+                    break;
+                }
+                default:
+                    break;
+            }
         }
-        return decorated;
-        */
+        return operation.function();
     }
 
     private <T> void optimizePipeline(final Pipeline<T> pipeline) {
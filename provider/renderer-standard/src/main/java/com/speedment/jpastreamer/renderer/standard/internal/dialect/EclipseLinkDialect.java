@@ -0,0 +1,128 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal.dialect;
+
+import com.speedment.jpastreamer.exception.JPAStreamerException;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.TypedQuery;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Streams the results of EclipseLink queries through a {@code CursoredStream}.
+ * The default {@code getResultStream()} of EclipseLink materializes the
+ * entire result list before the first element is returned. EclipseLink is
+ * accessed reflectively so that it is not required by the other providers.
+ */
+final class EclipseLinkDialect implements ProviderDialect {
+
+    private static final String ENTITY_MANAGER_FACTORY = "org.eclipse.persistence.jpa.JpaEntityManagerFactory";
+    private static final String CURSOR = "org.eclipse.persistence.queries.Cursor";
+
+    private static final String CURSOR_HINT = "eclipselink.cursor";
+    private static final String PAGE_SIZE_HINT = "eclipselink.cursor.page-size";
+    private static final String FETCH_SIZE_HINT = "eclipselink.jdbc.fetch-size";
+    private static final String READ_ONLY_HINT = "eclipselink.read-only";
+
+    private final int fetchSize;
+    private final boolean readOnly;
+    private final int timeout;
+
+    private final Method close;
+
+    private EclipseLinkDialect(
+        final int fetchSize,
+        final boolean readOnly,
+        final int timeout,
+        final Method close
+    ) {
+        this.fetchSize = fetchSize;
+        this.readOnly = readOnly;
+        this.timeout = timeout;
+        this.close = close;
+    }
+
+    @Override
+    public void prepare(final TypedQuery<?> query) {
+        if (fetchSize > 0) {
+            query.setHint(FETCH_SIZE_HINT, fetchSize);
+            query.setHint(PAGE_SIZE_HINT, fetchSize);
+        }
+        if (readOnly) {
+            query.setHint(READ_ONLY_HINT, true);
+        }
+        if (timeout > 0) {
+            query.setHint(ProviderDialects.TIMEOUT_HINT, timeout);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Stream<T> stream(final TypedQuery<T> query) {
+        query.setHint(CURSOR_HINT, true);
+
+        // With the cursor hint, the single result is the cursor over all results
+        final Object cursor = query.getSingleResult();
+        if (!(cursor instanceof Iterator)) {
+            close(cursor);
+            throw new JPAStreamerException("Expected a cursor but got [" + cursor + "]");
+        }
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize((Iterator<T>) cursor, Spliterator.ORDERED), false)
+            .onClose(() -> close(cursor));
+    }
+
+    private void close(final Object cursor) {
+        if (!close.getDeclaringClass().isInstance(cursor)) {
+            return;
+        }
+        try {
+            close.invoke(cursor);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new JPAStreamerException(e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new JPAStreamerException(e);
+        }
+    }
+
+    static Optional<ProviderDialect> create(
+        final EntityManagerFactory entityManagerFactory,
+        final ProviderDialects.ClassResolver classResolver,
+        final int fetchSize,
+        final boolean readOnly,
+        final int timeout
+    ) {
+        final Optional<Class<?>> entityManagerFactoryClass = ProviderDialects.unwrappable(entityManagerFactory, classResolver, ENTITY_MANAGER_FACTORY);
+        if (!entityManagerFactoryClass.isPresent()) {
+            return Optional.empty();
+        }
+
+        try {
+            final Class<?> cursorClass = classResolver.resolve(CURSOR);
+            return Optional.of(new EclipseLinkDialect(fetchSize, readOnly, timeout, cursorClass.getMethod("close")));
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return Optional.empty();
+        }
+    }
+}
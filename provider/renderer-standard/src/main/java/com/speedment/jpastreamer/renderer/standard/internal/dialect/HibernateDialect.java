@@ -0,0 +1,229 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal.dialect;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.exception.JPAStreamerException;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaQuery;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Streams the results of Hibernate queries through forward-only
+ * {@code ScrollableResults}, so that no more than a fetch of rows is held
+ * in memory regardless of how {@code getResultStream()} is implemented.
+ * Streams without a persistence context are queried by a
+ * {@code StatelessSession} of their own. Hibernate is accessed
+ * reflectively so that it is not required by the other providers.
+ */
+final class HibernateDialect implements ProviderDialect {
+
+    private static final String SESSION_FACTORY = "org.hibernate.SessionFactory";
+    private static final String QUERY = "org.hibernate.query.Query";
+    private static final String SCROLL_MODE = "org.hibernate.ScrollMode";
+    private static final String SCROLLABLE_RESULTS = "org.hibernate.ScrollableResults";
+    private static final String STATELESS_SESSION = "org.hibernate.StatelessSession";
+
+    private static final String FETCH_SIZE_HINT = "org.hibernate.fetchSize";
+    private static final String READ_ONLY_HINT = "org.hibernate.readOnly";
+
+    private final int fetchSize;
+    private final boolean readOnly;
+    private final int timeout;
+
+    private final Class<?> queryClass;
+    private final Object forwardOnly;
+    private final Method scroll;
+    private final Method next;
+    private final Method get;
+    private final Method close;
+
+    private final Class<?> sessionFactoryClass;
+    private final Method openStatelessSession;
+    private final Method createQuery;
+    private final Method closeSession;
+
+    private HibernateDialect(
+        final int fetchSize,
+        final boolean readOnly,
+        final int timeout,
+        final Class<?> queryClass,
+        final Object forwardOnly,
+        final Method scroll,
+        final Method next,
+        final Method get,
+        final Method close,
+        final Class<?> sessionFactoryClass,
+        final Method openStatelessSession,
+        final Method createQuery,
+        final Method closeSession
+    ) {
+        this.fetchSize = fetchSize;
+        this.readOnly = readOnly;
+        this.timeout = timeout;
+        this.queryClass = requireNonNull(queryClass);
+        this.forwardOnly = requireNonNull(forwardOnly);
+        this.scroll = requireNonNull(scroll);
+        this.next = requireNonNull(next);
+        this.get = requireNonNull(get);
+        this.close = requireNonNull(close);
+        this.sessionFactoryClass = requireNonNull(sessionFactoryClass);
+        this.openStatelessSession = requireNonNull(openStatelessSession);
+        this.createQuery = requireNonNull(createQuery);
+        this.closeSession = requireNonNull(closeSession);
+    }
+
+    @Override
+    public void prepare(final TypedQuery<?> query) {
+        if (fetchSize > 0) {
+            query.setHint(FETCH_SIZE_HINT, fetchSize);
+        }
+        if (readOnly) {
+            query.setHint(READ_ONLY_HINT, true);
+        }
+        if (timeout > 0) {
+            query.setHint(ProviderDialects.TIMEOUT_HINT, timeout);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Stream<T> stream(final TypedQuery<T> query) {
+        final Object results = invoke(scroll, query.unwrap(queryClass), forwardOnly);
+
+        final Iterator<T> iterator = new Iterator<T>() {
+
+            private Boolean hasNext;
+
+            @Override
+            public boolean hasNext() {
+                if (hasNext == null) {
+                    hasNext = (Boolean) invoke(next, results);
+                }
+                return hasNext;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                hasNext = null;
+                return (T) invoke(get, results);
+            }
+        };
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false)
+            .onClose(() -> invoke(close, results));
+    }
+
+    @Override
+    public boolean supportsStateless() {
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Stream<T> streamStateless(
+        final EntityManager entityManager,
+        final CriteriaQuery<T> criteriaQuery,
+        final Consumer<? super TypedQuery<T>> configurer
+    ) {
+        // The session factory is looked up per stream as the dialect must not reference it
+        final Object sessionFactory = entityManager.getEntityManagerFactory().unwrap(sessionFactoryClass);
+        final Object statelessSession = invoke(openStatelessSession, sessionFactory);
+        try {
+            final TypedQuery<T> query = (TypedQuery<T>) invoke(createQuery, statelessSession, criteriaQuery);
+            prepare(query);
+            configurer.accept(query);
+            return stream(query).onClose(() -> invoke(closeSession, statelessSession));
+        } catch (RuntimeException e) {
+            invoke(closeSession, statelessSession);
+            throw e;
+        }
+    }
+
+    static Optional<ProviderDialect> create(
+        final EntityManagerFactory entityManagerFactory,
+        final ProviderDialects.ClassResolver classResolver,
+        final int fetchSize,
+        final boolean readOnly,
+        final int timeout
+    ) {
+        final Optional<Class<?>> sessionFactoryClass = ProviderDialects.unwrappable(entityManagerFactory, classResolver, SESSION_FACTORY);
+        if (!sessionFactoryClass.isPresent()) {
+            return Optional.empty();
+        }
+
+        try {
+            final Class<?> queryClass = classResolver.resolve(QUERY);
+            final Class<?> scrollModeClass = classResolver.resolve(SCROLL_MODE);
+            @SuppressWarnings({"unchecked", "rawtypes"})
+            final Object forwardOnly = Enum.valueOf((Class<Enum>) scrollModeClass, "FORWARD_ONLY");
+            final Class<?> scrollableResultsClass = classResolver.resolve(SCROLLABLE_RESULTS);
+            final Method get = scrollableResultsClass.getMethod("get");
+            final Class<?> statelessSessionClass = classResolver.resolve(STATELESS_SESSION);
+
+            // Before Hibernate 6, each result is a row that has to be unwrapped and
+            // getResultStream() is already backed by a forward-only scroll
+            if (get.getReturnType().isArray()) {
+                return Optional.empty();
+            }
+
+            return Optional.of(new HibernateDialect(
+                fetchSize,
+                readOnly,
+                timeout,
+                queryClass,
+                forwardOnly,
+                queryClass.getMethod("scroll", scrollModeClass),
+                scrollableResultsClass.getMethod("next"),
+                get,
+                scrollableResultsClass.getMethod("close"),
+                sessionFactoryClass.get(),
+                sessionFactoryClass.get().getMethod("openStatelessSession"),
+                statelessSessionClass.getMethod("createQuery", CriteriaQuery.class),
+                statelessSessionClass.getMethod("close")
+            ));
+        } catch (ReflectiveOperationException | LinkageError | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static Object invoke(final Method method, final Object target, final Object... arguments) {
+        try {
+            return method.invoke(target, arguments);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new JPAStreamerException(e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new JPAStreamerException(e);
+        }
+    }
+}
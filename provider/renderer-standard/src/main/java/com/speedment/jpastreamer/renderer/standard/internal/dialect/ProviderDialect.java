@@ -0,0 +1,78 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal.dialect;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaQuery;
+
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Executes the queries of a renderer with the mechanisms of a particular
+ * persistence provider.
+ */
+public interface ProviderDialect {
+
+    /**
+     * Applies the settings of the provider that make the provided
+     * {@code query} cheaper to stream. Hints set afterwards take
+     * precedence.
+     *
+     * @param query to prepare
+     */
+    void prepare(final TypedQuery<?> query);
+
+    /**
+     * Returns a stream of the results of the provided {@code query}. The
+     * stream must be closed to release the resources of the query.
+     *
+     * @param query to execute
+     * @param <T> type of the results
+     * @return a stream of the results
+     */
+    <T> Stream<T> stream(final TypedQuery<T> query);
+
+    /**
+     * Returns if the provider can stream the results of queries without a
+     * persistence context.
+     *
+     * @return if the provider can stream the results of queries without a
+     * persistence context
+     */
+    default boolean supportsStateless() {
+        return false;
+    }
+
+    /**
+     * Returns a stream of the results of the provided {@code criteriaQuery}
+     * executed without a persistence context, e.g. by a Hibernate
+     * {@code StatelessSession} that is closed with the stream.
+     *
+     * @param entityManager of the persistence unit
+     * @param criteriaQuery to execute
+     * @param configurer that sets the parameters and hints of the query
+     * @param <T> type of the results
+     * @return a stream of the results
+     * @throws UnsupportedOperationException if the provider does not
+     * {@link #supportsStateless() support} this
+     */
+    default <T> Stream<T> streamStateless(
+        final EntityManager entityManager,
+        final CriteriaQuery<T> criteriaQuery,
+        final Consumer<? super TypedQuery<T>> configurer
+    ) {
+        throw new UnsupportedOperationException();
+    }
+}
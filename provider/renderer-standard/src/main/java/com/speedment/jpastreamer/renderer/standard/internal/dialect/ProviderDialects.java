@@ -0,0 +1,149 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal.dialect;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.TypedQuery;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Selects the {@link ProviderDialect} of a persistence unit by unwrapping
+ * its {@code EntityManagerFactory}. The dialects are configured with the
+ * system properties:
+ * <ul>
+ *     <li>{@value #FETCH_SIZE_PROPERTY} - the number of rows fetched per round trip, 100 by default</li>
+ *     <li>{@value #READ_ONLY_PROPERTY} - if streamed entities are loaded read-only, which skips
+ *     their dirty checking, {@code false} by default</li>
+ *     <li>{@value #TIMEOUT_PROPERTY} - the statement timeout in milliseconds, none by default</li>
+ * </ul>
+ */
+public final class ProviderDialects {
+
+    public static final String FETCH_SIZE_PROPERTY = "jpastreamer.renderer.fetchsize";
+    public static final String READ_ONLY_PROPERTY = "jpastreamer.renderer.readonly";
+    public static final String TIMEOUT_PROPERTY = "jpastreamer.renderer.timeout";
+
+    static final String TIMEOUT_HINT = "jakarta.persistence.query.timeout";
+
+    private static final ProviderDialect STANDARD = new StandardDialect(Integer.getInteger(TIMEOUT_PROPERTY, 0));
+
+    private static final Map<EntityManagerFactory, ProviderDialect> DIALECTS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private ProviderDialects() {}
+
+    /**
+     * Returns the dialect of the persistence unit of the provided
+     * {@code entityManager}, or a dialect using only the Jakarta
+     * Persistence API if the provider has no dialect.
+     *
+     * @param entityManager of the persistence unit
+     * @return the dialect of the persistence unit
+     */
+    public static ProviderDialect resolve(final EntityManager entityManager) {
+        if (entityManager == null || entityManager.getEntityManagerFactory() == null) {
+            return STANDARD;
+        }
+        return DIALECTS.computeIfAbsent(
+            entityManager.getEntityManagerFactory(),
+            entityManagerFactory -> create(entityManagerFactory, classResolver(entityManagerFactory))
+        );
+    }
+
+    /**
+     * Returns the dialect of the provider of the provided
+     * {@code entityManagerFactory}, whose classes are looked up by the
+     * provided {@code classResolver}.
+     */
+    static ProviderDialect create(final EntityManagerFactory entityManagerFactory, final ClassResolver classResolver) {
+        final int fetchSize = Integer.getInteger(FETCH_SIZE_PROPERTY, 100);
+        final boolean readOnly = Boolean.getBoolean(READ_ONLY_PROPERTY);
+        final int timeout = Integer.getInteger(TIMEOUT_PROPERTY, 0);
+
+        final Optional<ProviderDialect> hibernate = HibernateDialect.create(entityManagerFactory, classResolver, fetchSize, readOnly, timeout);
+        if (hibernate.isPresent()) {
+            return hibernate.get();
+        }
+        final Optional<ProviderDialect> eclipseLink = EclipseLinkDialect.create(entityManagerFactory, classResolver, fetchSize, readOnly, timeout);
+        if (eclipseLink.isPresent()) {
+            return eclipseLink.get();
+        }
+        return STANDARD;
+    }
+
+    /**
+     * Returns a resolver of the classes that are visible to the class loader
+     * of the provided {@code entityManagerFactory}.
+     */
+    static ClassResolver classResolver(final EntityManagerFactory entityManagerFactory) {
+        final ClassLoader classLoader = entityManagerFactory.getClass().getClassLoader();
+        return className -> Class.forName(className, false, classLoader);
+    }
+
+    /**
+     * Returns if the provided {@code entityManagerFactory} can be unwrapped
+     * to the class with the provided {@code className}, which is looked up
+     * by the provided {@code classResolver}.
+     */
+    static Optional<Class<?>> unwrappable(final EntityManagerFactory entityManagerFactory, final ClassResolver classResolver, final String className) {
+        final Class<?> clazz;
+        try {
+            clazz = classResolver.resolve(className);
+        } catch (ClassNotFoundException | LinkageError e) {
+            return Optional.empty();
+        }
+        try {
+            entityManagerFactory.unwrap(clazz);
+            return Optional.of(clazz);
+        } catch (RuntimeException e) {
+            // The factory belongs to another provider
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Looks up the classes of a provider by name, so that the provider is
+     * not required at compile time.
+     */
+    @FunctionalInterface
+    interface ClassResolver {
+
+        Class<?> resolve(final String className) throws ClassNotFoundException;
+    }
+
+    private static final class StandardDialect implements ProviderDialect {
+
+        private final int timeout;
+
+        private StandardDialect(final int timeout) {
+            this.timeout = timeout;
+        }
+
+        @Override
+        public void prepare(final TypedQuery<?> query) {
+            if (timeout > 0) {
+                query.setHint(TIMEOUT_HINT, timeout);
+            }
+        }
+
+        @Override
+        public <T> Stream<T> stream(final TypedQuery<T> query) {
+            return query.getResultStream();
+        }
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal.singleflight;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.field.Field;
+import com.speedment.jpastreamer.field.comparator.CombinedComparator;
+import com.speedment.jpastreamer.field.comparator.FieldComparator;
+import com.speedment.jpastreamer.field.predicate.CombinedPredicate;
+import com.speedment.jpastreamer.field.predicate.FieldPredicate;
+import com.speedment.jpastreamer.field.predicate.trait.HasInclusion;
+import com.speedment.jpastreamer.field.trait.HasArg0;
+import com.speedment.jpastreamer.field.trait.HasArg1;
+import com.speedment.jpastreamer.field.trait.HasArg2;
+import com.speedment.jpastreamer.pipeline.Pipeline;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperation;
+import com.speedment.jpastreamer.projection.Projection;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Creates the keys by which {@link SingleFlight} identifies queries.
+ * <p>
+ * A key holds the configuration of a stream and the operations that are
+ * rendered to the query, where predicates and comparators are described
+ * by their fields, types and the values that they compare to. Operations
+ * whose arguments cannot be described by value, such as lambdas and
+ * expressions, yield no key as two of them cannot be told apart.
+ */
+public final class QueryKey {
+
+    private static final Object UNKNOWN = new Object();
+
+    private QueryKey() {}
+
+    /**
+     * Returns the key of the query of the provided {@code pipeline}, or
+     * {@link Optional#empty()} if the query cannot be described by value.
+     *
+     * @param streamConfiguration of the stream
+     * @param stateless if the query is executed without a persistence context
+     * @param operations the intermediate operations of the pipeline before
+     *                   they were rendered to the query
+     * @param pipeline the pipeline holding the operations that were not
+     *                 rendered to the query
+     * @return the key of the query, if it can be described by value
+     */
+    public static Optional<Object> of(
+        final StreamConfiguration<?> streamConfiguration,
+        final boolean stateless,
+        final List<IntermediateOperation<?, ?>> operations,
+        final Pipeline<?> pipeline
+    ) {
+        requireNonNull(streamConfiguration);
+        requireNonNull(operations);
+        requireNonNull(pipeline);
+
+        final Set<IntermediateOperation<?, ?>> residual = Collections.newSetFromMap(new IdentityHashMap<>());
+        residual.addAll(pipeline.intermediateOperations());
+
+        final List<Object> rendered = new ArrayList<>();
+        for (final IntermediateOperation<?, ?> operation : operations) {
+            if (residual.contains(operation)) {
+                continue;
+            }
+            final Object arguments = describe(operation.arguments() == null ? Collections.emptyList() : Arrays.asList(operation.arguments()));
+            if (arguments == UNKNOWN) {
+                return Optional.empty();
+            }
+            rendered.add(Arrays.asList(operation.type(), operation.streamType(), arguments));
+        }
+
+        final Object selections = streamConfiguration.selections().map(QueryKey::describe).orElse(null);
+        return Optional.of(Arrays.asList(
+            streamConfiguration.entityClass(),
+            selections,
+            streamConfiguration.joins(),
+            streamConfiguration.graph(),
+            streamConfiguration.hints(),
+            stateless,
+            rendered
+        ));
+    }
+
+    private static Object describe(final Projection<?> projection) {
+        final List<Object> fields = new ArrayList<>();
+        projection.fields().forEach(field -> fields.add(describe(field)));
+        return Arrays.asList(projection.entityClass(), fields);
+    }
+
+    private static Object describe(final Field<?> field) {
+        return Arrays.asList(field.table(), field.columnName());
+    }
+
+    private static Object describe(final Object argument) {
+        if (argument == null
+            || argument instanceof Number
+            || argument instanceof String
+            || argument instanceof Boolean
+            || argument instanceof Character
+            || argument instanceof Enum) {
+            return argument;
+        }
+        if (argument instanceof Collection) {
+            final Collection<Object> described = argument instanceof Set ? new HashSet<>() : new ArrayList<>();
+            for (final Object element : (Collection<?>) argument) {
+                final Object description = describe(element);
+                if (description == UNKNOWN) {
+                    return UNKNOWN;
+                }
+                described.add(description);
+            }
+            return described;
+        }
+        if (argument instanceof FieldPredicate) {
+            final FieldPredicate<?> predicate = (FieldPredicate<?>) argument;
+            final List<Object> arguments = new ArrayList<>();
+            if (argument instanceof HasArg0) {
+                arguments.add(((HasArg0<?>) argument).get0());
+            }
+            if (argument instanceof HasArg1) {
+                arguments.add(((HasArg1<?>) argument).get1());
+            }
+            if (argument instanceof HasArg2) {
+                arguments.add(((HasArg2<?>) argument).get2());
+            }
+            if (argument instanceof HasInclusion) {
+                arguments.add(((HasInclusion) argument).getInclusion());
+            }
+            final Object described = describe(arguments);
+            return described == UNKNOWN
+                ? UNKNOWN
+                : Arrays.asList(FieldPredicate.class, describe(predicate.getField()), predicate.getPredicateType(), described);
+        }
+        if (argument instanceof CombinedPredicate) {
+            final CombinedPredicate<?> predicate = (CombinedPredicate<?>) argument;
+            final List<Object> predicates = new ArrayList<>();
+            predicate.stream().forEach(predicates::add);
+            final Object described = describe(predicates);
+            return described == UNKNOWN ? UNKNOWN : Arrays.asList(CombinedPredicate.class, predicate.getType(), described);
+        }
+        if (argument instanceof FieldComparator) {
+            final FieldComparator<?> comparator = (FieldComparator<?>) argument;
+            return Arrays.asList(FieldComparator.class, describe(comparator.getField()), comparator.isReversed(), comparator.getNullOrder());
+        }
+        if (argument instanceof CombinedComparator) {
+            final List<Object> comparators = new ArrayList<>();
+            ((CombinedComparator<?>) argument).stream().forEach(comparators::add);
+            final Object described = describe(comparators);
+            return described == UNKNOWN ? UNKNOWN : Arrays.asList(CombinedComparator.class, described);
+        }
+        return UNKNOWN;
+    }
+}
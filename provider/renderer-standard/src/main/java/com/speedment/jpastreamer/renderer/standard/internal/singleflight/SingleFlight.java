@@ -0,0 +1,154 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal.singleflight;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.exception.JPAStreamerException;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Coalesces identical queries of a persistence unit that are executed
+ * concurrently.
+ * <p>
+ * The first stream of a query executes it and reads its results, while
+ * streams of the same query that start in the meantime wait for and share
+ * these results. Once the results are read, the query is no longer in
+ * flight and the next stream executes it again. If the results exceed the
+ * maximum number of shared results, the first stream streams them as
+ * usual and the waiting streams execute the query themselves.
+ */
+public final class SingleFlight {
+
+    private static final Map<EntityManagerFactory, SingleFlight> FLIGHTS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final Map<Object, CompletableFuture<List<?>>> flights;
+
+    private SingleFlight() {
+        this.flights = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Returns the SingleFlight of the provided {@code entityManagerFactory}.
+     *
+     * @param entityManagerFactory of the persistence unit
+     * @return the SingleFlight of the provided {@code entityManagerFactory}
+     */
+    public static SingleFlight of(final EntityManagerFactory entityManagerFactory) {
+        requireNonNull(entityManagerFactory);
+        return FLIGHTS.computeIfAbsent(entityManagerFactory, emf -> new SingleFlight());
+    }
+
+    /**
+     * Returns a Stream of the results of the query with the provided
+     * {@code key}, which is executed by the provided {@code query} unless
+     * the same query is already in flight.
+     *
+     * @param key identifying the query
+     * @param maxResults the maximum number of results to share
+     * @param query executing the query
+     * @param <T> the result type
+     * @return a Stream of the results of the query
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Stream<T> stream(final Object key, final int maxResults, final Supplier<Stream<T>> query) {
+        requireNonNull(key);
+        requireNonNull(query);
+
+        final CompletableFuture<List<?>> flight = new CompletableFuture<>();
+        final CompletableFuture<List<?>> inFlight = flights.putIfAbsent(key, flight);
+        if (inFlight != null) {
+            final List<T> results = (List<T>) await(inFlight);
+            return results == null ? query.get() : results.stream();
+        }
+
+        final Stream<T> stream;
+        try {
+            stream = query.get();
+        } catch (RuntimeException | Error e) {
+            fail(key, flight, e);
+            throw e;
+        }
+        final Iterator<T> iterator = stream.iterator();
+        final List<T> results = new ArrayList<>();
+        try {
+            // One result more than can be shared tells that the results are too many
+            while (results.size() <= maxResults && iterator.hasNext()) {
+                results.add(iterator.next());
+            }
+        } catch (RuntimeException | Error e) {
+            fail(key, flight, e);
+            stream.close();
+            throw e;
+        }
+
+        if (results.size() <= maxResults) {
+            flights.remove(key, flight);
+            stream.close();
+            final List<T> shared = Collections.unmodifiableList(results);
+            flight.complete(shared);
+            return shared.stream();
+        }
+
+        // Too many results to share, the waiting streams execute the query themselves
+        flights.remove(key, flight);
+        flight.complete(null);
+        final Iterator<T> remaining = new Iterator<T>() {
+            private final Iterator<T> read = results.iterator();
+
+            @Override
+            public boolean hasNext() {
+                return read.hasNext() || iterator.hasNext();
+            }
+
+            @Override
+            public T next() {
+                return read.hasNext() ? read.next() : iterator.next();
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(remaining, Spliterator.ORDERED), false)
+            .onClose(stream::close);
+    }
+
+    private void fail(final Object key, final CompletableFuture<List<?>> flight, final Throwable failure) {
+        flights.remove(key, flight);
+        flight.completeExceptionally(failure);
+    }
+
+    private static List<?> await(final CompletableFuture<List<?>> flight) {
+        try {
+            return flight.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JPAStreamerException("Interrupted while waiting for a coalesced query", e);
+        } catch (ExecutionException e) {
+            throw new JPAStreamerException("The coalesced query failed", e.getCause());
+        }
+    }
+}
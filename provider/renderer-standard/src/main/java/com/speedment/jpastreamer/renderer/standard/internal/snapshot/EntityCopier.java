@@ -0,0 +1,116 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal.snapshot;
+
+import com.speedment.jpastreamer.exception.JPAStreamerException;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Creates shallow copies of entities, so that every stream of a
+ * {@link Snapshot} is served entities of its own.
+ * <p>
+ * A copy is created by the no-argument constructor that JPA requires of
+ * entity classes, after which the instance fields of the entity class and
+ * its superclasses are copied. Referenced objects, such as associated
+ * entities and collections, are shared with the original entity. Synthetic
+ * fields and the fields added by bytecode enhancement of the provider,
+ * which tie an entity to its persistence context, are not copied.
+ * <p>
+ * The fields are accessed reflectively, so in a modular application the
+ * package of the entity class must be open to this module.
+ */
+final class EntityCopier {
+
+    private static final ClassValue<EntityCopier> COPIERS = new ClassValue<EntityCopier>() {
+        @Override
+        protected EntityCopier computeValue(final Class<?> type) {
+            return new EntityCopier(type);
+        }
+    };
+
+    // Prefixes of the fields added by Hibernate enhancement and EclipseLink weaving respectively
+    private static final String[] ENHANCEMENT_PREFIXES = {"$$_hibernate_", "_persistence_"};
+
+    private final Constructor<?> constructor;
+    private final Field[] fields;
+
+    private EntityCopier(final Class<?> entityClass) {
+        try {
+            this.constructor = entityClass.getDeclaredConstructor();
+        } catch (NoSuchMethodException e) {
+            throw new JPAStreamerException("Unable to copy " + entityClass.getSimpleName() + " of a snapshot as it has no constructor without parameters", e);
+        }
+        final List<Field> instanceFields = new ArrayList<>();
+        for (Class<?> type = entityClass; type != null && type != Object.class; type = type.getSuperclass()) {
+            for (final Field field : type.getDeclaredFields()) {
+                if (isCopied(field)) {
+                    instanceFields.add(field);
+                }
+            }
+        }
+        this.fields = instanceFields.toArray(new Field[0]);
+
+        try {
+            constructor.setAccessible(true);
+            for (final Field field : fields) {
+                field.setAccessible(true);
+            }
+        } catch (RuntimeException e) {
+            // InaccessibleObjectException, which is not available in Java 8
+            throw new JPAStreamerException("Unable to copy " + entityClass.getSimpleName() + " of a snapshot as its package " +
+                "is not open to JPAStreamer", e);
+        }
+    }
+
+    private static boolean isCopied(final Field field) {
+        if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()) {
+            return false;
+        }
+        for (final String prefix : ENHANCEMENT_PREFIXES) {
+            if (field.getName().startsWith(prefix)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a shallow copy of the provided {@code entity}.
+     *
+     * @param <E> the entity type
+     * @param entity to copy
+     * @return a shallow copy of the provided {@code entity}
+     */
+    @SuppressWarnings("unchecked")
+    static <E> E copy(final E entity) {
+        return (E) COPIERS.get(entity.getClass()).copyOf(entity);
+    }
+
+    private Object copyOf(final Object entity) {
+        try {
+            final Object copy = constructor.newInstance();
+            for (final Field field : fields) {
+                field.set(copy, field.get(entity));
+            }
+            return copy;
+        } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+            throw new JPAStreamerException("Unable to copy " + entity.getClass().getSimpleName() + " of a snapshot", e);
+        }
+    }
+}
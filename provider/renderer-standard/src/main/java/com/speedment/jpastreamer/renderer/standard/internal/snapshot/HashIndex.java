@@ -0,0 +1,72 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal.snapshot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * An index of the positions of the entities of a {@link Snapshot} by the
+ * value of a field, which serves {@code EQUAL} and {@code IN} predicates.
+ * <p>
+ * Values are matched by {@code equals}, just like the predicates do, which
+ * includes {@code null} values.
+ */
+final class HashIndex {
+
+    private static final int[] NONE = new int[0];
+
+    private final Map<Object, int[]> positions;
+
+    private HashIndex(final Map<Object, int[]> positions) {
+        this.positions = positions;
+    }
+
+    static HashIndex of(final Object[] entities, final Function<Object, Object> getter) {
+        final Map<Object, List<Integer>> builder = new HashMap<>();
+        for (int i = 0; i < entities.length; i++) {
+            builder.computeIfAbsent(getter.apply(entities[i]), value -> new ArrayList<>()).add(i);
+        }
+        final Map<Object, int[]> positions = new HashMap<>(builder.size() * 4 / 3 + 1);
+        builder.forEach((value, list) -> positions.put(value, list.stream().mapToInt(Integer::intValue).toArray()));
+        return new HashIndex(positions);
+    }
+
+    /**
+     * Returns the ascending positions of the entities whose value equals
+     * any of the provided {@code values}.
+     */
+    int[] lookup(final Collection<?> values) {
+        if (values.size() == 1) {
+            return positions.getOrDefault(values.iterator().next(), NONE);
+        }
+        int[] result = NONE;
+        int size = 0;
+        for (final Object value : values) {
+            final int[] matches = positions.getOrDefault(value, NONE);
+            if (size + matches.length > result.length) {
+                result = Arrays.copyOf(result, Math.max(2 * result.length, size + matches.length));
+            }
+            System.arraycopy(matches, 0, result, size, matches.length);
+            size += matches.length;
+        }
+        final int[] sorted = Arrays.copyOf(result, size);
+        Arrays.sort(sorted);
+        return sorted;
+    }
+}
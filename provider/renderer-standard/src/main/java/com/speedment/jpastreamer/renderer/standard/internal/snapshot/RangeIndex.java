@@ -0,0 +1,249 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal.snapshot;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+/**
+ * An index of the positions of the entities of a {@link Snapshot} sorted
+ * by the value of a field, which serves range predicates by binary search.
+ * <p>
+ * Integral values are held in a {@code long[]} and floating point values
+ * in a {@code double[]}. Entities whose value is {@code null} or
+ * {@code NaN} are left out, as they match no range.
+ */
+abstract class RangeIndex {
+
+    private static final int[] NONE = new int[0];
+
+    /** A bound that no value lies in range of, such as {@code NaN}. */
+    static final Object NO_MATCH = new Object();
+
+    /** The positions of the entities in the order of their values. */
+    final int[] positions;
+
+    private RangeIndex(final int[] positions) {
+        this.positions = positions;
+    }
+
+    /**
+     * Returns the ascending positions of the entities whose value lies in
+     * the provided range, where a {@code null} bound means no bound, or
+     * {@code null} if the bounds cannot be compared to the values.
+     */
+    final int[] range(final Object low, final boolean lowInclusive, final Object high, final boolean highInclusive) {
+        final Object lowBound = low == null ? null : bound(low);
+        final Object highBound = high == null ? null : bound(high);
+        if ((low != null && lowBound == null) || (high != null && highBound == null)) {
+            return null;
+        }
+        if (lowBound == NO_MATCH || highBound == NO_MATCH) {
+            return NONE;
+        }
+        final int start = lowBound == null
+            ? 0
+            : firstNot(i -> lowInclusive ? compareAt(i, lowBound) < 0 : compareAt(i, lowBound) <= 0);
+        final int end = highBound == null
+            ? positions.length
+            : firstNot(i -> highInclusive ? compareAt(i, highBound) <= 0 : compareAt(i, highBound) < 0);
+        return slice(start, end);
+    }
+
+    /**
+     * Returns the provided {@code value} converted to the representation
+     * of the values, {@link #NO_MATCH} if no value can match it or
+     * {@code null} if it cannot be compared to the values.
+     */
+    abstract Object bound(Object value);
+
+    abstract int compareAt(int index, Object bound);
+
+    /**
+     * Returns the first index in {@link #positions} for which the provided
+     * {@code below} predicate does not hold, given that it holds for a
+     * prefix of the indices only.
+     */
+    final int firstNot(final IntPredicate below) {
+        int low = 0;
+        int high = positions.length;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (below.test(middle)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    final int[] slice(final int start, final int end) {
+        if (start >= end) {
+            return NONE;
+        }
+        final int[] slice = Arrays.copyOfRange(positions, start, end);
+        Arrays.sort(slice);
+        return slice;
+    }
+
+    static RangeIndex ofLongs(final Object[] entities, final Function<Object, Object> getter) {
+        final long[] values = new long[entities.length];
+        for (int i = 0; i < entities.length; i++) {
+            values[i] = asLong(getter.apply(entities[i]));
+        }
+        final int[] order = order(entities.length, i -> true, Comparator.comparingLong(i -> values[i]));
+        final long[] sorted = new long[order.length];
+        for (int i = 0; i < order.length; i++) {
+            sorted[i] = values[order[i]];
+        }
+        return new LongRangeIndex(sorted, order);
+    }
+
+    static RangeIndex ofDoubles(final Object[] entities, final Function<Object, Object> getter) {
+        final double[] values = new double[entities.length];
+        for (int i = 0; i < entities.length; i++) {
+            values[i] = normalized(((Number) getter.apply(entities[i])).doubleValue());
+        }
+        final int[] order = order(entities.length, i -> !Double.isNaN(values[i]), Comparator.comparingDouble(i -> values[i]));
+        final double[] sorted = new double[order.length];
+        for (int i = 0; i < order.length; i++) {
+            sorted[i] = values[order[i]];
+        }
+        return new DoubleRangeIndex(sorted, order);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static RangeIndex ofComparables(final Object[] entities, final Function<Object, Object> getter) {
+        final Object[] values = new Object[entities.length];
+        for (int i = 0; i < entities.length; i++) {
+            final Object value = getter.apply(entities[i]);
+            if (value != null && !(value instanceof Comparable)) {
+                return null;
+            }
+            values[i] = value;
+        }
+        final int[] order = order(entities.length, i -> values[i] != null, Comparator.comparing(i -> (Comparable) values[i]));
+        final Comparable<Object>[] sorted = new Comparable[order.length];
+        for (int i = 0; i < order.length; i++) {
+            sorted[i] = (Comparable<Object>) values[order[i]];
+        }
+        return new ComparableRangeIndex(sorted, order);
+    }
+
+    private static int[] order(final int size, final IntPredicate included, final Comparator<Integer> comparator) {
+        return IntStream.range(0, size)
+            .filter(included)
+            .boxed()
+            .sorted(comparator)
+            .mapToInt(Integer::intValue)
+            .toArray();
+    }
+
+    private static long asLong(final Object value) {
+        return value instanceof Character ? (Character) value : ((Number) value).longValue();
+    }
+
+    private static double normalized(final double value) {
+        // -0.0 == 0.0 holds for the predicates, but not for the sort order
+        return value == 0.0 ? 0.0 : value;
+    }
+
+    private static final class LongRangeIndex extends RangeIndex {
+
+        private final long[] values;
+
+        private LongRangeIndex(final long[] values, final int[] positions) {
+            super(positions);
+            this.values = values;
+        }
+
+        @Override
+        Object bound(final Object value) {
+            if (value instanceof Number || value instanceof Character) {
+                if (value instanceof Double || value instanceof Float) {
+                    return null;
+                }
+                return asLong(value);
+            }
+            return null;
+        }
+
+        @Override
+        int compareAt(final int index, final Object bound) {
+            return Long.compare(values[index], (Long) bound);
+        }
+    }
+
+    private static final class DoubleRangeIndex extends RangeIndex {
+
+        private final double[] values;
+
+        private DoubleRangeIndex(final double[] values, final int[] positions) {
+            super(positions);
+            this.values = values;
+        }
+
+        @Override
+        Object bound(final Object value) {
+            if (!(value instanceof Number)) {
+                return null;
+            }
+            final double bound = ((Number) value).doubleValue();
+            return Double.isNaN(bound) ? NO_MATCH : normalized(bound);
+        }
+
+        @Override
+        int compareAt(final int index, final Object bound) {
+            return Double.compare(values[index], (Double) bound);
+        }
+    }
+
+    static final class ComparableRangeIndex extends RangeIndex {
+
+        private final Comparable<Object>[] values;
+
+        private ComparableRangeIndex(final Comparable<Object>[] values, final int[] positions) {
+            super(positions);
+            this.values = values;
+        }
+
+        @Override
+        Object bound(final Object value) {
+            return value instanceof Comparable ? value : null;
+        }
+
+        @Override
+        int compareAt(final int index, final Object bound) {
+            return values[index].compareTo(bound);
+        }
+
+        /**
+         * Returns the ascending positions of the entities whose String value
+         * starts with the provided {@code prefix}. As such values are
+         * adjacent in the sort order, they follow the first value that is
+         * not less than the prefix.
+         */
+        int[] prefix(final String prefix) {
+            final int start = firstNot(i -> compareAt(i, prefix) < 0);
+            int end = start;
+            while (end < values.length && ((String) (Object) values[end]).startsWith(prefix)) {
+                end++;
+            }
+            return slice(start, end);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal.snapshot;
+
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * An immutable in-memory copy of the entities of a table.
+ * <p>
+ * The entities are held in a plain array, which is the most compact form
+ * on the heap and which is streamed with an exact size, so that operations
+ * such as {@code count()} and {@code skip()} do not have to traverse it.
+ * Indexes over the entities are built on first use and live as long as the
+ * Snapshot, see {@link SnapshotPlanner}.
+ * <p>
+ * The entities are shared by all streams of the Snapshot, so streams are
+ * served shallow copies of them, which may be modified freely.
+ *
+ * @param <E> the entity type
+ */
+public final class Snapshot<E> {
+
+    private final Object[] entities;
+    private final long loadedNanos;
+    private final Map<Object, Object> indexes;
+
+    Snapshot(final Collection<? extends E> entities) {
+        this.entities = requireNonNull(entities).toArray();
+        this.loadedNanos = System.nanoTime();
+        this.indexes = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Returns a new sequential Stream over copies of the entities of this
+     * Snapshot.
+     *
+     * @return a new sequential Stream over copies of the entities of this
+     *         Snapshot
+     */
+    @SuppressWarnings("unchecked")
+    public Stream<E> stream() {
+        return Arrays.stream(entities).map(entity -> (E) EntityCopier.copy(entity));
+    }
+
+    /**
+     * Returns a new sequential Stream over copies of the entities of this
+     * Snapshot at the provided ascending {@code positions}.
+     *
+     * @param positions the ascending positions of the entities to stream
+     * @return a new sequential Stream over copies of the entities at the
+     *         positions
+     */
+    @SuppressWarnings("unchecked")
+    Stream<E> stream(final int[] positions) {
+        return Arrays.stream(positions).mapToObj(position -> (E) EntityCopier.copy(entities[position]));
+    }
+
+    /**
+     * Returns the number of entities in this Snapshot.
+     *
+     * @return the number of entities in this Snapshot
+     */
+    public int size() {
+        return entities.length;
+    }
+
+    /**
+     * Returns the index with the provided {@code key}, building it from the
+     * entities with the provided {@code builder} on first use. If the
+     * builder returns {@code null}, {@code null} is returned.
+     */
+    @SuppressWarnings("unchecked")
+    <I> I index(final Object key, final Function<Object[], I> builder) {
+        return (I) indexes.computeIfAbsent(key, k -> builder.apply(entities));
+    }
+
+    boolean isOlderThan(final Duration age) {
+        return System.nanoTime() - loadedNanos > age.toNanos();
+    }
+}
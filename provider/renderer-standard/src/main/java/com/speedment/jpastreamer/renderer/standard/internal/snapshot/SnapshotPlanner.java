@@ -0,0 +1,221 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal.snapshot;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.field.Field;
+import com.speedment.jpastreamer.field.StringField;
+import com.speedment.jpastreamer.field.predicate.CombinedPredicate;
+import com.speedment.jpastreamer.field.predicate.FieldPredicate;
+import com.speedment.jpastreamer.field.predicate.Inclusion;
+import com.speedment.jpastreamer.field.predicate.trait.HasInclusion;
+import com.speedment.jpastreamer.field.trait.HasArg0;
+import com.speedment.jpastreamer.field.trait.HasArg1;
+import com.speedment.jpastreamer.field.trait.HasByteValue;
+import com.speedment.jpastreamer.field.trait.HasCharValue;
+import com.speedment.jpastreamer.field.trait.HasDoubleValue;
+import com.speedment.jpastreamer.field.trait.HasFloatValue;
+import com.speedment.jpastreamer.field.trait.HasIntValue;
+import com.speedment.jpastreamer.field.trait.HasLongValue;
+import com.speedment.jpastreamer.field.trait.HasShortValue;
+import com.speedment.jpastreamer.pipeline.Pipeline;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperation;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Narrows the entities of a {@link Snapshot} that a pipeline streams by
+ * looking up its leading filters in indexes over the snapshot.
+ * <p>
+ * Only field predicates, possibly combined with AND, are looked up. The
+ * filters are kept in the pipeline and evaluated on the candidates as
+ * before, so an index only has to return a superset of the matching
+ * entities. The candidates are streamed in snapshot order.
+ */
+public final class SnapshotPlanner {
+
+    private SnapshotPlanner() {}
+
+    /**
+     * Returns a new sequential Stream over the entities of the provided
+     * {@code snapshot} that may match the leading filters of the provided
+     * {@code pipeline}.
+     *
+     * @param <E> the entity type
+     * @param snapshot to stream entities from
+     * @param pipeline whose leading filters are looked up
+     * @return a new sequential Stream over the candidate entities
+     */
+    public static <E> Stream<E> stream(final Snapshot<E> snapshot, final Pipeline<E> pipeline) {
+        requireNonNull(snapshot);
+        requireNonNull(pipeline);
+
+        int[] candidates = null;
+        for (IntermediateOperation<?, ?> operation : pipeline.intermediateOperations()) {
+            if (operation.type() != IntermediateOperationType.FILTER || !Stream.class.equals(operation.streamType()) || operation.arguments().length != 1) {
+                break;
+            }
+            for (Predicate<?> predicate : conjuncts(operation.arguments()[0])) {
+                final int[] matches = lookup(snapshot, predicate);
+                if (matches != null) {
+                    candidates = candidates == null ? matches : intersection(candidates, matches);
+                }
+            }
+        }
+        return candidates == null ? snapshot.stream() : snapshot.stream(candidates);
+    }
+
+    private static List<Predicate<?>> conjuncts(final Object argument) {
+        if (argument instanceof FieldPredicate) {
+            return Collections.singletonList((Predicate<?>) argument);
+        }
+        if (argument instanceof CombinedPredicate && ((CombinedPredicate<?>) argument).getType() == CombinedPredicate.Type.AND) {
+            final List<Predicate<?>> conjuncts = new ArrayList<>();
+            ((CombinedPredicate<?>) argument).stream().forEach(member -> conjuncts.addAll(conjuncts(member)));
+            return conjuncts;
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * Returns the ascending positions of the entities that may match the
+     * provided {@code predicate}, or {@code null} if it cannot be looked up.
+     */
+    private static int[] lookup(final Snapshot<?> snapshot, final Predicate<?> predicate) {
+        if (!(predicate instanceof FieldPredicate) || !(predicate instanceof HasArg0)) {
+            return null;
+        }
+        final FieldPredicate<?> fieldPredicate = (FieldPredicate<?>) predicate;
+        final Field<?> field = fieldPredicate.getField();
+        final Object first = ((HasArg0<?>) predicate).get0();
+        if (first == null) {
+            return null;
+        }
+        switch (fieldPredicate.getPredicateType()) {
+            case EQUAL:
+                // Floating point predicates compare by ==, under which -0.0 equals 0.0
+                return isFloatingPoint(field)
+                    ? range(snapshot, field, first, true, first, true)
+                    : hashIndex(snapshot, field).lookup(Collections.singleton(first));
+            case IN:
+                return first instanceof Collection ? hashIndex(snapshot, field).lookup((Collection<?>) first) : null;
+            case GREATER_THAN:
+                return range(snapshot, field, first, false, null, false);
+            case GREATER_OR_EQUAL:
+                return range(snapshot, field, first, true, null, false);
+            case LESS_THAN:
+                return range(snapshot, field, null, false, first, false);
+            case LESS_OR_EQUAL:
+                return range(snapshot, field, null, false, first, true);
+            case BETWEEN: {
+                if (!(predicate instanceof HasArg1) || !(predicate instanceof HasInclusion)) {
+                    return null;
+                }
+                final Object second = ((HasArg1<?>) predicate).get1();
+                final Inclusion inclusion = ((HasInclusion) predicate).getInclusion();
+                if (second == null || inclusion == null) {
+                    return null;
+                }
+                return range(snapshot, field, first, inclusion.isStartInclusive(), second, inclusion.isEndInclusive());
+            }
+            case STARTS_WITH: {
+                if (!(field instanceof StringField) || !(first instanceof String)) {
+                    return null;
+                }
+                final RangeIndex index = rangeIndex(snapshot, field);
+                return index instanceof RangeIndex.ComparableRangeIndex
+                    ? ((RangeIndex.ComparableRangeIndex) index).prefix((String) first)
+                    : null;
+            }
+            default:
+                return null;
+        }
+    }
+
+    private static int[] range(
+        final Snapshot<?> snapshot,
+        final Field<?> field,
+        final Object low,
+        final boolean lowInclusive,
+        final Object high,
+        final boolean highInclusive
+    ) {
+        final RangeIndex index = rangeIndex(snapshot, field);
+        if (index == null) {
+            return null;
+        }
+        try {
+            return index.range(low, lowInclusive, high, highInclusive);
+        } catch (ClassCastException e) {
+            // The bound is not comparable to the values, the filter is evaluated without the index
+            return null;
+        }
+    }
+
+    private static HashIndex hashIndex(final Snapshot<?> snapshot, final Field<?> field) {
+        return snapshot.index(key(field, HashIndex.class), entities -> HashIndex.of(entities, getter(field)));
+    }
+
+    private static RangeIndex rangeIndex(final Snapshot<?> snapshot, final Field<?> field) {
+        final BiFunction<Object[], Function<Object, Object>, RangeIndex> builder;
+        if (isFloatingPoint(field)) {
+            builder = RangeIndex::ofDoubles;
+        } else if (field instanceof HasLongValue || field instanceof HasIntValue || field instanceof HasShortValue
+            || field instanceof HasByteValue || field instanceof HasCharValue) {
+            builder = RangeIndex::ofLongs;
+        } else {
+            builder = RangeIndex::ofComparables;
+        }
+        return snapshot.index(key(field, RangeIndex.class), entities -> builder.apply(entities, getter(field)));
+    }
+
+    private static boolean isFloatingPoint(final Field<?> field) {
+        return field instanceof HasDoubleValue || field instanceof HasFloatValue;
+    }
+
+    private static Object key(final Field<?> field, final Class<?> kind) {
+        return Arrays.asList(field.table(), field.columnName(), kind);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> getter(final Field<?> field) {
+        return entity -> ((Field<Object>) field).getter().apply(entity);
+    }
+
+    private static int[] intersection(final int[] first, final int[] second) {
+        final int[] intersection = new int[Math.min(first.length, second.length)];
+        int size = 0;
+        for (int i = 0, j = 0; i < first.length && j < second.length; ) {
+            if (first[i] < second[j]) {
+                i++;
+            } else if (first[i] > second[j]) {
+                j++;
+            } else {
+                intersection[size++] = first[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(intersection, size);
+    }
+}
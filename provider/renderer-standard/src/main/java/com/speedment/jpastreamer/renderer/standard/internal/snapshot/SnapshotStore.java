@@ -0,0 +1,111 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal.snapshot;
+
+import static java.util.Objects.requireNonNull;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Holds the {@link Snapshot Snapshots} of a persistence unit.
+ * <p>
+ * A snapshot is loaded by the first stream that needs it, while concurrent
+ * streams wait for it. Once the snapshot is older than its refresh interval,
+ * a single stream reloads it while concurrent streams are served by the
+ * previous snapshot. If a reload fails, the previous snapshot keeps being
+ * served and the reload is retried by the next stream.
+ */
+public final class SnapshotStore {
+
+    private static final Logger LOGGER = Logger.getLogger(SnapshotStore.class.getName());
+
+    private static final Map<EntityManagerFactory, SnapshotStore> STORES = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final Map<Object, Entry<?>> entries;
+
+    private SnapshotStore() {
+        this.entries = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Returns the SnapshotStore of the provided {@code entityManagerFactory}.
+     *
+     * @param entityManagerFactory of the persistence unit
+     * @return the SnapshotStore of the provided {@code entityManagerFactory}
+     */
+    public static SnapshotStore of(final EntityManagerFactory entityManagerFactory) {
+        requireNonNull(entityManagerFactory);
+        return STORES.computeIfAbsent(entityManagerFactory, emf -> new SnapshotStore());
+    }
+
+    /**
+     * Returns the Snapshot with the provided {@code key}, which is loaded
+     * by the provided {@code loader} if there is no Snapshot yet or if the
+     * Snapshot is older than the provided {@code refreshInterval}.
+     *
+     * @param key identifying the Snapshot
+     * @param refreshInterval the maximum age of the Snapshot
+     * @param loader of the entities of the Snapshot
+     * @param <E> the entity type
+     * @return the Snapshot with the provided {@code key}
+     */
+    @SuppressWarnings("unchecked")
+    public <E> Snapshot<E> get(final Object key, final Duration refreshInterval, final Supplier<List<E>> loader) {
+        requireNonNull(refreshInterval);
+        requireNonNull(loader);
+        final Entry<E> entry = (Entry<E>) entries.computeIfAbsent(requireNonNull(key), k -> new Entry<>());
+
+        final Snapshot<E> current = entry.snapshot;
+        if (current == null) {
+            entry.lock.lock();
+            try {
+                if (entry.snapshot == null) {
+                    entry.snapshot = new Snapshot<>(loader.get());
+                }
+                return entry.snapshot;
+            } finally {
+                entry.lock.unlock();
+            }
+        }
+
+        if (current.isOlderThan(refreshInterval) && entry.lock.tryLock()) {
+            try {
+                if (entry.snapshot.isOlderThan(refreshInterval)) {
+                    entry.snapshot = new Snapshot<>(loader.get());
+                }
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Unable to refresh the snapshot " + key + ", the previous snapshot is used", e);
+            } finally {
+                entry.lock.unlock();
+            }
+            return entry.snapshot;
+        }
+        return current;
+    }
+
+    private static final class Entry<E> {
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile Snapshot<E> snapshot;
+    }
+}
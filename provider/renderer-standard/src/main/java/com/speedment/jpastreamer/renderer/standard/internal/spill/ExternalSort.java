@@ -0,0 +1,401 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal.spill;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Residual {@code sorted()} and {@code distinct()} operations that hold at
+ * most a given number of elements in memory and spill the rest to
+ * temporary files.
+ * <p>
+ * The returned streams are lazy; the source stream is not consumed until
+ * the first element is requested. Temporary files are deleted when the
+ * returned stream is exhausted or closed. Spilled elements are written and
+ * read back by a {@link SpillCodec}, so the streams return copies of the
+ * elements that were spilled.
+ */
+public final class ExternalSort {
+
+    // Partitions are deduplicated in memory one at a time
+    private static final int PARTITION_BITS = 4;
+    private static final int PARTITIONS = 1 << PARTITION_BITS;
+    // Each level partitions by other bits of the hash code, beyond that equal hash codes cannot be told apart
+    private static final int MAX_LEVEL = Integer.SIZE / PARTITION_BITS;
+
+    private static final ClassValue<Boolean> VALUE_EQUALITY = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(final Class<?> type) {
+            try {
+                return !Object.class.equals(type.getMethod("equals", Object.class).getDeclaringClass());
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+    };
+
+    private ExternalSort() {}
+
+    /**
+     * Returns a stream with the elements of the provided {@code stream}
+     * sorted according to the provided {@code comparator}, or in natural
+     * order if the {@code comparator} is {@code null}. Just like
+     * {@link Stream#sorted()}, the sort is stable.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Stream<T> sorted(final Stream<T> stream, final Comparator<? super T> comparator, final int threshold, final SpillCodec<T> codec) {
+        requireNonNull(stream);
+        requireNonNull(codec);
+        final Comparator<? super T> order = comparator == null
+            ? (Comparator<? super T>) Comparator.naturalOrder()
+            : comparator;
+        return spilling(stream, new SortSpliterator<>(stream, order, threshold, codec));
+    }
+
+    /**
+     * Returns a stream with the distinct elements of the provided
+     * {@code stream}, retaining the first occurrence of each element in
+     * encounter order just like {@link Stream#distinct()}.
+     * <p>
+     * Spilled elements are compared to the elements they are read back with
+     * by {@code equals()} and partitioned by {@code hashCode()}, so elements
+     * are only spilled if their class overrides {@code equals()}. Elements
+     * that are equal only to themselves are deduplicated in memory, however
+     * many there are. The same applies to more than {@code threshold}
+     * distinct elements that all have the same hash code.
+     */
+    public static <T> Stream<T> distinct(final Stream<T> stream, final int threshold, final SpillCodec<T> codec) {
+        requireNonNull(stream);
+        requireNonNull(codec);
+        return spilling(stream, new DistinctSpliterator<>(stream, threshold, codec));
+    }
+
+    private static <T> Stream<T> spilling(final Stream<T> stream, final SpillingSpliterator<T> spliterator) {
+        return StreamSupport.stream(spliterator, false)
+            .onClose(spliterator::close)
+            .onClose(stream::close);
+    }
+
+    private abstract static class SpillingSpliterator<T> extends Spliterators.AbstractSpliterator<T> implements AutoCloseable {
+
+        final Stream<T> source;
+        final int threshold;
+        final SpillCodec<T> codec;
+        final List<SpillFile<T>> files = new ArrayList<>();
+        private Iterator<T> iterator;
+
+        SpillingSpliterator(final Stream<T> source, final int threshold, final SpillCodec<T> codec) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED);
+            this.source = source;
+            this.threshold = threshold;
+            this.codec = codec;
+        }
+
+        abstract Iterator<T> consume(Iterator<T> sourceIterator);
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (iterator == null) {
+                iterator = consume(source.iterator());
+            }
+            if (iterator.hasNext()) {
+                action.accept(iterator.next());
+                return true;
+            }
+            close();
+            return false;
+        }
+
+        SpillFile<T> newFile() {
+            final SpillFile<T> file = new SpillFile<>(codec);
+            files.add(file);
+            return file;
+        }
+
+        void closeFile(final SpillFile<T> file) {
+            files.remove(file);
+            file.close();
+        }
+
+        @Override
+        public void close() {
+            final List<SpillFile<T>> toClose = new ArrayList<>(files);
+            files.clear();
+            toClose.forEach(SpillFile::close);
+        }
+    }
+
+    private static final class SortSpliterator<T> extends SpillingSpliterator<T> {
+
+        private final Comparator<? super T> comparator;
+
+        SortSpliterator(final Stream<T> source, final Comparator<? super T> comparator, final int threshold, final SpillCodec<T> codec) {
+            super(source, threshold, codec);
+            this.comparator = comparator;
+        }
+
+        @Override
+        Iterator<T> consume(final Iterator<T> sourceIterator) {
+            final List<T> buffer = new ArrayList<>();
+            while (sourceIterator.hasNext()) {
+                buffer.add(sourceIterator.next());
+                if (buffer.size() == threshold) {
+                    buffer.sort(comparator);
+                    final SpillFile<T> run = newFile();
+                    buffer.forEach(run::write);
+                    buffer.clear();
+                }
+            }
+            buffer.sort(comparator);
+            if (files.isEmpty()) {
+                return buffer.iterator();
+            }
+
+            // The buffered elements were encountered last and form the last run
+            final List<Iterator<T>> runs = new ArrayList<>();
+            for (SpillFile<T> file : files) {
+                runs.add(new FileIterator<>(file));
+            }
+            runs.add(buffer.iterator());
+            return new MergingIterator<>(runs, comparator);
+        }
+    }
+
+    private static final class DistinctSpliterator<T> extends SpillingSpliterator<T> {
+
+        DistinctSpliterator(final Stream<T> source, final int threshold, final SpillCodec<T> codec) {
+            super(source, threshold, codec);
+        }
+
+        @Override
+        Iterator<T> consume(final Iterator<T> sourceIterator) {
+            final Iterator<Sequenced<T>> input = new Iterator<Sequenced<T>>() {
+                private long sequence;
+
+                @Override
+                public boolean hasNext() {
+                    return sourceIterator.hasNext();
+                }
+
+                @Override
+                public Sequenced<T> next() {
+                    return new Sequenced<>(sequence++, sourceIterator.next());
+                }
+            };
+
+            final Map<T, Long> firstOccurrences = new LinkedHashMap<>();
+            boolean spillable = true;
+            while (input.hasNext() && (firstOccurrences.size() < threshold || !spillable)) {
+                final Sequenced<T> sequenced = input.next();
+                // Copies that are read back are never equal to elements that are only equal to themselves
+                spillable &= sequenced.element == null || VALUE_EQUALITY.get(sequenced.element.getClass());
+                firstOccurrences.putIfAbsent(sequenced.element, sequenced.sequence);
+            }
+            if (!input.hasNext()) {
+                return firstOccurrences.keySet().iterator();
+            }
+
+            // Each run holds distinct elements in ascending sequence
+            final List<SpillFile<T>> runs = new ArrayList<>();
+            partition(firstOccurrences, input, 0, runs);
+
+            final List<Iterator<Sequenced<T>>> sequencedRuns = new ArrayList<>();
+            for (SpillFile<T> run : runs) {
+                sequencedRuns.add(new SequencedFileIterator<>(run));
+            }
+            final Iterator<Sequenced<T>> merged = new MergingIterator<>(sequencedRuns, Comparator.comparingLong(s -> s.sequence));
+            return new Iterator<T>() {
+                @Override
+                public boolean hasNext() {
+                    return merged.hasNext();
+                }
+
+                @Override
+                public T next() {
+                    return merged.next().element;
+                }
+            };
+        }
+
+        /**
+         * Spills the provided {@code firstOccurrences} followed by the rest
+         * of the provided {@code input} to partitions at the provided
+         * {@code level} and deduplicates each partition into the provided
+         * {@code runs}. Equal elements always end up in the same partition.
+         */
+        private void partition(final Map<T, Long> firstOccurrences, final Iterator<Sequenced<T>> input, final int level, final List<SpillFile<T>> runs) {
+            final List<SpillFile<T>> partitions = new ArrayList<>(PARTITIONS);
+            for (int i = 0; i < PARTITIONS; i++) {
+                partitions.add(newFile());
+            }
+            firstOccurrences.forEach((element, sequence) -> partitions.get(partition(element, level)).write(sequence, element));
+            firstOccurrences.clear();
+            while (input.hasNext()) {
+                final Sequenced<T> sequenced = input.next();
+                partitions.get(partition(sequenced.element, level)).write(sequenced.sequence, sequenced.element);
+            }
+
+            for (SpillFile<T> partition : partitions) {
+                if (partition.size() > 0) {
+                    deduplicate(new SequencedFileIterator<>(partition), level + 1, runs);
+                }
+                closeFile(partition);
+            }
+        }
+
+        /**
+         * Deduplicates the provided {@code input} into a run, or partitions
+         * it anew by other bits of the hash code if it holds more than
+         * {@code threshold} distinct elements.
+         */
+        private void deduplicate(final Iterator<Sequenced<T>> input, final int level, final List<SpillFile<T>> runs) {
+            final Map<T, Long> firstOccurrences = new LinkedHashMap<>();
+            while (input.hasNext() && (firstOccurrences.size() < threshold || level == MAX_LEVEL)) {
+                final Sequenced<T> sequenced = input.next();
+                firstOccurrences.putIfAbsent(sequenced.element, sequenced.sequence);
+            }
+            if (input.hasNext()) {
+                partition(firstOccurrences, input, level, runs);
+                return;
+            }
+
+            final SpillFile<T> run = newFile();
+            firstOccurrences.forEach((element, sequence) -> run.write(sequence, element));
+            runs.add(run);
+        }
+
+        private static int partition(final Object element, final int level) {
+            // The finalizer of MurmurHash3 spreads every bit of the hash code over all bits
+            int h = Objects.hashCode(element);
+            h ^= h >>> 16;
+            h *= 0x85ebca6b;
+            h ^= h >>> 13;
+            h *= 0xc2b2ae35;
+            h ^= h >>> 16;
+            return (h >>> (level * PARTITION_BITS)) & (PARTITIONS - 1);
+        }
+    }
+
+    private static final class Sequenced<T> {
+
+        private final long sequence;
+        private final T element;
+
+        private Sequenced(final long sequence, final T element) {
+            this.sequence = sequence;
+            this.element = element;
+        }
+    }
+
+    private static final class FileIterator<T> implements Iterator<T> {
+
+        private final SpillFile<T> file;
+
+        private FileIterator(final SpillFile<T> file) {
+            this.file = file;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return file.hasNext();
+        }
+
+        @Override
+        public T next() {
+            if (!file.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return file.read();
+        }
+    }
+
+    private static final class SequencedFileIterator<T> implements Iterator<Sequenced<T>> {
+
+        private final SpillFile<T> file;
+
+        private SequencedFileIterator(final SpillFile<T> file) {
+            this.file = file;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return file.hasNext();
+        }
+
+        @Override
+        public Sequenced<T> next() {
+            if (!file.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final long sequence = file.readSequence();
+            return new Sequenced<>(sequence, file.read());
+        }
+    }
+
+    /**
+     * Lazily merges sorted runs. Ties are resolved by run order which
+     * keeps the merge stable.
+     */
+    private static final class MergingIterator<T> implements Iterator<T> {
+
+        private final List<Iterator<T>> runs;
+        private final PriorityQueue<Head<T>> heads;
+
+        private MergingIterator(final List<Iterator<T>> runs, final Comparator<? super T> comparator) {
+            this.runs = runs;
+            final Comparator<Head<T>> elementOrder = (a, b) -> comparator.compare(a.element, b.element);
+            this.heads = new PriorityQueue<>(Math.max(1, runs.size()), elementOrder.thenComparingInt(h -> h.run));
+            for (int run = 0; run < runs.size(); run++) {
+                advance(run);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !heads.isEmpty();
+        }
+
+        @Override
+        public T next() {
+            final Head<T> head = heads.poll();
+            if (head == null) {
+                throw new NoSuchElementException();
+            }
+            advance(head.run);
+            return head.element;
+        }
+
+        private void advance(final int run) {
+            final Iterator<T> iterator = runs.get(run);
+            if (iterator.hasNext()) {
+                heads.add(new Head<>(iterator.next(), run));
+            }
+        }
+    }
+
+    private static final class Head<T> {
+
+        private final T element;
+        private final int run;
+
+        private Head(final T element, final int run) {
+            this.element = element;
+            this.run = run;
+        }
+    }
+}
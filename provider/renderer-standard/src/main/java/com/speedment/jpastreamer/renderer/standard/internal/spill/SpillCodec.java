@@ -0,0 +1,123 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal.spill;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.field.Field;
+import com.speedment.jpastreamer.projection.Projection;
+
+import jakarta.persistence.Tuple;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Writes elements to and reads elements from a {@link SpillFile}.
+ * <p>
+ * Elements are written by Java serialization unless their columns are
+ * known, in which case the columns are written one by one. Columns of
+ * primitive wrapper and {@code String} types are written in binary form,
+ * other columns by Java serialization.
+ *
+ * @param <T> the element type
+ */
+public interface SpillCodec<T> {
+
+    /**
+     * Writes the provided {@code element} to the provided {@code out}.
+     *
+     * @param out to write to
+     * @param element to write
+     * @throws IOException if the element cannot be written
+     */
+    void write(ObjectOutputStream out, T element) throws IOException;
+
+    /**
+     * Reads an element that was written by {@link #write(ObjectOutputStream, Object)}
+     * from the provided {@code in}.
+     *
+     * @param in to read from
+     * @return the element
+     * @throws IOException if the element cannot be read
+     * @throws ClassNotFoundException if the class of a serialized object is not found
+     */
+    T read(ObjectInputStream in) throws IOException, ClassNotFoundException;
+
+    /**
+     * Returns a SpillCodec that writes elements by Java serialization,
+     * whereby elements must be {@link java.io.Serializable}.
+     *
+     * @param <T> the element type
+     * @return a SpillCodec that writes elements by Java serialization
+     */
+    @SuppressWarnings("unchecked")
+    static <T> SpillCodec<T> serializing() {
+        return (SpillCodec<T>) SpillCodecs.SERIALIZING;
+    }
+
+    /**
+     * Returns a SpillCodec that writes the columns that the provided
+     * {@code columns} function returns and that recreates elements from
+     * these columns using the provided {@code factory}.
+     *
+     * @param <T> the element type
+     * @param columns of an element
+     * @param factory of an element from its columns
+     * @return a SpillCodec that writes the columns of elements
+     */
+    static <T> SpillCodec<T> columns(final Function<? super T, Object[]> columns, final Function<Object[], ? extends T> factory) {
+        return new SpillCodecs.ColumnCodec<>(columns, factory);
+    }
+
+    /**
+     * Returns a SpillCodec for the Tuples of the provided {@code projection},
+     * which are recreated by {@link Projection#tuple(Object[])}.
+     *
+     * @param projection that creates the Tuples
+     * @return a SpillCodec for the Tuples of the provided {@code projection}
+     */
+    static SpillCodec<Tuple> tuples(final Projection<?> projection) {
+        requireNonNull(projection);
+        return columns(Tuple::toArray, projection::tuple);
+    }
+
+    /**
+     * Returns a SpillCodec for entities that are selected as the fields
+     * of the provided {@code projection}, which are recreated by the
+     * constructor that the query invokes.
+     *
+     * @param <E> the entity type
+     * @param projection that selects the fields
+     * @return a SpillCodec for entities selected by the provided {@code projection}
+     */
+    static <E> SpillCodec<E> constructed(final Projection<E> projection) {
+        requireNonNull(projection);
+        final List<Field<E>> fields = new ArrayList<>(projection.fields());
+        final SpillCodecs.ConstructorFactory<E> factory = new SpillCodecs.ConstructorFactory<>(projection.entityClass(), fields.size());
+        return columns(
+            entity -> {
+                final Object[] values = new Object[fields.size()];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = fields.get(i).getter().apply(entity);
+                }
+                return values;
+            },
+            factory
+        );
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal.spill;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.exception.JPAStreamerException;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.function.Function;
+
+/**
+ * The implementations of {@link SpillCodec}.
+ */
+final class SpillCodecs {
+
+    private SpillCodecs() {}
+
+    static final SpillCodec<Object> SERIALIZING = new SpillCodec<Object>() {
+        @Override
+        public void write(final ObjectOutputStream out, final Object element) throws IOException {
+            out.writeObject(element);
+        }
+
+        @Override
+        public Object read(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+            return in.readObject();
+        }
+    };
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte INTEGER = 2;
+    private static final byte LONG = 3;
+    private static final byte DOUBLE = 4;
+    private static final byte FLOAT = 5;
+    private static final byte SHORT = 6;
+    private static final byte BYTE = 7;
+    private static final byte BOOLEAN = 8;
+    private static final byte CHARACTER = 9;
+    private static final byte OBJECT = 10;
+
+    // writeUTF is limited to 65535 bytes, which holds at least this many chars
+    private static final int MAX_UTF_LENGTH = 65535 / 3;
+
+    static final class ColumnCodec<T> implements SpillCodec<T> {
+
+        private final Function<? super T, Object[]> columns;
+        private final Function<Object[], ? extends T> factory;
+
+        ColumnCodec(final Function<? super T, Object[]> columns, final Function<Object[], ? extends T> factory) {
+            this.columns = requireNonNull(columns);
+            this.factory = requireNonNull(factory);
+        }
+
+        @Override
+        public void write(final ObjectOutputStream out, final T element) throws IOException {
+            if (element == null) {
+                out.writeInt(-1);
+                return;
+            }
+            final Object[] values = columns.apply(element);
+            out.writeInt(values.length);
+            for (Object value : values) {
+                writeValue(out, value);
+            }
+        }
+
+        @Override
+        public T read(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+            final int length = in.readInt();
+            if (length == -1) {
+                return null;
+            }
+            final Object[] values = new Object[length];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = readValue(in);
+            }
+            return factory.apply(values);
+        }
+    }
+
+    private static void writeValue(final ObjectOutputStream out, final Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof String && ((String) value).length() <= MAX_UTF_LENGTH) {
+            out.writeByte(STRING);
+            out.writeUTF((String) value);
+        } else if (value instanceof Integer) {
+            out.writeByte(INTEGER);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte(LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof Double) {
+            out.writeByte(DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (value instanceof Float) {
+            out.writeByte(FLOAT);
+            out.writeFloat((Float) value);
+        } else if (value instanceof Short) {
+            out.writeByte(SHORT);
+            out.writeShort((Short) value);
+        } else if (value instanceof Byte) {
+            out.writeByte(BYTE);
+            out.writeByte((Byte) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof Character) {
+            out.writeByte(CHARACTER);
+            out.writeChar((Character) value);
+        } else {
+            out.writeByte(OBJECT);
+            out.writeObject(value);
+        }
+    }
+
+    private static Object readValue(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+        final byte tag = in.readByte();
+        switch (tag) {
+            case NULL: return null;
+            case STRING: return in.readUTF();
+            case INTEGER: return in.readInt();
+            case LONG: return in.readLong();
+            case DOUBLE: return in.readDouble();
+            case FLOAT: return in.readFloat();
+            case SHORT: return in.readShort();
+            case BYTE: return in.readByte();
+            case BOOLEAN: return in.readBoolean();
+            case CHARACTER: return in.readChar();
+            case OBJECT: return in.readObject();
+            default: throw new IOException("Unknown column tag " + tag);
+        }
+    }
+
+    /**
+     * Creates entities from their selected columns by the constructor
+     * that accepts them, just like the provider does for a query that
+     * constructs its results.
+     */
+    static final class ConstructorFactory<E> implements Function<Object[], E> {
+
+        private final Class<E> entityClass;
+        private final int parameterCount;
+        private volatile Constructor<?> constructor;
+
+        ConstructorFactory(final Class<E> entityClass, final int parameterCount) {
+            this.entityClass = requireNonNull(entityClass);
+            this.parameterCount = parameterCount;
+        }
+
+        @Override
+        public E apply(final Object[] values) {
+            Constructor<?> c = constructor;
+            if (c == null || !accepts(c, values)) {
+                c = find(values);
+                constructor = c;
+            }
+            try {
+                return entityClass.cast(c.newInstance(values));
+            } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+                throw new JPAStreamerException("Unable to recreate a spilled " + entityClass.getName(), e);
+            }
+        }
+
+        private Constructor<?> find(final Object[] values) {
+            for (Constructor<?> candidate : entityClass.getDeclaredConstructors()) {
+                if (candidate.getParameterCount() == parameterCount && accepts(candidate, values)) {
+                    try {
+                        candidate.setAccessible(true);
+                    } catch (RuntimeException ignored) {
+                        // Public constructors are invoked anyway
+                    }
+                    return candidate;
+                }
+            }
+            throw new JPAStreamerException("There is no constructor of " + entityClass.getName() + " that accepts the spilled columns");
+        }
+
+        private static boolean accepts(final Constructor<?> constructor, final Object[] values) {
+            final Class<?>[] parameterTypes = constructor.getParameterTypes();
+            for (int i = 0; i < parameterTypes.length; i++) {
+                final Class<?> type = parameterTypes[i].isPrimitive() ? wrapper(parameterTypes[i]) : parameterTypes[i];
+                if (values[i] == null ? parameterTypes[i].isPrimitive() : !type.isInstance(values[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static Class<?> wrapper(final Class<?> primitive) {
+            if (primitive == int.class) return Integer.class;
+            if (primitive == long.class) return Long.class;
+            if (primitive == double.class) return Double.class;
+            if (primitive == float.class) return Float.class;
+            if (primitive == short.class) return Short.class;
+            if (primitive == byte.class) return Byte.class;
+            if (primitive == boolean.class) return Boolean.class;
+            if (primitive == char.class) return Character.class;
+            return Void.class;
+        }
+    }
+}
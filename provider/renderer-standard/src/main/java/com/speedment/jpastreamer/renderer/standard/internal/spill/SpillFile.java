@@ -0,0 +1,155 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal.spill;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.exception.JPAStreamerException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A temporary file holding elements written by a {@link SpillCodec},
+ * optionally preceded by a {@code long} sequence number each. A SpillFile
+ * is first written and then read sequentially, exactly once.
+ *
+ * @param <T> the element type
+ */
+final class SpillFile<T> implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    // Resetting the stream every now and then keeps its handle table from growing
+    private static final int RESET_INTERVAL = 1024;
+
+    private final Path path;
+    private final SpillCodec<T> codec;
+    private ObjectOutputStream out;
+    private ObjectInputStream in;
+    private long size;
+    private long remaining;
+
+    SpillFile(final SpillCodec<T> codec) {
+        this.codec = requireNonNull(codec);
+        try {
+            this.path = Files.createTempFile("jpastreamer-spill", ".tmp");
+            this.out = new ObjectOutputStream(new BufferedOutputStream(
+                Channels.newOutputStream(FileChannel.open(path, StandardOpenOption.WRITE)), BUFFER_SIZE)
+            );
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    long size() {
+        return size;
+    }
+
+    void write(final T element) {
+        try {
+            codec.write(out, element);
+            if (++size % RESET_INTERVAL == 0) {
+                out.reset();
+            }
+        } catch (NotSerializableException e) {
+            close();
+            throw new JPAStreamerException("Elements or their columns must be Serializable in order to be spilled to disk", e);
+        } catch (IOException e) {
+            close();
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void write(final long sequence, final T element) {
+        try {
+            out.writeLong(sequence);
+        } catch (IOException e) {
+            close();
+            throw new UncheckedIOException(e);
+        }
+        write(element);
+    }
+
+    /**
+     * Returns if there are more elements to read, opening the file for
+     * reading upon the first invocation.
+     */
+    boolean hasNext() {
+        if (in == null) {
+            try {
+                out.close();
+                out = null;
+                in = new ObjectInputStream(new BufferedInputStream(
+                    Channels.newInputStream(FileChannel.open(path, StandardOpenOption.READ)), BUFFER_SIZE)
+                );
+                remaining = size;
+            } catch (IOException e) {
+                close();
+                throw new UncheckedIOException(e);
+            }
+        }
+        return remaining > 0;
+    }
+
+    long readSequence() {
+        hasNext();
+        try {
+            return in.readLong();
+        } catch (IOException e) {
+            close();
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    T read() {
+        hasNext();
+        try {
+            remaining--;
+            return codec.read(in);
+        } catch (IOException e) {
+            close();
+            throw new UncheckedIOException(e);
+        } catch (ClassNotFoundException e) {
+            close();
+            throw new JPAStreamerException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (out != null) {
+                out.close();
+            }
+            if (in != null) {
+                in.close();
+            }
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            out = null;
+            in = null;
+        }
+    }
+}
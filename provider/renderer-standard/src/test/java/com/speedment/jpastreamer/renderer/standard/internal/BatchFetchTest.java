@@ -0,0 +1,226 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration.JoinConfiguration;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration.JoinStrategy;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceUnitUtil;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.Metamodel;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+final class BatchFetchTest {
+
+    private final Map<String, Object> hints = Collections.singletonMap("hint", "value");
+
+    // The ids of the batches, in the order they are loaded
+    private final List<List<Object>> batches = new ArrayList<>();
+
+    private EntityType<Film> entityType;
+    private Root<Film> root;
+    private CriteriaQuery<Film> criteriaQuery;
+    private TypedQuery<Film> typedQuery;
+    private BatchFetch batchFetch;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        final SingularAttribute<Film, Integer> idAttribute = mock(SingularAttribute.class);
+        when(idAttribute.isId()).thenReturn(true);
+        when(idAttribute.getName()).thenReturn("id");
+
+        entityType = mock(EntityType.class);
+        when(entityType.hasSingleIdAttribute()).thenReturn(true);
+        doReturn(Collections.singleton(idAttribute)).when(entityType).getSingularAttributes();
+
+        final Metamodel metamodel = mock(Metamodel.class);
+        when(metamodel.entity(Film.class)).thenReturn(entityType);
+
+        final PersistenceUnitUtil persistenceUnitUtil = mock(PersistenceUnitUtil.class);
+        when(persistenceUnitUtil.getIdentifier(any())).thenAnswer(invocation -> ((Film) invocation.getArgument(0)).id);
+        final EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        when(entityManagerFactory.getPersistenceUnitUtil()).thenReturn(persistenceUnitUtil);
+
+        final Path<Object> idPath = mock(Path.class);
+        when(idPath.in(any(Collection.class))).thenAnswer(invocation -> {
+            batches.add(new ArrayList<>((Collection<Object>) invocation.getArgument(0)));
+            return mock(Predicate.class);
+        });
+        root = mock(Root.class);
+        doReturn(idPath).when(root).get("id");
+
+        criteriaQuery = mock(CriteriaQuery.class);
+        when(criteriaQuery.from(Film.class)).thenReturn(root);
+        when(criteriaQuery.select(root)).thenReturn(criteriaQuery);
+        when(criteriaQuery.distinct(true)).thenReturn(criteriaQuery);
+        final CriteriaBuilder builder = mock(CriteriaBuilder.class);
+        when(builder.createQuery(Film.class)).thenReturn(criteriaQuery);
+
+        typedQuery = mock(TypedQuery.class);
+        when(typedQuery.getResultList()).thenReturn(Collections.emptyList());
+
+        final EntityManager entityManager = mock(EntityManager.class);
+        when(entityManager.getMetamodel()).thenReturn(metamodel);
+        when(entityManager.getEntityManagerFactory()).thenReturn(entityManagerFactory);
+        when(entityManager.getCriteriaBuilder()).thenReturn(builder);
+        when(entityManager.createQuery(criteriaQuery)).thenReturn(typedQuery);
+
+        batchFetch = new BatchFetch(entityManager);
+    }
+
+    @Test
+    void batchSizeOne() {
+        assertEquals(ids(3), apply(films(3), 1));
+
+        assertEquals(Arrays.asList(ids(1, 1), ids(2, 2), ids(3, 3)), batches);
+    }
+
+    @Test
+    void exactMultiple() {
+        assertEquals(ids(4), apply(films(4), 2));
+
+        assertEquals(Arrays.asList(ids(1, 2), ids(3, 4)), batches);
+    }
+
+    @Test
+    void remainder() {
+        assertEquals(ids(5), apply(films(5), 2));
+
+        assertEquals(Arrays.asList(ids(1, 2), ids(3, 4), ids(5, 5)), batches);
+    }
+
+    @Test
+    void empty() {
+        assertEquals(Collections.emptyList(), apply(films(0), 2));
+
+        assertTrue(batches.isEmpty());
+    }
+
+    @Test
+    void loadsBatchBeforeElements() {
+        final List<Integer> loadedBefore = batchFetch.apply(films(5), Film.class, "language", 2, hints)
+            .map(film -> batches.size())
+            .collect(Collectors.toList());
+
+        // Each element is passed on once the query of its batch has been executed
+        assertEquals(Arrays.asList(1, 1, 2, 2, 3), loadedBefore);
+    }
+
+    @Test
+    void query() {
+        apply(films(2), 2);
+
+        // SELECT DISTINCT f FROM Film f LEFT JOIN FETCH f.language WHERE f.id IN (1, 2)
+        verify(root).fetch("language", JoinType.LEFT);
+        verify(criteriaQuery).distinct(true);
+        verify(typedQuery).setHint("hint", "value");
+        verify(typedQuery, times(1)).getResultList();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void join() {
+        final JoinConfiguration<Film> join = mock(JoinConfiguration.class);
+        when(join.strategy()).thenReturn(JoinStrategy.BATCH_FETCH);
+
+        assertTrue(batchFetch.isBatched(Film.class, join, false));
+        // Stateless streams have no persistence context to attach the batches to
+        assertFalse(batchFetch.isBatched(Film.class, join, true));
+
+        when(join.strategy()).thenReturn(JoinStrategy.FETCH_JOIN);
+        assertFalse(batchFetch.isBatched(Film.class, join, false));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void compositeId() {
+        when(entityType.hasSingleIdAttribute()).thenReturn(false);
+        final JoinConfiguration<Film> join = mock(JoinConfiguration.class);
+        when(join.strategy()).thenReturn(JoinStrategy.BATCH_FETCH);
+
+        // The field is fetch joined instead
+        assertFalse(batchFetch.supports(Film.class));
+        assertFalse(batchFetch.isBatched(Film.class, join, false));
+        verify(typedQuery, never()).getResultList();
+    }
+
+    @Test
+    void close() {
+        final AtomicBoolean closed = new AtomicBoolean();
+
+        batchFetch.apply(films(3).onClose(() -> closed.set(true)), Film.class, "language", 2, hints).close();
+
+        assertTrue(closed.get());
+    }
+
+    private List<Object> apply(final Stream<Film> films, final int batchSize) {
+        return batchFetch.apply(films, Film.class, "language", batchSize, hints)
+            .map(film -> (Object) film.id)
+            .collect(Collectors.toList());
+    }
+
+    private static Stream<Film> films(final int count) {
+        return IntStream.rangeClosed(1, count).mapToObj(Film::new);
+    }
+
+    private static List<Object> ids(final int count) {
+        return ids(1, count);
+    }
+
+    private static List<Object> ids(final int first, final int last) {
+        return IntStream.rangeClosed(first, last).boxed().collect(Collectors.toList());
+    }
+
+    static final class Film {
+
+        private final Integer id;
+
+        Film(final int id) {
+            this.id = id;
+        }
+    }
+}
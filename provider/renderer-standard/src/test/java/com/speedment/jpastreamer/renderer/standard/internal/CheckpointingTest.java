@@ -0,0 +1,183 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.speedment.jpastreamer.criteria.Criteria;
+import com.speedment.jpastreamer.exception.JPAStreamerException;
+import com.speedment.jpastreamer.merger.result.QueryPlan;
+import com.speedment.jpastreamer.pipeline.Pipeline;
+import com.speedment.jpastreamer.pipeline.PipelineFactory;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationFactory;
+import com.speedment.jpastreamer.rootfactory.RootFactory;
+import com.speedment.jpastreamer.streamconfiguration.CheckpointStore;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration.CheckpointConfiguration;
+
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.ServiceLoader;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+final class CheckpointingTest {
+
+    private final PipelineFactory pipelineFactory = RootFactory.getOrThrow(PipelineFactory.class, ServiceLoader::load);
+    private final IntermediateOperationFactory operationFactory = RootFactory.getOrThrow(IntermediateOperationFactory.class, ServiceLoader::load);
+
+    private final MemoryStore store = new MemoryStore();
+
+    @Test
+    void crashMidStream() {
+        final Checkpointing<Film> checkpointing = checkpointing(2);
+        final List<Integer> processed = new ArrayList<>();
+
+        assertThrows(IllegalStateException.class, () -> {
+            try (Stream<Film> stream = checkpointing.track(films(10))) {
+                stream.forEach(film -> {
+                    if (film.id == 5) {
+                        throw new IllegalStateException("crash");
+                    }
+                    processed.add(film.id);
+                });
+            }
+        });
+
+        // Only positions of elements that were processed are saved
+        assertEquals(Arrays.asList(Collections.singletonList(2), Collections.singletonList(4)), store.saved);
+        assertEquals(Optional.of(Collections.singletonList(4)), store.load());
+        assertEquals(4, processed.get(processed.size() - 1));
+    }
+
+    @Test
+    void crashMidStreamWithResidualSort() {
+        final Pipeline<Film> pipeline = pipelineFactory.createPipeline(Film.class);
+        // A comparator that is not a field comparator cannot be rendered and remains in the pipeline
+        pipeline.intermediateOperations().add(operationFactory.createSorted(Comparator.comparing((Film film) -> -film.id)));
+
+        final JPAStreamerException exception = assertThrows(JPAStreamerException.class, () -> of(pipeline));
+        assertTrue(exception.getMessage().contains("SORTED"), exception.getMessage());
+
+        // Had the stream been tracked before the sort, the sort would have checkpointed every element and
+        // cleared the checkpoint before the first element reached the crashing consumer
+        final Checkpointing<Film> checkpointing = checkpointing(2);
+        assertThrows(IllegalStateException.class, () -> checkpointing.track(films(10))
+            .sorted(Comparator.comparing((Film film) -> -film.id))
+            .forEach(film -> {
+                throw new IllegalStateException("crash");
+            }));
+        assertEquals(Optional.empty(), store.load());
+        assertEquals(5, store.saved.size());
+    }
+
+    @Test
+    void residualDistinct() {
+        final Pipeline<Film> pipeline = pipelineFactory.createPipeline(Film.class);
+        pipeline.intermediateOperations().add(operationFactory.acquireDistinct());
+
+        assertThrows(JPAStreamerException.class, () -> of(pipeline));
+    }
+
+    @Test
+    void exhausted() {
+        final Checkpointing<Film> checkpointing = checkpointing(3);
+
+        final List<Integer> ids = checkpointing.track(films(7)).map(film -> film.id).collect(Collectors.toList());
+
+        assertEquals(7, ids.size());
+        assertEquals(2, store.saved.size());
+        assertFalse(store.load().isPresent());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void of(final Pipeline<Film> pipeline) {
+        final CheckpointConfiguration configuration = mock(CheckpointConfiguration.class);
+        when(configuration.store()).thenReturn(store);
+        when(configuration.interval()).thenReturn(2);
+
+        final StreamConfiguration<Film> streamConfiguration = mock(StreamConfiguration.class);
+        when(streamConfiguration.entityClass()).thenReturn(Film.class);
+        when(streamConfiguration.checkpointing()).thenReturn(Optional.of(configuration));
+        when(streamConfiguration.selections()).thenReturn(Optional.empty());
+
+        final Criteria<Film, Film> criteria = mock(Criteria.class);
+        try {
+            Checkpointing.of(criteria, mock(QueryPlan.class), pipeline, streamConfiguration);
+        } finally {
+            // The pipeline is rejected before the query is modified
+            verifyNoInteractions(criteria);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Checkpointing<Film> checkpointing(final int interval) {
+        final SingularAttribute<Film, Integer> id = mock(SingularAttribute.class);
+        when(id.getName()).thenReturn("id");
+        try {
+            when(id.getJavaMember()).thenReturn(Film.class.getDeclaredField("id"));
+        } catch (NoSuchFieldException e) {
+            throw new AssertionError(e);
+        }
+        return new Checkpointing<>(store, interval, Collections.singletonList(id));
+    }
+
+    private static Stream<Film> films(final int count) {
+        return IntStream.rangeClosed(1, count).mapToObj(Film::new);
+    }
+
+    private static final class MemoryStore implements CheckpointStore {
+
+        private final List<List<Object>> saved = new ArrayList<>();
+        private List<Object> position;
+
+        @Override
+        public Optional<List<Object>> load() {
+            return Optional.ofNullable(position);
+        }
+
+        @Override
+        public void save(final List<Object> keys) {
+            saved.add(keys);
+            position = keys;
+        }
+
+        @Override
+        public void clear() {
+            position = null;
+        }
+    }
+
+    static final class Film {
+
+        private final Integer id;
+
+        Film(final int id) {
+            this.id = id;
+        }
+    }
+}
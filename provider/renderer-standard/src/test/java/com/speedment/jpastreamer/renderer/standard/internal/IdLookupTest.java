@@ -0,0 +1,281 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.speedment.jpastreamer.field.ComparableField;
+import com.speedment.jpastreamer.field.StringField;
+import com.speedment.jpastreamer.pipeline.Pipeline;
+import com.speedment.jpastreamer.pipeline.PipelineFactory;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperation;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationFactory;
+import com.speedment.jpastreamer.projection.Projection;
+import com.speedment.jpastreamer.rootfactory.RootFactory;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration.CheckpointConfiguration;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration.JoinConfiguration;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.Metamodel;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.ServiceLoader;
+import java.util.stream.Collectors;
+
+final class IdLookupTest {
+
+    private static final ComparableField<Film, Integer> ID = ComparableField.create(Film.class, "id", Film::getId, true);
+    private static final StringField<Film> TITLE = StringField.create(Film.class, "title", Film::getTitle, false);
+
+    private final PipelineFactory pipelineFactory = RootFactory.getOrThrow(PipelineFactory.class, ServiceLoader::load);
+    private final IntermediateOperationFactory operationFactory = RootFactory.getOrThrow(IntermediateOperationFactory.class, ServiceLoader::load);
+
+    private final Map<String, Object> hints = Collections.singletonMap("hint", "value");
+
+    private EntityManager entityManager;
+    private EntityType<Film> entityType;
+    private Cache cache;
+    private IdLookup idLookup;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        final SingularAttribute<Film, Integer> idAttribute = mock(SingularAttribute.class);
+        when(idAttribute.isId()).thenReturn(true);
+        when(idAttribute.getName()).thenReturn("id");
+
+        entityType = mock(EntityType.class);
+        when(entityType.hasSingleIdAttribute()).thenReturn(true);
+        doReturn(Collections.singleton(idAttribute)).when(entityType).getSingularAttributes();
+
+        final Metamodel metamodel = mock(Metamodel.class);
+        when(metamodel.entity(Film.class)).thenReturn(entityType);
+
+        cache = mock(Cache.class);
+        final EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        when(entityManagerFactory.getCache()).thenReturn(cache);
+
+        entityManager = mock(EntityManager.class);
+        when(entityManager.getMetamodel()).thenReturn(metamodel);
+        when(entityManager.getEntityManagerFactory()).thenReturn(entityManagerFactory);
+
+        idLookup = new IdLookup(entityManager);
+    }
+
+    @Test
+    void equalId() {
+        assertEquals(Optional.of(Collections.singleton(1)), idLookup.ids(pipeline(operationFactory.createFilter(ID.equal(1))), configuration()));
+    }
+
+    @Test
+    void inIds() {
+        final Optional<Collection<?>> ids = idLookup.ids(pipeline(operationFactory.createFilter(ID.in(1, 2, 3))), configuration());
+
+        assertEquals(Arrays.asList(1, 2, 3), ids.map(c -> c.stream().sorted().collect(Collectors.toList())).orElse(null));
+    }
+
+    @Test
+    void otherField() {
+        assertFalse(idLookup.ids(pipeline(operationFactory.createFilter(TITLE.equal("A"))), configuration()).isPresent());
+    }
+
+    @Test
+    void otherPredicate() {
+        assertFalse(idLookup.ids(pipeline(operationFactory.createFilter(ID.greaterThan(1))), configuration()).isPresent());
+    }
+
+    @Test
+    void notLeading() {
+        final Pipeline<Film> pipeline = pipeline(operationFactory.createFilter(TITLE.equal("A")));
+        pipeline.intermediateOperations().add(operationFactory.createFilter(ID.equal(1)));
+
+        assertFalse(idLookup.ids(pipeline, configuration()).isPresent());
+    }
+
+    @Test
+    void compositeId() {
+        when(entityType.hasSingleIdAttribute()).thenReturn(false);
+
+        assertFalse(idLookup.ids(pipeline(operationFactory.createFilter(ID.equal(1))), configuration()).isPresent());
+    }
+
+    @Test
+    void naturalOrder() {
+        final Pipeline<Film> pipeline = pipeline(operationFactory.createFilter(ID.in(1, 2)));
+        pipeline.intermediateOperations().add(operationFactory.acquireSorted());
+
+        assertFalse(idLookup.ids(pipeline, configuration()).isPresent());
+    }
+
+    @Test
+    void fieldOrder() {
+        final Pipeline<Film> pipeline = pipeline(operationFactory.createFilter(ID.in(1, 2)));
+        pipeline.intermediateOperations().add(operationFactory.createSorted(TITLE.comparator()));
+
+        assertEquals(2, idLookup.ids(pipeline, configuration()).map(Collection::size).orElse(0));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void selections() {
+        final StreamConfiguration<Film> configuration = configuration();
+        when(configuration.selections()).thenReturn(Optional.of(mock(Projection.class)));
+
+        assertFalse(idLookup.ids(pipeline(operationFactory.createFilter(ID.equal(1))), configuration).isPresent());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void joins() {
+        final StreamConfiguration<Film> configuration = configuration();
+        when(configuration.joins()).thenReturn(Collections.singleton(mock(JoinConfiguration.class)));
+
+        assertFalse(idLookup.ids(pipeline(operationFactory.createFilter(ID.equal(1))), configuration).isPresent());
+    }
+
+    @Test
+    void stateless() {
+        final StreamConfiguration<Film> configuration = configuration();
+        when(configuration.isStateless()).thenReturn(true);
+
+        assertFalse(idLookup.ids(pipeline(operationFactory.createFilter(ID.equal(1))), configuration).isPresent());
+    }
+
+    @Test
+    void checkpointing() {
+        final StreamConfiguration<Film> configuration = configuration();
+        when(configuration.checkpointing()).thenReturn(Optional.of(mock(CheckpointConfiguration.class)));
+
+        assertFalse(idLookup.ids(pipeline(operationFactory.createFilter(ID.equal(1))), configuration).isPresent());
+    }
+
+    @Test
+    void findSingle() {
+        final Film film = new Film(1);
+        when(entityManager.find(Film.class, 1, hints)).thenReturn(film);
+
+        assertEquals(Collections.singletonList(film), idLookup.find(Film.class, Collections.singleton(1), hints).collect(Collectors.toList()));
+        verify(entityManager, never()).getCriteriaBuilder();
+    }
+
+    @Test
+    void findCached() {
+        final Film first = new Film(1);
+        final Film second = new Film(2);
+        when(cache.contains(eq(Film.class), any())).thenReturn(true);
+        when(entityManager.find(Film.class, 1, hints)).thenReturn(first);
+        when(entityManager.find(Film.class, 2, hints)).thenReturn(second);
+
+        assertEquals(Arrays.asList(first, second), idLookup.find(Film.class, Arrays.asList(1, 2), hints).collect(Collectors.toList()));
+        verify(entityManager, never()).getCriteriaBuilder();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void findMissing() {
+        final Film first = new Film(1);
+        final Film second = new Film(2);
+        final Film third = new Film(3);
+        when(cache.contains(Film.class, 1)).thenReturn(true);
+        when(entityManager.find(Film.class, 1, hints)).thenReturn(first);
+
+        final Path<Object> idPath = mock(Path.class);
+        when(idPath.in(any(Collection.class))).thenReturn(mock(Predicate.class));
+        final Root<Film> root = mock(Root.class);
+        doReturn(idPath).when(root).get("id");
+        final CriteriaQuery<Film> criteriaQuery = mock(CriteriaQuery.class);
+        when(criteriaQuery.from(Film.class)).thenReturn(root);
+        when(criteriaQuery.select(root)).thenReturn(criteriaQuery);
+        final CriteriaBuilder builder = mock(CriteriaBuilder.class);
+        when(builder.createQuery(Film.class)).thenReturn(criteriaQuery);
+        final TypedQuery<Film> typedQuery = mock(TypedQuery.class);
+        when(typedQuery.getResultStream()).thenAnswer(invocation -> Arrays.asList(second, third).stream());
+        when(entityManager.getCriteriaBuilder()).thenReturn(builder);
+        when(entityManager.createQuery(criteriaQuery)).thenReturn(typedQuery);
+
+        final List<Film> found = idLookup.find(Film.class, Arrays.asList(1, 2, 3), hints).collect(Collectors.toList());
+
+        assertEquals(Arrays.asList(first, second, third), found);
+
+        // The cached entity is found, the others are loaded by a single query
+        final ArgumentCaptor<Collection<?>> missing = ArgumentCaptor.forClass(Collection.class);
+        verify(idPath).in(missing.capture());
+        assertEquals(Arrays.asList(2, 3), Arrays.asList(missing.getValue().toArray()));
+        verify(entityManager, never()).find(eq(Film.class), eq(2), anyMap());
+        verify(entityManager, never()).find(eq(Film.class), eq(3), anyMap());
+        verify(entityManager).createQuery(criteriaQuery);
+        verify(typedQuery).setHint("hint", "value");
+    }
+
+    private Pipeline<Film> pipeline(final IntermediateOperation<?, ?> operation) {
+        final Pipeline<Film> pipeline = pipelineFactory.createPipeline(Film.class);
+        pipeline.intermediateOperations().add(operation);
+        return pipeline;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static StreamConfiguration<Film> configuration() {
+        final StreamConfiguration<Film> streamConfiguration = mock(StreamConfiguration.class);
+        when(streamConfiguration.entityClass()).thenReturn(Film.class);
+        when(streamConfiguration.joins()).thenReturn(Collections.emptySet());
+        when(streamConfiguration.selections()).thenReturn(Optional.empty());
+        when(streamConfiguration.checkpointing()).thenReturn(Optional.empty());
+        return streamConfiguration;
+    }
+
+    static final class Film {
+
+        private final Integer id;
+        private String title;
+
+        Film(final int id) {
+            this.id = id;
+        }
+
+        Integer getId() {
+            return id;
+        }
+
+        String getTitle() {
+            return title;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.speedment.jpastreamer.field.StringField;
+import com.speedment.jpastreamer.pipeline.Pipeline;
+import com.speedment.jpastreamer.pipeline.PipelineFactory;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperation;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationFactory;
+import com.speedment.jpastreamer.pipeline.terminal.TerminalOperationFactory;
+import com.speedment.jpastreamer.rootfactory.RootFactory;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceUnitUtil;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.Metamodel;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.stream.Stream;
+
+final class LazyLoadTrackerTest {
+
+    private static final StringField<Film> TITLE = StringField.create(Film.class, "title", Film::getTitle, false);
+    private static final StringField<Film> RATING = StringField.create(Film.class, "rating", Film::getRating, false);
+
+    private final PipelineFactory pipelineFactory = RootFactory.getOrThrow(PipelineFactory.class, ServiceLoader::load);
+    private final IntermediateOperationFactory operationFactory = RootFactory.getOrThrow(IntermediateOperationFactory.class, ServiceLoader::load);
+    private final TerminalOperationFactory terminalOperationFactory = RootFactory.getOrThrow(TerminalOperationFactory.class, ServiceLoader::load);
+
+    private final LazyLoadTracker tracker = new LazyLoadTracker(mock(EntityManager.class), LazyLoadTracker.Mode.LOG, 1);
+
+    @Test
+    void fingerprintOfFieldPredicates() {
+        final String title = tracker.fingerprint(pipeline(operationFactory.createFilter(TITLE.equal("A"))));
+
+        assertEquals(title, tracker.fingerprint(pipeline(operationFactory.createFilter(TITLE.equal("B")))));
+        assertNotEquals(title, tracker.fingerprint(pipeline(operationFactory.createFilter(RATING.equal("A")))));
+        assertNotEquals(title, tracker.fingerprint(pipeline(operationFactory.createFilter(TITLE.notEqual("A")))));
+    }
+
+    @Test
+    void fingerprintOfCombinedPredicates() {
+        final String titleAndRating = tracker.fingerprint(pipeline(operationFactory.createFilter(TITLE.equal("A").and(RATING.equal("G")))));
+
+        assertEquals(titleAndRating, tracker.fingerprint(pipeline(operationFactory.createFilter(TITLE.equal("B").and(RATING.equal("PG"))))));
+        assertNotEquals(titleAndRating, tracker.fingerprint(pipeline(operationFactory.createFilter(RATING.equal("A").and(TITLE.equal("G"))))));
+        assertNotEquals(titleAndRating, tracker.fingerprint(pipeline(operationFactory.createFilter(TITLE.equal("A").or(RATING.equal("G"))))));
+    }
+
+    @Test
+    void fingerprintOfComparators() {
+        final String title = tracker.fingerprint(pipeline(operationFactory.createSorted(TITLE.comparator())));
+
+        assertNotEquals(title, tracker.fingerprint(pipeline(operationFactory.createSorted(RATING.comparator()))));
+        assertNotEquals(title, tracker.fingerprint(pipeline(operationFactory.createSorted(TITLE.comparator().reversed()))));
+        assertNotEquals(
+            tracker.fingerprint(pipeline(operationFactory.createSorted(TITLE.comparator().thenComparing(RATING.comparator())))),
+            tracker.fingerprint(pipeline(operationFactory.createSorted(RATING.comparator().thenComparing(TITLE.comparator()))))
+        );
+    }
+
+    @Test
+    void isBuffering() {
+        assertFalse(LazyLoadTracker.isBuffering(pipeline(operationFactory.createFilter(TITLE.equal("A")))));
+        assertTrue(LazyLoadTracker.isBuffering(pipeline(operationFactory.createSorted(Comparator.comparing(Film::getTitle)))));
+        assertTrue(LazyLoadTracker.isBuffering(pipeline(operationFactory.createTopK(Comparator.comparing(Film::getTitle), 0, 10))));
+    }
+
+    @Test
+    void trackBuffered() {
+        final Set<Object> loaded = new HashSet<>();
+        final LazyLoadTracker lazyLoadTracker = new LazyLoadTracker(entityManager(loaded), LazyLoadTracker.Mode.ADAPT, 2);
+        final String fingerprint = "trackBuffered";
+
+        final Film[] films = {new Film("B"), new Film("A"), new Film("C")};
+        try (Stream<Film> stream = lazyLoadTracker.track(Arrays.stream(films), Film.class, fingerprint, true)) {
+            // The association of each film is initialized only after all films have been read
+            stream.sorted(Comparator.comparing(Film::getTitle)).forEach(loaded::add);
+        }
+
+        assertEquals(Collections.singleton("language"), lazyLoadTracker.prefetches(fingerprint));
+    }
+
+    @Test
+    void trackUnbuffered() {
+        final Set<Object> loaded = new HashSet<>();
+        final LazyLoadTracker lazyLoadTracker = new LazyLoadTracker(entityManager(loaded), LazyLoadTracker.Mode.ADAPT, 2);
+        final String fingerprint = "trackUnbuffered";
+
+        final Film[] films = {new Film("B"), new Film("A"), new Film("C")};
+        try (Stream<Film> stream = lazyLoadTracker.track(Arrays.stream(films), Film.class, fingerprint, false)) {
+            stream.sorted(Comparator.comparing(Film::getTitle)).forEach(loaded::add);
+        }
+
+        // Without buffering, the loads happen too late to be attributed to the elements
+        assertEquals(Collections.emptySet(), lazyLoadTracker.prefetches(fingerprint));
+    }
+
+    private Pipeline<Film> pipeline(final IntermediateOperation<?, ?>... operations) {
+        final Pipeline<Film> pipeline = pipelineFactory.createPipeline(Film.class);
+        pipeline.intermediateOperations().addAll(Arrays.asList(operations));
+        pipeline.terminatingOperation(terminalOperationFactory.acquireCount());
+        return pipeline;
+    }
+
+    /**
+     * Returns an EntityManager of Films whose language is loaded once the
+     * Film is in the provided {@code loaded} set.
+     */
+    @SuppressWarnings("unchecked")
+    private static EntityManager entityManager(final Set<Object> loaded) {
+        final Attribute<Film, ?> language = mock(Attribute.class);
+        when(language.isAssociation()).thenReturn(true);
+        when(language.getName()).thenReturn("language");
+
+        final EntityType<Film> entityType = mock(EntityType.class);
+        when(entityType.getAttributes()).thenReturn(Collections.singleton(language));
+
+        final Metamodel metamodel = mock(Metamodel.class);
+        when(metamodel.entity(Film.class)).thenReturn(entityType);
+
+        final PersistenceUnitUtil persistenceUnitUtil = mock(PersistenceUnitUtil.class);
+        when(persistenceUnitUtil.isLoaded(any(), eq("language"))).thenAnswer(invocation -> loaded.contains(invocation.getArgument(0)));
+
+        final EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        when(entityManagerFactory.getPersistenceUnitUtil()).thenReturn(persistenceUnitUtil);
+
+        final EntityManager entityManager = mock(EntityManager.class);
+        when(entityManager.getMetamodel()).thenReturn(metamodel);
+        when(entityManager.getEntityManagerFactory()).thenReturn(entityManagerFactory);
+        return entityManager;
+    }
+
+    private static final class Film {
+
+        private final String title;
+
+        Film(final String title) {
+            this.title = title;
+        }
+
+        String getTitle() {
+            return title;
+        }
+
+        String getRating() {
+            return "G";
+        }
+
+        Object getLanguage() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,338 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.speedment.jpastreamer.field.DoubleField;
+import com.speedment.jpastreamer.field.IntField;
+import com.speedment.jpastreamer.field.LongField;
+import com.speedment.jpastreamer.field.StringField;
+import com.speedment.jpastreamer.pipeline.Pipeline;
+import com.speedment.jpastreamer.pipeline.PipelineFactory;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationFactory;
+import com.speedment.jpastreamer.pipeline.terminal.DoubleTerminalOperationFactory;
+import com.speedment.jpastreamer.pipeline.terminal.IntTerminalOperationFactory;
+import com.speedment.jpastreamer.pipeline.terminal.LongTerminalOperationFactory;
+import com.speedment.jpastreamer.pipeline.terminal.TerminalOperationFactory;
+import com.speedment.jpastreamer.rootfactory.RootFactory;
+import com.speedment.jpastreamer.streamconfiguration.FieldGraph;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration.GraphConfiguration;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration.GraphType;
+
+import jakarta.persistence.EntityGraph;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.ServiceLoader;
+import java.util.stream.Collectors;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+final class StandardRendererTest {
+
+    private static final StringField<Film> TITLE = StringField.create(Film.class, "title", Film::getTitle, false);
+    private static final IntField<Film> LENGTH = IntField.create(Film.class, "length", Film::getLength, false);
+    private static final LongField<Film> VIEWS = LongField.create(Film.class, "views", Film::getViews, false);
+    private static final DoubleField<Film> RATE = DoubleField.create(Film.class, "rate", Film::getRate, false);
+
+    private final PipelineFactory pipelineFactory = RootFactory.getOrThrow(PipelineFactory.class, ServiceLoader::load);
+    private final IntermediateOperationFactory operationFactory = RootFactory.getOrThrow(IntermediateOperationFactory.class, ServiceLoader::load);
+    private final TerminalOperationFactory terminalOperationFactory = RootFactory.getOrThrow(TerminalOperationFactory.class, ServiceLoader::load);
+    private final IntTerminalOperationFactory intTerminalOperationFactory = RootFactory.getOrThrow(IntTerminalOperationFactory.class, ServiceLoader::load);
+    private final LongTerminalOperationFactory longTerminalOperationFactory = RootFactory.getOrThrow(LongTerminalOperationFactory.class, ServiceLoader::load);
+    private final DoubleTerminalOperationFactory doubleTerminalOperationFactory = RootFactory.getOrThrow(DoubleTerminalOperationFactory.class, ServiceLoader::load);
+
+    private final List<Film> films = Arrays.asList(new Film("A"), new Film("B"), new Film("A"));
+
+    private EntityManager entityManager;
+    private EntityManager snapshotEntityManager;
+    private TypedQuery<Film> snapshotQuery;
+    private StandardRenderer renderer;
+
+    private CriteriaBuilder builder;
+    private CriteriaQuery<Film> entityQuery;
+    private CriteriaQuery<Number> valueQuery;
+    private Root<Film> valueRoot;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        final CriteriaQuery<Film> criteriaQuery = mock(CriteriaQuery.class);
+        when(criteriaQuery.from(Film.class)).thenReturn(mock(Root.class));
+        final CriteriaBuilder snapshotBuilder = mock(CriteriaBuilder.class);
+        when(snapshotBuilder.createQuery(Film.class)).thenReturn(criteriaQuery);
+
+        snapshotQuery = mock(TypedQuery.class);
+        when(snapshotQuery.getResultList()).thenReturn(films);
+
+        snapshotEntityManager = mock(EntityManager.class);
+        when(snapshotEntityManager.getCriteriaBuilder()).thenReturn(snapshotBuilder);
+        when(snapshotEntityManager.createQuery(criteriaQuery)).thenReturn(snapshotQuery);
+
+        // Snapshots are kept per persistence unit, so every test has a persistence unit of its own
+        final EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        when(entityManagerFactory.createEntityManager()).thenReturn(snapshotEntityManager);
+
+        entityManager = mock(EntityManager.class);
+        when(entityManager.getEntityManagerFactory()).thenReturn(entityManagerFactory);
+
+        // Queries that are not served by a snapshot derive their criteria from the entity query
+        entityQuery = mock(CriteriaQuery.class);
+        when(entityQuery.from(Film.class)).thenReturn(mock(Root.class));
+        when(entityQuery.getResultType()).thenReturn(Film.class);
+        valueQuery = mock(CriteriaQuery.class);
+        valueRoot = mock(Root.class);
+        when(valueQuery.from(Film.class)).thenReturn(valueRoot);
+        builder = mock(CriteriaBuilder.class);
+        when(builder.createQuery(Film.class)).thenReturn(entityQuery);
+        when(builder.createQuery(Number.class)).thenReturn(valueQuery);
+        when(entityManager.getCriteriaBuilder()).thenReturn(builder);
+
+        renderer = new StandardRenderer(entityManager);
+    }
+
+    @Test
+    void countSnapshot() {
+        final Pipeline<Film> pipeline = pipelineFactory.createPipeline(Film.class);
+        pipeline.terminatingOperation(terminalOperationFactory.acquireCount());
+
+        assertEquals(Collections.singletonList(3L), render(pipeline, snapshotted()).collect(Collectors.toList()));
+        verify(snapshotEntityManager).close();
+        verify(entityManager, never()).createQuery(ArgumentMatchers.<CriteriaQuery<?>>any());
+    }
+
+    @Test
+    void filterSnapshot() {
+        final Pipeline<Film> pipeline = pipelineFactory.createPipeline(Film.class);
+        pipeline.intermediateOperations().add(operationFactory.createFilter(TITLE.equal("A")));
+        pipeline.terminatingOperation(terminalOperationFactory.acquireCount());
+
+        final List<Object> rendered = render(pipeline, snapshotted()).collect(Collectors.toList());
+
+        assertEquals(2, rendered.size());
+        // Streams are served copies of the shared entities
+        assertNotSame(films.get(0), rendered.get(0));
+        assertEquals("A", ((Film) rendered.get(0)).getTitle());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void graphOfSnapshot() {
+        final EntityGraph<Film> entityGraph = mock(EntityGraph.class);
+        when(snapshotEntityManager.createEntityGraph(Film.class)).thenReturn(entityGraph);
+
+        final GraphConfiguration<Film> graph = mock(GraphConfiguration.class);
+        when(graph.type()).thenReturn(GraphType.FETCH);
+        when(graph.entityGraph()).thenReturn(Optional.empty());
+        when(graph.fieldGraph()).thenReturn(Optional.of(FieldGraph.of(TITLE)));
+        final StreamConfiguration<Film> streamConfiguration = snapshotted();
+        when(streamConfiguration.graph()).thenReturn(Optional.of(graph));
+
+        final Pipeline<Film> pipeline = pipelineFactory.createPipeline(Film.class);
+        pipeline.terminatingOperation(terminalOperationFactory.acquireCount());
+        render(pipeline, streamConfiguration);
+
+        // The graph is created by the EntityManager that loads the snapshot
+        verify(entityGraph).addAttributeNodes("title");
+        verify(snapshotQuery).setHint(GraphType.FETCH.hintName(), entityGraph);
+        verify(entityManager, never()).createEntityGraph(any(Class.class));
+        verify(entityManager, never()).createEntityGraph(anyString());
+        verify(snapshotQuery, never()).setHint(eq(GraphType.LOAD.hintName()), any());
+    }
+
+    @Test
+    void mapToIntSelection() {
+        final Path<Integer> length = path("length");
+        // Providers may widen the type of the selected values
+        values(120L, 90L);
+
+        final Pipeline<Film> pipeline = pipelineFactory.createPipeline(Film.class);
+        pipeline.intermediateOperations().add(operationFactory.createMapToInt(LENGTH));
+        pipeline.terminatingOperation(intTerminalOperationFactory.acquireToArray());
+
+        assertArrayEquals(new int[]{120, 90}, renderer.<Film, Integer, IntStream>render(pipeline, live()).stream().toArray());
+        verify(valueQuery).select(length);
+        verify(entityManager, never()).createQuery(entityQuery);
+    }
+
+    @Test
+    void mapToLongSelection() {
+        final Path<Long> views = path("views");
+        values(7, 11);
+
+        final Pipeline<Film> pipeline = pipelineFactory.createPipeline(Film.class);
+        pipeline.intermediateOperations().add(operationFactory.createMapToLong(VIEWS));
+        pipeline.terminatingOperation(longTerminalOperationFactory.acquireToArray());
+
+        assertArrayEquals(new long[]{7, 11}, renderer.<Film, Long, LongStream>render(pipeline, live()).stream().toArray());
+        verify(valueQuery).select(views);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void mapToDoubleSelection() {
+        final Path<Double> rate = path("rate");
+        final Expression<Double> negatedRate = mock(Expression.class);
+        when(builder.neg(rate)).thenReturn(negatedRate);
+        values(-1.5, -2.0);
+
+        final Pipeline<Film> pipeline = pipelineFactory.createPipeline(Film.class);
+        pipeline.intermediateOperations().add(operationFactory.createMapToDouble(RATE.negate()));
+        pipeline.terminatingOperation(doubleTerminalOperationFactory.acquireToArray());
+
+        assertArrayEquals(new double[]{-1.5, -2.0}, renderer.<Film, Double, DoubleStream>render(pipeline, live()).stream().toArray());
+        verify(valueQuery).select(negatedRate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void mapToIntOfLambda() {
+        final TypedQuery<Film> typedQuery = mock(TypedQuery.class);
+        when(typedQuery.getResultStream()).thenReturn(Stream.of(new Film("A", 120), new Film("B", 90)));
+        when(entityManager.createQuery(entityQuery)).thenReturn(typedQuery);
+
+        final Pipeline<Film> pipeline = pipelineFactory.createPipeline(Film.class);
+        pipeline.intermediateOperations().add(operationFactory.createMapToInt((Film film) -> film.getLength()));
+        pipeline.terminatingOperation(intTerminalOperationFactory.acquireToArray());
+
+        // A mapping that cannot be expressed in the query is applied to the streamed entities
+        assertArrayEquals(new int[]{120, 90}, renderer.<Film, Integer, IntStream>render(pipeline, live()).stream().toArray());
+        verify(entityManager, never()).createQuery(valueQuery);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void statelessWithoutProviderSupport() {
+        final List<Film> streamed = Arrays.asList(new Film("A"), new Film("B"));
+        final TypedQuery<Film> typedQuery = mock(TypedQuery.class);
+        when(typedQuery.getResultStream()).thenReturn(streamed.stream());
+        when(entityManager.createQuery(entityQuery)).thenReturn(typedQuery);
+        final StreamConfiguration<Film> streamConfiguration = live();
+        when(streamConfiguration.isStateless()).thenReturn(true);
+
+        final Pipeline<Film> pipeline = pipelineFactory.createPipeline(Film.class);
+        pipeline.terminatingOperation(terminalOperationFactory.acquireToArray());
+
+        // Without a stateless session, each entity is detached as it is streamed
+        assertEquals(streamed, render(pipeline, streamConfiguration).collect(Collectors.toList()));
+        verify(entityManager).detach(streamed.get(0));
+        verify(entityManager).detach(streamed.get(1));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Path<T> path(final String attributeName) {
+        final Path<T> path = mock(Path.class);
+        when(valueRoot.<T>get(attributeName)).thenReturn(path);
+        return path;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void values(final Number... values) {
+        final TypedQuery<Number> typedQuery = mock(TypedQuery.class);
+        when(typedQuery.getResultStream()).thenReturn(Stream.of(values));
+        when(entityManager.createQuery(valueQuery)).thenReturn(typedQuery);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Stream<Object> render(final Pipeline<Film> pipeline, final StreamConfiguration<Film> streamConfiguration) {
+        return (Stream<Object>) renderer.render(pipeline, streamConfiguration).stream();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static StreamConfiguration<Film> snapshotted() {
+        final StreamConfiguration<Film> streamConfiguration = mock(StreamConfiguration.class);
+        when(streamConfiguration.entityClass()).thenReturn(Film.class);
+        when(streamConfiguration.joins()).thenReturn(Collections.emptySet());
+        when(streamConfiguration.graph()).thenReturn(Optional.empty());
+        when(streamConfiguration.hints()).thenReturn(Collections.emptyMap());
+        when(streamConfiguration.selections()).thenReturn(Optional.empty());
+        when(streamConfiguration.checkpointing()).thenReturn(Optional.empty());
+        when(streamConfiguration.snapshot()).thenReturn(Optional.of(Duration.ofHours(1)));
+        return streamConfiguration;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static StreamConfiguration<Film> live() {
+        final StreamConfiguration<Film> streamConfiguration = mock(StreamConfiguration.class);
+        when(streamConfiguration.entityClass()).thenReturn(Film.class);
+        when(streamConfiguration.joins()).thenReturn(Collections.emptySet());
+        when(streamConfiguration.graph()).thenReturn(Optional.empty());
+        when(streamConfiguration.hints()).thenReturn(Collections.emptyMap());
+        when(streamConfiguration.selections()).thenReturn(Optional.empty());
+        when(streamConfiguration.checkpointing()).thenReturn(Optional.empty());
+        when(streamConfiguration.snapshot()).thenReturn(Optional.empty());
+        return streamConfiguration;
+    }
+
+    static final class Film {
+
+        private String title;
+        private int length;
+        private long views;
+        private double rate;
+
+        Film() {}
+
+        Film(final String title) {
+            this.title = title;
+        }
+
+        Film(final String title, final int length) {
+            this.title = title;
+            this.length = length;
+        }
+
+        String getTitle() {
+            return title;
+        }
+
+        int getLength() {
+            return length;
+        }
+
+        long getViews() {
+            return views;
+        }
+
+        double getRate() {
+            return rate;
+        }
+    }
+}
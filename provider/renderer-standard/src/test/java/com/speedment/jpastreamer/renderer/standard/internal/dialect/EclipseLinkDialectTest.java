@@ -0,0 +1,159 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal.dialect;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.speedment.jpastreamer.exception.JPAStreamerException;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceException;
+import jakarta.persistence.TypedQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+final class EclipseLinkDialectTest {
+
+    private EntityManagerFactory entityManagerFactory;
+    private Map<String, Class<?>> classes;
+
+    @BeforeEach
+    void setUp() {
+        entityManagerFactory = mock(EntityManagerFactory.class);
+        when(entityManagerFactory.unwrap(JpaEntityManagerFactory.class)).thenReturn(mock(JpaEntityManagerFactory.class));
+
+        classes = new HashMap<>();
+        classes.put("org.eclipse.persistence.jpa.JpaEntityManagerFactory", JpaEntityManagerFactory.class);
+        classes.put("org.eclipse.persistence.queries.Cursor", Cursor.class);
+    }
+
+    @Test
+    void create() {
+        final Optional<ProviderDialect> dialect = create(0);
+
+        assertTrue(dialect.isPresent());
+        assertFalse(dialect.get().supportsStateless());
+    }
+
+    @Test
+    void createWithoutEclipseLink() {
+        classes.clear();
+
+        assertFalse(create(0).isPresent());
+    }
+
+    @Test
+    void createOfOtherProvider() {
+        when(entityManagerFactory.unwrap(JpaEntityManagerFactory.class)).thenThrow(PersistenceException.class);
+
+        assertFalse(create(0).isPresent());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void prepare() {
+        final TypedQuery<Object> query = mock(TypedQuery.class);
+
+        create(500).get().prepare(query);
+
+        verify(query).setHint("eclipselink.jdbc.fetch-size", 100);
+        verify(query).setHint("eclipselink.cursor.page-size", 100);
+        verify(query).setHint(ProviderDialects.TIMEOUT_HINT, 500);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void stream() {
+        final ListCursor cursor = new ListCursor("A", "B");
+        final TypedQuery<Object> typedQuery = mock(TypedQuery.class);
+        when(typedQuery.getSingleResult()).thenReturn(cursor);
+
+        try (Stream<Object> stream = create(0).get().stream(typedQuery)) {
+            assertEquals(Arrays.asList("A", "B"), stream.collect(Collectors.toList()));
+            assertFalse(cursor.closed);
+        }
+
+        assertTrue(cursor.closed);
+        verify(typedQuery).setHint("eclipselink.cursor", true);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void streamWithoutCursor() {
+        final TypedQuery<Object> typedQuery = mock(TypedQuery.class);
+        when(typedQuery.getSingleResult()).thenReturn("A");
+
+        final ProviderDialect dialect = create(0).get();
+
+        assertThrows(JPAStreamerException.class, () -> dialect.stream(typedQuery));
+    }
+
+    private Optional<ProviderDialect> create(final int timeout) {
+        return EclipseLinkDialect.create(entityManagerFactory, this::resolve, 100, false, timeout);
+    }
+
+    private Class<?> resolve(final String className) throws ClassNotFoundException {
+        final Class<?> clazz = classes.get(className);
+        if (clazz == null) {
+            throw new ClassNotFoundException(className);
+        }
+        return clazz;
+    }
+
+    // Stand-ins for the EclipseLink types that the dialect reaches reflectively
+
+    interface JpaEntityManagerFactory {}
+
+    interface Cursor {
+        void close();
+    }
+
+    static final class ListCursor implements Cursor, Iterator<Object> {
+
+        private final Iterator<Object> iterator;
+        private boolean closed;
+
+        ListCursor(final Object... elements) {
+            this.iterator = Arrays.asList(elements).iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return iterator.hasNext();
+        }
+
+        @Override
+        public Object next() {
+            return iterator.next();
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal.dialect;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceException;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+final class HibernateDialectTest {
+
+    private EntityManagerFactory entityManagerFactory;
+    private SessionFactory sessionFactory;
+    private Map<String, Class<?>> classes;
+
+    @BeforeEach
+    void setUp() {
+        sessionFactory = mock(SessionFactory.class);
+        entityManagerFactory = mock(EntityManagerFactory.class);
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+
+        classes = new HashMap<>();
+        classes.put("org.hibernate.SessionFactory", SessionFactory.class);
+        classes.put("org.hibernate.query.Query", Query.class);
+        classes.put("org.hibernate.ScrollMode", ScrollMode.class);
+        classes.put("org.hibernate.ScrollableResults", ScrollableResults.class);
+        classes.put("org.hibernate.StatelessSession", StatelessSession.class);
+    }
+
+    @Test
+    void create() {
+        final Optional<ProviderDialect> dialect = create(0);
+
+        assertTrue(dialect.isPresent());
+        assertTrue(dialect.get().supportsStateless());
+    }
+
+    @Test
+    void createWithoutHibernate() {
+        classes.clear();
+
+        assertFalse(create(0).isPresent());
+    }
+
+    @Test
+    void createOfOtherProvider() {
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenThrow(PersistenceException.class);
+
+        assertFalse(create(0).isPresent());
+    }
+
+    @Test
+    void createBeforeHibernate6() {
+        // Rows of Hibernate 5 are arrays and its getResultStream() is already scrolled
+        classes.put("org.hibernate.ScrollableResults", LegacyScrollableResults.class);
+
+        assertFalse(create(0).isPresent());
+    }
+
+    @Test
+    void createWithoutStatelessSession() {
+        classes.remove("org.hibernate.StatelessSession");
+
+        assertFalse(create(0).isPresent());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void prepare() {
+        final TypedQuery<Object> query = mock(TypedQuery.class);
+
+        create(500).get().prepare(query);
+
+        verify(query).setHint("org.hibernate.fetchSize", 100);
+        verify(query).setHint(ProviderDialects.TIMEOUT_HINT, 500);
+        verify(query, never()).setHint("org.hibernate.readOnly", true);
+    }
+
+    @Test
+    void stream() {
+        final ScrollableResults results = results("A", "B");
+        final TypedQuery<String> typedQuery = typedQuery(results);
+
+        try (Stream<String> stream = create(0).get().stream(typedQuery)) {
+            assertEquals(Arrays.asList("A", "B"), stream.collect(Collectors.toList()));
+            verify(results, never()).close();
+        }
+
+        verify(results).close();
+        verify(typedQuery, never()).getResultStream();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void streamStateless() {
+        final StatelessSession statelessSession = statelessSession();
+        final ScrollableResults results = results("A", "B");
+        final TypedQuery<String> typedQuery = typedQuery(results);
+        final CriteriaQuery<String> criteriaQuery = mock(CriteriaQuery.class);
+        doReturn(typedQuery).when(statelessSession).createQuery(criteriaQuery);
+        final Consumer<TypedQuery<String>> configurer = mock(Consumer.class);
+
+        try (Stream<String> stream = create(0).get().streamStateless(entityManager(), criteriaQuery, configurer)) {
+            assertEquals(Arrays.asList("A", "B"), stream.collect(Collectors.toList()));
+            verify(statelessSession, never()).close();
+        }
+
+        // The session is closed with the stream
+        verify(results).close();
+        verify(statelessSession).close();
+        verify(typedQuery).setHint("org.hibernate.fetchSize", 100);
+        verify(configurer).accept(typedQuery);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void streamStatelessFailingConfiguration() {
+        final StatelessSession statelessSession = statelessSession();
+        final CriteriaQuery<String> criteriaQuery = mock(CriteriaQuery.class);
+        doReturn(typedQuery(results("A", "B"))).when(statelessSession).createQuery(criteriaQuery);
+        final ProviderDialect dialect = create(0).get();
+        final EntityManager entityManager = entityManager();
+
+        assertThrows(IllegalArgumentException.class, () -> dialect.streamStateless(entityManager, criteriaQuery, query -> {
+            throw new IllegalArgumentException();
+        }));
+        verify(statelessSession).close();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void streamStatelessFailingQuery() {
+        final StatelessSession statelessSession = statelessSession();
+        final CriteriaQuery<String> criteriaQuery = mock(CriteriaQuery.class);
+        final Query query = mock(Query.class);
+        when(query.scroll(ScrollMode.FORWARD_ONLY)).thenThrow(PersistenceException.class);
+        final TypedQuery<String> typedQuery = mock(TypedQuery.class);
+        when(typedQuery.unwrap(Query.class)).thenReturn(query);
+        doReturn(typedQuery).when(statelessSession).createQuery(criteriaQuery);
+        final ProviderDialect dialect = create(0).get();
+        final EntityManager entityManager = entityManager();
+
+        assertThrows(PersistenceException.class, () -> dialect.streamStateless(entityManager, criteriaQuery, q -> {}));
+        verify(statelessSession).close();
+    }
+
+    private StatelessSession statelessSession() {
+        final StatelessSession statelessSession = mock(StatelessSession.class);
+        when(sessionFactory.openStatelessSession()).thenReturn(statelessSession);
+        return statelessSession;
+    }
+
+    private EntityManager entityManager() {
+        final EntityManager entityManager = mock(EntityManager.class);
+        when(entityManager.getEntityManagerFactory()).thenReturn(entityManagerFactory);
+        return entityManager;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static TypedQuery<String> typedQuery(final ScrollableResults results) {
+        final Query query = mock(Query.class);
+        when(query.scroll(ScrollMode.FORWARD_ONLY)).thenReturn(results);
+        final TypedQuery<String> typedQuery = mock(TypedQuery.class);
+        when(typedQuery.unwrap(Query.class)).thenReturn(query);
+        return typedQuery;
+    }
+
+    private Optional<ProviderDialect> create(final int timeout) {
+        return HibernateDialect.create(entityManagerFactory, this::resolve, 100, false, timeout);
+    }
+
+    private Class<?> resolve(final String className) throws ClassNotFoundException {
+        final Class<?> clazz = classes.get(className);
+        if (clazz == null) {
+            throw new ClassNotFoundException(className);
+        }
+        return clazz;
+    }
+
+    private static ScrollableResults results(final String first, final String second) {
+        final ScrollableResults results = mock(ScrollableResults.class);
+        when(results.next()).thenReturn(true, true, false);
+        when(results.get()).thenReturn(first, second);
+        return results;
+    }
+
+    // Stand-ins for the Hibernate types that the dialect reaches reflectively
+
+    interface SessionFactory {
+        StatelessSession openStatelessSession();
+    }
+
+    interface StatelessSession {
+        TypedQuery<?> createQuery(CriteriaQuery<?> criteriaQuery);
+        void close();
+    }
+
+    interface Query {
+        ScrollableResults scroll(ScrollMode scrollMode);
+    }
+
+    enum ScrollMode {
+        FORWARD_ONLY
+    }
+
+    interface ScrollableResults {
+        boolean next();
+        Object get();
+        void close();
+    }
+
+    interface LegacyScrollableResults {
+        boolean next();
+        Object[] get();
+        void close();
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal.dialect;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceException;
+import jakarta.persistence.TypedQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+final class ProviderDialectsTest {
+
+    private EntityManagerFactory entityManagerFactory;
+    private Map<String, Class<?>> classes;
+
+    @BeforeEach
+    void setUp() {
+        entityManagerFactory = mock(EntityManagerFactory.class);
+        classes = new HashMap<>();
+    }
+
+    @Test
+    void resolveWithoutProvider() {
+        final EntityManager entityManager = mock(EntityManager.class);
+        when(entityManager.getEntityManagerFactory()).thenReturn(entityManagerFactory);
+
+        final ProviderDialect dialect = ProviderDialects.resolve(entityManager);
+
+        assertStandard(dialect);
+        // Dialects are resolved once per persistence unit
+        assertSame(dialect, ProviderDialects.resolve(entityManager));
+        assertStandard(ProviderDialects.resolve(null));
+        assertStandard(ProviderDialects.resolve(mock(EntityManager.class)));
+    }
+
+    @Test
+    void createHibernate() {
+        hibernate();
+        eclipseLink();
+
+        assertTrue(ProviderDialects.create(entityManagerFactory, this::resolve) instanceof HibernateDialect);
+    }
+
+    @Test
+    void createEclipseLink() {
+        eclipseLink();
+
+        assertTrue(ProviderDialects.create(entityManagerFactory, this::resolve) instanceof EclipseLinkDialect);
+    }
+
+    @Test
+    void createOfOtherProvider() {
+        // Both providers are on the class path but the factory belongs to EclipseLink
+        hibernate();
+        eclipseLink();
+        when(entityManagerFactory.unwrap(HibernateDialectTest.SessionFactory.class)).thenThrow(PersistenceException.class);
+
+        assertTrue(ProviderDialects.create(entityManagerFactory, this::resolve) instanceof EclipseLinkDialect);
+    }
+
+    @Test
+    void createBeforeHibernate6() {
+        hibernate();
+        classes.put("org.hibernate.ScrollableResults", HibernateDialectTest.LegacyScrollableResults.class);
+
+        assertStandard(ProviderDialects.create(entityManagerFactory, this::resolve));
+    }
+
+    @Test
+    void createWithoutProvider() {
+        assertStandard(ProviderDialects.create(entityManagerFactory, this::resolve));
+    }
+
+    @Test
+    void classResolver() throws ClassNotFoundException {
+        assertSame(TypedQuery.class, ProviderDialects.classResolver(entityManagerFactory).resolve(TypedQuery.class.getName()));
+        assertFalse(ProviderDialects.unwrappable(entityManagerFactory, ProviderDialects.classResolver(entityManagerFactory), "org.hibernate.SessionFactory").isPresent());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void assertStandard(final ProviderDialect dialect) {
+        assertFalse(dialect.supportsStateless());
+
+        final TypedQuery<String> query = mock(TypedQuery.class);
+        when(query.getResultStream()).thenReturn(Stream.of("A", "B"));
+
+        dialect.prepare(query);
+        verify(query, never()).setHint(anyString(), any());
+        assertEquals(Arrays.asList("A", "B"), dialect.stream(query).collect(Collectors.toList()));
+    }
+
+    private void hibernate() {
+        when(entityManagerFactory.unwrap(HibernateDialectTest.SessionFactory.class)).thenReturn(mock(HibernateDialectTest.SessionFactory.class));
+        classes.put("org.hibernate.SessionFactory", HibernateDialectTest.SessionFactory.class);
+        classes.put("org.hibernate.query.Query", HibernateDialectTest.Query.class);
+        classes.put("org.hibernate.ScrollMode", HibernateDialectTest.ScrollMode.class);
+        classes.put("org.hibernate.ScrollableResults", HibernateDialectTest.ScrollableResults.class);
+        classes.put("org.hibernate.StatelessSession", HibernateDialectTest.StatelessSession.class);
+    }
+
+    private void eclipseLink() {
+        when(entityManagerFactory.unwrap(EclipseLinkDialectTest.JpaEntityManagerFactory.class)).thenReturn(mock(EclipseLinkDialectTest.JpaEntityManagerFactory.class));
+        classes.put("org.eclipse.persistence.jpa.JpaEntityManagerFactory", EclipseLinkDialectTest.JpaEntityManagerFactory.class);
+        classes.put("org.eclipse.persistence.queries.Cursor", EclipseLinkDialectTest.Cursor.class);
+    }
+
+    private Class<?> resolve(final String className) throws ClassNotFoundException {
+        final Class<?> clazz = classes.get(className);
+        if (clazz == null) {
+            throw new ClassNotFoundException(className);
+        }
+        return clazz;
+    }
+}
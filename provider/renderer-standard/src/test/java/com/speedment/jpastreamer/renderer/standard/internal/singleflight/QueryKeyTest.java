@@ -0,0 +1,176 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal.singleflight;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.speedment.jpastreamer.field.IntField;
+import com.speedment.jpastreamer.field.StringField;
+import com.speedment.jpastreamer.field.predicate.Inclusion;
+import com.speedment.jpastreamer.pipeline.Pipeline;
+import com.speedment.jpastreamer.pipeline.PipelineFactory;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperation;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationFactory;
+import com.speedment.jpastreamer.rootfactory.RootFactory;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.ServiceLoader;
+import java.util.function.Predicate;
+
+final class QueryKeyTest {
+
+    private static final StringField<Film> TITLE = StringField.create(Film.class, "title", Film::getTitle, false);
+    private static final IntField<Film> LENGTH = IntField.create(Film.class, "length", Film::getLength, false);
+
+    private final PipelineFactory pipelineFactory = RootFactory.getOrThrow(PipelineFactory.class, ServiceLoader::load);
+    private final IntermediateOperationFactory operationFactory = RootFactory.getOrThrow(IntermediateOperationFactory.class, ServiceLoader::load);
+
+    private final StreamConfiguration<Film> streamConfiguration = configuration();
+
+    @Test
+    void sameValues() {
+        final Object key = key(filter(TITLE.equal("Academy Dinosaur")));
+
+        assertEquals(key, key(filter(TITLE.equal("Academy Dinosaur"))));
+        assertEquals(key.hashCode(), key(filter(TITLE.equal("Academy Dinosaur"))).hashCode());
+    }
+
+    @Test
+    void otherValues() {
+        assertNotEquals(key(filter(TITLE.equal("Academy Dinosaur"))), key(filter(TITLE.equal("Ace Goldfinger"))));
+        assertNotEquals(key(filter(LENGTH.between(60, 90))), key(filter(LENGTH.between(60, 120))));
+        assertNotEquals(
+            key(filter(LENGTH.between(60, 90, Inclusion.START_INCLUSIVE_END_EXCLUSIVE))),
+            key(filter(LENGTH.between(60, 90, Inclusion.START_INCLUSIVE_END_INCLUSIVE)))
+        );
+    }
+
+    @Test
+    void otherPredicates() {
+        assertNotEquals(key(filter(TITLE.equal("Academy Dinosaur"))), key(filter(TITLE.notEqual("Academy Dinosaur"))));
+        assertNotEquals(key(filter(LENGTH.greaterThan(60))), key(filter(LENGTH.greaterOrEqual(60))));
+    }
+
+    @Test
+    void setValues() {
+        // The values of a set are compared regardless of their order
+        assertEquals(key(filter(TITLE.in("Academy Dinosaur", "Ace Goldfinger"))), key(filter(TITLE.in("Ace Goldfinger", "Academy Dinosaur"))));
+        assertNotEquals(key(filter(TITLE.in("Academy Dinosaur"))), key(filter(TITLE.in("Ace Goldfinger"))));
+    }
+
+    @Test
+    void combinedPredicates() {
+        assertEquals(
+            key(filter(TITLE.equal("Academy Dinosaur").and(LENGTH.greaterThan(60)))),
+            key(filter(TITLE.equal("Academy Dinosaur").and(LENGTH.greaterThan(60))))
+        );
+        assertNotEquals(
+            key(filter(TITLE.equal("Academy Dinosaur").and(LENGTH.greaterThan(60)))),
+            key(filter(TITLE.equal("Academy Dinosaur").or(LENGTH.greaterThan(60))))
+        );
+    }
+
+    @Test
+    void comparators() {
+        assertEquals(key(sorted(TITLE.comparator())), key(sorted(TITLE.comparator())));
+        assertNotEquals(key(sorted(TITLE.comparator())), key(sorted(TITLE.comparator().reversed())));
+        assertNotEquals(key(sorted(TITLE.comparator())), key(sorted(LENGTH.comparator())));
+        assertEquals(
+            key(sorted(TITLE.comparator().thenComparing(LENGTH.comparator()))),
+            key(sorted(TITLE.comparator().thenComparing(LENGTH.comparator())))
+        );
+    }
+
+    @Test
+    void stateless() {
+        final List<IntermediateOperation<?, ?>> operations = Collections.singletonList(filter(TITLE.equal("Academy Dinosaur")));
+
+        assertNotEquals(
+            QueryKey.of(streamConfiguration, false, operations, pipelineFactory.createPipeline(Film.class)),
+            QueryKey.of(streamConfiguration, true, operations, pipelineFactory.createPipeline(Film.class))
+        );
+    }
+
+    @Test
+    void lambda() {
+        final Predicate<Film> lambda = film -> film.getLength() > 60;
+
+        // Two lambdas cannot be told apart, so their queries are not coalesced
+        assertFalse(QueryKey.of(streamConfiguration, false, Collections.singletonList(filter(lambda)), pipelineFactory.createPipeline(Film.class)).isPresent());
+        assertFalse(QueryKey.of(
+            streamConfiguration,
+            false,
+            Collections.singletonList(filter(TITLE.equal("Academy Dinosaur").and(lambda))),
+            pipelineFactory.createPipeline(Film.class)
+        ).isPresent());
+    }
+
+    @Test
+    void residualLambda() {
+        final Predicate<Film> lambda = film -> film.getLength() > 60;
+        final IntermediateOperation<?, ?> residual = filter(lambda);
+        final Pipeline<Film> pipeline = pipelineFactory.createPipeline(Film.class);
+        pipeline.intermediateOperations().add(residual);
+
+        // Operations that are applied to the results rather than rendered to the query do not matter
+        final Optional<Object> key = QueryKey.of(streamConfiguration, false, Collections.singletonList(residual), pipeline);
+        assertTrue(key.isPresent());
+        assertEquals(key(), key.get());
+    }
+
+    private Object key(final IntermediateOperation<?, ?>... operations) {
+        final List<IntermediateOperation<?, ?>> rendered = Arrays.asList(operations);
+        return QueryKey.of(streamConfiguration, false, rendered, pipelineFactory.createPipeline(Film.class)).get();
+    }
+
+    private IntermediateOperation<?, ?> filter(final Predicate<Film> predicate) {
+        return operationFactory.createFilter(predicate);
+    }
+
+    private IntermediateOperation<?, ?> sorted(final Comparator<Film> comparator) {
+        return operationFactory.createSorted(comparator);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static StreamConfiguration<Film> configuration() {
+        final StreamConfiguration<Film> streamConfiguration = mock(StreamConfiguration.class);
+        when(streamConfiguration.entityClass()).thenReturn(Film.class);
+        when(streamConfiguration.selections()).thenReturn(Optional.empty());
+        when(streamConfiguration.joins()).thenReturn(Collections.emptySet());
+        when(streamConfiguration.graph()).thenReturn(Optional.empty());
+        when(streamConfiguration.hints()).thenReturn(Collections.emptyMap());
+        return streamConfiguration;
+    }
+
+    static final class Film {
+
+        String getTitle() {
+            return null;
+        }
+
+        int getLength() {
+            return 0;
+        }
+    }
+}
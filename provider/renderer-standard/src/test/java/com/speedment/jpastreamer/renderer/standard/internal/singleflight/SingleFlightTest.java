@@ -0,0 +1,224 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal.singleflight;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import com.speedment.jpastreamer.exception.JPAStreamerException;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+final class SingleFlightTest {
+
+    private static final long TIMEOUT_SECONDS = 10;
+
+    private final SingleFlight singleFlight = SingleFlight.of(mock(EntityManagerFactory.class));
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    // The leader holds its query in flight until released
+    private final CountDownLatch leading = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void of() {
+        final EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+
+        assertSame(SingleFlight.of(entityManagerFactory), SingleFlight.of(entityManagerFactory));
+    }
+
+    @Test
+    void coalesced() throws Exception {
+        final AtomicInteger executions = new AtomicInteger();
+        final Future<List<String>> leader = submit(() -> list("key", 10, leader(executions, () -> Stream.of("A", "B"))));
+        assertTrue(leading.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+        final AtomicReference<Thread> followerThread = new AtomicReference<>();
+        final Future<List<String>> follower = submit(() -> {
+            followerThread.set(Thread.currentThread());
+            return list("key", 10, () -> {
+                executions.incrementAndGet();
+                return Stream.of("C");
+            });
+        });
+        awaitWaiting(followerThread);
+
+        release.countDown();
+
+        assertEquals(Arrays.asList("A", "B"), get(leader));
+        // The follower is handed the results of the leader
+        assertEquals(Arrays.asList("A", "B"), get(follower));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void sequential() {
+        final AtomicInteger executions = new AtomicInteger();
+        final Supplier<Stream<String>> query = () -> {
+            executions.incrementAndGet();
+            return Stream.of("A");
+        };
+
+        assertEquals(Collections.singletonList("A"), list("key", 10, query));
+        assertEquals(Collections.singletonList("A"), list("key", 10, query));
+        // The query is no longer in flight once its results are read
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void otherKey() throws Exception {
+        final Future<List<String>> leader = submit(() -> list("key", 10, leader(new AtomicInteger(), () -> Stream.of("A"))));
+        assertTrue(leading.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+        // Does not wait for the leader of another key
+        assertEquals(Collections.singletonList("B"), list("other", 10, () -> Stream.of("B")));
+
+        release.countDown();
+        assertEquals(Collections.singletonList("A"), get(leader));
+    }
+
+    @Test
+    void tooManyResults() throws Exception {
+        final AtomicBoolean closed = new AtomicBoolean();
+        final Future<List<String>> leader = submit(() -> {
+            try (Stream<String> stream = singleFlight.stream("key", 2, leader(new AtomicInteger(), () -> Stream.of("A", "B", "C").onClose(() -> closed.set(true))))) {
+                return stream.collect(toList());
+            }
+        });
+        assertTrue(leading.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+        final AtomicReference<Thread> followerThread = new AtomicReference<>();
+        final AtomicInteger followerExecutions = new AtomicInteger();
+        final Future<List<String>> follower = submit(() -> {
+            followerThread.set(Thread.currentThread());
+            return list("key", 2, () -> {
+                followerExecutions.incrementAndGet();
+                return Stream.of("D");
+            });
+        });
+        awaitWaiting(followerThread);
+
+        release.countDown();
+
+        // The leader streams all of its results, which are too many to share
+        assertEquals(Arrays.asList("A", "B", "C"), get(leader));
+        assertTrue(closed.get());
+        // so the follower executes the query itself
+        assertEquals(Collections.singletonList("D"), get(follower));
+        assertEquals(1, followerExecutions.get());
+    }
+
+    @Test
+    void failure() throws Exception {
+        final IllegalStateException failure = new IllegalStateException("Connection refused");
+        final Future<List<String>> leader = submit(() -> list("key", 10, leader(new AtomicInteger(), () -> {
+            throw failure;
+        })));
+        assertTrue(leading.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+        final AtomicReference<Thread> followerThread = new AtomicReference<>();
+        final Future<List<String>> follower = submit(() -> {
+            followerThread.set(Thread.currentThread());
+            return list("key", 10, () -> Stream.of("B"));
+        });
+        awaitWaiting(followerThread);
+
+        release.countDown();
+
+        assertSame(failure, assertThrows(ExecutionException.class, () -> get(leader)).getCause());
+        // The failure of the leader is propagated to the follower
+        final Throwable followerFailure = assertThrows(ExecutionException.class, () -> get(follower)).getCause();
+        assertTrue(followerFailure instanceof JPAStreamerException);
+        assertSame(failure, followerFailure.getCause());
+
+        // and the failed query is no longer in flight
+        assertEquals(Collections.singletonList("C"), list("key", 10, () -> Stream.of("C")));
+    }
+
+    @Test
+    void failureWhileReading() {
+        final AtomicBoolean closed = new AtomicBoolean();
+        final Stream<String> failing = Stream.of("A", "B")
+            .<String>map(element -> {
+                throw new IllegalStateException("Connection reset");
+            })
+            .onClose(() -> closed.set(true));
+
+        assertThrows(IllegalStateException.class, () -> list("key", 10, () -> failing));
+        assertTrue(closed.get());
+        assertEquals(Collections.singletonList("C"), list("key", 10, () -> Stream.of("C")));
+    }
+
+    private <T> Supplier<Stream<T>> leader(final AtomicInteger executions, final Supplier<Stream<T>> query) {
+        return () -> {
+            executions.incrementAndGet();
+            leading.countDown();
+            try {
+                assertTrue(release.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return query.get();
+        };
+    }
+
+    private <T> List<T> list(final Object key, final int maxResults, final Supplier<Stream<T>> query) {
+        try (Stream<T> stream = singleFlight.stream(key, maxResults, query)) {
+            return stream.collect(toList());
+        }
+    }
+
+    private <T> Future<T> submit(final Callable<T> callable) {
+        return executor.submit(callable);
+    }
+
+    private static <T> T get(final Future<T> future) throws Exception {
+        return future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private static void awaitWaiting(final AtomicReference<Thread> thread) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (thread.get() == null || thread.get().getState() != Thread.State.WAITING) {
+            assertTrue(System.nanoTime() < deadline, "Follower did not wait for the leader");
+            Thread.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal.snapshot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.speedment.jpastreamer.exception.JPAStreamerException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+final class EntityCopierTest {
+
+    @Test
+    void copy() {
+        final Film film = new Film();
+        film.id = 1;
+        film.title = "Academy Dinosaur";
+        film.actors = new ArrayList<>();
+
+        final Film copy = EntityCopier.copy(film);
+
+        assertNotSame(film, copy);
+        assertEquals(1, copy.id);
+        assertEquals("Academy Dinosaur", copy.title);
+        // The copy is shallow
+        assertSame(film.actors, copy.actors);
+    }
+
+    @Test
+    void copyWithoutEnhancement() {
+        final Film film = new Film();
+        film.$$_hibernate_tracker = new Object();
+        film._persistence_fetchGroup = new Object();
+
+        final Film copy = EntityCopier.copy(film);
+
+        // The state of the provider belongs to the persistence context of the original
+        assertNull(copy.$$_hibernate_tracker);
+        assertNull(copy._persistence_fetchGroup);
+    }
+
+    @Test
+    void copyWithoutConstructor() {
+        assertThrows(JPAStreamerException.class, () -> EntityCopier.copy(new Actor("Penelope")));
+    }
+
+    static class Entity {
+        int id;
+    }
+
+    static final class Film extends Entity {
+
+        private static final String TABLE = "film";
+
+        String title;
+        List<Actor> actors;
+
+        Object $$_hibernate_tracker;
+        Object _persistence_fetchGroup;
+    }
+
+    static final class Actor {
+
+        final String name;
+
+        Actor(final String name) {
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal.snapshot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import com.speedment.jpastreamer.field.ComparableField;
+import com.speedment.jpastreamer.field.DoubleField;
+import com.speedment.jpastreamer.field.IntField;
+import com.speedment.jpastreamer.field.StringField;
+import com.speedment.jpastreamer.field.predicate.Inclusion;
+import com.speedment.jpastreamer.pipeline.Pipeline;
+import com.speedment.jpastreamer.pipeline.PipelineFactory;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationFactory;
+import com.speedment.jpastreamer.rootfactory.RootFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+final class SnapshotPlannerTest {
+
+    private static final IntField<Film> ID = IntField.create(Film.class, "id", Film::getId, true);
+    private static final IntField<Film> LENGTH = IntField.create(Film.class, "length", Film::getLength, false);
+    private static final DoubleField<Film> RATE = DoubleField.create(Film.class, "rate", Film::getRate, false);
+    private static final StringField<Film> TITLE = StringField.create(Film.class, "title", Film::getTitle, false);
+    private static final ComparableField<Film, Integer> YEAR = ComparableField.create(Film.class, "year", Film::getYear, false);
+
+    private final PipelineFactory pipelineFactory = RootFactory.getOrThrow(PipelineFactory.class, ServiceLoader::load);
+    private final IntermediateOperationFactory operationFactory = RootFactory.getOrThrow(IntermediateOperationFactory.class, ServiceLoader::load);
+
+    private final List<Film> films = films();
+    private final Snapshot<Film> snapshot = new Snapshot<>(films);
+
+    @Test
+    void equal() {
+        assertIndexed(LENGTH.equal(90));
+        assertIndexed(LENGTH.equal(91));
+        assertIndexed(TITLE.equal("Academy"));
+        assertIndexed(YEAR.equal(2006));
+        // -0.0 == 0.0 holds for the predicate
+        assertIndexed(RATE.equal(-0.0));
+        assertIndexed(RATE.equal(Double.NaN));
+    }
+
+    @Test
+    void in() {
+        assertIndexed(LENGTH.in(60, 90, 200));
+        assertIndexed(TITLE.in("Academy", "Zorro", "Missing"));
+    }
+
+    @Test
+    void inclusiveBounds() {
+        for (int length = 50; length <= 130; length += 10) {
+            assertIndexed(LENGTH.greaterOrEqual(length));
+            assertIndexed(LENGTH.lessOrEqual(length));
+            assertIndexed(RATE.greaterOrEqual(length / 40.0));
+            assertIndexed(RATE.lessOrEqual(length / 40.0));
+        }
+        assertIndexed(YEAR.greaterOrEqual(2006));
+        assertIndexed(YEAR.lessOrEqual(2006));
+        assertIndexed(TITLE.greaterOrEqual("B"));
+    }
+
+    @Test
+    void exclusiveBounds() {
+        for (int length = 50; length <= 130; length += 10) {
+            assertIndexed(LENGTH.greaterThan(length));
+            assertIndexed(LENGTH.lessThan(length));
+            assertIndexed(RATE.greaterThan(length / 40.0));
+            assertIndexed(RATE.lessThan(length / 40.0));
+        }
+        assertIndexed(YEAR.greaterThan(2006));
+        assertIndexed(YEAR.lessThan(2006));
+        assertIndexed(TITLE.lessThan("B"));
+    }
+
+    @Test
+    void between() {
+        for (final Inclusion inclusion : Inclusion.values()) {
+            assertIndexed(LENGTH.between(60, 120, inclusion));
+            assertIndexed(LENGTH.between(120, 60, inclusion));
+            assertIndexed(RATE.between(0.0, 2.99, inclusion));
+            assertIndexed(YEAR.between(2004, 2006, inclusion));
+            assertIndexed(TITLE.between("A", "Z", inclusion));
+        }
+    }
+
+    @Test
+    void startsWith() {
+        assertIndexed(TITLE.startsWith("A"));
+        assertIndexed(TITLE.startsWith("Ac"));
+        assertIndexed(TITLE.startsWith("Q"));
+    }
+
+    @Test
+    void combined() {
+        assertIndexed(LENGTH.greaterThan(60).and(YEAR.lessOrEqual(2006)));
+        assertIndexed(TITLE.startsWith("A").and(LENGTH.between(60, 120)).and(RATE.greaterThan(0.99)));
+    }
+
+    @Test
+    void nullKeys() {
+        // Entities with a null value match no range and no equality to a value
+        assertIndexed(YEAR.greaterThan(0));
+        assertIndexed(YEAR.lessThan(Integer.MAX_VALUE));
+        assertIndexed(TITLE.in("Academy", "Zorro"));
+        assertIndexed(TITLE.startsWith(""));
+    }
+
+    @Test
+    void fallback() {
+        // Predicates that cannot be looked up leave all entities as candidates
+        assertScanned(YEAR.isNull());
+        assertScanned(YEAR.equal(null));
+        assertScanned(TITLE.notEqual("Academy"));
+        assertScanned(TITLE.equalIgnoreCase("academy"));
+        assertScanned(LENGTH.greaterThan(60).or(YEAR.isNull()));
+        assertScanned(film -> film.getLength() > 60);
+    }
+
+    @Test
+    void leadingFiltersOnly() {
+        final Pipeline<Film> pipeline = pipeline(LENGTH.equal(90));
+        pipeline.intermediateOperations().add(0, operationFactory.createSkip(1));
+
+        // A filter after another operation is evaluated on what that operation yields
+        assertEquals(films.size(), SnapshotPlanner.stream(snapshot, pipeline).count());
+    }
+
+    /**
+     * Asserts that the candidates that the indexes leave for the provided
+     * {@code predicate} are exactly the entities that a full scan matches.
+     */
+    private void assertIndexed(final Predicate<Film> predicate) {
+        final List<Integer> scanned = scan(predicate);
+        assertEquals(scanned, ids(SnapshotPlanner.stream(snapshot, pipeline(predicate)).collect(Collectors.toList())), predicate::toString);
+        assertEquals(scanned, ids(SnapshotPlanner.stream(snapshot, pipeline(predicate)).filter(predicate).collect(Collectors.toList())), predicate::toString);
+    }
+
+    private void assertScanned(final Predicate<Film> predicate) {
+        final List<Film> candidates = SnapshotPlanner.stream(snapshot, pipeline(predicate)).collect(Collectors.toList());
+        assertEquals(ids(films), ids(candidates), predicate::toString);
+        assertFalse(scan(predicate).isEmpty());
+    }
+
+    private List<Integer> scan(final Predicate<Film> predicate) {
+        return ids(films.stream().filter(predicate).collect(Collectors.toList()));
+    }
+
+    private Pipeline<Film> pipeline(final Predicate<Film> predicate) {
+        final Pipeline<Film> pipeline = pipelineFactory.createPipeline(Film.class);
+        pipeline.intermediateOperations().add(operationFactory.createFilter(predicate));
+        return pipeline;
+    }
+
+    private static List<Integer> ids(final List<Film> films) {
+        return films.stream().map(Film::getId).collect(Collectors.toList());
+    }
+
+    private static List<Film> films() {
+        final List<Film> films = new ArrayList<>();
+        final List<String> titles = Arrays.asList("Academy", "Ace", "Zorro", null, "Bucket", "academy", "Ab");
+        final List<Integer> years = Arrays.asList(2006, null, 2004, 2005, 2006, null, 2007);
+        final double[] rates = {0.99, 2.99, 4.99, -0.0, 0.0, Double.NaN, 2.99};
+        for (int id = 0; id < 50; id++) {
+            films.add(new Film(
+                id,
+                60 + (id * 7) % 70,
+                rates[id % rates.length],
+                titles.get(id % titles.size()),
+                years.get((id / 3) % years.size())
+            ));
+        }
+        return films;
+    }
+
+    static final class Film {
+
+        private int id;
+        private int length;
+        private double rate;
+        private String title;
+        private Integer year;
+
+        Film() {}
+
+        Film(final int id, final int length, final double rate, final String title, final Integer year) {
+            this.id = id;
+            this.length = length;
+            this.rate = rate;
+            this.title = title;
+            this.year = year;
+        }
+
+        int getId() {
+            return id;
+        }
+
+        int getLength() {
+            return length;
+        }
+
+        double getRate() {
+            return rate;
+        }
+
+        String getTitle() {
+            return title;
+        }
+
+        Integer getYear() {
+            return year;
+        }
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal.spill;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.speedment.jpastreamer.exception.JPAStreamerException;
+import org.junit.jupiter.api.Test;
+
+import java.io.Serializable;
+import java.util.*;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+final class ExternalSortTest {
+
+    private static final int THRESHOLD = 10;
+
+    @Test
+    void sortedWithinThreshold() {
+        final List<Integer> expected = Arrays.asList(1, 2, 3);
+        assertEquals(expected, ExternalSort.sorted(Stream.of(3, 1, 2), null, THRESHOLD, SpillCodec.serializing()).collect(toList()));
+    }
+
+    @Test
+    void sortedMergesRuns() {
+        final List<Integer> source = shuffled(1_000);
+
+        final List<Integer> actual = ExternalSort.sorted(source.stream(), Comparator.reverseOrder(), THRESHOLD, SpillCodec.<Integer>serializing()).collect(toList());
+
+        final List<Integer> expected = new ArrayList<>(source);
+        expected.sort(Comparator.reverseOrder());
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void sortedIsStable() {
+        // Elements with equal keys are spread over several runs
+        final List<Pair> source = IntStream.range(0, 500)
+            .mapToObj(i -> new Pair(i % 7, i))
+            .collect(toList());
+
+        final List<Pair> actual = ExternalSort.sorted(source.stream(), Comparator.comparingInt(Pair::key), THRESHOLD, SpillCodec.<Pair>serializing()).collect(toList());
+
+        final List<Pair> expected = new ArrayList<>(source);
+        expected.sort(Comparator.comparingInt(Pair::key));
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void sortedIsLazy() {
+        final boolean[] consumed = {false};
+        final Stream<Integer> sorted = ExternalSort.sorted(Stream.of(2, 1).peek(i -> consumed[0] = true), null, THRESHOLD, SpillCodec.serializing());
+        assertFalse(consumed[0]);
+        assertEquals(Optional.of(1), sorted.findFirst());
+        assertTrue(consumed[0]);
+    }
+
+    @Test
+    void distinctWithinThreshold() {
+        final List<Integer> expected = Arrays.asList(3, 1, 2);
+        assertEquals(expected, ExternalSort.distinct(Stream.of(3, 1, 3, 2, 1), THRESHOLD, SpillCodec.serializing()).collect(toList()));
+    }
+
+    @Test
+    void distinctAcrossPartitions() {
+        // Far more distinct elements than the partitions of a single level can hold
+        final List<Integer> source = new ArrayList<>(shuffled(2_000));
+        source.addAll(shuffled(2_000));
+
+        final List<Integer> actual = ExternalSort.distinct(source.stream(), THRESHOLD, SpillCodec.<Integer>serializing()).collect(toList());
+
+        assertEquals(new ArrayList<>(new LinkedHashSet<>(source)), actual);
+    }
+
+    @Test
+    void distinctWithEqualHashCodes() {
+        final List<Pair> source = IntStream.range(0, 200)
+            .mapToObj(i -> new CollidingPair(i % 50, i % 50))
+            .collect(toList());
+
+        final List<Pair> actual = ExternalSort.distinct(source.stream(), THRESHOLD, SpillCodec.<Pair>serializing()).collect(toList());
+
+        assertEquals(new ArrayList<>(new LinkedHashSet<>(source)), actual);
+    }
+
+    @Test
+    void distinctKeepsNull() {
+        final List<Integer> source = IntStream.range(0, 100)
+            .mapToObj(i -> i % 3 == 0 ? null : i % 20)
+            .collect(toList());
+
+        final List<Integer> actual = ExternalSort.distinct(source.stream(), 4, SpillCodec.<Integer>serializing()).collect(toList());
+
+        assertEquals(new ArrayList<>(new LinkedHashSet<>(source)), actual);
+    }
+
+    @Test
+    void distinctHoldsIdentityElementsInMemory() {
+        // Copies of these would never be equal to the originals
+        final Object element = new Object();
+        final List<Object> source = new ArrayList<>();
+        IntStream.range(0, 100).forEach(i -> source.add(new Object()));
+        source.add(element);
+        source.add(element);
+
+        final List<Object> actual = ExternalSort.distinct(source.stream(), THRESHOLD, SpillCodec.serializing()).collect(toList());
+
+        assertEquals(101, actual.size());
+        assertSame(element, actual.get(100));
+    }
+
+    @Test
+    void spillNonSerializable() {
+        final List<Unserializable> source = IntStream.range(0, 100)
+            .mapToObj(i -> new Unserializable(100 - i))
+            .collect(toList());
+
+        final Stream<Unserializable> sorted = ExternalSort.sorted(source.stream(), Comparator.comparingInt(u -> u.value), THRESHOLD, SpillCodec.serializing());
+        assertThrows(JPAStreamerException.class, sorted::count);
+    }
+
+    @Test
+    void spillColumns() {
+        final List<Unserializable> source = IntStream.range(0, 100)
+            .mapToObj(i -> new Unserializable(i % 40))
+            .collect(toList());
+        final SpillCodec<Unserializable> codec = SpillCodec.columns(u -> new Object[]{u.value}, columns -> new Unserializable((Integer) columns[0]));
+
+        final List<Integer> sorted = ExternalSort.sorted(source.stream(), Comparator.comparingInt(u -> u.value), THRESHOLD, codec)
+            .map(u -> u.value)
+            .collect(toList());
+        assertEquals(source.stream().map(u -> u.value).sorted().collect(toList()), sorted);
+
+        final List<Integer> distinct = ExternalSort.distinct(source.stream(), THRESHOLD, codec)
+            .map(u -> u.value)
+            .collect(toList());
+        assertEquals(IntStream.range(0, 40).boxed().collect(toList()), distinct);
+    }
+
+    @Test
+    void spillNullColumns() {
+        final List<Object[]> source = IntStream.range(0, 100)
+            .mapToObj(i -> i % 10 == 0 ? null : new Object[]{i, null, "s" + i, (long) i, i / 2d, i % 2 == 0})
+            .collect(toList());
+        final SpillCodec<Object[]> codec = SpillCodec.columns(Object[]::clone, Object[]::clone);
+
+        final List<Object[]> actual = ExternalSort.sorted(source.stream(), Comparator.nullsFirst(Comparator.comparingInt(a -> -(Integer) a[0])), THRESHOLD, codec)
+            .collect(toList());
+
+        final List<Object[]> expected = new ArrayList<>(source);
+        expected.sort(Comparator.nullsFirst(Comparator.comparingInt(a -> -(Integer) a[0])));
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertArrayEquals(expected.get(i), actual.get(i));
+        }
+    }
+
+    private static List<Integer> shuffled(final int size) {
+        final List<Integer> list = IntStream.range(0, size).boxed().collect(toList());
+        Collections.shuffle(list, new Random(size));
+        return list;
+    }
+
+    private static class Pair implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int key;
+        private final int value;
+
+        Pair(final int key, final int value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        int key() {
+            return key;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            final Pair that = (Pair) o;
+            return key == that.key && value == that.value;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(key, value);
+        }
+    }
+
+    private static final class CollidingPair extends Pair {
+
+        private static final long serialVersionUID = 1L;
+
+        CollidingPair(final int key, final int value) {
+            super(key, value);
+        }
+
+        @Override
+        public int hashCode() {
+            return 42;
+        }
+    }
+
+    private static final class Unserializable {
+
+        private final int value;
+
+        Unserializable(final int value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            return o instanceof Unserializable && value == ((Unserializable) o).value;
+        }
+
+        @Override
+        public int hashCode() {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.streamconfiguration.standard.internal;
+
+import com.speedment.jpastreamer.streamconfiguration.CheckpointStore;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+
+import static java.util.Objects.requireNonNull;
+
+final class StandardCheckpointConfiguration implements StreamConfiguration.CheckpointConfiguration {
+
+    private final CheckpointStore store;
+    private final int interval;
+
+    StandardCheckpointConfiguration(final CheckpointStore store, final int interval) {
+        this.store = requireNonNull(store);
+        if (interval <= 0) {
+            throw new IllegalArgumentException("The checkpoint interval must be positive: " + interval);
+        }
+        this.interval = interval;
+    }
+
+    @Override
+    public CheckpointStore store() {
+        return store;
+    }
+
+    @Override
+    public int interval() {
+        return interval;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        StandardCheckpointConfiguration that = (StandardCheckpointConfiguration) o;
+
+        if (interval != that.interval) return false;
+        return store.equals(that.store);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = store.hashCode();
+        result = 31 * result + interval;
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "checkpointing every " + interval + " to " + store;
+    }
+}
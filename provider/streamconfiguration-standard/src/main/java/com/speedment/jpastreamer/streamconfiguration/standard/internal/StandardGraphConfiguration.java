@@ -0,0 +1,83 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.streamconfiguration.standard.internal;
+
+import com.speedment.jpastreamer.streamconfiguration.FieldGraph;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+import jakarta.persistence.EntityGraph;
+
+import java.util.Objects;
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+final class StandardGraphConfiguration<T> implements StreamConfiguration.GraphConfiguration<T> {
+
+    private final StreamConfiguration.GraphType type;
+    private final EntityGraph<?> entityGraph;
+    private final FieldGraph<T> fieldGraph;
+
+    StandardGraphConfiguration(final StreamConfiguration.GraphType type, final EntityGraph<?> entityGraph) {
+        this.type = requireNonNull(type);
+        this.entityGraph = requireNonNull(entityGraph);
+        this.fieldGraph = null;
+    }
+
+    StandardGraphConfiguration(final StreamConfiguration.GraphType type, final FieldGraph<T> fieldGraph) {
+        this.type = requireNonNull(type);
+        this.entityGraph = null;
+        this.fieldGraph = requireNonNull(fieldGraph);
+    }
+
+    @Override
+    public StreamConfiguration.GraphType type() {
+        return type;
+    }
+
+    @Override
+    public Optional<EntityGraph<?>> entityGraph() {
+        return Optional.ofNullable(entityGraph);
+    }
+
+    @Override
+    public Optional<FieldGraph<T>> fieldGraph() {
+        return Optional.ofNullable(fieldGraph);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        StandardGraphConfiguration<?> that = (StandardGraphConfiguration<?>) o;
+
+        if (type != that.type) return false;
+        if (!Objects.equals(entityGraph, that.entityGraph)) return false;
+        return Objects.equals(fieldGraph, that.fieldGraph);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = type.hashCode();
+        result = 31 * result + Objects.hashCode(entityGraph);
+        result = 31 * result + Objects.hashCode(fieldGraph);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        final String name = entityGraph == null ? fieldGraph.entityClass().getSimpleName() : entityGraph.getName();
+        return type.name().toLowerCase() + " graph " + name;
+    }
+
+}
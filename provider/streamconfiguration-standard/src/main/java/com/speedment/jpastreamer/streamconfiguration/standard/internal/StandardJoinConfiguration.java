@@ -16,16 +16,24 @@ import com.speedment.jpastreamer.field.Field;
 import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
 import jakarta.persistence.criteria.JoinType;
 
+import java.util.OptionalInt;
+
 import static java.util.Objects.requireNonNull;
 
 final class StandardJoinConfiguration<T> implements StreamConfiguration.JoinConfiguration<T> {
 
     private final Field<T> field;
     private final JoinType joinType;
+    private final int batchSize;
 
     StandardJoinConfiguration(final Field<T> field, final JoinType joinType) {
+        this(field, joinType, 0);
+    }
+
+    StandardJoinConfiguration(final Field<T> field, final JoinType joinType, final int batchSize) {
         this.field = requireNonNull(field);
         this.joinType = requireNonNull(joinType);
+        this.batchSize = batchSize;
     }
 
     @Override
@@ -38,6 +46,16 @@ final class StandardJoinConfiguration<T> implements StreamConfiguration.JoinConf
         return joinType;
     }
 
+    @Override
+    public StreamConfiguration.JoinStrategy strategy() {
+        return batchSize == 0 ? StreamConfiguration.JoinStrategy.FETCH_JOIN : StreamConfiguration.JoinStrategy.BATCH_FETCH;
+    }
+
+    @Override
+    public OptionalInt batchSize() {
+        return batchSize == 0 ? OptionalInt.empty() : OptionalInt.of(batchSize);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -46,6 +64,7 @@ final class StandardJoinConfiguration<T> implements StreamConfiguration.JoinConf
         StandardJoinConfiguration<?> that = (StandardJoinConfiguration<?>) o;
 
         if (!field.equals(that.field)) return false;
+        if (batchSize != that.batchSize) return false;
         return joinType == that.joinType;
     }
 
@@ -53,12 +72,14 @@ final class StandardJoinConfiguration<T> implements StreamConfiguration.JoinConf
     public int hashCode() {
         int result = field.hashCode();
         result = 31 * result + joinType.hashCode();
+        result = 31 * result + batchSize;
         return result;
     }
 
     @Override
     public String toString() {
-        return label(joinType) + " on " + field.columnName();
+        final String batchText = batchSize == 0 ? "" : " in batches of " + batchSize;
+        return label(joinType) + " on " + field.columnName() + batchText;
     }
 
     private static String label(final JoinType joinType) {
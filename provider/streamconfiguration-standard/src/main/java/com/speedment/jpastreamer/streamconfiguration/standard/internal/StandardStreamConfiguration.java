@@ -16,14 +16,20 @@ import static java.util.Objects.requireNonNull;
 
 import com.speedment.jpastreamer.field.Field;
 import com.speedment.jpastreamer.projection.Projection;
+import com.speedment.jpastreamer.streamconfiguration.CheckpointStore;
+import com.speedment.jpastreamer.streamconfiguration.FieldGraph;
 import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+import jakarta.persistence.EntityGraph;
 import jakarta.persistence.criteria.JoinType;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalInt;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -33,19 +39,37 @@ public final class StandardStreamConfiguration<T> implements StreamConfiguration
     private final Projection<T> projection;
     private final Set<JoinConfiguration<T>> joinConfigurations;
     private final Map<String, Object> queryHints;
+    private final int spillThreshold;
+    private final GraphConfiguration<T> graph;
+    private final boolean stateless;
+    private final CheckpointConfiguration checkpointing;
+    private final Duration snapshot;
+    private final int coalescing;
 
     public StandardStreamConfiguration(final Class<T> entityClass) {
         this.entityClass = requireNonNull(entityClass);
         this.projection = null;
         this.joinConfigurations = Collections.emptySet();
         this.queryHints = Collections.emptyMap();
+        this.spillThreshold = 0;
+        this.graph = null;
+        this.stateless = false;
+        this.checkpointing = null;
+        this.snapshot = null;
+        this.coalescing = 0;
     }
 
-    private StandardStreamConfiguration(final Class<T> entityClass, Projection<T> projection, final Set<JoinConfiguration<T>> joinConfigurations, final Map<String, Object> queryHints) {
+    private StandardStreamConfiguration(final Class<T> entityClass, Projection<T> projection, final Set<JoinConfiguration<T>> joinConfigurations, final Map<String, Object> queryHints, final int spillThreshold, final GraphConfiguration<T> graph, final boolean stateless, final CheckpointConfiguration checkpointing, final Duration snapshot, final int coalescing) {
         this.entityClass = entityClass;
         this.projection = projection;
         this.joinConfigurations = new HashSet<>(joinConfigurations);
         this.queryHints = new HashMap<>(queryHints);
+        this.spillThreshold = spillThreshold;
+        this.graph = graph;
+        this.stateless = stateless;
+        this.checkpointing = checkpointing;
+        this.snapshot = snapshot;
+        this.coalescing = coalescing;
     }
 
     @Override
@@ -64,7 +88,18 @@ public final class StandardStreamConfiguration<T> implements StreamConfiguration
         requireNonNull(joinType);
         final Set<JoinConfiguration<T>> newJoins = new HashSet<>(joinConfigurations);
         newJoins.add(new StandardJoinConfiguration<>(field, joinType));
-        return new StandardStreamConfiguration<>(entityClass, projection, newJoins, queryHints);
+        return new StandardStreamConfiguration<>(entityClass, projection, newJoins, queryHints, spillThreshold, graph, stateless, checkpointing, snapshot, coalescing);
+    }
+
+    @Override
+    public StreamConfiguration<T> joiningInBatches(final Field<T> field, final int batchSize) {
+        requireNonNull(field);
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("The batch size must be positive: " + batchSize);
+        }
+        final Set<JoinConfiguration<T>> newJoins = new HashSet<>(joinConfigurations);
+        newJoins.add(new StandardJoinConfiguration<>(field, JoinType.LEFT, batchSize));
+        return new StandardStreamConfiguration<>(entityClass, projection, newJoins, queryHints, spillThreshold, graph, stateless, checkpointing, snapshot, coalescing);
     }
 
     @Override
@@ -75,7 +110,7 @@ public final class StandardStreamConfiguration<T> implements StreamConfiguration
     @Override
     public StreamConfiguration<T> selecting(Projection<T> projection) {
         requireNonNull(projection);
-        return new StandardStreamConfiguration<>(entityClass, projection, joinConfigurations, queryHints);
+        return new StandardStreamConfiguration<>(entityClass, projection, joinConfigurations, queryHints, spillThreshold, graph, stateless, checkpointing, snapshot, coalescing);
     }
 
     @Override
@@ -89,7 +124,97 @@ public final class StandardStreamConfiguration<T> implements StreamConfiguration
         requireNonNull(value);
         final HashMap<String, Object> newHints = new HashMap<>(queryHints);
         newHints.put(hintName, value);
-        return new StandardStreamConfiguration<>(entityClass, projection, joinConfigurations, newHints);
+        return new StandardStreamConfiguration<>(entityClass, projection, joinConfigurations, newHints, spillThreshold, graph, stateless, checkpointing, snapshot, coalescing);
+    }
+
+    @Override
+    public OptionalInt spillThreshold() {
+        return spillThreshold == 0 ? OptionalInt.empty() : OptionalInt.of(spillThreshold);
+    }
+
+    @Override
+    public StreamConfiguration<T> withSpillThreshold(int maxElementsInMemory) {
+        if (maxElementsInMemory <= 0) {
+            throw new IllegalArgumentException("The spill threshold must be positive: " + maxElementsInMemory);
+        }
+        return new StandardStreamConfiguration<>(entityClass, projection, joinConfigurations, queryHints, maxElementsInMemory, graph, stateless, checkpointing, snapshot, coalescing);
+    }
+
+    @Override
+    public Optional<GraphConfiguration<T>> graph() {
+        return Optional.ofNullable(graph);
+    }
+
+    @Override
+    public StreamConfiguration<T> withFetchGraph(final EntityGraph<?> entityGraph) {
+        return withGraph(new StandardGraphConfiguration<>(GraphType.FETCH, entityGraph));
+    }
+
+    @Override
+    public StreamConfiguration<T> withFetchGraph(final FieldGraph<T> fieldGraph) {
+        return withGraph(new StandardGraphConfiguration<>(GraphType.FETCH, fieldGraph));
+    }
+
+    @Override
+    public StreamConfiguration<T> withLoadGraph(final EntityGraph<?> entityGraph) {
+        return withGraph(new StandardGraphConfiguration<>(GraphType.LOAD, entityGraph));
+    }
+
+    @Override
+    public StreamConfiguration<T> withLoadGraph(final FieldGraph<T> fieldGraph) {
+        return withGraph(new StandardGraphConfiguration<>(GraphType.LOAD, fieldGraph));
+    }
+
+    @Override
+    public boolean isStateless() {
+        return stateless;
+    }
+
+    @Override
+    public StreamConfiguration<T> stateless() {
+        return new StandardStreamConfiguration<>(entityClass, projection, joinConfigurations, queryHints, spillThreshold, graph, true, checkpointing, snapshot, coalescing);
+    }
+
+    @Override
+    public Optional<CheckpointConfiguration> checkpointing() {
+        return Optional.ofNullable(checkpointing);
+    }
+
+    @Override
+    public StreamConfiguration<T> checkpointing(final CheckpointStore store, final int interval) {
+        final CheckpointConfiguration checkpointing = new StandardCheckpointConfiguration(store, interval);
+        return new StandardStreamConfiguration<>(entityClass, projection, joinConfigurations, queryHints, spillThreshold, graph, stateless, checkpointing, snapshot, coalescing);
+    }
+
+    @Override
+    public Optional<Duration> snapshot() {
+        return Optional.ofNullable(snapshot);
+    }
+
+    @Override
+    public StreamConfiguration<T> withSnapshot(final Duration refreshInterval) {
+        requireNonNull(refreshInterval);
+        if (refreshInterval.isNegative() || refreshInterval.isZero()) {
+            throw new IllegalArgumentException("The snapshot refresh interval must be positive: " + refreshInterval);
+        }
+        return new StandardStreamConfiguration<>(entityClass, projection, joinConfigurations, queryHints, spillThreshold, graph, stateless, checkpointing, refreshInterval, coalescing);
+    }
+
+    @Override
+    public OptionalInt coalescing() {
+        return coalescing == 0 ? OptionalInt.empty() : OptionalInt.of(coalescing);
+    }
+
+    @Override
+    public StreamConfiguration<T> withCoalescing(final int maxResults) {
+        if (maxResults <= 0) {
+            throw new IllegalArgumentException("The maximum number of coalesced results must be positive: " + maxResults);
+        }
+        return new StandardStreamConfiguration<>(entityClass, projection, joinConfigurations, queryHints, spillThreshold, graph, stateless, checkpointing, snapshot, maxResults);
+    }
+
+    private StreamConfiguration<T> withGraph(final GraphConfiguration<T> graph) {
+        return new StandardStreamConfiguration<>(entityClass, projection, joinConfigurations, queryHints, spillThreshold, graph, stateless, checkpointing, snapshot, coalescing);
     }
 
     @Override
@@ -100,6 +225,12 @@ public final class StandardStreamConfiguration<T> implements StreamConfiguration
         final StandardStreamConfiguration<?> that = (StandardStreamConfiguration<?>) o;
 
         if (!entityClass.equals(that.entityClass)) return false;
+        if (spillThreshold != that.spillThreshold) return false;
+        if (!Objects.equals(graph, that.graph)) return false;
+        if (stateless != that.stateless) return false;
+        if (!Objects.equals(checkpointing, that.checkpointing)) return false;
+        if (!Objects.equals(snapshot, that.snapshot)) return false;
+        if (coalescing != that.coalescing) return false;
         return joinConfigurations.equals(that.joinConfigurations);
     }
 
@@ -107,6 +238,12 @@ public final class StandardStreamConfiguration<T> implements StreamConfiguration
     public int hashCode() {
         int result = entityClass.hashCode();
         result = 31 * result + joinConfigurations.hashCode();
+        result = 31 * result + spillThreshold;
+        result = 31 * result + Objects.hashCode(graph);
+        result = 31 * result + (stateless ? 1 : 0);
+        result = 31 * result + Objects.hashCode(checkpointing);
+        result = 31 * result + Objects.hashCode(snapshot);
+        result = 31 * result + coalescing;
         return result;
     }
 
@@ -120,9 +257,16 @@ public final class StandardStreamConfiguration<T> implements StreamConfiguration
                 .sorted()
                 .collect(Collectors.joining(", "));
 
+        final String graphText = graph == null ? "" : " with " + graph;
+
         return "StandardStreamConfiguration{" +
                 "of " + entityClass.getSimpleName() +
                 joinText +
+                graphText +
+                (stateless ? " stateless" : "") +
+                (checkpointing == null ? "" : " " + checkpointing) +
+                (snapshot == null ? "" : " from snapshot refreshed every " + snapshot) +
+                (coalescing == 0 ? "" : " coalescing up to " + coalescing + " results") +
                 '}';
     }
 }
@@ -13,12 +13,19 @@
 package com.speedment.jpastreamer.streamconfiguration.standard.internal;
 
 import com.speedment.jpastreamer.field.Field;
+import com.speedment.jpastreamer.streamconfiguration.CheckpointStore;
+import com.speedment.jpastreamer.streamconfiguration.FieldGraph;
 import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
 import jakarta.persistence.criteria.JoinType;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -52,6 +59,106 @@ final class StandardStreamConfigurationTest {
         assertNotSame(j1, j2);
     }
 
+    @Test
+    void joinsInBatches() {
+        final StreamConfiguration<Film> batched = initial.joiningInBatches(Film$.title, 50);
+        final StreamConfiguration.JoinConfiguration<Film> join = batched.joins().iterator().next();
+        assertEquals(StreamConfiguration.JoinStrategy.BATCH_FETCH, join.strategy());
+        assertEquals(50, join.batchSize().getAsInt());
+        assertEquals(JoinType.LEFT, join.joinType());
+        assertNotEquals(initial.joining(Film$.title), batched);
+        assertEquals(StreamConfiguration.JoinStrategy.FETCH_JOIN, initial.joining(Film$.title).joins().iterator().next().strategy());
+        assertFalse(initial.joining(Film$.title).joins().iterator().next().batchSize().isPresent());
+        assertThrows(IllegalArgumentException.class, () -> initial.joiningInBatches(Film$.title, 0));
+    }
+
+    @Test
+    void graph() {
+        assertFalse(initial.graph().isPresent());
+        final StreamConfiguration<Film> fetching = initial.withFetchGraph(FieldGraph.of(Film$.title, Film$.length));
+        final StreamConfiguration.GraphConfiguration<Film> graph = fetching.graph().orElseThrow(NoSuchElementException::new);
+        assertEquals(StreamConfiguration.GraphType.FETCH, graph.type());
+        assertEquals("jakarta.persistence.fetchgraph", graph.type().hintName());
+        assertFalse(graph.entityGraph().isPresent());
+        assertEquals(FieldGraph.of(Film$.title, Film$.length), graph.fieldGraph().orElseThrow(NoSuchElementException::new));
+        assertEquals(initial.withFetchGraph(FieldGraph.of(Film$.title, Film$.length)), fetching);
+        assertEquals(initial.withFetchGraph(FieldGraph.of(Film$.title, Film$.length)).hashCode(), fetching.hashCode());
+        assertNotEquals(initial.withLoadGraph(FieldGraph.of(Film$.title, Film$.length)), fetching);
+        assertNotEquals(initial, fetching);
+    }
+
+    @Test
+    void spillThreshold() {
+        assertFalse(initial.spillThreshold().isPresent());
+        final StreamConfiguration<Film> spilling = initial.joining(Film$.title).withSpillThreshold(100);
+        assertEquals(100, spilling.spillThreshold().getAsInt());
+        assertEquals(initial.joining(Film$.title).joins(), spilling.joins());
+        assertNotEquals(initial.joining(Film$.title), spilling);
+        assertThrows(IllegalArgumentException.class, () -> initial.withSpillThreshold(0));
+    }
+
+    @Test
+    void stateless() {
+        assertFalse(initial.isStateless());
+        final StreamConfiguration<Film> stateless = initial.joining(Film$.title).stateless();
+        assertTrue(stateless.isStateless());
+        assertTrue(stateless.withHint("jakarta.persistence.query.timeout", 100).isStateless());
+        assertEquals(initial.joining(Film$.title).joins(), stateless.joins());
+        assertNotEquals(initial.joining(Film$.title), stateless);
+        assertEquals(initial.stateless(), initial.stateless());
+    }
+
+    @Test
+    void checkpointing(@TempDir final Path directory) {
+        assertFalse(initial.checkpointing().isPresent());
+        final CheckpointStore store = CheckpointStore.ofFile(directory.resolve("film.checkpoint"));
+        final StreamConfiguration<Film> checkpointed = initial.checkpointing(store, 1_000);
+        assertEquals(store, checkpointed.checkpointing().map(StreamConfiguration.CheckpointConfiguration::store).orElseThrow(NoSuchElementException::new));
+        assertEquals(1_000, checkpointed.checkpointing().map(StreamConfiguration.CheckpointConfiguration::interval).orElseThrow(NoSuchElementException::new));
+        assertTrue(checkpointed.stateless().checkpointing().isPresent());
+        assertNotEquals(initial, checkpointed);
+        assertEquals(initial.checkpointing(store, 1_000), checkpointed);
+        assertThrows(IllegalArgumentException.class, () -> initial.checkpointing(store, 0));
+        assertThrows(NullPointerException.class, () -> initial.checkpointing(null, 1_000));
+    }
+
+    @Test
+    void snapshot() {
+        assertFalse(initial.snapshot().isPresent());
+        final StreamConfiguration<Film> snapshot = initial.joining(Film$.title).withSnapshot(Duration.ofMinutes(5));
+        assertEquals(Duration.ofMinutes(5), snapshot.snapshot().orElseThrow(NoSuchElementException::new));
+        assertEquals(initial.joining(Film$.title).joins(), snapshot.joins());
+        assertTrue(snapshot.withHint("jakarta.persistence.query.timeout", 100).snapshot().isPresent());
+        assertNotEquals(initial.joining(Film$.title), snapshot);
+        assertEquals(initial.withSnapshot(Duration.ofMinutes(5)), initial.withSnapshot(Duration.ofMinutes(5)));
+        assertThrows(IllegalArgumentException.class, () -> initial.withSnapshot(Duration.ZERO));
+        assertThrows(NullPointerException.class, () -> initial.withSnapshot(null));
+    }
+
+    @Test
+    void coalescing() {
+        assertFalse(initial.coalescing().isPresent());
+        final StreamConfiguration<Film> coalescing = initial.stateless().withCoalescing(1000);
+        assertEquals(1000, coalescing.coalescing().orElseThrow(NoSuchElementException::new));
+        assertTrue(coalescing.isStateless());
+        assertTrue(coalescing.withHint("jakarta.persistence.query.timeout", 100).coalescing().isPresent());
+        assertNotEquals(initial.stateless(), coalescing);
+        assertEquals(initial.withCoalescing(10), initial.withCoalescing(10));
+        assertThrows(IllegalArgumentException.class, () -> initial.withCoalescing(0));
+    }
+
+    @Test
+    void fileCheckpointStore(@TempDir final Path directory) {
+        final CheckpointStore store = CheckpointStore.ofFile(directory.resolve("film.checkpoint"));
+        assertFalse(store.load().isPresent());
+        store.save(Arrays.asList("PG", 42));
+        store.save(Arrays.asList("R", 7));
+        assertEquals(Arrays.asList("R", 7), store.load().orElseThrow(NoSuchElementException::new));
+        assertEquals(Arrays.asList("R", 7), CheckpointStore.ofFile(directory.resolve("film.checkpoint")).load().orElseThrow(NoSuchElementException::new));
+        store.clear();
+        assertFalse(store.load().isPresent());
+    }
+
     @Test
     void testEquals() {
         final StreamConfiguration<Film> first = initial.joining(Film$.title).joining(Film$.length);
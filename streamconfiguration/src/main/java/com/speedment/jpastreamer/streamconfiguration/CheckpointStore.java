@@ -0,0 +1,69 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.streamconfiguration;
+
+import com.speedment.jpastreamer.streamconfiguration.internal.InternalFileCheckpointStore;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A {@code CheckpointStore} durably holds the position of a checkpointed
+ * Stream, i.e. the values of the sort keys of the last element that was
+ * processed, so that an interrupted Stream can be resumed from there.
+ *
+ * @see StreamConfiguration#checkpointing(CheckpointStore, int)
+ * @since 3.0.1
+ */
+public interface CheckpointStore {
+
+    /**
+     * Returns the last saved sort key values or {@link Optional#empty()}
+     * if there is no checkpoint.
+     *
+     * @return the last saved sort key values
+     */
+    Optional<List<Object>> load();
+
+    /**
+     * Durably saves the provided sort key values, replacing any previous
+     * checkpoint.
+     *
+     * @param keys the sort key values of the last processed element
+     */
+    void save(List<Object> keys);
+
+    /**
+     * Removes the checkpoint, which is done once a Stream has been
+     * completely consumed.
+     */
+    void clear();
+
+    /**
+     * Creates and returns a new CheckpointStore that keeps the checkpoint
+     * in the file with the provided {@code path}.
+     * <p>
+     * A checkpoint is written to a temporary file which then atomically
+     * replaces the previous checkpoint, so that a failure while saving
+     * leaves the previous checkpoint intact. The sort key values must
+     * be {@link java.io.Serializable}.
+     *
+     * @param path of the checkpoint file
+     * @return a new CheckpointStore that keeps the checkpoint
+     *         in the file with the provided {@code path}
+     */
+    static CheckpointStore ofFile(final Path path) {
+        return new InternalFileCheckpointStore(path);
+    }
+}
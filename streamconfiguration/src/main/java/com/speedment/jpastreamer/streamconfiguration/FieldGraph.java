@@ -0,0 +1,89 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.streamconfiguration;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.field.Field;
+import com.speedment.jpastreamer.streamconfiguration.internal.InternalFieldGraph;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The {@code FieldGraph} class represents an entity graph that is expressed
+ * by {@link Field Fields}. A FieldGraph can be passed to
+ * {@link StreamConfiguration#withFetchGraph(FieldGraph)} or
+ * {@link StreamConfiguration#withLoadGraph(FieldGraph)} to control which
+ * attributes are loaded for the elements of a Stream.
+ * <p>
+ * Instances are guaranteed to be immutable and
+ * therefore inherently thread-safe.
+ *
+ * @param <ENTITY> the entity type
+ * @since 3.0.1
+ */
+public interface FieldGraph<ENTITY> {
+
+    /**
+     * Returns the entity class that the graph is applied to.
+     *
+     * @return the entity class that the graph is applied to
+     */
+    Class<ENTITY> entityClass();
+
+    /**
+     * Returns the fields that are part of this graph.
+     *
+     * @return the fields that are part of this graph
+     */
+    Set<Field<ENTITY>> fields();
+
+    /**
+     * Returns the subgraphs of the fields that reference other entities,
+     * keyed by those fields.
+     *
+     * @return the subgraphs of the fields that reference other entities
+     */
+    Map<Field<ENTITY>, FieldGraph<?>> subgraphs();
+
+    /**
+     * Creates and returns a new FieldGraph that also includes the provided
+     * {@code field} and loads the entities it references according to
+     * the provided {@code subgraph}.
+     *
+     * @param field that references other entities
+     * @param subgraph to apply to the referenced entities
+     * @return a new FieldGraph that also includes the provided
+     * {@code field} with the provided {@code subgraph}
+     */
+    FieldGraph<ENTITY> with(Field<ENTITY> field, FieldGraph<?> subgraph);
+
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    static <ENTITY> FieldGraph<ENTITY> of(final Field<ENTITY> first, final Field<ENTITY>... other) {
+        requireNonNull(first);
+
+        final Set<Field<ENTITY>> fields = new LinkedHashSet<>();
+
+        fields.add(first);
+
+        if (other != null) {
+            Collections.addAll(fields, other);
+        }
+
+        return new InternalFieldGraph<>(first.table(), fields, Collections.emptyMap());
+    }
+}
@@ -16,10 +16,13 @@ import com.speedment.jpastreamer.field.Field;
 import com.speedment.jpastreamer.projection.Projection;
 import com.speedment.jpastreamer.rootfactory.RootFactory;
 
+import jakarta.persistence.EntityGraph;
 import jakarta.persistence.criteria.JoinType;
 
+import java.time.Duration;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalInt;
 import java.util.ServiceLoader;
 import java.util.Set;
 
@@ -94,6 +97,33 @@ public interface StreamConfiguration<T> {
      */
     StreamConfiguration<T> joining(final Field<T> field, final JoinType joinType);
 
+    /**
+     * Creates and returns a new StreamConfiguration configured with
+     * the provided {@code field} so that it will be loaded in batches
+     * of the provided {@code batchSize} elements when producing elements
+     * in the future Stream.
+     * <p>
+     * Rather than joining the field into the query of the Stream, the
+     * elements are first read without it. For each batch of elements, the
+     * field is then loaded by a single secondary query restricted to the
+     * identifiers of that batch. Hence, joining several collection-valued
+     * fields does not multiply the number of rows that are read and
+     * elements never appear more than once in the Stream.
+     * <p>
+     * Entities without a single {@code @Id} attribute are joined
+     * as if by {@link #joining(Field)}.
+     *
+     * @param field to join
+     * @param batchSize the number of elements to load the field for at a time
+     * @return a new StreamConfiguration configured with
+     * the provided {@code field} so that it will be loaded in batches
+     * of the provided {@code batchSize} elements
+     * @throws IllegalArgumentException if the provided {@code batchSize}
+     * is not positive
+     * @since 3.0.1
+     */
+    StreamConfiguration<T> joiningInBatches(final Field<T> field, final int batchSize);
+
     /**
      * Returns the projected columns to use when creating entities or
      * {@link Optional#empty()} if no projection should be used.
@@ -153,6 +183,277 @@ public interface StreamConfiguration<T> {
      */
     StreamConfiguration<T> withHint(final String hintName, final Object value);
 
+    /**
+     * Returns the entity graph that controls which attributes are loaded
+     * for elements in a future Stream or {@link Optional#empty()} if
+     * the mappings of the entity shall be used.
+     *
+     * @return the entity graph that controls which attributes are loaded
+     * for elements in a future Stream
+     * @since 3.0.1
+     */
+    Optional<GraphConfiguration<T>> graph();
+
+    /**
+     * Creates and returns a new StreamConfiguration that loads the
+     * attributes of the provided {@code entityGraph} eagerly and all other
+     * attributes lazily when producing elements in the future Stream.
+     * <p>
+     * Contrary to {@link #joining(Field)}, entity graphs do not affect the
+     * rows selected by the query and hence combine freely with
+     * {@code distinct()}, {@code skip()} and {@code limit()}.
+     *
+     * @param entityGraph to apply as a fetch graph
+     * @return a new StreamConfiguration configured with
+     * the provided {@code entityGraph} as a fetch graph
+     * @since 3.0.1
+     */
+    StreamConfiguration<T> withFetchGraph(final EntityGraph<?> entityGraph);
+
+    /**
+     * Creates and returns a new StreamConfiguration that loads the
+     * attributes of the provided {@code fieldGraph} eagerly and all other
+     * attributes lazily when producing elements in the future Stream.
+     *
+     * @param fieldGraph to apply as a fetch graph
+     * @return a new StreamConfiguration configured with
+     * the provided {@code fieldGraph} as a fetch graph
+     * @since 3.0.1
+     * @see #withFetchGraph(EntityGraph)
+     */
+    StreamConfiguration<T> withFetchGraph(final FieldGraph<T> fieldGraph);
+
+    /**
+     * Creates and returns a new StreamConfiguration that loads the
+     * attributes of the provided {@code entityGraph} eagerly and all other
+     * attributes according to their mappings when producing elements in
+     * the future Stream.
+     *
+     * @param entityGraph to apply as a load graph
+     * @return a new StreamConfiguration configured with
+     * the provided {@code entityGraph} as a load graph
+     * @since 3.0.1
+     * @see #withFetchGraph(EntityGraph)
+     */
+    StreamConfiguration<T> withLoadGraph(final EntityGraph<?> entityGraph);
+
+    /**
+     * Creates and returns a new StreamConfiguration that loads the
+     * attributes of the provided {@code fieldGraph} eagerly and all other
+     * attributes according to their mappings when producing elements in
+     * the future Stream.
+     *
+     * @param fieldGraph to apply as a load graph
+     * @return a new StreamConfiguration configured with
+     * the provided {@code fieldGraph} as a load graph
+     * @since 3.0.1
+     * @see #withFetchGraph(EntityGraph)
+     */
+    StreamConfiguration<T> withLoadGraph(final FieldGraph<T> fieldGraph);
+
+    /**
+     * Returns the maximum number of elements that residual {@code sorted()}
+     * and {@code distinct()} operations hold in memory before spilling
+     * to temporary files or {@link OptionalInt#empty()} if such operations
+     * shall hold all elements in memory.
+     *
+     * @return the maximum number of elements that residual {@code sorted()}
+     * and {@code distinct()} operations hold in memory
+     */
+    OptionalInt spillThreshold();
+
+    /**
+     * Creates and returns a new StreamConfiguration that lets residual
+     * {@code sorted()} and {@code distinct()} operations, i.e. operations
+     * that cannot be expressed in the query, hold at most the provided
+     * number of elements in memory. Beyond that, elements are spilled to
+     * temporary files that are merged lazily. This also applies to residual
+     * {@code sorted(comparator).limit(n)} operations where {@code n} exceeds
+     * the provided number.
+     * <p>
+     * Spilled elements are read back as copies. Hence, spilled entities are
+     * detached from the persistence context. Entities selected by
+     * {@link #selecting(Projection)} and Tuples of a projection are spilled
+     * column by column whereby their columns must be
+     * {@link java.io.Serializable}; other elements must be
+     * {@link java.io.Serializable} themselves.
+     * <p>
+     * A spilling {@code distinct()} compares elements by {@code equals()} and
+     * {@code hashCode()}. Elements that do not override {@code equals()} are
+     * never spilled but held in memory, regardless of this threshold.
+     *
+     * @param maxElementsInMemory the maximum number of elements to hold in memory
+     * @return a new StreamConfiguration configured with
+     * the provided {@code maxElementsInMemory}
+     * @throws IllegalArgumentException if the provided {@code maxElementsInMemory}
+     * is not positive
+     */
+    StreamConfiguration<T> withSpillThreshold(final int maxElementsInMemory);
+
+    /**
+     * Returns if streams are rendered without a persistence context.
+     *
+     * @return if streams are rendered without a persistence context
+     * @since 3.0.1
+     */
+    boolean isStateless();
+
+    /**
+     * Creates and returns a new StreamConfiguration that renders streams
+     * without a persistence context, e.g. through a Hibernate
+     * {@code StatelessSession}. Streamed entities are detached and are
+     * neither dirty checked nor cached, which makes bulk scans of many
+     * rows considerably cheaper.
+     * <p>
+     * As there is no persistence context, associations of the streamed
+     * entities cannot be loaded lazily. Associations that are needed must
+     * be fetched by {@link #joining(Field) joins} or graphs, where joins
+     * in batches are rendered as ordinary fetch joins. If the persistence
+     * provider has no stateless mode, each entity is detached from the
+     * persistence context as it is streamed.
+     *
+     * @return a new StreamConfiguration that renders streams without a
+     * persistence context
+     * @since 3.0.1
+     */
+    StreamConfiguration<T> stateless();
+
+    /**
+     * Returns the {@link CheckpointConfiguration} of streams or
+     * {@link Optional#empty()} if streams are not checkpointed.
+     *
+     * @return the {@link CheckpointConfiguration} of streams
+     * @since 3.0.1
+     */
+    Optional<CheckpointConfiguration> checkpointing();
+
+    /**
+     * Creates and returns a new StreamConfiguration that saves the position
+     * of the Stream to the provided {@code store} every {@code interval}
+     * processed elements and that resumes from the last saved position, so
+     * that a Stream that fails midway only repeats the elements since the
+     * last checkpoint.
+     * <p>
+     * The query is ordered by the sort keys of the Stream, followed by the
+     * identifier of the entity as a unique tiebreaker. A position consists
+     * of the values of these keys and the Stream resumes through a keyset
+     * predicate, i.e. it is restricted to the elements that are ordered
+     * after the last saved position. The checkpoint is cleared once the
+     * Stream has been completely consumed.
+     * <p>
+     * Checkpointing requires a Stream of entities whose sort keys are
+     * non-null attributes of the entity and that neither skips nor limits
+     * elements in the query. An element counts as processed once the
+     * downstream operations have accepted it, so a Stream with
+     * {@code sorted()}, {@code distinct()} or top-k operations that cannot
+     * be rendered to the query, e.g. {@code sorted()} with a comparator
+     * that is not a field comparator, is rejected when it is rendered.
+     *
+     * @param store to save positions to and resume from
+     * @param interval the number of processed elements between checkpoints
+     * @return a new StreamConfiguration that checkpoints streams
+     * @throws IllegalArgumentException if the provided {@code interval}
+     * is not positive
+     * @since 3.0.1
+     */
+    StreamConfiguration<T> checkpointing(final CheckpointStore store, final int interval);
+
+    /**
+     * Returns the interval at which the in-memory snapshot that serves
+     * streams is refreshed or {@link Optional#empty()} if streams are
+     * served by the database.
+     *
+     * @return the interval at which the in-memory snapshot that serves
+     * streams is refreshed
+     * @since 3.0.1
+     */
+    Optional<Duration> snapshot();
+
+    /**
+     * Creates and returns a new StreamConfiguration whose streams are served
+     * by an in-memory snapshot of all entities instead of by the database.
+     * The whole pipeline, including filters, sorts, skips and limits, is
+     * then evaluated in memory.
+     * <p>
+     * The snapshot is loaded when it is first needed and is reloaded once
+     * it is older than the provided {@code refreshInterval}. While it is
+     * reloaded, concurrent streams are served by the previous snapshot.
+     * Snapshots are intended for small tables that change slowly, such as
+     * reference data, and are shared by all streams of the persistence unit
+     * with the same entity, joins and graph.
+     * <p>
+     * The snapshotted entities are detached and shared between streams and
+     * threads. Every stream is therefore served shallow copies of them: the
+     * attributes of a streamed entity may be modified without affecting
+     * other streams, but associated entities and collections are shared by
+     * all copies and must not be modified. Modified entities are not written
+     * to the database unless they are merged. The copies are created
+     * reflectively by the no-argument constructor of the entity class, so
+     * in a modular application the package of the entity class must be
+     * {@code opens} to JPAStreamer.
+     * <p>
+     * As the entities are detached, an association that is loaded lazily
+     * cannot be initialized from a snapshot, and accessing it throws the
+     * {@code LazyInitializationException} of the persistence provider (or
+     * its equivalent). Associations that are needed must therefore be
+     * fetched by {@link #joining(Field) joins} or graphs, where joins in
+     * batches are loaded as ordinary fetch joins. Streams with a
+     * {@link #selecting(Projection) projection} or
+     * {@link #checkpointing(CheckpointStore, int) checkpoints} are always
+     * served by the database.
+     *
+     * @param refreshInterval the maximum age of the snapshot
+     * @return a new StreamConfiguration whose streams are served by an
+     * in-memory snapshot
+     * @throws IllegalArgumentException if the provided {@code refreshInterval}
+     * is not positive
+     * @since 3.0.1
+     */
+    StreamConfiguration<T> withSnapshot(final Duration refreshInterval);
+
+    /**
+     * Returns the maximum number of results that concurrent, identical
+     * streams share or {@link OptionalInt#empty()} if every stream executes
+     * its own query.
+     *
+     * @return the maximum number of results that concurrent, identical
+     * streams share
+     * @since 3.0.1
+     */
+    OptionalInt coalescing();
+
+    /**
+     * Creates and returns a new StreamConfiguration whose streams share the
+     * results of identical queries that are executed concurrently.
+     * <p>
+     * The first stream executes the query and reads its results, while
+     * streams that render the same query in the meantime wait for these
+     * results instead of executing the query again. Queries are identical if
+     * their entity, configuration, and the filters, sorts and slices that
+     * are rendered to the database, including the values they compare to,
+     * are equal. Results are not kept once they are read, so streams that
+     * start later execute the query again. If there are more than
+     * {@code maxResults} results, the first stream streams them as usual
+     * and the waiting streams execute the query themselves.
+     * <p>
+     * The shared results are used by several streams and threads, so they
+     * must not be modified. As managed entities cannot be shared between
+     * persistence contexts, only {@link #stateless() stateless} streams and
+     * streams with a {@link #selecting(Projection) projection} are
+     * coalesced. Streams with filters or sorts that cannot be compared by
+     * value, such as expressions, and
+     * {@link #checkpointing(CheckpointStore, int) checkpointed} streams are
+     * never coalesced.
+     *
+     * @param maxResults the maximum number of results to share
+     * @return a new StreamConfiguration whose streams share the results of
+     * identical concurrent queries
+     * @throws IllegalArgumentException if the provided {@code maxResults}
+     * is not positive
+     * @since 3.0.1
+     */
+    StreamConfiguration<T> withCoalescing(final int maxResults);
+
     /**
      * Creates and returns a new StreamConfiguration that can be used
      * to configure streams.
@@ -190,6 +491,131 @@ public interface StreamConfiguration<T> {
          * @return the {@link JoinType} for this JoinConfiguration
          */
         JoinType joinType();
+
+        /**
+         * Returns the {@link JoinStrategy} for this JoinConfiguration.
+         *
+         * @return the {@link JoinStrategy} for this JoinConfiguration
+         * @since 3.0.1
+         */
+        JoinStrategy strategy();
+
+        /**
+         * Returns the number of elements to load the field for at a time
+         * if the {@link #strategy()} is {@link JoinStrategy#BATCH_FETCH},
+         * or else {@link OptionalInt#empty()}.
+         *
+         * @return the number of elements to load the field for at a time
+         * @since 3.0.1
+         */
+        OptionalInt batchSize();
+    }
+
+    /**
+     * A GraphConfiguration holds either an {@link EntityGraph} or a
+     * {@link FieldGraph} together with the {@link GraphType} to apply it with.
+     *
+     * @param <T> the entity type
+     * @since 3.0.1
+     */
+    interface GraphConfiguration<T> {
+
+        /**
+         * Returns the {@link GraphType} for this GraphConfiguration.
+         *
+         * @return the {@link GraphType} for this GraphConfiguration
+         */
+        GraphType type();
+
+        /**
+         * Returns the {@link EntityGraph} for this GraphConfiguration or
+         * {@link Optional#empty()} if the graph is given by {@link #fieldGraph()}.
+         *
+         * @return the {@link EntityGraph} for this GraphConfiguration
+         */
+        Optional<EntityGraph<?>> entityGraph();
+
+        /**
+         * Returns the {@link FieldGraph} for this GraphConfiguration or
+         * {@link Optional#empty()} if the graph is given by {@link #entityGraph()}.
+         *
+         * @return the {@link FieldGraph} for this GraphConfiguration
+         */
+        Optional<FieldGraph<T>> fieldGraph();
+    }
+
+    /**
+     * A CheckpointConfiguration holds the {@link CheckpointStore} and the
+     * interval of a checkpointed Stream.
+     *
+     * @since 3.0.1
+     */
+    interface CheckpointConfiguration {
+
+        /**
+         * Returns the {@link CheckpointStore} for this CheckpointConfiguration.
+         *
+         * @return the {@link CheckpointStore} for this CheckpointConfiguration
+         */
+        CheckpointStore store();
+
+        /**
+         * Returns the number of processed elements between checkpoints.
+         *
+         * @return the number of processed elements between checkpoints
+         */
+        int interval();
+    }
+
+    /**
+     * The ways a {@link GraphConfiguration} can be applied.
+     *
+     * @since 3.0.1
+     */
+    enum GraphType {
+
+        /**
+         * Attributes outside the graph are loaded lazily.
+         */
+        FETCH("jakarta.persistence.fetchgraph"),
+
+        /**
+         * Attributes outside the graph are loaded according to their mappings.
+         */
+        LOAD("jakarta.persistence.loadgraph");
+
+        private final String hintName;
+
+        GraphType(final String hintName) {
+            this.hintName = hintName;
+        }
+
+        /**
+         * Returns the name of the query hint that applies a graph of this type.
+         *
+         * @return the name of the query hint that applies a graph of this type
+         */
+        public String hintName() {
+            return hintName;
+        }
+    }
+
+    /**
+     * The ways a {@link JoinConfiguration} can be rendered.
+     *
+     * @since 3.0.1
+     */
+    enum JoinStrategy {
+
+        /**
+         * The field is fetch joined into the query of the Stream.
+         */
+        FETCH_JOIN,
+
+        /**
+         * The field is loaded by a secondary query per batch of elements.
+         */
+        BATCH_FETCH
     }
 
 }
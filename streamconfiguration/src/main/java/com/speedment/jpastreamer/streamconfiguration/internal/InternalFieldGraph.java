@@ -0,0 +1,86 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.streamconfiguration.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.field.Field;
+import com.speedment.jpastreamer.streamconfiguration.FieldGraph;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+public final class InternalFieldGraph<ENTITY> implements FieldGraph<ENTITY> {
+
+    private final Class<ENTITY> entityClass;
+    private final Set<Field<ENTITY>> fields;
+    private final Map<Field<ENTITY>, FieldGraph<?>> subgraphs;
+
+    public InternalFieldGraph(final Class<ENTITY> entityClass, final Set<Field<ENTITY>> fields, final Map<Field<ENTITY>, FieldGraph<?>> subgraphs) {
+        this.entityClass = requireNonNull(entityClass);
+        this.fields = Collections.unmodifiableSet(new LinkedHashSet<>(fields));
+        this.subgraphs = Collections.unmodifiableMap(new LinkedHashMap<>(subgraphs));
+    }
+
+    @Override
+    public Class<ENTITY> entityClass() {
+        return entityClass;
+    }
+
+    @Override
+    public Set<Field<ENTITY>> fields() {
+        return fields;
+    }
+
+    @Override
+    public Map<Field<ENTITY>, FieldGraph<?>> subgraphs() {
+        return subgraphs;
+    }
+
+    @Override
+    public FieldGraph<ENTITY> with(final Field<ENTITY> field, final FieldGraph<?> subgraph) {
+        requireNonNull(field);
+        requireNonNull(subgraph);
+
+        final Set<Field<ENTITY>> newFields = new LinkedHashSet<>(fields);
+        newFields.add(field);
+
+        final Map<Field<ENTITY>, FieldGraph<?>> newSubgraphs = new LinkedHashMap<>(subgraphs);
+        newSubgraphs.put(field, subgraph);
+
+        return new InternalFieldGraph<>(entityClass, newFields, newSubgraphs);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        final InternalFieldGraph<?> that = (InternalFieldGraph<?>) o;
+
+        if (!entityClass.equals(that.entityClass)) return false;
+        if (!fields.equals(that.fields)) return false;
+        return subgraphs.equals(that.subgraphs);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = entityClass.hashCode();
+        result = 31 * result + fields.hashCode();
+        result = 31 * result + subgraphs.hashCode();
+        return result;
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.streamconfiguration.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.streamconfiguration.CheckpointStore;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+public final class InternalFileCheckpointStore implements CheckpointStore {
+
+    private final Path path;
+
+    public InternalFileCheckpointStore(final Path path) {
+        this.path = requireNonNull(path).toAbsolutePath();
+    }
+
+    @Override
+    public Optional<List<Object>> load() {
+        if (!Files.exists(path)) {
+            return Optional.empty();
+        }
+        try (InputStream inputStream = Files.newInputStream(path);
+             ObjectInputStream objectInputStream = new ObjectInputStream(inputStream)) {
+            final Object[] keys = (Object[]) objectInputStream.readObject();
+            return Optional.of(Collections.unmodifiableList(new ArrayList<>(Arrays.asList(keys))));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IllegalStateException("The checkpoint file " + path + " is corrupt", e);
+        }
+    }
+
+    @Override
+    public void save(final List<Object> keys) {
+        requireNonNull(keys);
+        try {
+            final Path temporary = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+            try {
+                try (FileOutputStream outputStream = new FileOutputStream(temporary.toFile());
+                     ObjectOutputStream objectOutputStream = new ObjectOutputStream(outputStream)) {
+                    objectOutputStream.writeObject(keys.toArray());
+                    objectOutputStream.flush();
+                    // The content must be on disk before the rename makes it the checkpoint
+                    outputStream.getFD().sync();
+                }
+                move(temporary);
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void clear() {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void move(final Path temporary) throws IOException {
+        try {
+            Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return path.equals(((InternalFileCheckpointStore) o).path);
+    }
+
+    @Override
+    public int hashCode() {
+        return path.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "InternalFileCheckpointStore{" +
+                "path=" + path +
+                '}';
+    }
+}